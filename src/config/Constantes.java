@@ -1,28 +1,62 @@
-package config;
-
-/**
- * Clase que contiene las constantes utilizadas en toda la aplicación.
- * Centraliza las rutas de archivos y los límites de valores.
- *
- *  @author Sergio García Rodríguez
- */
-public class Constantes {
-
-    public static final String CIUDADES_PATH = "src/datos/ficheros/ciudades.csv";
-    public static final String RANKING_PATH = "src/datos/ficheros/ranking.txt";
-    public static final String HISTORICO_PATH = "src/datos/ficheros/historico.txt";
-    public static final String JUGADORES_PATH = "src/datos/ficheros/jugadores.txt";
-    public static final String LOG_PATH = "src/datos/ficheros/logs/salida.log";
-    public static final String PROPERTIES_PATH = "src/config/configuracion.properties";
-    public static final int TAM_MIN_NOMBRE_JUGADOR = 0;
-    public static final int TAM_MAX_NOMBRE_JUGADOR = 9;
-    public static final int NUM_MIN_JUGADORES = 2;
-    public static final int NUM_MAX_JUGADORES = 4;
-    public static final int NUM_MIN_RONDAS = 1;
-    public static final int NUM_MAX_RONDAS = 10;
-    public static final int TAM_MAX_RESPUESTA = 100;
-    public static final int PUNTOS_x_RESPUESTA = 1;
-    public static final int TOTAL_ITERACIONES_MASTERMIND = 3;
-    public static final int MIN_SEGUNDOS_CRONOMETRO = 1;
-    public static final int MAX_SEGUNDOS_CRONOMETRO = 5;
+package config;
+
+/**
+ * Clase que contiene las constantes utilizadas en toda la aplicación.
+ * Centraliza las rutas de archivos y los límites de valores.
+ *
+ *  @author Sergio García Rodríguez
+ */
+public class Constantes {
+
+    // Admite tanto el CSV como un paquete binario generado con datos.geografia.PaqueteCiudades
+    public static final String CIUDADES_PATH = "src/datos/ficheros/ciudades.csv";
+    public static final String CIUDADES_PACK_PATH = "src/datos/ficheros/ciudades.pack";
+    // Foto del ranking y diario de los cambios posteriores (ver gestion.GestorRanking)
+    public static final String RANKING_PATH = "src/datos/ficheros/ranking.txt";
+    public static final String RANKING_DIARIO_PATH = "src/datos/ficheros/ranking.diario";
+    public static final String RANKING_DIARIO_COMPACTANDO_PATH = "src/datos/ficheros/ranking.diario.compactando";
+    // Puntos ganados en cada hora de la última semana, para los rankings por periodos
+    public static final String RANKING_VENTANAS_PATH = "src/datos/ficheros/ranking.ventanas";
+    public static final String HISTORICO_PATH = "src/datos/ficheros/historico.txt";
+    // Registro de cada partida jugada, una por línea (ver gestion.RegistroPartida)
+    public static final String PARTIDAS_PATH = "src/datos/ficheros/partidas.txt";
+    public static final String JUGADORES_PATH = "src/datos/ficheros/jugadores.txt";
+    // %d: cifras y símbolos de la configuración de Mastermind
+    public static final String MASTERMIND_TABLA_PATH = "src/datos/ficheros/mastermind_%d_%d.tabla";
+    public static final String LOG_PATH = "src/datos/ficheros/logs/salida.log";
+    public static final String PROPERTIES_PATH = "src/config/configuracion.properties";
+    public static final int TAM_MIN_NOMBRE_JUGADOR = 0;
+    public static final int TAM_MAX_NOMBRE_JUGADOR = 9;
+    public static final int NUM_MIN_JUGADORES = 2;
+    public static final int NUM_MAX_JUGADORES = 4;
+    public static final int NUM_MIN_RONDAS = 1;
+    public static final int NUM_MAX_RONDAS = 10;
+    public static final int TAM_MAX_RESPUESTA = 100;
+    public static final int PUNTOS_x_RESPUESTA = 1;
+    public static final int TOTAL_ITERACIONES_MASTERMIND = 3;
+    public static final int MIN_SEGUNDOS_CRONOMETRO = 1;
+    public static final int MAX_SEGUNDOS_CRONOMETRO = 5;
+    public static final int TOLERANCIA_MS_CRONOMETRO = 500;
+    // Error de reacción de la CPU si intenta acertar el cronómetro (ver LectorProperties.isCpuIntentaCronometro)
+    public static final int ERROR_MS_CPU_CRONOMETRO = 1500;
+    // Espera máxima de la CPU cuando falla el cronómetro, como la pausa fija de antes
+    public static final int MS_ESPERA_CPU_CRONOMETRO = 3000;
+    public static final int VECINOS_RESPUESTA_GEOGRAFIA = 3;
+    public static final int TAM_ANILLO_GEOGRAFIA = 64;
+    public static final int INTENTOS_PREG_MATES = 16;
+    public static final int MAX_CODIGOS_MASTERMIND = 4_000_000;
+    public static final int MUESTRA_SOLVER_MASTERMIND = 2048;
+    public static final int INTENTOS_SOLVER_MASTERMIND = 4096;
+    public static final long MAX_BYTES_TABLA_MASTERMIND = 64L << 20;
+    public static final int MAX_JUGADAS_LIBRO_MASTERMIND = 100_000;
+    public static final int MAX_CONEXIONES_SERVIDOR = 10_000;
+    public static final int TAM_BUFFER_CONEXION = 1024;
+    public static final int TAM_MAX_LINEA_CONEXION = 256;
+    public static final int MS_INACTIVIDAD_CONEXION = 300_000;
+    public static final int TAM_COLA_EVENTOS = 4096;
+    public static final int TAM_LOTE_EVENTOS = 256;
+    public static final int TAM_RESERVA_PREGUNTAS = 32;
+    // Jugadores que se muestran por delante y por detrás al consultar la posición de un jugador en el ranking
+    public static final int PUESTOS_ALREDEDOR_RANKING = 2;
+    public static final int MAX_LINEAS_DIARIO_RANKING = 50_000;
 }
\ No newline at end of file
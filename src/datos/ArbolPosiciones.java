@@ -0,0 +1,239 @@
+package datos;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Conjunto ordenado que además sabe en qué posición está cada elemento: un árbol binario de búsqueda
+ * equilibrado (treap) en el que cada nodo guarda el número de nodos de su subárbol. Con ese dato se calcula la
+ * posición de un elemento y se llega al elemento de una posición bajando una sola vez por el árbol, en
+ * O(log n) de media, igual que añadir y quitar elementos.
+ * Los elementos no deben cambiar de orden mientras estén en el árbol: para cambiar un elemento se quita, se
+ * modifica y se vuelve a añadir.
+ *
+ * @param <T> Tipo de los elementos.
+ *
+ *  @author Sergio García Rodríguez
+ */
+public class ArbolPosiciones<T> {
+
+    private static final class Nodo<T> {
+        private final T valor;
+        // Prioridad aleatoria: el árbol es un montículo por prioridad, lo que lo mantiene equilibrado
+        private final int prioridad;
+        private Nodo<T> izq, der;
+        private int tam = 1;
+
+        Nodo(T valor, int prioridad) {
+            this.valor = valor;
+            this.prioridad = prioridad;
+        }
+    }
+
+    private final Comparator<? super T> orden;
+    private final SplittableRandom prioridades = new SplittableRandom();
+    private Nodo<T> raiz;
+
+    /**
+     * Constructor.
+     * @param orden Orden de los elementos; dos elementos distintos no pueden ser iguales según este orden.
+     */
+    public ArbolPosiciones(Comparator<? super T> orden) {
+        this.orden = orden;
+    }
+
+    /**
+     * Número de elementos.
+     * @return Total de elementos.
+     */
+    public int size() {
+        return tam(raiz);
+    }
+
+    /**
+     * Añade un elemento.
+     * @param valor Elemento, que no puede estar ya en el árbol.
+     */
+    public void add(T valor) {
+        Nodo<T> nodo = new Nodo<>(valor, prioridades.nextInt());
+        // Se separan los menores y los mayores que el elemento y se une todo con el nodo nuevo en medio
+        Nodo<T>[] partes = separar(raiz, valor);
+        raiz = unir(unir(partes[0], nodo), partes[1]);
+    }
+
+    /**
+     * Quita un elemento.
+     * @param valor Elemento.
+     * @return true si estaba en el árbol.
+     */
+    public boolean remove(T valor) {
+        int antes = size();
+        raiz = quitar(raiz, valor);
+        return size() != antes;
+    }
+
+    private Nodo<T> quitar(Nodo<T> nodo, T valor) {
+        if (nodo == null) {
+            return null;
+        }
+        int c = orden.compare(valor, nodo.valor);
+        if (c == 0) {
+            return unir(nodo.izq, nodo.der);
+        }
+        if (c < 0) {
+            nodo.izq = quitar(nodo.izq, valor);
+        } else {
+            nodo.der = quitar(nodo.der, valor);
+        }
+        actualizar(nodo);
+        return nodo;
+    }
+
+    /**
+     * Posición de un elemento: número de elementos anteriores a él.
+     * @param valor Elemento.
+     * @return Posición empezando en 0, o -1 si no está en el árbol.
+     */
+    public int posicion(T valor) {
+        int anteriores = 0;
+        Nodo<T> nodo = raiz;
+        while (nodo != null) {
+            int c = orden.compare(valor, nodo.valor);
+            if (c == 0) {
+                return anteriores + tam(nodo.izq);
+            }
+            if (c < 0) {
+                nodo = nodo.izq;
+            } else {
+                anteriores += tam(nodo.izq) + 1;
+                nodo = nodo.der;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Número de elementos anteriores a un valor, esté o no en el árbol.
+     * @param valor Valor con el que comparar.
+     * @return Elementos menores que el valor.
+     */
+    public int contarMenores(T valor) {
+        int anteriores = 0;
+        Nodo<T> nodo = raiz;
+        while (nodo != null) {
+            if (orden.compare(valor, nodo.valor) <= 0) {
+                nodo = nodo.izq;
+            } else {
+                anteriores += tam(nodo.izq) + 1;
+                nodo = nodo.der;
+            }
+        }
+        return anteriores;
+    }
+
+    /**
+     * Elemento de una posición.
+     * @param pos Posición empezando en 0.
+     * @return Elemento.
+     * @throws IndexOutOfBoundsException Si la posición no existe.
+     */
+    public T get(int pos) {
+        if (pos < 0 || pos >= size()) {
+            throw new IndexOutOfBoundsException("Posición " + pos + " fuera del árbol de " + size() + " elementos");
+        }
+        Nodo<T> nodo = raiz;
+        while (true) {
+            int izq = tam(nodo.izq);
+            if (pos < izq) {
+                nodo = nodo.izq;
+            } else if (pos == izq) {
+                return nodo.valor;
+            } else {
+                pos -= izq + 1;
+                nodo = nodo.der;
+            }
+        }
+    }
+
+    /**
+     * Elementos de un rango de posiciones, en orden. Cuesta O(log n) más el número de elementos devueltos.
+     * @param desde Primera posición (incluida); se ajusta a 0 si es menor.
+     * @param hasta Última posición (excluida); se ajusta al tamaño si es mayor.
+     * @return Lista de elementos (vacía si el rango no tiene ninguno).
+     */
+    public List<T> getRango(int desde, int hasta) {
+        desde = Math.max(0, desde);
+        hasta = Math.min(size(), hasta);
+        List<T> rango = new ArrayList<>(Math.max(0, hasta - desde));
+        recorrer(raiz, 0, desde, hasta, rango);
+        return rango;
+    }
+
+    /**
+     * Recorre en orden la parte de un subárbol que cae en el rango, saltándose los subárboles que quedan fuera.
+     * @param inicio Posición del primer elemento del subárbol.
+     */
+    private void recorrer(Nodo<T> nodo, int inicio, int desde, int hasta, List<T> rango) {
+        if (nodo == null || inicio >= hasta || inicio + nodo.tam <= desde) {
+            return;
+        }
+        int pos = inicio + tam(nodo.izq);
+        recorrer(nodo.izq, inicio, desde, hasta, rango);
+        if (pos >= desde && pos < hasta) {
+            rango.add(nodo.valor);
+        }
+        recorrer(nodo.der, pos + 1, desde, hasta, rango);
+    }
+
+    /**
+     * Separa un subárbol en los elementos menores que un valor y los demás.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Nodo<T>[] separar(Nodo<T> nodo, T valor) {
+        if (nodo == null) {
+            return new Nodo[2];
+        }
+        Nodo<T>[] partes;
+        if (orden.compare(nodo.valor, valor) < 0) {
+            partes = separar(nodo.der, valor);
+            nodo.der = partes[0];
+            partes[0] = nodo;
+        } else {
+            partes = separar(nodo.izq, valor);
+            nodo.izq = partes[1];
+            partes[1] = nodo;
+        }
+        actualizar(nodo);
+        return partes;
+    }
+
+    /**
+     * Une dos subárboles, con todos los elementos del primero menores que los del segundo.
+     */
+    private Nodo<T> unir(Nodo<T> menores, Nodo<T> mayores) {
+        if (menores == null) {
+            return mayores;
+        }
+        if (mayores == null) {
+            return menores;
+        }
+        if (menores.prioridad > mayores.prioridad) {
+            menores.der = unir(menores.der, mayores);
+            actualizar(menores);
+            return menores;
+        }
+        mayores.izq = unir(menores, mayores.izq);
+        actualizar(mayores);
+        return mayores;
+    }
+
+    private static void actualizar(Nodo<?> nodo) {
+        nodo.tam = 1 + tam(nodo.izq) + tam(nodo.der);
+    }
+
+    private static int tam(Nodo<?> nodo) {
+        return nodo == null ? 0 : nodo.tam;
+    }
+}
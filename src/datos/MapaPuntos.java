@@ -0,0 +1,185 @@
+package datos;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de identificador de jugador (entero no negativo) a puntos, con direccionamiento abierto sobre dos
+ * vectores de enteros: sin objetos por entrada ni enteros envueltos. Se recorre por casillas:
+ * <pre>
+ *     for (int i = 0; i < mapa.getCapacidad(); i++) {
+ *         if (mapa.getClave(i) != MapaPuntos.VACIA) { ... mapa.getValor(i) ... }
+ *     }
+ * </pre>
+ *
+ *  @author Sergio García Rodríguez
+ */
+public class MapaPuntos {
+
+    /** Clave de una casilla sin entrada. */
+    public static final int VACIA = -1;
+
+    private int[] claves;
+    private int[] valores;
+    private int mascara;
+    private int total;
+
+    /**
+     * Constructor.
+     * @param entradasPrevistas Número de entradas para el que se reserva sitio (el mapa crece si hace falta).
+     */
+    public MapaPuntos(int entradasPrevistas) {
+        crear(Integer.highestOneBit(Math.max(4, entradasPrevistas * 2 - 1)) << 1);
+    }
+
+    private void crear(int capacidad) {
+        claves = new int[capacidad];
+        Arrays.fill(claves, VACIA);
+        valores = new int[capacidad];
+        mascara = capacidad - 1;
+        total = 0;
+    }
+
+    /**
+     * Puntos de un jugador.
+     * @param clave Identificador del jugador.
+     * @return Puntos, o 0 si no está.
+     */
+    public int get(int clave) {
+        int i = buscar(clave);
+        return claves[i] == VACIA ? 0 : valores[i];
+    }
+
+    /**
+     * Suma puntos a un jugador, añadiéndolo si no estaba.
+     * @param clave Identificador del jugador.
+     * @param puntos Puntos a sumar.
+     * @return Puntos del jugador después de sumar.
+     */
+    public int sumar(int clave, int puntos) {
+        int i = buscar(clave);
+        if (claves[i] == VACIA) {
+            return insertar(i, clave, puntos);
+        }
+        valores[i] += puntos;
+        return valores[i];
+    }
+
+    /**
+     * Pone los puntos de un jugador, añadiéndolo si no estaba.
+     * @param clave Identificador del jugador.
+     * @param puntos Puntos.
+     */
+    public void poner(int clave, int puntos) {
+        int i = buscar(clave);
+        if (claves[i] == VACIA) {
+            insertar(i, clave, puntos);
+        } else {
+            valores[i] = puntos;
+        }
+    }
+
+    private int insertar(int i, int clave, int puntos) {
+        claves[i] = clave;
+        valores[i] = puntos;
+        if (++total * 2 > claves.length) {
+            int[] antiguasClaves = claves;
+            int[] antiguosValores = valores;
+            crear(claves.length * 2);
+            for (int j = 0; j < antiguasClaves.length; j++) {
+                if (antiguasClaves[j] != VACIA) {
+                    int k = buscar(antiguasClaves[j]);
+                    claves[k] = antiguasClaves[j];
+                    valores[k] = antiguosValores[j];
+                    total++;
+                }
+            }
+        }
+        return puntos;
+    }
+
+    /**
+     * Quita un jugador.
+     * @param clave Identificador del jugador.
+     * @return true si estaba.
+     */
+    public boolean quitar(int clave) {
+        int hueco = buscar(clave);
+        if (claves[hueco] == VACIA) {
+            return false;
+        }
+        claves[hueco] = VACIA;
+        total--;
+        // Se recolocan las entradas siguientes para que ninguna búsqueda se corte en el hueco
+        int i = (hueco + 1) & mascara;
+        while (claves[i] != VACIA) {
+            int ideal = casilla(claves[i]);
+            if (((i - ideal) & mascara) >= ((i - hueco) & mascara)) {
+                claves[hueco] = claves[i];
+                valores[hueco] = valores[i];
+                claves[i] = VACIA;
+                hueco = i;
+            }
+            i = (i + 1) & mascara;
+        }
+        return true;
+    }
+
+    /**
+     * Suma todas las entradas de este mapa a otro.
+     * @param destino Mapa al que se suman los puntos.
+     */
+    public void sumarA(MapaPuntos destino) {
+        for (int i = 0; i < claves.length; i++) {
+            if (claves[i] != VACIA) {
+                destino.sumar(claves[i], valores[i]);
+            }
+        }
+    }
+
+    private int buscar(int clave) {
+        int i = casilla(clave);
+        while (claves[i] != VACIA && claves[i] != clave) {
+            i = (i + 1) & mascara;
+        }
+        return i;
+    }
+
+    private int casilla(int clave) {
+        int h = clave * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mascara;
+    }
+
+    /**
+     * Número de jugadores en el mapa.
+     * @return Total de entradas.
+     */
+    public int size() {
+        return total;
+    }
+
+    /**
+     * Número de casillas, para recorrer el mapa.
+     * @return Capacidad.
+     */
+    public int getCapacidad() {
+        return claves.length;
+    }
+
+    /**
+     * Clave de una casilla.
+     * @param i Casilla.
+     * @return Identificador del jugador, o {@link #VACIA}.
+     */
+    public int getClave(int i) {
+        return claves[i];
+    }
+
+    /**
+     * Puntos de una casilla ocupada.
+     * @param i Casilla.
+     * @return Puntos.
+     */
+    public int getValor(int i) {
+        return valores[i];
+    }
+}
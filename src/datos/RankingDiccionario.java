@@ -1,104 +1,309 @@
-package datos;
-
-import java.util.*;
-import java.util.function.Predicate;
-
-import config.Constantes;
-import config.LectorProperties;
-import presentacion.Utilidades;
-
-/**
- * Clase que gestiona un ranking de jugadores, combinando información de partida y ranking global.
- * Ofrece ordenación por puntuación y eliminación de jugadores.
- *
- *  @author Sergio García Rodríguez
- */
-public class RankingDiccionario {
-
-    private Map<String, Integer> mapRanking;
-    private List<Map.Entry<String, Integer>> listaOrdenada;
-
-    /**
-     * Constructor que se inicializa el ranking con datos de la partida actual y el ranking global.
-     * @param rankingPartida Cadena con jugadores y puntuaciones de la partida actual.
-     * @param rankingGlobal  Cadena con jugadores y puntuaciones del ranking global.
-     */
-    public RankingDiccionario(String rankingPartida, String rankingGlobal) {
-        mapRanking = new HashMap<>();
-        llenarMapRanking(rankingPartida, rankingGlobal);
-        listaOrdenada = ordenarPorPuntuacion();
-    }
-
-    /**
-     * Constructor que se inicializa solo con el ranking global.
-     * @param rankingGlobal Cadena con el ranking global.
-     */
-    public RankingDiccionario(String rankingGlobal) {
-        this("", rankingGlobal);
-    }
-
-    /**
-     * Llena el mapa de ranking combinando datos del ranking de partida y del ranking global.
-     * @param rankingPartida Cadena con puntuaciones de la partida.
-     * @param rankingGlobal  Cadena con puntuaciones globales.
-     */
-    private void llenarMapRanking(String rankingPartida, String rankingGlobal) {
-        String[] trozos = rankingGlobal.concat(" ").concat(rankingPartida).split("\\s+");
-        for (int i = 0; i < trozos.length; i += 2) {
-            mapRanking.put(trozos[i], Integer.valueOf(trozos[i + 1]));
-        }
-    }
-
-    /**
-     * Función auxiliar privado sobrecargado.
-     * @param rankingGlobal Ranking global en formato texto.
-     */
-    private void llenarMapRanking(String rankingGlobal) {
-        llenarMapRanking("", rankingGlobal);
-    }
-
-    /**
-     * Ordena el mapa por puntuación en orden descendente.
-     * @return Lista ordenada de entradas (nombre, puntuación).
-     */
-    private List<Map.Entry<String, Integer>> ordenarPorPuntuacion() {
-        List<Map.Entry<String, Integer>> rankingOrdenado = new ArrayList<>(mapRanking.entrySet());
-        rankingOrdenado.sort((a, b) -> b.getValue().compareTo(a.getValue())); // mayor a menor
-        return rankingOrdenado;
-    }
-
-    /**
-     * Devuelve una cadena con el ranking ordenado de jugadores.
-     * Solo se incluyen los primeros N jugadores, según la constante configurada.
-     * @return Texto con el ranking formateado.
-     */
-    public String getRankingOrdenado() {
-        String ranking = "";
-        for (int i = 0; i < listaOrdenada.size() && i < LectorProperties.getTamRanking(); i++) {
-            String nombre = listaOrdenada.get(i).getKey();
-
-            // Si el nombre es demasiado largo, se recorta
-            if (nombre.length() > Constantes.TAM_MAX_NOMBRE_JUGADOR) {
-                nombre = nombre.substring(0, Constantes.TAM_MAX_NOMBRE_JUGADOR);
-            }
-
-            // Se rellena para mantener el formato tabulado
-            nombre = Utilidades.rellenarConBlancos(nombre, Constantes.TAM_MAX_NOMBRE_JUGADOR);
-
-            ranking = ranking.concat(nombre + "\t" + listaOrdenada.get(i).getValue() + "\n");
-        }
-        return ranking;
-    }
-
-    /**
-     * Elimina un jugador del ranking por su nombre (ignorando mayúsculas/minúsculas).
-     * @param nombre Nombre del jugador a eliminar.
-     */
-    public void eliminarJugador(String nombre) {
-        listaOrdenada.removeIf(new Predicate<Map.Entry<String, Integer>>() {
-            public boolean test(Map.Entry<String, Integer> stringIntegerEntry) {
-                return stringIntegerEntry.getKey().equalsIgnoreCase(nombre);
-            }
-        });
-    }
-}
+package datos;
+
+import java.util.*;
+
+import config.Constantes;
+import config.LectorProperties;
+import presentacion.Utilidades;
+
+/**
+ * Clase que gestiona un ranking de jugadores, combinando información de partida y ranking global.
+ * Ofrece ordenación por puntuación y eliminación de jugadores.
+ * El ranking se mantiene ordenado en memoria: cada jugador está en un mapa por nombre (sin distinguir
+ * mayúsculas y minúsculas) y en un árbol ordenado por puntos, así que cambiar los puntos de un jugador
+ * cuesta O(log n). El texto con los primeros jugadores se guarda y solo se vuelve a crear cuando un cambio
+ * afecta a esos jugadores.
+ * El árbol ({@link ArbolPosiciones}) sabe además la posición de cada jugador, así que la posición de un
+ * jugador, los jugadores que tiene alrededor o los de un rango de posiciones se obtienen en O(log n) (más
+ * los jugadores devueltos), sin ordenar el ranking.
+ *
+ *  @author Sergio García Rodríguez
+ */
+public class RankingDiccionario {
+
+    /**
+     * Jugador del ranking con sus puntos.
+     */
+    private static final class Entrada {
+        private final String clave;
+        private String nombre;
+        private int puntos;
+
+        Entrada(String clave, String nombre, int puntos) {
+            this.clave = clave;
+            this.nombre = nombre;
+            this.puntos = puntos;
+        }
+    }
+
+    /**
+     * Puesto de un jugador en el ranking.
+     */
+    public static final class Puesto {
+        private final int posicion;
+        private final String nombre;
+        private final int puntos;
+
+        Puesto(int posicion, String nombre, int puntos) {
+            this.posicion = posicion;
+            this.nombre = nombre;
+            this.puntos = puntos;
+        }
+
+        /**
+         * Posición en el ranking, empezando en 1. A igualdad de puntos va antes el nombre menor.
+         * @return Posición.
+         */
+        public int getPosicion() {
+            return posicion;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        public int getPuntos() {
+            return puntos;
+        }
+
+        /**
+         * Posición, nombre y puntos, con el formato de las líneas del ranking.
+         * @return Texto del puesto.
+         */
+        @Override
+        public String toString() {
+            return String.format("%6d. ", posicion) + formatearLinea(nombre, puntos);
+        }
+    }
+
+    // Más puntos primero; a igualdad de puntos, por nombre
+    private static final Comparator<Entrada> ORDEN = (a, b) -> a.puntos != b.puntos
+            ? Integer.compare(b.puntos, a.puntos) : a.clave.compareTo(b.clave);
+
+    private final Map<String, Entrada> mapRanking = new HashMap<>();
+    private final ArbolPosiciones<Entrada> listaOrdenada = new ArbolPosiciones<>(ORDEN);
+
+    // Texto de los primeros jugadores, o null si hay que volver a crearlo
+    private String rankingOrdenado;
+    private int tamRankingOrdenado;
+    // Último jugador del texto guardado: los cambios que quedan por detrás de él no lo alteran
+    private Entrada ultimoDelRanking;
+
+    /**
+     * Constructor que se inicializa el ranking con datos de la partida actual y el ranking global.
+     * @param rankingPartida Cadena con jugadores y puntuaciones de la partida actual.
+     * @param rankingGlobal  Cadena con jugadores y puntuaciones del ranking global.
+     */
+    public RankingDiccionario(String rankingPartida, String rankingGlobal) {
+        ponerLista(rankingGlobal);
+        ponerLista(rankingPartida);
+    }
+
+    /**
+     * Constructor que se inicializa solo con el ranking global.
+     * @param rankingGlobal Cadena con el ranking global.
+     */
+    public RankingDiccionario(String rankingGlobal) {
+        this("", rankingGlobal);
+    }
+
+    /**
+     * Actualiza los puntos de los jugadores de una lista de jugadores y puntuaciones (nombre y puntos separados
+     * por espacios o saltos de línea, como la de {@link #getRankingOrdenado()}). Si un jugador aparece varias
+     * veces, vale su última puntuación.
+     * @param listaJugadores Cadena con jugadores y puntuaciones.
+     */
+    public void actualizar(String listaJugadores) {
+        ponerLista(listaJugadores);
+    }
+
+    /**
+     * Pone los puntos de un jugador, añadiéndolo al ranking si no estaba.
+     * @param nombre Nombre del jugador.
+     * @param puntos Puntos totales del jugador.
+     * @return true si el ranking ha cambiado (jugador nuevo, otros puntos u otra forma de escribir el nombre).
+     */
+    public boolean actualizar(String nombre, int puntos) {
+        return ponerPuntos(nombre, puntos);
+    }
+
+    /**
+     * Lógica de {@link #actualizar(String)}. Es privada para que el constructor no llame a métodos que una
+     * subclase pueda sobrescribir.
+     */
+    private void ponerLista(String listaJugadores) {
+        String[] trozos = listaJugadores.trim().split("\\s+");
+        for (int i = 0; i + 1 < trozos.length; i += 2) {
+            ponerPuntos(trozos[i], Integer.parseInt(trozos[i + 1]));
+        }
+    }
+
+    /**
+     * Lógica de {@link #actualizar(String, int)}.
+     */
+    private boolean ponerPuntos(String nombre, int puntos) {
+        String clave = nombre.toLowerCase(Locale.ROOT);
+        Entrada entrada = mapRanking.get(clave);
+        if (entrada == null) {
+            entrada = new Entrada(clave, nombre, puntos);
+            mapRanking.put(clave, entrada);
+        } else {
+            if (entrada.puntos == puntos && entrada.nombre.equals(nombre)) {
+                return false;
+            }
+            cambiaRanking(entrada);
+            listaOrdenada.remove(entrada);
+            entrada.nombre = nombre;
+            entrada.puntos = puntos;
+        }
+        listaOrdenada.add(entrada);
+        cambiaRanking(entrada);
+        return true;
+    }
+
+    /**
+     * Suma puntos a un jugador, añadiéndolo al ranking si no estaba.
+     * @param nombre Nombre del jugador.
+     * @param puntos Puntos a sumar (pueden ser negativos).
+     */
+    public void sumarPuntos(String nombre, int puntos) {
+        actualizar(nombre, getPuntos(nombre) + puntos);
+    }
+
+    /**
+     * Puntos de un jugador.
+     * @param nombre Nombre del jugador (sin distinguir mayúsculas y minúsculas).
+     * @return Puntos, o 0 si no está en el ranking.
+     */
+    public int getPuntos(String nombre) {
+        Entrada entrada = mapRanking.get(nombre.toLowerCase(Locale.ROOT));
+        return entrada == null ? 0 : entrada.puntos;
+    }
+
+    /**
+     * Indica si un jugador está en el ranking.
+     * @param nombre Nombre del jugador (sin distinguir mayúsculas y minúsculas).
+     * @return true si está.
+     */
+    public boolean contieneJugador(String nombre) {
+        return mapRanking.containsKey(nombre.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Número de jugadores en el ranking.
+     * @return Total de jugadores.
+     */
+    public int getTotalJugadores() {
+        return mapRanking.size();
+    }
+
+    /**
+     * Si el jugador está entre los del texto guardado, hay que volver a crearlo.
+     */
+    private void cambiaRanking(Entrada entrada) {
+        if (rankingOrdenado != null && (ultimoDelRanking == null || ORDEN.compare(entrada, ultimoDelRanking) <= 0)) {
+            rankingOrdenado = null;
+        }
+    }
+
+    /**
+     * Devuelve una cadena con el ranking ordenado de jugadores.
+     * Solo se incluyen los primeros N jugadores, según la constante configurada.
+     * @return Texto con el ranking formateado.
+     */
+    public String getRankingOrdenado() {
+        int tamRanking = LectorProperties.getTamRanking();
+        if (rankingOrdenado == null || tamRankingOrdenado != tamRanking) {
+            StringBuilder ranking = new StringBuilder();
+            Entrada ultimo = null;
+            for (Entrada entrada : listaOrdenada.getRango(0, tamRanking)) {
+                ultimo = entrada;
+                ranking.append(formatearLinea(entrada.nombre, entrada.puntos));
+            }
+            // Con menos jugadores que el tamaño del ranking, cualquier jugador nuevo entra en él
+            ultimoDelRanking = listaOrdenada.size() > tamRanking ? ultimo : null;
+            tamRankingOrdenado = tamRanking;
+            rankingOrdenado = ranking.toString();
+        }
+        return rankingOrdenado;
+    }
+
+    /**
+     * Línea del ranking de un jugador: nombre, tabulador y puntos.
+     */
+    private static String formatearLinea(String nombre, int puntos) {
+        // Si el nombre es demasiado largo, se recorta
+        if (nombre.length() > Constantes.TAM_MAX_NOMBRE_JUGADOR) {
+            nombre = nombre.substring(0, Constantes.TAM_MAX_NOMBRE_JUGADOR);
+        }
+
+        // Se rellena para mantener el formato tabulado
+        return Utilidades.rellenarConBlancos(nombre, Constantes.TAM_MAX_NOMBRE_JUGADOR) + "\t" + puntos + "\n";
+    }
+
+    /**
+     * Posición de un jugador en el ranking.
+     * @param nombre Nombre del jugador (sin distinguir mayúsculas y minúsculas).
+     * @return Posición empezando en 1, o 0 si no está en el ranking.
+     */
+    public int getPosicion(String nombre) {
+        Entrada entrada = mapRanking.get(nombre.toLowerCase(Locale.ROOT));
+        return entrada == null ? 0 : listaOrdenada.posicion(entrada) + 1;
+    }
+
+    /**
+     * Número de jugadores con más puntos que los indicados: quien tenga esos puntos comparte la posición
+     * siguiente con los demás empatados.
+     * @param puntos Puntos.
+     * @return Jugadores por delante.
+     */
+    public int contarPorDelante(int puntos) {
+        // Entrada que va antes que cualquier otra con esos puntos
+        return listaOrdenada.contarMenores(new Entrada("", "", puntos));
+    }
+
+    /**
+     * Jugadores de un rango de posiciones.
+     * @param desde Primera posición, empezando en 1.
+     * @param hasta Última posición (incluida).
+     * @return Puestos del rango que existen, en orden.
+     */
+    public List<Puesto> getPuestos(int desde, int hasta) {
+        desde = Math.max(1, desde);
+        List<Puesto> puestos = new ArrayList<>();
+        int posicion = desde;
+        for (Entrada entrada : listaOrdenada.getRango(desde - 1, hasta)) {
+            puestos.add(new Puesto(posicion++, entrada.nombre, entrada.puntos));
+        }
+        return puestos;
+    }
+
+    /**
+     * Jugadores alrededor de uno: los que tiene justo por delante y por detrás en el ranking, y él mismo.
+     * @param nombre Nombre del jugador (sin distinguir mayúsculas y minúsculas).
+     * @param distancia Número de jugadores que se incluyen por delante y por detrás.
+     * @return Puestos en orden, o lista vacía si el jugador no está en el ranking.
+     */
+    public List<Puesto> getPuestosAlrededor(String nombre, int distancia) {
+        int posicion = getPosicion(nombre);
+        if (posicion == 0) {
+            return new ArrayList<>();
+        }
+        return getPuestos(posicion - distancia, posicion + distancia);
+    }
+
+    /**
+     * Elimina un jugador del ranking por su nombre (ignorando mayúsculas/minúsculas).
+     * @param nombre Nombre del jugador a eliminar.
+     * @return true si el jugador estaba en el ranking.
+     */
+    public boolean eliminarJugador(String nombre) {
+        Entrada entrada = mapRanking.remove(nombre.toLowerCase(Locale.ROOT));
+        if (entrada == null) {
+            return false;
+        }
+        cambiaRanking(entrada);
+        listaOrdenada.remove(entrada);
+        return true;
+    }
+}
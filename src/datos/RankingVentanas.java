@@ -0,0 +1,342 @@
+package datos;
+
+import java.util.*;
+
+/**
+ * Rankings de los puntos ganados en un periodo reciente (último día, última semana), frente al ranking total
+ * de {@link RankingDiccionario}. Los puntos se guardan por horas: un anillo de cubetas, una por hora de la
+ * última semana, y cada cubeta es un {@link MapaPuntos} del identificador de cada jugador a los puntos que ganó
+ * en esa hora. Cuando el anillo da la vuelta, la cubeta de hace una semana se sustituye por una vacía. Al
+ * pedir el ranking de un periodo se suman las cubetas de sus horas y se eligen los primeros jugadores con un
+ * montículo, así que el coste depende de los jugadores que han ganado puntos en el periodo y no de todo lo
+ * jugado antes. El último ranking de cada periodo se guarda mientras no cambien los puntos ni la hora.
+ * Los identificadores solo duran mientras el jugador tiene puntos en alguna hora guardada: cuando se elimina o
+ * caducan todas sus horas se liberan y se reutilizan, así que la memoria depende de los jugadores de la última
+ * semana y no de todos los que han jugado alguna vez.
+ * Las horas se cuentan desde el 1 de enero de 1970 (UTC); quien usa la clase decide cuál es la hora actual.
+ *
+ *  @author Sergio García Rodríguez
+ */
+public class RankingVentanas {
+
+    /**
+     * Periodos de los rankings.
+     */
+    public enum Periodo {
+        DIA(24, "del último día"),
+        SEMANA(7 * 24, "de la última semana");
+
+        private final int horas;
+        private final String descripcion;
+
+        Periodo(int horas, String descripcion) {
+            this.horas = horas;
+            this.descripcion = descripcion;
+        }
+
+        public int getHoras() {
+            return horas;
+        }
+
+        /**
+         * Texto para los mensajes, como "del último día".
+         * @return Descripción.
+         */
+        public String getDescripcion() {
+            return descripcion;
+        }
+    }
+
+    // Horas que se guardan: las del periodo más largo
+    public static final int TOTAL_HORAS = 7 * 24;
+
+    private static final int SIN_HORA = Integer.MIN_VALUE;
+
+    // Identificador de cada jugador (por su nombre en minúsculas) y nombre con el que se muestra
+    private final Map<String, Integer> identificadores = new HashMap<>();
+    private final List<String> claves = new ArrayList<>();
+    private final List<String> nombres = new ArrayList<>();
+    // Cubetas en las que está cada identificador, e identificadores libres para reutilizar
+    private int[] usos = new int[16];
+    private int[] libres = new int[16];
+    private int totalLibres = 0;
+
+    // La cubeta de la hora h está en la casilla h % TOTAL_HORAS, si horas[casilla] == h
+    private final MapaPuntos[] cubetas = new MapaPuntos[TOTAL_HORAS];
+    private final long[] horas = new long[TOTAL_HORAS];
+    private long ultimaHora = SIN_HORA;
+
+    // Cambia con cada modificación de los puntos, para saber si el ranking guardado de un periodo sigue valiendo
+    private long version;
+    private final Map<Periodo, List<RankingDiccionario.Puesto>> guardados = new EnumMap<>(Periodo.class);
+    private final Map<Periodo, long[]> claveGuardados = new EnumMap<>(Periodo.class);
+
+    /**
+     * Constructor de unos rankings vacíos.
+     */
+    public RankingVentanas() {
+        Arrays.fill(horas, SIN_HORA);
+    }
+
+    /**
+     * Suma puntos ganados por un jugador en una hora.
+     * @param nombre Nombre del jugador (sin distinguir mayúsculas y minúsculas).
+     * @param puntos Puntos ganados.
+     * @param hora Hora en que los ganó.
+     * @return Puntos del jugador en esa hora después de sumar, o -1 si la hora es anterior a la última semana.
+     */
+    public int sumar(String nombre, int puntos, long hora) {
+        MapaPuntos cubeta = getCubeta(hora);
+        if (cubeta == null) {
+            return -1;
+        }
+        version++;
+        int id = getIdentificador(nombre);
+        int antes = cubeta.size();
+        int nuevo = cubeta.sumar(id, puntos);
+        if (cubeta.size() > antes) {
+            usos[id]++;
+        }
+        return nuevo;
+    }
+
+    /**
+     * Pone los puntos de un jugador en una hora (al leer los rankings guardados en un fichero).
+     * @param nombre Nombre del jugador (sin distinguir mayúsculas y minúsculas).
+     * @param hora Hora.
+     * @param puntos Puntos del jugador en esa hora; con 0 se quita de la hora.
+     */
+    public void poner(String nombre, long hora, int puntos) {
+        MapaPuntos cubeta = getCubeta(hora);
+        if (cubeta == null) {
+            return;
+        }
+        version++;
+        if (puntos == 0) {
+            Integer id = identificadores.get(nombre.toLowerCase(Locale.ROOT));
+            if (id != null && cubeta.quitar(id)) {
+                soltar(id);
+            }
+        } else {
+            int id = getIdentificador(nombre);
+            int antes = cubeta.size();
+            cubeta.poner(id, puntos);
+            if (cubeta.size() > antes) {
+                usos[id]++;
+            }
+        }
+    }
+
+    /**
+     * Cubeta de una hora. Si en su casilla hay una hora anterior, se sustituye por una cubeta vacía. Cuando la
+     * hora es posterior a la última, las horas que dejan de estar en la última semana se vacían.
+     * @return Cubeta, o null si la hora ya no se guarda.
+     */
+    private MapaPuntos getCubeta(long hora) {
+        if (hora <= ultimaHora - TOTAL_HORAS) {
+            return null;
+        }
+        int casilla = (int) Math.floorMod(hora, (long) TOTAL_HORAS);
+        if (horas[casilla] != hora) {
+            if (horas[casilla] > hora) {
+                return null;
+            }
+            int tam = 16;
+            if (cubetas[casilla] != null) {
+                tam = cubetas[casilla].size();
+                liberar(cubetas[casilla]);
+            }
+            cubetas[casilla] = new MapaPuntos(tam);
+            horas[casilla] = hora;
+        }
+        if (hora > ultimaHora) {
+            ultimaHora = hora;
+            caducar();
+        }
+        return cubetas[casilla];
+    }
+
+    /**
+     * Vacía las cubetas de las horas anteriores a la última semana. Solo se llama cuando avanza la última hora,
+     * como mucho una vez por hora.
+     */
+    private void caducar() {
+        for (int casilla = 0; casilla < TOTAL_HORAS; casilla++) {
+            if (cubetas[casilla] != null && horas[casilla] <= ultimaHora - TOTAL_HORAS) {
+                liberar(cubetas[casilla]);
+                cubetas[casilla] = null;
+                horas[casilla] = SIN_HORA;
+            }
+        }
+    }
+
+    /**
+     * Suelta los identificadores de todos los jugadores de una cubeta que se va a sustituir.
+     */
+    private void liberar(MapaPuntos cubeta) {
+        for (int i = 0; i < cubeta.getCapacidad(); i++) {
+            int id = cubeta.getClave(i);
+            if (id != MapaPuntos.VACIA) {
+                soltar(id);
+            }
+        }
+    }
+
+    /**
+     * Resta una cubeta a un identificador. Si ya no está en ninguna, el identificador queda libre.
+     */
+    private void soltar(int id) {
+        if (--usos[id] > 0) {
+            return;
+        }
+        identificadores.remove(claves.get(id));
+        claves.set(id, null);
+        nombres.set(id, null);
+        if (totalLibres == libres.length) {
+            libres = Arrays.copyOf(libres, libres.length * 2);
+        }
+        libres[totalLibres++] = id;
+    }
+
+    private int getIdentificador(String nombre) {
+        String clave = nombre.toLowerCase(Locale.ROOT);
+        Integer id = identificadores.get(clave);
+        if (id == null) {
+            if (totalLibres > 0) {
+                id = libres[--totalLibres];
+                claves.set(id, clave);
+                nombres.set(id, nombre);
+            } else {
+                id = nombres.size();
+                claves.add(clave);
+                nombres.add(nombre);
+                if (id == usos.length) {
+                    usos = Arrays.copyOf(usos, usos.length * 2);
+                }
+            }
+            identificadores.put(clave, id);
+        } else {
+            // Se muestra con la última forma de escribirlo, como en el ranking total
+            nombres.set(id, nombre);
+        }
+        return id;
+    }
+
+    /**
+     * Quita a un jugador de todas las horas.
+     * @param nombre Nombre del jugador (sin distinguir mayúsculas y minúsculas).
+     * @return true si tenía puntos en alguna hora.
+     */
+    public boolean eliminarJugador(String nombre) {
+        Integer id = identificadores.get(nombre.toLowerCase(Locale.ROOT));
+        if (id == null) {
+            return false;
+        }
+        boolean estaba = false;
+        for (MapaPuntos cubeta : cubetas) {
+            if (cubeta != null && cubeta.quitar(id)) {
+                estaba = true;
+                soltar(id);
+            }
+        }
+        if (estaba) {
+            version++;
+        }
+        return estaba;
+    }
+
+    /**
+     * Jugadores con puntos en alguna de las horas guardadas.
+     * @return Número de jugadores con identificador.
+     */
+    public int getTotalJugadores() {
+        return identificadores.size();
+    }
+
+    /**
+     * Primeros jugadores de un periodo: los que más puntos han ganado en sus últimas horas.
+     * @param periodo Periodo.
+     * @param total Número máximo de jugadores.
+     * @param horaActual Hora actual, la última del periodo.
+     * @return Puestos en orden; a igualdad de puntos va antes el nombre menor.
+     */
+    public List<RankingDiccionario.Puesto> getPrimeros(Periodo periodo, int total, long horaActual) {
+        long[] clave = {version, horaActual, total};
+        if (Arrays.equals(clave, claveGuardados.get(periodo))) {
+            return guardados.get(periodo);
+        }
+        MapaPuntos suma = sumarHoras(periodo, horaActual);
+
+        // Montículo con los mejores encontrados hasta ahora; en la cima, el peor de ellos
+        Comparator<Integer> orden = (a, b) -> {
+            int pa = suma.get(a);
+            int pb = suma.get(b);
+            return pa != pb ? Integer.compare(pa, pb) : claves.get(b).compareTo(claves.get(a));
+        };
+        PriorityQueue<Integer> mejores = new PriorityQueue<>(Math.max(1, Math.min(total, suma.size())), orden);
+        for (int i = 0; i < suma.getCapacidad() && total > 0; i++) {
+            int id = suma.getClave(i);
+            if (id == MapaPuntos.VACIA) {
+                continue;
+            }
+            if (mejores.size() < total) {
+                mejores.add(id);
+            } else if (orden.compare(id, mejores.peek()) > 0) {
+                mejores.poll();
+                mejores.add(id);
+            }
+        }
+        RankingDiccionario.Puesto[] puestos = new RankingDiccionario.Puesto[mejores.size()];
+        for (int pos = puestos.length; pos > 0; pos--) {
+            int id = mejores.poll();
+            puestos[pos - 1] = new RankingDiccionario.Puesto(pos, nombres.get(id), suma.get(id));
+        }
+        List<RankingDiccionario.Puesto> primeros = List.of(puestos);
+        guardados.put(periodo, primeros);
+        claveGuardados.put(periodo, clave);
+        return primeros;
+    }
+
+    /**
+     * Puntos de cada jugador en un periodo: la suma de las cubetas de sus horas.
+     */
+    private MapaPuntos sumarHoras(Periodo periodo, long horaActual) {
+        // Se reserva sitio para todos desde el principio, sin pasar del total de jugadores
+        int entradas = 0;
+        for (long hora = horaActual - periodo.getHoras() + 1; hora <= horaActual; hora++) {
+            int casilla = (int) Math.floorMod(hora, (long) TOTAL_HORAS);
+            if (horas[casilla] == hora) {
+                entradas += cubetas[casilla].size();
+            }
+        }
+        MapaPuntos suma = new MapaPuntos(Math.min(entradas, identificadores.size()));
+        for (long hora = horaActual - periodo.getHoras() + 1; hora <= horaActual; hora++) {
+            int casilla = (int) Math.floorMod(hora, (long) TOTAL_HORAS);
+            if (horas[casilla] == hora) {
+                cubetas[casilla].sumarA(suma);
+            }
+        }
+        return suma;
+    }
+
+    /**
+     * Añade a un texto los puntos de cada jugador en cada hora guardada, una línea "V nombre hora puntos" por
+     * jugador y hora (el formato del diario del ranking, ver gestion.GestorRanking).
+     * @param txt Texto al que se añaden las líneas.
+     */
+    public void escribir(StringBuilder txt) {
+        for (int casilla = 0; casilla < TOTAL_HORAS; casilla++) {
+            MapaPuntos cubeta = cubetas[casilla];
+            if (cubeta == null || horas[casilla] <= ultimaHora - TOTAL_HORAS) {
+                continue;
+            }
+            for (int i = 0; i < cubeta.getCapacidad(); i++) {
+                int id = cubeta.getClave(i);
+                if (id != MapaPuntos.VACIA) {
+                    txt.append("V ").append(nombres.get(id)).append(' ').append(horas[casilla]).append(' ')
+                            .append(cubeta.getValor(i)).append('\n');
+                }
+            }
+        }
+    }
+}
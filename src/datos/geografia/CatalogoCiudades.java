@@ -0,0 +1,281 @@
+package datos.geografia;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import config.Constantes;
+import gestion.GestorLog;
+
+/**
+ * Catálogo inmutable de ciudades compartido por todas las preguntas de geografía.
+ * El fichero de ciudades se lee una única vez por proceso y las coordenadas se guardan en vectores
+ * de tipos primitivos, de forma que crear una pregunta ya no abre ni procesa el fichero.
+ * El fichero puede ser el CSV original o un paquete binario ({@link PaqueteCiudades}); en ese caso las
+ * coordenadas y los nombres se leen directamente del fichero proyectado en memoria.
+ * Si el fichero cambia hay que pedir la recarga de forma explícita.
+ *
+ * @author Sergio García Rodríguez
+ */
+public final class CatalogoCiudades {
+
+    private static volatile CatalogoCiudades instancia;
+    private static long fechaModificacion;
+    private static int totalCargas = 0;
+
+    private final int total;
+    private final DoubleBuffer latitudes;
+    private final DoubleBuffer longitudes;
+    // Los nombres están en un vector (fichero CSV) o en una tabla de cadenas UTF-8 (paquete binario)
+    private final String[] nombres;
+    private final IntBuffer inicioNombres;
+    private final ByteBuffer bytesNombres;
+    private volatile KernelHaversine kernel;
+    private volatile IndiceEspacial indice;
+    private volatile MotorDistractores motorDistractores;
+
+    /**
+     * Constructor. Los vectores pasan a ser propiedad del catálogo y no deben modificarse después.
+     * @param nombres Nombres de las ciudades.
+     * @param latitudes Latitudes en grados.
+     * @param longitudes Longitudes en grados.
+     */
+    public CatalogoCiudades(String[] nombres, double[] latitudes, double[] longitudes) {
+        if (nombres.length != latitudes.length || nombres.length != longitudes.length) {
+            throw new IllegalArgumentException("Los vectores del catálogo deben tener el mismo tamaño");
+        }
+        this.total = nombres.length;
+        this.nombres = nombres;
+        this.latitudes = DoubleBuffer.wrap(latitudes);
+        this.longitudes = DoubleBuffer.wrap(longitudes);
+        this.inicioNombres = null;
+        this.bytesNombres = null;
+    }
+
+    /**
+     * Constructor para un catálogo cuyos datos se leen directamente de un paquete binario en memoria.
+     * @param total Número de ciudades.
+     * @param latitudes Latitudes en grados.
+     * @param longitudes Longitudes en grados.
+     * @param inicioNombres Posición de cada nombre en la tabla de cadenas (total + 1 valores).
+     * @param bytesNombres Tabla de cadenas en UTF-8.
+     */
+    CatalogoCiudades(int total, DoubleBuffer latitudes, DoubleBuffer longitudes,
+                     IntBuffer inicioNombres, ByteBuffer bytesNombres) {
+        this.total = total;
+        this.nombres = null;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.inicioNombres = inicioNombres;
+        this.bytesNombres = bytesNombres;
+    }
+
+    /**
+     * Devuelve el catálogo compartido, cargándolo del fichero la primera vez que se pide.
+     * @return Catálogo de ciudades.
+     */
+    public static CatalogoCiudades getInstancia() {
+        CatalogoCiudades cat = instancia;
+        if (cat == null) {
+            synchronized (CatalogoCiudades.class) {
+                cat = instancia;
+                if (cat == null) {
+                    cat = recargar();
+                }
+            }
+        }
+        return cat;
+    }
+
+    /**
+     * Vuelve a leer el fichero de ciudades y sustituye el catálogo compartido.
+     * Las preguntas ya creadas siguen usando el catálogo anterior.
+     * @return El nuevo catálogo.
+     */
+    public static synchronized CatalogoCiudades recargar() {
+        try {
+            File fichero = new File(Constantes.CIUDADES_PATH);
+            long fecha = fichero.lastModified();
+            CatalogoCiudades cat = leer(Constantes.CIUDADES_PATH);
+            fechaModificacion = fecha;
+            totalCargas++;
+            instancia = cat;
+            GestorLog.escribirMensaje("Catálogo de ciudades cargado: " + cat.getTotal() + " ciudades");
+            return cat;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Recarga el catálogo solo si el fichero ha cambiado desde la última carga.
+     * Es una consulta barata (fecha del fichero), pensada para llamarse al inicio de cada partida.
+     * @return true si se ha recargado el catálogo.
+     */
+    public static synchronized boolean recargarSiModificado() {
+        if (instancia == null || new File(Constantes.CIUDADES_PATH).lastModified() != fechaModificacion) {
+            recargar();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Número de veces que se ha leído el fichero de ciudades desde que arrancó el proceso.
+     * @return Total de cargas.
+     */
+    public static synchronized int getTotalCargas() {
+        return totalCargas;
+    }
+
+    /**
+     * Lee un catálogo sin sustituir el compartido. Acepta tanto el fichero CSV como el paquete binario
+     * generado por {@link PaqueteCiudades}; el formato se reconoce por el contenido, no por la extensión.
+     * @param ruta Ruta del fichero.
+     * @return Catálogo leído.
+     * @throws IOException Si ocurre un error al leer el fichero.
+     */
+    public static CatalogoCiudades leer(String ruta) throws IOException {
+        if (PaqueteCiudades.esPaquete(ruta)) {
+            return PaqueteCiudades.cargar(ruta);
+        }
+        return leerCsv(ruta);
+    }
+
+    /**
+     * Lee un fichero CSV con cabecera y líneas "nombre,latitud,longitud".
+     * @param ruta Ruta del fichero.
+     * @return Catálogo leído.
+     * @throws IOException Si ocurre un error al leer el fichero.
+     */
+    private static CatalogoCiudades leerCsv(String ruta) throws IOException {
+        List<String> nombres = new ArrayList<>();
+        double[] lat = new double[64];
+        double[] lon = new double[64];
+        int total = 0;
+        try (BufferedReader br = new BufferedReader(new FileReader(ruta))) {
+            String linea;
+            br.readLine(); // Omitir cabecera
+            while ((linea = br.readLine()) != null) {
+                int coma1 = linea.indexOf(',');
+                int coma2 = linea.indexOf(',', coma1 + 1);
+                if (coma1 < 0 || coma2 < 0) {
+                    continue; // Línea vacía o mal formada
+                }
+                if (total == lat.length) {
+                    lat = Arrays.copyOf(lat, total * 2);
+                    lon = Arrays.copyOf(lon, total * 2);
+                }
+                nombres.add(linea.substring(0, coma1));
+                lat[total] = Double.parseDouble(linea.substring(coma1 + 1, coma2));
+                lon[total] = Double.parseDouble(linea.substring(coma2 + 1).trim());
+                total++;
+            }
+        }
+        return new CatalogoCiudades(nombres.toArray(new String[0]),
+                Arrays.copyOf(lat, total), Arrays.copyOf(lon, total));
+    }
+
+    /**
+     * Número de ciudades del catálogo.
+     * @return Total de ciudades.
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Nombre de la ciudad indicada.
+     * @param i Índice de la ciudad.
+     * @return Nombre.
+     */
+    public String getNombre(int i) {
+        if (nombres != null) {
+            return nombres[i];
+        }
+        int ini = inicioNombres.get(i);
+        byte[] bytes = new byte[inicioNombres.get(i + 1) - ini];
+        bytesNombres.get(ini, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Latitud de la ciudad indicada.
+     * @param i Índice de la ciudad.
+     * @return Latitud en grados.
+     */
+    public double getLatitud(int i) {
+        return latitudes.get(i);
+    }
+
+    /**
+     * Longitud de la ciudad indicada.
+     * @param i Índice de la ciudad.
+     * @return Longitud en grados.
+     */
+    public double getLongitud(int i) {
+        return longitudes.get(i);
+    }
+
+    /**
+     * Devuelve el kernel de cálculo de distancias del catálogo. Se construye la primera vez que se pide.
+     * @return Kernel de distancias.
+     */
+    public KernelHaversine getKernel() {
+        KernelHaversine ker = kernel;
+        if (ker == null) {
+            synchronized (this) {
+                ker = kernel;
+                if (ker == null) {
+                    ker = new KernelHaversine(this);
+                    kernel = ker;
+                }
+            }
+        }
+        return ker;
+    }
+
+    /**
+     * Devuelve el índice espacial del catálogo. Se construye la primera vez que se pide.
+     * @return Índice espacial de las ciudades.
+     */
+    public IndiceEspacial getIndice() {
+        IndiceEspacial ind = indice;
+        if (ind == null) {
+            synchronized (this) {
+                ind = indice;
+                if (ind == null) {
+                    ind = new IndiceEspacial(getKernel());
+                    indice = ind;
+                }
+            }
+        }
+        return ind;
+    }
+
+    /**
+     * Devuelve el motor de selección de opciones del catálogo. Se crea la primera vez que se pide.
+     * @return Motor de selección de opciones.
+     */
+    public MotorDistractores getMotorDistractores() {
+        MotorDistractores motor = motorDistractores;
+        if (motor == null) {
+            synchronized (this) {
+                motor = motorDistractores;
+                if (motor == null) {
+                    motor = new MotorDistractores(this, Constantes.TAM_ANILLO_GEOGRAFIA);
+                    motorDistractores = motor;
+                }
+            }
+        }
+        return motor;
+    }
+}
@@ -0,0 +1,266 @@
+package datos.geografia;
+
+import java.util.Arrays;
+
+/**
+ * Índice espacial (árbol k-d) sobre las ciudades de un catálogo.
+ * Cada ciudad se representa como un punto de la esfera unidad (x, y, z). La distancia en línea recta
+ * entre dos puntos (cuerda) crece con la distancia sobre la superficie, así que los vecinos más
+ * cercanos por cuerda son también los más cercanos por la fórmula de Haversine.
+ * El árbol se guarda de forma implícita en un vector: el nodo de un rango [ini, fin) es su elemento
+ * central, y sus hijos son las dos mitades del rango.
+ *
+ * @author Sergio García Rodríguez
+ */
+public final class IndiceEspacial {
+
+    /** Radio de la Tierra en kilómetros. */
+    public static final double RADIO_TIERRA = 6371;
+
+    private final KernelHaversine kernel;
+    private final double[][] coords; // coords[eje][ciudad], eje 0 = x, 1 = y, 2 = z
+    private final int[] nodos;       // Ciudades en el orden del árbol implícito
+    private final byte[] ejes;       // Eje de corte de cada nodo
+
+    /**
+     * Construye el índice para todas las ciudades del catálogo. Coste O(n log n).
+     * Usa las coordenadas ya precalculadas por el kernel de distancias, sin repetir la trigonometría.
+     * @param kernel Kernel de distancias del catálogo.
+     */
+    public IndiceEspacial(KernelHaversine kernel) {
+        this.kernel = kernel;
+        coords = kernel.getCoordenadas();
+        int total = coords[0].length;
+        nodos = new int[total];
+        ejes = new byte[total];
+        for (int i = 0; i < total; i++) {
+            nodos[i] = i;
+        }
+        construir(0, total);
+    }
+
+    /**
+     * Ordena recursivamente el rango para que su elemento central sea el nodo que lo divide.
+     * @param ini Inicio del rango (incluido).
+     * @param fin Fin del rango (excluido).
+     */
+    private void construir(int ini, int fin) {
+        if (fin - ini <= 1) {
+            if (fin > ini) ejes[ini] = 0;
+            return;
+        }
+        // Se corta por el eje con más dispersión dentro del rango
+        int eje = 0;
+        double mayorRango = -1;
+        for (int e = 0; e < 3; e++) {
+            double min = Double.MAX_VALUE, max = -Double.MAX_VALUE;
+            for (int i = ini; i < fin; i++) {
+                double v = coords[e][nodos[i]];
+                if (v < min) min = v;
+                if (v > max) max = v;
+            }
+            if (max - min > mayorRango) {
+                mayorRango = max - min;
+                eje = e;
+            }
+        }
+        int medio = (ini + fin) >>> 1;
+        seleccionar(ini, fin - 1, medio, coords[eje]);
+        ejes[medio] = (byte) eje;
+        construir(ini, medio);
+        construir(medio + 1, fin);
+    }
+
+    /**
+     * Quickselect: deja en la posición k el elemento que le corresponde en orden, con los menores a su
+     * izquierda y los mayores a su derecha.
+     */
+    private void seleccionar(int izq, int der, int k, double[] valores) {
+        while (der > izq) {
+            double pivote = valores[nodos[(izq + der) >>> 1]];
+            int i = izq, j = der;
+            while (i <= j) {
+                while (valores[nodos[i]] < pivote) i++;
+                while (valores[nodos[j]] > pivote) j--;
+                if (i <= j) {
+                    int aux = nodos[i];
+                    nodos[i++] = nodos[j];
+                    nodos[j--] = aux;
+                }
+            }
+            if (k <= j) {
+                der = j;
+            } else if (k >= i) {
+                izq = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Devuelve las k ciudades más cercanas a una ciudad del catálogo, sin incluirla a ella.
+     * @param ciudad Índice de la ciudad de referencia.
+     * @param k Número de vecinos.
+     * @return Índices de las ciudades, de la más cercana a la más lejana.
+     */
+    public int[] kVecinos(int ciudad, int k) {
+        return kVecinos(coords[0][ciudad], coords[1][ciudad], coords[2][ciudad], k, ciudad);
+    }
+
+    /**
+     * Devuelve las k ciudades más cercanas a un punto.
+     * @param latitud Latitud en grados.
+     * @param longitud Longitud en grados.
+     * @param k Número de vecinos.
+     * @return Índices de las ciudades, de la más cercana a la más lejana.
+     */
+    public int[] kVecinos(double latitud, double longitud, int k) {
+        double lat = Math.toRadians(latitud);
+        double lon = Math.toRadians(longitud);
+        return kVecinos(Math.cos(lat) * Math.cos(lon), Math.cos(lat) * Math.sin(lon), Math.sin(lat), k, -1);
+    }
+
+    private int[] kVecinos(double qx, double qy, double qz, int k, int excluida) {
+        Busqueda b = new Busqueda(Math.min(k, nodos.length), excluida);
+        if (b.ids.length > 0) {
+            buscar(0, nodos.length, qx, qy, qz, b);
+        }
+        return b.ordenados();
+    }
+
+    private void buscar(int ini, int fin, double qx, double qy, double qz, Busqueda b) {
+        if (ini >= fin) return;
+        int medio = (ini + fin) >>> 1;
+        int c = nodos[medio];
+        double dx = coords[0][c] - qx, dy = coords[1][c] - qy, dz = coords[2][c] - qz;
+        b.ofrecer(c, dx * dx + dy * dy + dz * dz);
+
+        int eje = ejes[medio];
+        double diff = (eje == 0 ? qx : eje == 1 ? qy : qz) - coords[eje][c];
+        if (diff < 0) {
+            buscar(ini, medio, qx, qy, qz, b);
+            if (diff * diff < b.peor()) buscar(medio + 1, fin, qx, qy, qz, b);
+        } else {
+            buscar(medio + 1, fin, qx, qy, qz, b);
+            if (diff * diff < b.peor()) buscar(ini, medio, qx, qy, qz, b);
+        }
+    }
+
+    /**
+     * Devuelve todas las ciudades que están a una distancia menor o igual que el radio indicado
+     * de una ciudad del catálogo (la propia ciudad incluida).
+     * @param ciudad Índice de la ciudad de referencia.
+     * @param radioKm Radio en kilómetros.
+     * @return Índices de las ciudades, sin orden.
+     */
+    public int[] enRadio(int ciudad, double radioKm) {
+        double cuerda = radioKm >= Math.PI * RADIO_TIERRA ? 2 : 2 * Math.sin(radioKm / (2 * RADIO_TIERRA));
+        Acumulador acc = new Acumulador();
+        enRadio(0, nodos.length, coords[0][ciudad], coords[1][ciudad], coords[2][ciudad],
+                cuerda * cuerda + 1e-12, acc);
+        return Arrays.copyOf(acc.ids, acc.total);
+    }
+
+    private void enRadio(int ini, int fin, double qx, double qy, double qz, double cuerda2, Acumulador acc) {
+        if (ini >= fin) return;
+        int medio = (ini + fin) >>> 1;
+        int c = nodos[medio];
+        double dx = coords[0][c] - qx, dy = coords[1][c] - qy, dz = coords[2][c] - qz;
+        if (dx * dx + dy * dy + dz * dz <= cuerda2) {
+            acc.add(c);
+        }
+        int eje = ejes[medio];
+        double diff = (eje == 0 ? qx : eje == 1 ? qy : qz) - coords[eje][c];
+        if (diff < 0 || diff * diff <= cuerda2) enRadio(ini, medio, qx, qy, qz, cuerda2, acc);
+        if (diff >= 0 || diff * diff <= cuerda2) enRadio(medio + 1, fin, qx, qy, qz, cuerda2, acc);
+    }
+
+    /**
+     * Distancia sobre la superficie terrestre entre dos ciudades del catálogo.
+     * @param a Índice de la primera ciudad.
+     * @param b Índice de la segunda ciudad.
+     * @return Distancia en kilómetros.
+     */
+    public double distanciaKm(int a, int b) {
+        return kernel.distanciaKm(a, b);
+    }
+
+    /**
+     * Estado de una búsqueda de k vecinos: montículo de máximos con los mejores candidatos.
+     */
+    private static final class Busqueda {
+        final int[] ids;
+        final double[] dist2;
+        final int excluida;
+        int total = 0;
+
+        Busqueda(int k, int excluida) {
+            ids = new int[k];
+            dist2 = new double[k];
+            this.excluida = excluida;
+        }
+
+        double peor() {
+            return total < ids.length ? Double.MAX_VALUE : dist2[0];
+        }
+
+        void ofrecer(int id, double d2) {
+            if (id == excluida) return;
+            if (total < ids.length) {
+                // Se añade al final y se sube en el montículo
+                int i = total++;
+                while (i > 0) {
+                    int padre = (i - 1) >>> 1;
+                    if (dist2[padre] >= d2) break;
+                    ids[i] = ids[padre];
+                    dist2[i] = dist2[padre];
+                    i = padre;
+                }
+                ids[i] = id;
+                dist2[i] = d2;
+            } else if (d2 < dist2[0]) {
+                hundir(id, d2, total);
+            }
+        }
+
+        /** Coloca el elemento (id, d2) en la raíz y lo hunde dentro de los n primeros. */
+        void hundir(int id, double d2, int n) {
+            int i = 0;
+            while (true) {
+                int hijo = 2 * i + 1;
+                if (hijo >= n) break;
+                if (hijo + 1 < n && dist2[hijo + 1] > dist2[hijo]) hijo++;
+                if (dist2[hijo] <= d2) break;
+                ids[i] = ids[hijo];
+                dist2[i] = dist2[hijo];
+                i = hijo;
+            }
+            ids[i] = id;
+            dist2[i] = d2;
+        }
+
+        /** Vacía el montículo devolviendo los identificadores de menor a mayor distancia. */
+        int[] ordenados() {
+            int[] res = new int[total];
+            for (int n = total; n > 0; n--) {
+                res[n - 1] = ids[0];
+                hundir(ids[n - 1], dist2[n - 1], n - 1);
+            }
+            return res;
+        }
+    }
+
+    /**
+     * Lista creciente de enteros para recoger resultados sin crear objetos por ciudad.
+     */
+    private static final class Acumulador {
+        int[] ids = new int[16];
+        int total = 0;
+
+        void add(int id) {
+            if (total == ids.length) ids = Arrays.copyOf(ids, total * 2);
+            ids[total++] = id;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package datos.geografia;
+
+/**
+ * Cálculo por lotes de distancias desde una ciudad origen a muchas ciudades.
+ * La trigonometría de cada ciudad se calcula una sola vez: cada ciudad se guarda como un punto (x, y, z)
+ * de la esfera unidad en tres vectores de tipo primitivo. La distancia de Haversine se obtiene de la
+ * cuerda entre dos puntos, d = 2·R·asin(cuerda / 2), que es la misma fórmula escrita sin senos ni
+ * cosenos por pareja.
+ * Los bucles que solo calculan la cuerda al cuadrado no llaman a funciones trigonométricas, así que el
+ * compilador JIT puede vectorizarlos (SIMD) de forma automática.
+ *
+ * @author Sergio García Rodríguez
+ */
+public final class KernelHaversine {
+
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+
+    /**
+     * Precalcula las coordenadas cartesianas de todas las ciudades del catálogo.
+     * @param catalogo Catálogo de ciudades.
+     */
+    public KernelHaversine(CatalogoCiudades catalogo) {
+        int total = catalogo.getTotal();
+        x = new double[total];
+        y = new double[total];
+        z = new double[total];
+        for (int i = 0; i < total; i++) {
+            double lat = Math.toRadians(catalogo.getLatitud(i));
+            double lon = Math.toRadians(catalogo.getLongitud(i));
+            double cosLat = Math.cos(lat);
+            x[i] = cosLat * Math.cos(lon);
+            y[i] = cosLat * Math.sin(lon);
+            z[i] = Math.sin(lat);
+        }
+    }
+
+    /**
+     * Coordenadas de las ciudades en la esfera unidad: {x, y, z}. No deben modificarse.
+     * @return Vector con los tres ejes.
+     */
+    double[][] getCoordenadas() {
+        return new double[][] {x, y, z};
+    }
+
+    /**
+     * Distancia entre dos ciudades.
+     * @param a Índice de la primera ciudad.
+     * @param b Índice de la segunda ciudad.
+     * @return Distancia en kilómetros.
+     */
+    public double distanciaKm(int a, int b) {
+        double dx = x[a] - x[b], dy = y[a] - y[b], dz = z[a] - z[b];
+        return aKm(dx * dx + dy * dy + dz * dz);
+    }
+
+    /**
+     * Calcula la distancia desde la ciudad origen a todas las ciudades del catálogo.
+     * @param origen Índice de la ciudad origen.
+     * @param salida Vector donde se escriben las distancias en kilómetros (tamaño mínimo: total de ciudades).
+     */
+    public void distancias(int origen, double[] salida) {
+        double ox = x[origen], oy = y[origen], oz = z[origen];
+        int n = x.length;
+        // Primera pasada sin trigonometría (vectorizable): cuerda al cuadrado
+        for (int i = 0; i < n; i++) {
+            double dx = x[i] - ox, dy = y[i] - oy, dz = z[i] - oz;
+            salida[i] = dx * dx + dy * dy + dz * dz;
+        }
+        for (int i = 0; i < n; i++) {
+            salida[i] = aKm(salida[i]);
+        }
+    }
+
+    /**
+     * Calcula la distancia desde la ciudad origen a una lista de ciudades.
+     * @param origen Índice de la ciudad origen.
+     * @param ciudades Índices de las ciudades destino.
+     * @param salida Vector donde se escriben las distancias en kilómetros, en el mismo orden.
+     */
+    public void distancias(int origen, int[] ciudades, double[] salida) {
+        double ox = x[origen], oy = y[origen], oz = z[origen];
+        for (int i = 0; i < ciudades.length; i++) {
+            int c = ciudades[i];
+            double dx = x[c] - ox, dy = y[c] - oy, dz = z[c] - oz;
+            salida[i] = aKm(dx * dx + dy * dy + dz * dz);
+        }
+    }
+
+    /**
+     * Devuelve la posición, dentro de la lista, de la ciudad más cercana al origen.
+     * Compara cuerdas al cuadrado, que están en el mismo orden que las distancias, sin calcular ninguna.
+     * @param origen Índice de la ciudad origen.
+     * @param ciudades Índices de las ciudades candidatas.
+     * @return Posición en {@code ciudades} de la más cercana.
+     */
+    public int masCercana(int origen, int[] ciudades) {
+        double ox = x[origen], oy = y[origen], oz = z[origen];
+        int mejor = -1;
+        double mejorCuerda2 = Double.MAX_VALUE;
+        for (int i = 0; i < ciudades.length; i++) {
+            int c = ciudades[i];
+            double dx = x[c] - ox, dy = y[c] - oy, dz = z[c] - oz;
+            double cuerda2 = dx * dx + dy * dy + dz * dz;
+            if (cuerda2 < mejorCuerda2) {
+                mejorCuerda2 = cuerda2;
+                mejor = i;
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * Convierte una cuerda al cuadrado (esfera unidad) en distancia sobre la superficie terrestre.
+     */
+    private static double aKm(double cuerda2) {
+        return 2 * IndiceEspacial.RADIO_TIERRA * Math.asin(Math.min(1, Math.sqrt(cuerda2) / 2));
+    }
+}
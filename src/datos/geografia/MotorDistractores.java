@@ -0,0 +1,160 @@
+package datos.geografia;
+
+import java.util.random.RandomGenerator;
+
+import config.Constantes;
+import presentacion.Utilidades;
+
+/**
+ * Selecciona las opciones de una pregunta de geografía según una dificultad.
+ * Para cada ciudad se guarda un anillo con sus vecinas más próximas ordenadas por distancia. La opción
+ * correcta es una de las primeras del anillo y las incorrectas se toman del tramo del anillo cuya
+ * distancia, dividida entre la de la opción correcta, cae dentro de la banda de la dificultad pedida.
+ * Cuanto más cerca de 1 está esa proporción, más difícil es distinguir la respuesta correcta.
+ * El coste de elegir las opciones depende del tamaño del anillo, no del tamaño del catálogo.
+ *
+ * @author Sergio García Rodríguez
+ */
+public final class MotorDistractores {
+
+    public static final int DIFICULTAD_FACIL = 1;
+    public static final int DIFICULTAD_MEDIA = 2;
+    public static final int DIFICULTAD_DIFICIL = 3;
+
+    /** Opciones de cada pregunta: la correcta y tres incorrectas. */
+    public static final int TOTAL_OPCIONES = 4;
+
+    private final CatalogoCiudades catalogo;
+    private final int tamAnillo;
+    private final Anillo[] anillos;
+
+    /**
+     * Constructor.
+     * @param catalogo Catálogo de ciudades.
+     * @param tamAnillo Número de vecinas que se guardan por ciudad.
+     */
+    public MotorDistractores(CatalogoCiudades catalogo, int tamAnillo) {
+        this.catalogo = catalogo;
+        this.tamAnillo = Math.min(tamAnillo, catalogo.getTotal() - 1);
+        this.anillos = new Anillo[catalogo.getTotal()];
+        if (this.tamAnillo < TOTAL_OPCIONES) {
+            throw new IllegalArgumentException("El catálogo necesita al menos " + (TOTAL_OPCIONES + 1) + " ciudades");
+        }
+    }
+
+    /**
+     * Elige las opciones de una pregunta sobre la ciudad indicada.
+     * @param ciudad Índice de la ciudad de la pregunta.
+     * @param dificultad DIFICULTAD_FACIL, DIFICULTAD_MEDIA o DIFICULTAD_DIFICIL.
+     * @param ratioMin Límite inferior de la banda completa de proporciones de distancia (mayor que 1).
+     * @param ratioMax Límite superior de la banda completa de proporciones de distancia.
+     * @return Vector de TOTAL_OPCIONES índices de ciudad; la primera es la respuesta correcta.
+     */
+    public int[] seleccionar(int ciudad, int dificultad, double ratioMin, double ratioMax) {
+        Anillo anillo = getAnillo(ciudad);
+
+        // La respuesta correcta es una de las vecinas más próximas
+        // (dejando siempre detrás al menos tantas vecinas como opciones incorrectas)
+        int posCorrecta = Utilidades.getRandom(0,
+                Math.min(Constantes.VECINOS_RESPUESTA_GEOGRAFIA, tamAnillo - TOTAL_OPCIONES + 1) - 1);
+        float distCorrecta = anillo.distancias[posCorrecta];
+
+        // La banda completa se divide en tres tramos geométricos: el más cercano es el más difícil
+        double paso = Math.pow(ratioMax / ratioMin, 1.0 / 3);
+        int tramo = DIFICULTAD_DIFICIL - Math.max(DIFICULTAD_FACIL, Math.min(DIFICULTAD_DIFICIL, dificultad));
+        double bandaMin = ratioMin * Math.pow(paso, tramo);
+        double bandaMax = bandaMin * paso;
+
+        // Tramo del anillo cuya proporción de distancias cae en la banda
+        int ini = Math.max(posCorrecta + 1, buscarPrimeraMayorOIgual(anillo.distancias, distCorrecta * bandaMin));
+        int fin = buscarPrimeraMayorOIgual(anillo.distancias, distCorrecta * bandaMax);
+        fin = Math.max(fin, ini);
+        // Si en la banda no hay suficientes ciudades, se amplía con las vecinas más próximas a ella
+        while (fin - ini < TOTAL_OPCIONES - 1) {
+            if (fin < tamAnillo) {
+                fin++;
+            } else {
+                ini--;
+            }
+        }
+
+        int[] opciones = new int[TOTAL_OPCIONES];
+        opciones[0] = anillo.ciudades[posCorrecta];
+        elegirDistintas(anillo.ciudades, ini, fin, opciones);
+        return opciones;
+    }
+
+    /**
+     * Algoritmo de Floyd: elige TOTAL_OPCIONES - 1 posiciones distintas del rango [ini, fin) con
+     * exactamente un número aleatorio por posición, sin repetir intentos.
+     */
+    private static void elegirDistintas(int[] ciudades, int ini, int fin, int[] opciones) {
+        int n = fin - ini;
+        int elegidas = 0;
+        int[] pos = new int[TOTAL_OPCIONES - 1];
+        RandomGenerator rnd = Utilidades.getGeneradorRandom();
+        for (int j = n - pos.length; j < n; j++) {
+            int t = rnd.nextInt(0, j + 1);
+            boolean repetida = false;
+            for (int i = 0; i < elegidas; i++) {
+                repetida |= pos[i] == t;
+            }
+            pos[elegidas++] = repetida ? j : t;
+        }
+        for (int i = 0; i < pos.length; i++) {
+            opciones[i + 1] = ciudades[ini + pos[i]];
+        }
+    }
+
+    /**
+     * Búsqueda binaria en un vector ordenado.
+     * @return Primera posición cuyo valor es mayor o igual que el buscado (o la longitud del vector).
+     */
+    private static int buscarPrimeraMayorOIgual(float[] valores, double buscado) {
+        int ini = 0, fin = valores.length;
+        while (ini < fin) {
+            int medio = (ini + fin) >>> 1;
+            if (valores[medio] < buscado) {
+                ini = medio + 1;
+            } else {
+                fin = medio;
+            }
+        }
+        return ini;
+    }
+
+    /**
+     * Devuelve el anillo de vecinas de una ciudad, calculándolo con el índice espacial la primera vez.
+     * @param ciudad Índice de la ciudad.
+     * @return Anillo de vecinas.
+     */
+    private Anillo getAnillo(int ciudad) {
+        Anillo anillo = anillos[ciudad];
+        if (anillo == null) {
+            IndiceEspacial indice = catalogo.getIndice();
+            int[] vecinas = indice.kVecinos(ciudad, tamAnillo);
+            float[] distancias = new float[vecinas.length];
+            for (int i = 0; i < vecinas.length; i++) {
+                distancias[i] = (float) indice.distanciaKm(ciudad, vecinas[i]);
+            }
+            anillo = new Anillo(vecinas, distancias);
+            // Si dos hilos lo calculan a la vez el resultado es el mismo; los campos final garantizan
+            // que otro hilo nunca ve un anillo a medio construir.
+            anillos[ciudad] = anillo;
+        }
+        return anillo;
+    }
+
+    /**
+     * Vecinas de una ciudad ordenadas de menor a mayor distancia.
+     */
+    private static final class Anillo {
+        final int[] ciudades;
+        final float[] distancias;
+
+        Anillo(int[] ciudades, float[] distancias) {
+            this.ciudades = ciudades;
+            this.distancias = distancias;
+        }
+    }
+}
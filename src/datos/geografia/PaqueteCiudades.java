@@ -0,0 +1,148 @@
+package datos.geografia;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Formato binario por columnas para el catálogo de ciudades.
+ * El paquete se proyecta en memoria con {@link FileChannel#map} y el catálogo lee las coordenadas y los
+ * nombres directamente del fichero, sin procesar texto ni crear un objeto por ciudad.
+ * <p>
+ * Estructura (enteros y reales en orden big-endian):
+ * <pre>
+ *   int    MAGIA
+ *   int    VERSION
+ *   int    total de ciudades (n)
+ *   int    bytes de la tabla de nombres (b)
+ *   double latitudes[n]
+ *   double longitudes[n]
+ *   int    inicio de cada nombre en la tabla[n + 1]
+ *   byte   tabla de nombres en UTF-8[b]
+ * </pre>
+ *
+ * @author Sergio García Rodríguez
+ */
+public final class PaqueteCiudades {
+
+    /** "QCIT" en ASCII. Identifica un paquete de ciudades. */
+    public static final int MAGIA = 0x51434954;
+    public static final int VERSION = 1;
+    private static final int TAM_CABECERA = 4 * Integer.BYTES;
+
+    private PaqueteCiudades() {
+    }
+
+    /**
+     * Convierte un catálogo de ciudades (en cualquier formato) en un paquete binario.
+     * @param rutaOrigen Fichero de ciudades de origen.
+     * @param rutaPaquete Fichero del paquete a generar.
+     * @return Número de ciudades escritas.
+     * @throws IOException Si ocurre un error al leer o escribir.
+     */
+    public static int convertir(String rutaOrigen, String rutaPaquete) throws IOException {
+        CatalogoCiudades cat = CatalogoCiudades.leer(rutaOrigen);
+        escribir(cat, rutaPaquete);
+        return cat.getTotal();
+    }
+
+    /**
+     * Escribe un catálogo como paquete binario.
+     * @param cat Catálogo de ciudades.
+     * @param rutaPaquete Fichero del paquete a generar.
+     * @throws IOException Si ocurre un error al escribir.
+     */
+    public static void escribir(CatalogoCiudades cat, String rutaPaquete) throws IOException {
+        int total = cat.getTotal();
+        byte[][] nombres = new byte[total][];
+        int bytesNombres = 0;
+        for (int i = 0; i < total; i++) {
+            nombres[i] = cat.getNombre(i).getBytes(StandardCharsets.UTF_8);
+            bytesNombres += nombres[i].length;
+        }
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(rutaPaquete), 1 << 16))) {
+            out.writeInt(MAGIA);
+            out.writeInt(VERSION);
+            out.writeInt(total);
+            out.writeInt(bytesNombres);
+            for (int i = 0; i < total; i++) {
+                out.writeDouble(cat.getLatitud(i));
+            }
+            for (int i = 0; i < total; i++) {
+                out.writeDouble(cat.getLongitud(i));
+            }
+            int inicio = 0;
+            for (int i = 0; i < total; i++) {
+                out.writeInt(inicio);
+                inicio += nombres[i].length;
+            }
+            out.writeInt(inicio);
+            for (byte[] nombre : nombres) {
+                out.write(nombre);
+            }
+        }
+    }
+
+    /**
+     * Indica si un fichero es un paquete de ciudades (comprobando la marca inicial).
+     * @param ruta Ruta del fichero.
+     * @return true si empieza por {@link #MAGIA}.
+     */
+    public static boolean esPaquete(String ruta) {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(ruta))) {
+            return in.readInt() == MAGIA;
+        } catch (IOException e) {
+            // Fichero inexistente o más corto que la marca: no es un paquete
+            return false;
+        }
+    }
+
+    /**
+     * Proyecta un paquete en memoria y devuelve un catálogo que lee directamente de él.
+     * @param ruta Ruta del paquete.
+     * @return Catálogo de ciudades.
+     * @throws IOException Si el fichero no se puede leer o no es un paquete válido.
+     */
+    public static CatalogoCiudades cargar(String ruta) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel canal = FileChannel.open(Path.of(ruta), StandardOpenOption.READ)) {
+            // La proyección sigue siendo válida después de cerrar el canal
+            buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+        if (buffer.capacity() < TAM_CABECERA || buffer.getInt(0) != MAGIA) {
+            throw new IOException(ruta + " no es un paquete de ciudades");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException(ruta + ": versión de paquete no soportada " + buffer.getInt(4));
+        }
+        int total = buffer.getInt(8);
+        int bytesNombres = buffer.getInt(12);
+
+        int posLatitudes = TAM_CABECERA;
+        int posLongitudes = posLatitudes + total * Double.BYTES;
+        int posInicios = posLongitudes + total * Double.BYTES;
+        int posNombres = posInicios + (total + 1) * Integer.BYTES;
+        if (buffer.capacity() < posNombres + bytesNombres) {
+            throw new IOException(ruta + ": paquete de ciudades incompleto");
+        }
+
+        DoubleBuffer latitudes = buffer.slice(posLatitudes, total * Double.BYTES).asDoubleBuffer();
+        DoubleBuffer longitudes = buffer.slice(posLongitudes, total * Double.BYTES).asDoubleBuffer();
+        IntBuffer inicios = buffer.slice(posInicios, (total + 1) * Integer.BYTES).asIntBuffer();
+        ByteBuffer nombres = buffer.slice(posNombres, bytesNombres);
+        return new CatalogoCiudades(total, latitudes, longitudes, inicios, nombres);
+    }
+}
@@ -0,0 +1,348 @@
+package datos.jugadores;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import config.Constantes;
+
+/**
+ * Almacén de jugadores por columnas: los puntos, los puntos de la ronda y los puntos de la partida de todos
+ * los jugadores están en vectores de enteros, uno por dato, y los nombres en una {@link TablaNombres}. Cada
+ * jugador se identifica por su posición en los vectores, que van de 0 al total sin huecos intermedios.
+ * Las operaciones sobre todos los jugadores (poner a cero los puntos de la ronda, buscar el ganador, escribir
+ * la lista) recorren los vectores seguidos, sin saltar de un objeto a otro por la memoria.
+ * Un {@link Jugador} es solo una vista de una posición del almacén: se crea al pedirlo y lee y escribe
+ * directamente en los vectores.
+ * Una posición puede estar vacía (sin jugador todavía), como los asientos libres de {@link gestion.GestorJugadores}.
+ *
+ *  @author Sergio García Rodríguez
+ */
+public class AlmacenJugadores {
+
+    private static final int SIN_NOMBRE = -1;
+
+    private TablaNombres tablaNombres;
+    // Número del nombre de cada jugador en la tabla (SIN_NOMBRE si la posición está vacía)
+    private int[] nombres;
+    private int[] puntos;
+    private int[] puntosRonda;
+    private int[] puntosPartida;
+    private final BitSet humanos = new BitSet();
+    // Vistas ya creadas de cada posición
+    private Jugador[] vistas;
+    private int total;
+    private int totalOcupadas;
+    // Caracteres de los nombres en uso, para saber cuándo compactar la tabla de nombres
+    private long caracteresVivos;
+
+    /**
+     * Constructor.
+     * @param capacidad Número de jugadores para el que se reserva sitio (el almacén crece si hace falta).
+     */
+    public AlmacenJugadores(int capacidad) {
+        capacidad = Math.max(1, capacidad);
+        tablaNombres = new TablaNombres(capacidad);
+        nombres = new int[capacidad];
+        puntos = new int[capacidad];
+        puntosRonda = new int[capacidad];
+        puntosPartida = new int[capacidad];
+        vistas = new Jugador[capacidad];
+    }
+
+    /**
+     * Añade una posición vacía al final, duplicando la capacidad si hace falta.
+     * @return Posición añadida.
+     */
+    public int addPosicion() {
+        if (total == nombres.length) {
+            int capacidad = Math.max(4, nombres.length * 2);
+            nombres = Arrays.copyOf(nombres, capacidad);
+            puntos = Arrays.copyOf(puntos, capacidad);
+            puntosRonda = Arrays.copyOf(puntosRonda, capacidad);
+            puntosPartida = Arrays.copyOf(puntosPartida, capacidad);
+            vistas = Arrays.copyOf(vistas, capacidad);
+        }
+        nombres[total] = SIN_NOMBRE;
+        return total++;
+    }
+
+    /**
+     * Coloca un jugador en una posición vacía.
+     * @param pos Posición.
+     * @param nombre Nombre del jugador.
+     * @param puntosIniciales Puntos del jugador.
+     * @param humano true si es humano, false si es CPU.
+     */
+    public void ocupar(int pos, String nombre, int puntosIniciales, boolean humano) {
+        comprobarPosicion(pos);
+        if (nombres[pos] != SIN_NOMBRE) {
+            throw new IllegalStateException("La posición " + pos + " ya está ocupada");
+        }
+        nombres[pos] = tablaNombres.add(nombre);
+        caracteresVivos += nombre.length();
+        puntos[pos] = puntosIniciales;
+        puntosRonda[pos] = 0;
+        puntosPartida[pos] = 0;
+        humanos.set(pos, humano);
+        totalOcupadas++;
+    }
+
+    /**
+     * Quita el jugador de una posición. La última posición pasa a ocupar su lugar, así que las posiciones
+     * siguen sin huecos; la vista del jugador movido sigue siendo válida.
+     * @param pos Posición a quitar.
+     * @return Posición anterior del jugador movido a pos (la última), o pos si era la última.
+     */
+    public int quitar(int pos) {
+        comprobarPosicion(pos);
+        if (nombres[pos] != SIN_NOMBRE) {
+            caracteresVivos -= tablaNombres.getLongitud(nombres[pos]);
+            totalOcupadas--;
+        }
+        if (vistas[pos] != null) {
+            vistas[pos].desligar();
+        }
+        int ultima = total - 1;
+        if (pos != ultima) {
+            nombres[pos] = nombres[ultima];
+            puntos[pos] = puntos[ultima];
+            puntosRonda[pos] = puntosRonda[ultima];
+            puntosPartida[pos] = puntosPartida[ultima];
+            humanos.set(pos, humanos.get(ultima));
+            vistas[pos] = vistas[ultima];
+            if (vistas[pos] != null) {
+                vistas[pos].setPosicion(pos);
+            }
+        }
+        vistas[ultima] = null;
+        humanos.clear(ultima);
+        total--;
+        if (tablaNombres.getTotalCaracteres() > 2 * caracteresVivos + 1024) {
+            compactarNombres();
+        }
+        return ultima;
+    }
+
+    /**
+     * Copia los nombres en uso a una tabla nueva, dejando atrás los de jugadores quitados o renombrados.
+     */
+    private void compactarNombres() {
+        TablaNombres nueva = new TablaNombres(totalOcupadas);
+        for (int pos = 0; pos < total; pos++) {
+            if (nombres[pos] != SIN_NOMBRE) {
+                nombres[pos] = nueva.copiar(tablaNombres, nombres[pos]);
+            }
+        }
+        tablaNombres = nueva;
+    }
+
+    /**
+     * Vista del jugador de una posición. Se devuelve siempre la misma mientras el jugador siga en el almacén.
+     * @param pos Posición.
+     * @return Jugador, o null si la posición está vacía.
+     */
+    public Jugador getJugador(int pos) {
+        comprobarPosicion(pos);
+        if (nombres[pos] == SIN_NOMBRE) {
+            return null;
+        }
+        if (vistas[pos] == null) {
+            vistas[pos] = humanos.get(pos) ? new JugadorHumano(this, pos) : new JugadorCPU(this, pos);
+        }
+        return vistas[pos];
+    }
+
+    /**
+     * Copia en una posición vacía el jugador de otro almacén, con todos sus puntos.
+     */
+    void copiar(int pos, AlmacenJugadores origen, int posOrigen) {
+        ocupar(pos, origen.getNombre(posOrigen), origen.puntos[posOrigen], origen.humanos.get(posOrigen));
+        puntosRonda[pos] = origen.puntosRonda[posOrigen];
+        puntosPartida[pos] = origen.puntosPartida[posOrigen];
+    }
+
+    /**
+     * Registra la vista creada por un jugador suelto (ver {@link Jugador#Jugador(String, int, boolean)}).
+     */
+    void setVista(int pos, Jugador jugador) {
+        vistas[pos] = jugador;
+    }
+
+    private void comprobarPosicion(int pos) {
+        if (pos < 0 || pos >= total) {
+            throw new IndexOutOfBoundsException("Posición " + pos + " fuera del almacén de " + total + " jugadores");
+        }
+    }
+
+    public boolean isOcupada(int pos) {
+        return nombres[pos] != SIN_NOMBRE;
+    }
+
+    public String getNombre(int pos) {
+        return tablaNombres.get(nombres[pos]);
+    }
+
+    /**
+     * Cambia el nombre de un jugador. El nombre anterior queda en la tabla de nombres hasta que se compacte.
+     */
+    public void setNombre(int pos, String nombre) {
+        caracteresVivos += nombre.length() - tablaNombres.getLongitud(nombres[pos]);
+        nombres[pos] = tablaNombres.add(nombre);
+    }
+
+    /**
+     * Compara el nombre de un jugador con otro sin distinguir mayúsculas y minúsculas, sin crear un String.
+     * @param pos Posición ocupada.
+     * @param nombre Nombre con el que comparar.
+     * @return true si son iguales según {@link String#equalsIgnoreCase}.
+     */
+    public boolean tieneNombre(int pos, String nombre) {
+        return tablaNombres.igualIgnorandoMayusculas(nombres[pos], nombre);
+    }
+
+    /**
+     * Hash del nombre de un jugador, igual a {@link TablaNombres#hash(String)} de su nombre.
+     * @param pos Posición ocupada.
+     * @return Hash sin distinguir mayúsculas y minúsculas.
+     */
+    public int hashNombre(int pos) {
+        return tablaNombres.hash(nombres[pos]);
+    }
+
+    public int getPuntos(int pos) {
+        return puntos[pos];
+    }
+
+    public void addPuntos(int pos, int nuevos) {
+        puntos[pos] += nuevos;
+    }
+
+    public boolean isHumano(int pos) {
+        return humanos.get(pos);
+    }
+
+    public int getPuntosRonda(int pos) {
+        return puntosRonda[pos];
+    }
+
+    public int getPuntosPartida(int pos) {
+        return puntosPartida[pos];
+    }
+
+    /**
+     * Añade puntos a la ronda actual y a la partida de un jugador.
+     */
+    public void addPuntosRonda(int pos, int nuevos) {
+        puntosRonda[pos] += nuevos;
+        puntosPartida[pos] += nuevos;
+    }
+
+    public void resetPuntosRonda(int pos) {
+        puntosRonda[pos] = 0;
+    }
+
+    public void resetPuntosPartida(int pos) {
+        puntosPartida[pos] = 0;
+    }
+
+    /**
+     * Pone a cero los puntos de la ronda de todos los jugadores.
+     */
+    public void resetPuntosRonda() {
+        Arrays.fill(puntosRonda, 0, total, 0);
+    }
+
+    /**
+     * Pone a cero los puntos de la partida (y de la ronda) de todos los jugadores.
+     */
+    public void resetPuntosPartida() {
+        Arrays.fill(puntosRonda, 0, total, 0);
+        Arrays.fill(puntosPartida, 0, total, 0);
+    }
+
+    /**
+     * Mayor número de puntos de partida entre los jugadores.
+     * @return Puntos, o -1 si no hay jugadores.
+     */
+    public int getMaxPuntosPartida() {
+        int max = -1;
+        for (int pos = 0; pos < total; pos++) {
+            if (nombres[pos] != SIN_NOMBRE && puntosPartida[pos] > max) {
+                max = puntosPartida[pos];
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Nombre del jugador con más puntos de partida o, si hay empate, los nombres de los empatados separados
+     * por " - ", en el orden de sus posiciones.
+     * @return Nombre o nombres del ganador (vacío si no hay jugadores).
+     */
+    public String getGanador() {
+        int max = getMaxPuntosPartida();
+        StringBuilder ganador = new StringBuilder();
+        for (int pos = 0; pos < total; pos++) {
+            if (nombres[pos] != SIN_NOMBRE && puntosPartida[pos] == max) {
+                if (!ganador.isEmpty()) {
+                    ganador.append(" - ");
+                }
+                tablaNombres.escribir(nombres[pos], ganador);
+            }
+        }
+        return ganador.toString();
+    }
+
+    /**
+     * Suma de los puntos de todos los jugadores.
+     * @return Puntos.
+     */
+    public long getTotalPuntos() {
+        long suma = 0;
+        for (int pos = 0; pos < total; pos++) {
+            suma += puntos[pos];
+        }
+        return suma;
+    }
+
+    /**
+     * Escribe la lista de jugadores, uno por línea, con el formato de {@link Jugador#toString()}.
+     * @param txt Texto al que se añade la lista.
+     */
+    public void escribirLista(StringBuilder txt) {
+        for (int pos = 0; pos < total; pos++) {
+            if (nombres[pos] != SIN_NOMBRE) {
+                int desde = txt.length();
+                tablaNombres.escribir(nombres[pos], txt);
+                for (int i = txt.length() - desde; i < Constantes.TAM_MAX_NOMBRE_JUGADOR + 1; i++) {
+                    txt.append(' ');
+                }
+                txt.append('\t').append(puntos[pos]).append('\n');
+            }
+        }
+    }
+
+    /**
+     * Número de posiciones, ocupadas o vacías.
+     * @return Total de posiciones.
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Número de posiciones ocupadas por un jugador.
+     * @return Total de jugadores.
+     */
+    public int getTotalOcupadas() {
+        return totalOcupadas;
+    }
+
+    /**
+     * Memoria reservada por los vectores del almacén y la tabla de nombres (sin contar las vistas creadas).
+     * @return Bytes.
+     */
+    public long getBytes() {
+        return 4L * 5 * nombres.length + humanos.size() / 8 + tablaNombres.getBytes();
+    }
+}
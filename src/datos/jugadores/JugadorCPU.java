@@ -1,29 +1,38 @@
-package datos.jugadores;
-
-/**
- * Clase jugador de tipo CPU.
- * El nombre se genera automáticamente como "CPU" seguido de su posición.
- * Hereda de la clase Jugador.
- *
- *  @author Sergio García Rodríguez
- */
-public class JugadorCPU extends Jugador {
-
-    /**
-     * Constructor que crea un JugadorCPU con un número de posición específico y puntos iniciales.
-     * @param puntos Puntos iniciales del jugador.
-     * @param posJugador Número de identificación de la CPU.
-     */
-    public JugadorCPU(int puntos, int posJugador) {
-        super("CPU" + posJugador, puntos, false);
-    }
-
-    /**
-     * Constructor que crea un JugadorCPU con un número de posición específico y puntos iniciales.
-     * @param nombre Nombre del Jugador
-     * @param puntos Puntos iniciales del jugador.
-     */
-    public JugadorCPU(String nombre, int puntos) {
-        super(nombre, puntos, false);
-    }
-}
+package datos.jugadores;
+
+/**
+ * Clase jugador de tipo CPU.
+ * El nombre se genera automáticamente como "CPU" seguido de su posición.
+ * Hereda de la clase Jugador.
+ *
+ *  @author Sergio García Rodríguez
+ */
+public class JugadorCPU extends Jugador {
+
+    /**
+     * Constructor que crea un JugadorCPU con un número de posición específico y puntos iniciales.
+     * @param puntos Puntos iniciales del jugador.
+     * @param posJugador Número de identificación de la CPU.
+     */
+    public JugadorCPU(int puntos, int posJugador) {
+        super("CPU" + posJugador, puntos, false);
+    }
+
+    /**
+     * Constructor que crea un JugadorCPU con un número de posición específico y puntos iniciales.
+     * @param nombre Nombre del Jugador
+     * @param puntos Puntos iniciales del jugador.
+     */
+    public JugadorCPU(String nombre, int puntos) {
+        super(nombre, puntos, false);
+    }
+
+    /**
+     * Constructor de la vista de un jugador CPU de un almacén.
+     * @param almacen Almacén con los datos del jugador.
+     * @param pos Posición del jugador en el almacén.
+     */
+    JugadorCPU(AlmacenJugadores almacen, int pos) {
+        super(almacen, pos);
+    }
+}
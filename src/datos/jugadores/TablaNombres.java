@@ -0,0 +1,178 @@
+package datos.jugadores;
+
+import java.util.Arrays;
+
+/**
+ * Tabla de nombres: guarda todos los caracteres seguidos en un único vector, y cada nombre se identifica por
+ * un número. Un nombre ocupa así 2 bytes por carácter más 4 de su posición, en lugar de un objeto String con
+ * su propio vector. Los nombres no se borran: al cambiar un nombre se añade el nuevo y el viejo queda como
+ * hueco, que se recupera copiando los nombres vivos a una tabla nueva (ver {@link AlmacenJugadores}).
+ * Las comparaciones y el hash no distinguen mayúsculas y minúsculas, igual que {@link String#equalsIgnoreCase}.
+ *
+ *  @author Sergio García Rodríguez
+ */
+public class TablaNombres {
+
+    private char[] caracteres;
+    private int totalCaracteres;
+    // Inicio de cada nombre: el nombre n ocupa de inicio[n] a inicio[n + 1]
+    private int[] inicio;
+    private int totalNombres;
+
+    /**
+     * Constructor.
+     * @param nombresPrevistos Número de nombres para el que se reserva sitio (la tabla crece si hace falta).
+     */
+    public TablaNombres(int nombresPrevistos) {
+        caracteres = new char[Math.max(16, nombresPrevistos * 8)];
+        inicio = new int[Math.max(2, nombresPrevistos + 1)];
+    }
+
+    /**
+     * Añade un nombre a la tabla.
+     * @param nombre Nombre.
+     * @return Número del nombre.
+     */
+    public int add(String nombre) {
+        asegurarSitio(nombre.length());
+        nombre.getChars(0, nombre.length(), caracteres, totalCaracteres);
+        return cerrarNombre(nombre.length());
+    }
+
+    /**
+     * Copia un nombre de otra tabla, sin pasar por un String.
+     * @param origen Tabla del nombre.
+     * @param n Número del nombre en la tabla de origen.
+     * @return Número del nombre en esta tabla.
+     */
+    public int copiar(TablaNombres origen, int n) {
+        int longitud = origen.getLongitud(n);
+        asegurarSitio(longitud);
+        System.arraycopy(origen.caracteres, origen.inicio[n], caracteres, totalCaracteres, longitud);
+        return cerrarNombre(longitud);
+    }
+
+    private void asegurarSitio(int longitud) {
+        if (totalCaracteres + longitud > caracteres.length) {
+            caracteres = Arrays.copyOf(caracteres, Math.max(caracteres.length * 2, totalCaracteres + longitud));
+        }
+        if (totalNombres + 2 > inicio.length) {
+            inicio = Arrays.copyOf(inicio, inicio.length * 2);
+        }
+    }
+
+    private int cerrarNombre(int longitud) {
+        totalCaracteres += longitud;
+        inicio[++totalNombres] = totalCaracteres;
+        return totalNombres - 1;
+    }
+
+    /**
+     * Devuelve un nombre como String (se crea uno nuevo en cada llamada).
+     * @param n Número del nombre.
+     * @return Nombre.
+     */
+    public String get(int n) {
+        return new String(caracteres, inicio[n], getLongitud(n));
+    }
+
+    /**
+     * Añade un nombre a un texto, sin pasar por un String.
+     * @param n Número del nombre.
+     * @param txt Texto al que se añade.
+     */
+    public void escribir(int n, StringBuilder txt) {
+        txt.append(caracteres, inicio[n], getLongitud(n));
+    }
+
+    /**
+     * Número de caracteres de un nombre.
+     * @param n Número del nombre.
+     * @return Longitud.
+     */
+    public int getLongitud(int n) {
+        return inicio[n + 1] - inicio[n];
+    }
+
+    /**
+     * Compara un nombre de la tabla con otro, sin distinguir mayúsculas y minúsculas.
+     * @param n Número del nombre.
+     * @param nombre Nombre con el que comparar.
+     * @return true si son iguales según {@link String#equalsIgnoreCase}.
+     */
+    public boolean igualIgnorandoMayusculas(int n, String nombre) {
+        int desde = inicio[n];
+        if (inicio[n + 1] - desde != nombre.length()) {
+            return false;
+        }
+        for (int i = 0; i < nombre.length(); i++) {
+            char a = caracteres[desde + i];
+            char b = nombre.charAt(i);
+            if (a != b && normalizar(a) != normalizar(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hash de un nombre de la tabla. Es el mismo que {@link #hash(String)} del nombre como String.
+     * @param n Número del nombre.
+     * @return Hash sin distinguir mayúsculas y minúsculas.
+     */
+    public int hash(int n) {
+        int h = 0;
+        for (int i = inicio[n]; i < inicio[n + 1]; i++) {
+            h = 31 * h + normalizar(caracteres[i]);
+        }
+        return mezclar(h);
+    }
+
+    /**
+     * Hash de un nombre sin distinguir mayúsculas y minúsculas: dos nombres iguales según
+     * {@link String#equalsIgnoreCase} tienen el mismo hash.
+     * @param nombre Nombre.
+     * @return Hash.
+     */
+    public static int hash(String nombre) {
+        int h = 0;
+        for (int i = 0; i < nombre.length(); i++) {
+            h = 31 * h + normalizar(nombre.charAt(i));
+        }
+        return mezclar(h);
+    }
+
+    private static char normalizar(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static int mezclar(int h) {
+        // Mezcla los bits altos en los bajos, que son los que eligen la casilla de una tabla hash
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Número de nombres añadidos, incluidos los que ya no se usan.
+     * @return Número de nombres.
+     */
+    public int getTotalNombres() {
+        return totalNombres;
+    }
+
+    /**
+     * Caracteres guardados, incluidos los de nombres que ya no se usan.
+     * @return Número de caracteres.
+     */
+    public int getTotalCaracteres() {
+        return totalCaracteres;
+    }
+
+    /**
+     * Memoria reservada por la tabla.
+     * @return Bytes de los dos vectores.
+     */
+    public long getBytes() {
+        return 2L * caracteres.length + 4L * inicio.length;
+    }
+}
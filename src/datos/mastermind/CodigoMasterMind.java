@@ -0,0 +1,168 @@
+package datos.mastermind;
+
+/**
+ * Operaciones sobre códigos de MasterMind empaquetados en un {@code long}.
+ * Cada cifra ocupa {@link #BITS_CIFRA} bits, empezando por la primera en los bits más bajos, de forma que un
+ * código se compara, copia y guarda como un valor primitivo sin crear vectores ni cadenas.
+ * La puntuación de un intento se devuelve también empaquetada en un {@code int}: aciertos exactos en los
+ * bits altos y cifras descolocadas en los 4 bits bajos (cabe en un byte).
+ * <p>
+ * El número secreto nunca repite cifras, así que las cifras descolocadas se cuentan con dos máscaras de
+ * bits (las cifras del intento y las del secreto que no han acertado en su posición) y un recuento de bits.
+ *
+ * @author Sergio García Rodríguez
+ */
+public final class CodigoMasterMind {
+
+    public static final int BITS_CIFRA = 6;
+    /** Máximo número de cifras de un código. */
+    public static final int MAX_CIFRAS = Long.SIZE / BITS_CIFRA;
+    /** Máximo número de símbolos distintos: las cifras se escriben en base 36 (0-9 y A-Z). */
+    public static final int MAX_SIMBOLOS = Character.MAX_RADIX;
+    /** Valor de una posición que no es una cifra válida; nunca coincide con el secreto. */
+    public static final int CIFRA_INVALIDA = (1 << BITS_CIFRA) - 1;
+
+    private static final long MASCARA_CIFRA = (1L << BITS_CIFRA) - 1;
+    private static final int BITS_DESCOLOCADAS = 4;
+
+    private CodigoMasterMind() {
+    }
+
+    /**
+     * Cifra de una posición del código.
+     * @param codigo Código empaquetado.
+     * @param pos Posición (0 es la primera cifra).
+     * @return Valor de la cifra.
+     */
+    public static int cifra(long codigo, int pos) {
+        return (int) ((codigo >>> (pos * BITS_CIFRA)) & MASCARA_CIFRA);
+    }
+
+    /**
+     * Devuelve el código con la cifra de una posición cambiada.
+     * @param codigo Código empaquetado.
+     * @param pos Posición (0 es la primera cifra).
+     * @param cifra Nuevo valor.
+     * @return Código modificado.
+     */
+    public static long conCifra(long codigo, int pos, int cifra) {
+        int desp = pos * BITS_CIFRA;
+        return (codigo & ~(MASCARA_CIFRA << desp)) | ((long) cifra << desp);
+    }
+
+    /**
+     * Lee un código escrito por un jugador. Los caracteres que no son cifras válidas y las posiciones que
+     * faltan se guardan como {@link #CIFRA_INVALIDA}.
+     * @param texto Texto introducido.
+     * @param totalCifras Número de cifras del código.
+     * @param totalSimbolos Número de símbolos permitidos (cifras de 0 a totalSimbolos - 1).
+     * @return Código empaquetado.
+     */
+    public static long leer(String texto, int totalCifras, int totalSimbolos) {
+        long codigo = 0;
+        for (int i = 0; i < totalCifras; i++) {
+            int c = i < texto.length() ? Character.digit(texto.charAt(i), MAX_SIMBOLOS) : -1;
+            codigo = conCifra(codigo, i, (c < 0 || c >= totalSimbolos) ? CIFRA_INVALIDA : c);
+        }
+        return codigo;
+    }
+
+    /**
+     * Escribe un código como texto, una cifra por carácter.
+     * @param codigo Código empaquetado.
+     * @param totalCifras Número de cifras del código.
+     * @return Texto del código.
+     */
+    public static String aTexto(long codigo, int totalCifras) {
+        StringBuilder res = new StringBuilder(totalCifras);
+        for (int i = 0; i < totalCifras; i++) {
+            int c = cifra(codigo, i);
+            res.append(c == CIFRA_INVALIDA ? '?' : Character.toUpperCase(Character.forDigit(c, MAX_SIMBOLOS)));
+        }
+        return res.toString();
+    }
+
+    /**
+     * Puntúa un intento contra el número secreto sin reservar memoria.
+     * @param secreto Código secreto (sin cifras repetidas).
+     * @param intento Código del intento.
+     * @param totalCifras Número de cifras de los códigos.
+     * @return Puntuación empaquetada; ver {@link #getExactas(int)} y {@link #getDescolocadas(int)}.
+     */
+    public static int puntuar(long secreto, long intento, int totalCifras) {
+        int exactas = 0;
+        long cifrasSecreto = 0, cifrasIntento = 0;
+        for (int i = 0; i < totalCifras; i++) {
+            int s = cifra(secreto, i);
+            int c = cifra(intento, i);
+            if (s == c) {
+                exactas++;
+            } else {
+                cifrasSecreto |= 1L << s;
+                cifrasIntento |= 1L << c;
+            }
+        }
+        return puntuacion(exactas, Long.bitCount(cifrasSecreto & cifrasIntento));
+    }
+
+    /**
+     * Empaqueta una puntuación.
+     * @param exactas Cifras correctas en su posición.
+     * @param descolocadas Cifras correctas en otra posición.
+     * @return Puntuación empaquetada.
+     */
+    public static int puntuacion(int exactas, int descolocadas) {
+        return (exactas << BITS_DESCOLOCADAS) | descolocadas;
+    }
+
+    /**
+     * Cifras correctas en su posición.
+     * @param puntuacion Puntuación empaquetada.
+     * @return Número de aciertos exactos.
+     */
+    public static int getExactas(int puntuacion) {
+        return puntuacion >>> BITS_DESCOLOCADAS;
+    }
+
+    /**
+     * Cifras del secreto presentes en el intento pero en otra posición.
+     * @param puntuacion Puntuación empaquetada.
+     * @return Número de cifras descolocadas.
+     */
+    public static int getDescolocadas(int puntuacion) {
+        return puntuacion & ((1 << BITS_DESCOLOCADAS) - 1);
+    }
+
+    /**
+     * Pistas por posición para mostrar a un jugador:
+     * 1: cifra correcta en la posición correcta.
+     * 2: cifra correcta en una posición incorrecta.
+     * 3: cifra no presente en el número secreto.
+     * Una misma cifra del secreto solo se señala una vez, en la primera posición del intento que la usa.
+     * @param secreto Código secreto (sin cifras repetidas).
+     * @param intento Código del intento.
+     * @param totalCifras Número de cifras de los códigos.
+     * @return Cadena con un 1, 2 o 3 por posición.
+     */
+    public static String pistas(long secreto, long intento, int totalCifras) {
+        long pendientes = 0; // Cifras del secreto que no han acertado en su posición
+        for (int i = 0; i < totalCifras; i++) {
+            if (cifra(secreto, i) != cifra(intento, i)) {
+                pendientes |= 1L << cifra(secreto, i);
+            }
+        }
+        StringBuilder res = new StringBuilder(totalCifras);
+        for (int i = 0; i < totalCifras; i++) {
+            int c = cifra(intento, i);
+            if (c == cifra(secreto, i)) {
+                res.append('1');
+            } else if ((pendientes & (1L << c)) != 0) {
+                res.append('2');
+                pendientes &= ~(1L << c);
+            } else {
+                res.append('3');
+            }
+        }
+        return res.toString();
+    }
+}
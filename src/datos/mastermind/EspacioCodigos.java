@@ -0,0 +1,203 @@
+package datos.mastermind;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+import config.Constantes;
+import config.LectorProperties;
+import gestion.GestorLog;
+
+/**
+ * Todos los códigos posibles de una configuración de MasterMind (número de cifras y de símbolos), sin
+ * cifras repetidas, en orden lexicográfico. Cada código se identifica por su posición en ese orden, de
+ * forma que los algoritmos pueden trabajar con vectores de enteros en lugar de códigos.
+ * Los espacios se comparten: hay uno por configuración y se crea la primera vez que se pide.
+ * Opcionalmente las puntuaciones se leen de una {@link TablaPuntuaciones} precalculada.
+ *
+ * @author Sergio García Rodríguez
+ */
+public final class EspacioCodigos {
+
+    private static final Map<Integer, EspacioCodigos> espacios = new ConcurrentHashMap<>();
+
+    private final int totalCifras;
+    private final int totalSimbolos;
+    private final long[] codigos;
+    private volatile TablaPuntuaciones tabla;
+    private volatile boolean tablaSolicitada = false;
+    // Cerrojo en lugar de synchronized: quien prepara la tabla escribe en el log, y un hilo virtual que espera
+    // otro cerrojo dentro de un synchronized no suelta su hilo portador
+    private final ReentrantLock cerrojoTabla = new ReentrantLock();
+
+    private EspacioCodigos(int totalCifras, int totalSimbolos) {
+        this.totalCifras = totalCifras;
+        this.totalSimbolos = totalSimbolos;
+        this.codigos = new long[(int) calcularTotal(totalCifras, totalSimbolos)];
+        IntStream.range(0, codigos.length).parallel().forEach(i -> codigos[i] = calcularCodigo(i));
+    }
+
+    /**
+     * Devuelve el espacio de códigos de una configuración, creándolo si es necesario.
+     * @param totalCifras Número de cifras de cada código.
+     * @param totalSimbolos Número de símbolos (cifras de 0 a totalSimbolos - 1).
+     * @return Espacio de códigos, o null si tiene más de {@link Constantes#MAX_CODIGOS_MASTERMIND} códigos.
+     */
+    public static EspacioCodigos de(int totalCifras, int totalSimbolos) {
+        if (calcularTotal(totalCifras, totalSimbolos) > Constantes.MAX_CODIGOS_MASTERMIND) {
+            return null;
+        }
+        return espacios.computeIfAbsent(totalCifras * (CodigoMasterMind.MAX_SIMBOLOS + 1) + totalSimbolos,
+                k -> new EspacioCodigos(totalCifras, totalSimbolos));
+    }
+
+    /**
+     * Número de códigos sin cifras repetidas: variaciones de totalSimbolos elementos tomados de
+     * totalCifras en totalCifras.
+     * @param totalCifras Número de cifras de cada código.
+     * @param totalSimbolos Número de símbolos.
+     * @return Número de códigos, o Long.MAX_VALUE si no cabe en un long.
+     */
+    public static long calcularTotal(int totalCifras, int totalSimbolos) {
+        long total = 1;
+        for (int i = 0; i < totalCifras; i++) {
+            if (total > Long.MAX_VALUE / totalSimbolos) {
+                return Long.MAX_VALUE;
+            }
+            total *= totalSimbolos - i;
+        }
+        return total;
+    }
+
+    /**
+     * Número de códigos del espacio.
+     * @return Total de códigos.
+     */
+    public int getTotal() {
+        return codigos.length;
+    }
+
+    public int getTotalCifras() {
+        return totalCifras;
+    }
+
+    public int getTotalSimbolos() {
+        return totalSimbolos;
+    }
+
+    /**
+     * Código empaquetado de una posición del espacio.
+     * @param indice Posición del código.
+     * @return Código empaquetado (ver {@link CodigoMasterMind}).
+     */
+    public long getCodigo(int indice) {
+        return codigos[indice];
+    }
+
+    /**
+     * Posición de un código en el espacio.
+     * @param codigo Código empaquetado.
+     * @return Posición, o -1 si el código tiene cifras repetidas o fuera de rango.
+     */
+    public int indice(long codigo) {
+        long usadas = 0;
+        int indice = 0;
+        for (int i = 0; i < totalCifras; i++) {
+            int c = CodigoMasterMind.cifra(codigo, i);
+            if (c >= totalSimbolos || (usadas & (1L << c)) != 0) {
+                return -1;
+            }
+            // Posición de la cifra entre las que aún no se han usado
+            indice = indice * (totalSimbolos - i) + c - Long.bitCount(usadas & ((1L << c) - 1));
+            usadas |= 1L << c;
+        }
+        return indice;
+    }
+
+    /**
+     * Puntúa un intento contra un secreto, ambos dados por su posición en el espacio.
+     * @param secreto Posición del código secreto.
+     * @param intento Posición del código del intento.
+     * @return Puntuación empaquetada (ver {@link CodigoMasterMind#puntuar}).
+     */
+    public int puntuar(int secreto, int intento) {
+        TablaPuntuaciones t = tabla;
+        return t != null ? t.puntuar(secreto, intento) : calcularPuntuacion(secreto, intento);
+    }
+
+    /**
+     * Puntúa un intento contra un secreto sin consultar la tabla.
+     * @param secreto Posición del código secreto.
+     * @param intento Posición del código del intento.
+     * @return Puntuación empaquetada.
+     */
+    int calcularPuntuacion(int secreto, int intento) {
+        return CodigoMasterMind.puntuar(codigos[secreto], codigos[intento], totalCifras);
+    }
+
+    /**
+     * Prepara la tabla de puntuaciones precalculada, si está activada en la configuración y no ocupa más de
+     * {@link Constantes#MAX_BYTES_TABLA_MASTERMIND}. Solo se intenta una vez por espacio; si no se puede usar,
+     * las puntuaciones se siguen calculando al vuelo.
+     * @return La tabla, o null si no se usa.
+     */
+    public TablaPuntuaciones activarTabla() {
+        // Una vez pedida, se devuelve sin bloquear: muchas partidas crean solvers a la vez
+        if (tablaSolicitada) {
+            return tabla;
+        }
+        cerrojoTabla.lock();
+        try {
+            if (!tablaSolicitada && LectorProperties.isUsarTablaMasterMind()) {
+                long bytes = TablaPuntuaciones.calcularBytes(codigos.length);
+                if (bytes > Constantes.MAX_BYTES_TABLA_MASTERMIND) {
+                    GestorLog.escribirMensaje("Tabla de Mastermind de " + totalCifras + " cifras y " + totalSimbolos
+                            + " símbolos demasiado grande (" + (bytes >> 20) + " MB): se puntúa al vuelo");
+                } else {
+                    String ruta = String.format(Constantes.MASTERMIND_TABLA_PATH, totalCifras, totalSimbolos);
+                    try {
+                        long inicio = System.nanoTime();
+                        tabla = TablaPuntuaciones.cargarOCalcular(this, ruta);
+                        GestorLog.escribirMensaje("Tabla de Mastermind " + ruta + ": " + tabla.getBytes() + " bytes, lista en "
+                                + (System.nanoTime() - inicio) / 1_000_000 + " ms");
+                    } catch (IOException e) {
+                        GestorLog.escribirError("No se puede usar la tabla de Mastermind " + ruta + ": " + e.getMessage());
+                    }
+                }
+                // Se marca después de asignar la tabla para que quien no espera el cerrojo la vea ya preparada
+                tablaSolicitada = true;
+            }
+        } finally {
+            cerrojoTabla.unlock();
+        }
+        return tabla;
+    }
+
+    /**
+     * Calcula el código de una posición: la posición se descompone en base mixta (totalSimbolos,
+     * totalSimbolos - 1, ...) y cada dígito indica cuál de las cifras aún libres va en esa posición.
+     */
+    private long calcularCodigo(int indice) {
+        int[] orden = new int[totalCifras];
+        for (int i = totalCifras - 1; i >= 0; i--) {
+            int base = totalSimbolos - i;
+            orden[i] = indice % base;
+            indice /= base;
+        }
+        long codigo = 0;
+        long usadas = 0;
+        for (int i = 0; i < totalCifras; i++) {
+            int c = -1;
+            for (int libres = orden[i]; libres >= 0; libres--) {
+                do {
+                    c++;
+                } while ((usadas & (1L << c)) != 0);
+            }
+            usadas |= 1L << c;
+            codigo = CodigoMasterMind.conCifra(codigo, i, c);
+        }
+        return codigo;
+    }
+}
@@ -0,0 +1,367 @@
+package datos.mastermind;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+import config.Constantes;
+import presentacion.Utilidades;
+
+/**
+ * Jugador automático de MasterMind.
+ * Mantiene el conjunto de códigos que son coherentes con todas las pistas recibidas y elige cada intento
+ * con el criterio de Knuth (minimizar el peor caso) o de máxima entropía (maximizar la información
+ * esperada de la pista). Para cada intento posible se cuenta cuántos secretos darían cada puntuación.
+ * <p>
+ * La evaluación de intentos se reparte entre los núcleos con un {@link ForkJoinPool} y cada tarea deja de
+ * evaluar al llegar al límite de tiempo, devolviendo el mejor intento encontrado hasta entonces. Cuando hay
+ * muchos secretos posibles, las puntuaciones se estiman sobre una muestra aleatoria de ellos.
+ * Las puntuaciones se leen de la tabla precalculada del espacio cuando está disponible.
+ * Si la configuración tiene demasiados códigos para enumerarlos (ver {@link EspacioCodigos#de}), se
+ * buscan al azar intentos coherentes con las pistas hasta agotar el tiempo.
+ * <p>
+ * Las jugadas calculadas se guardan en un libro de aperturas compartido por todos los solvers. Como las
+ * puntuaciones no cambian al renombrar los símbolos, las partidas se guardan renombrados de forma que el
+ * primer intento sea siempre 0, 1, 2...; así todas las partidas con la misma secuencia de pistas comparten
+ * jugada aunque su primer intento sea distinto.
+ *
+ * @author Sergio García Rodríguez
+ */
+public final class SolverMasterMind {
+
+    /** Criterio para elegir el intento. */
+    public enum Criterio {
+        /** Knuth: el intento cuyo peor caso deja menos secretos posibles. */
+        MINIMAX,
+        /** El intento cuya pista aporta más información esperada. */
+        ENTROPIA
+    }
+
+    // Intentos evaluados por cada tarea antes de dividirla entre los núcleos
+    private static final int UMBRAL_TAREA = 32;
+    // Intentos no coherentes que también se evalúan: a veces reparten mejor los secretos que los coherentes
+    private static final int INTENTOS_NO_COHERENTES = 256;
+    private static final int TOTAL_PUNTUACIONES =
+            CodigoMasterMind.puntuacion(CodigoMasterMind.MAX_CIFRAS, CodigoMasterMind.MAX_CIFRAS) + 1;
+
+    // Jugadas ya calculadas: clave con la configuración y la partida renombrada, valor el intento renombrado
+    private static final Map<String, Long> libro = new ConcurrentHashMap<>();
+
+    private final int totalCifras;
+    private final int totalSimbolos;
+    private final Criterio criterio;
+    private final EspacioCodigos espacio;
+
+    // Posiciones en el espacio de los secretos coherentes con las pistas (null si no hay espacio)
+    private int[] candidatos;
+    private long[] intentos = new long[4];
+    private int[] puntuaciones = new int[4];
+    private int totalIntentos = 0;
+    // Renombrado de símbolos que lleva el primer intento a 0, 1, 2... y su inverso
+    private int[] renombrar;
+    private int[] original;
+    private final StringBuilder clave;
+
+    /**
+     * Constructor.
+     * @param totalCifras Número de cifras del código secreto.
+     * @param totalSimbolos Número de símbolos (cifras de 0 a totalSimbolos - 1).
+     * @param criterio Criterio para elegir cada intento.
+     */
+    public SolverMasterMind(int totalCifras, int totalSimbolos, Criterio criterio) {
+        this.totalCifras = totalCifras;
+        this.totalSimbolos = totalSimbolos;
+        this.criterio = criterio;
+        this.espacio = EspacioCodigos.de(totalCifras, totalSimbolos);
+        this.clave = new StringBuilder().append(totalCifras).append(',').append(totalSimbolos).append(',').append(criterio);
+        if (espacio != null) {
+            espacio.activarTabla();
+            candidatos = IntStream.range(0, espacio.getTotal()).toArray();
+        }
+    }
+
+    /**
+     * Número de secretos que siguen siendo posibles.
+     * @return Total de candidatos, o -1 si la configuración es demasiado grande para enumerarlos.
+     */
+    public int getTotalCandidatos() {
+        return candidatos == null ? -1 : candidatos.length;
+    }
+
+    /**
+     * Elige el siguiente intento.
+     * @param limiteNanos Instante ({@link System#nanoTime()}) en el que hay que tener el intento.
+     * @return Código empaquetado del intento.
+     */
+    public long siguienteIntento(long limiteNanos) {
+        if (espacio == null) {
+            return buscarIntentoCoherente(limiteNanos);
+        }
+        int total = candidatos.length;
+        if (total == 0) {
+            // Pistas contradictorias: no hay nada que deducir
+            return espacio.getCodigo(Utilidades.getRandom(espacio.getTotal() - 1));
+        }
+        if (totalIntentos == 0 || total <= 2) {
+            // Al principio todos los intentos son equivalentes por simetría; con 2 o menos, cualquiera coherente
+            return espacio.getCodigo(candidatos[Utilidades.getRandom(total - 1)]);
+        }
+
+        String partida = clave.toString();
+        Long jugada = libro.get(partida);
+        if (jugada != null) {
+            return permutar(jugada, original);
+        }
+
+        // Las muestras salen de un generador propio de la partida renombrada: calcular una jugada no consume
+        // números del generador de la partida, que así juega igual tanto si la jugada está en el libro como si no
+        SplittableRandom rndJugada = new SplittableRandom(partida.hashCode());
+        int[] muestra = total <= Constantes.MUESTRA_SOLVER_MASTERMIND
+                ? candidatos : muestraAleatoria(candidatos, Constantes.MUESTRA_SOLVER_MASTERMIND, rndJugada);
+        int coherentes = Math.min(total, Constantes.INTENTOS_SOLVER_MASTERMIND);
+        int[] evaluar = Arrays.copyOf(total <= coherentes ? candidatos : muestraAleatoria(candidatos, coherentes, rndJugada),
+                coherentes + INTENTOS_NO_COHERENTES);
+        for (int i = coherentes; i < evaluar.length; i++) {
+            evaluar[i] = rndJugada.nextInt(espacio.getTotal());
+        }
+
+        Mejor mejor = ForkJoinPool.commonPool().invoke(
+                new Evaluacion(evaluar, 0, evaluar.length, coherentes, muestra, limiteNanos));
+        long intento = espacio.getCodigo(mejor != null ? mejor.indice : evaluar[0]);
+        // Solo se guardan las jugadas evaluadas por completo. Si otro solver guardó antes la misma jugada, se
+        // usa la suya para que todas las partidas con las mismas pistas jueguen igual.
+        if (System.nanoTime() - limiteNanos < 0 && libro.size() < Constantes.MAX_JUGADAS_LIBRO_MASTERMIND) {
+            Long guardada = libro.putIfAbsent(partida, permutar(intento, renombrar));
+            if (guardada != null) {
+                return permutar(guardada, original);
+            }
+        }
+        return intento;
+    }
+
+    /**
+     * Número de jugadas guardadas en el libro de aperturas.
+     * @return Total de jugadas de todas las configuraciones.
+     */
+    public static int getTotalJugadasLibro() {
+        return libro.size();
+    }
+
+    /**
+     * Registra la pista obtenida con un intento y descarta los secretos que no son coherentes con ella.
+     * @param intento Código empaquetado del intento.
+     * @param puntuacion Puntuación empaquetada obtenida (ver {@link CodigoMasterMind#puntuar}).
+     */
+    public void registrar(long intento, int puntuacion) {
+        if (totalIntentos == intentos.length) {
+            intentos = Arrays.copyOf(intentos, totalIntentos * 2);
+            puntuaciones = Arrays.copyOf(puntuaciones, totalIntentos * 2);
+        }
+        intentos[totalIntentos] = intento;
+        puntuaciones[totalIntentos++] = puntuacion;
+
+        if (totalIntentos == 1) {
+            calcularRenombrado(intento);
+        } else {
+            clave.append('|').append(permutar(intento, renombrar));
+        }
+        clave.append(':').append(puntuacion);
+
+        if (espacio != null) {
+            int indice = espacio.indice(intento);
+            if (candidatos.length > Constantes.MUESTRA_SOLVER_MASTERMIND) {
+                candidatos = (indice >= 0
+                        ? Arrays.stream(candidatos).parallel().filter(s -> espacio.puntuar(indice, s) == puntuacion)
+                        : Arrays.stream(candidatos).parallel().filter(
+                                s -> CodigoMasterMind.puntuar(espacio.getCodigo(s), intento, totalCifras) == puntuacion))
+                        .toArray();
+            } else {
+                // Pocos candidatos: se filtran en el propio hilo, sin el coste de montar un stream
+                int quedan = 0;
+                for (int s : candidatos) {
+                    // La puntuación es simétrica: se recorre la fila del intento, que está contigua en la tabla
+                    int p = indice >= 0 ? espacio.puntuar(indice, s)
+                            : CodigoMasterMind.puntuar(espacio.getCodigo(s), intento, totalCifras);
+                    if (p == puntuacion) {
+                        candidatos[quedan++] = s;
+                    }
+                }
+                candidatos = Arrays.copyOf(candidatos, quedan);
+            }
+        }
+    }
+
+    /**
+     * Calcula el renombrado de símbolos que convierte el primer intento en 0, 1, 2... Los símbolos que no
+     * aparecen en él conservan su orden a continuación.
+     */
+    private void calcularRenombrado(long primero) {
+        renombrar = new int[totalSimbolos];
+        original = new int[totalSimbolos];
+        Arrays.fill(renombrar, -1);
+        int siguiente = 0;
+        for (int i = 0; i < totalCifras; i++) {
+            int c = CodigoMasterMind.cifra(primero, i);
+            if (renombrar[c] < 0) {
+                renombrar[c] = siguiente++;
+            }
+        }
+        for (int c = 0; c < totalSimbolos; c++) {
+            if (renombrar[c] < 0) {
+                renombrar[c] = siguiente++;
+            }
+            original[renombrar[c]] = c;
+        }
+    }
+
+    /**
+     * Cambia los símbolos de un código según una tabla de renombrado.
+     */
+    private long permutar(long codigo, int[] tabla) {
+        long resultado = 0;
+        for (int i = 0; i < totalCifras; i++) {
+            resultado = CodigoMasterMind.conCifra(resultado, i, tabla[CodigoMasterMind.cifra(codigo, i)]);
+        }
+        return resultado;
+    }
+
+    /**
+     * Elige posiciones al azar (con reposición) de un vector.
+     */
+    private static int[] muestraAleatoria(int[] origen, int tamano, SplittableRandom rnd) {
+        int[] muestra = new int[tamano];
+        for (int i = 0; i < tamano; i++) {
+            muestra[i] = origen[rnd.nextInt(origen.length)];
+        }
+        return muestra;
+    }
+
+    /**
+     * Para configuraciones sin espacio enumerado: prueba códigos al azar hasta encontrar uno coherente con
+     * todas las pistas o agotar el tiempo; en ese caso devuelve el que menos pistas contradice.
+     */
+    private long buscarIntentoCoherente(long limiteNanos) {
+        RandomGenerator rnd = Utilidades.getGeneradorRandom();
+        long mejor = 0;
+        int menosFallos = Integer.MAX_VALUE;
+        do {
+            long codigo = 0, usadas = 0;
+            for (int i = 0; i < totalCifras; i++) {
+                int c;
+                do {
+                    c = rnd.nextInt(0, totalSimbolos);
+                } while ((usadas & (1L << c)) != 0);
+                usadas |= 1L << c;
+                codigo = CodigoMasterMind.conCifra(codigo, i, c);
+            }
+            int fallos = 0;
+            for (int i = 0; i < totalIntentos && fallos < menosFallos; i++) {
+                if (CodigoMasterMind.puntuar(codigo, intentos[i], totalCifras) != puntuaciones[i]) {
+                    fallos++;
+                }
+            }
+            if (fallos < menosFallos) {
+                mejor = codigo;
+                menosFallos = fallos;
+            }
+        } while (menosFallos > 0 && System.nanoTime() - limiteNanos < 0);
+        return mejor;
+    }
+
+    /**
+     * Mejor intento encontrado por una tarea.
+     */
+    private static final class Mejor {
+        final int indice;
+        final double valor;
+        final boolean coherente;
+
+        Mejor(int indice, double valor, boolean coherente) {
+            this.indice = indice;
+            this.valor = valor;
+            this.coherente = coherente;
+        }
+
+        /**
+         * A igual valor se prefiere un intento coherente, que puede ser el secreto.
+         */
+        boolean mejorQue(Mejor otro) {
+            return otro == null || valor > otro.valor || (valor == otro.valor && coherente && !otro.coherente);
+        }
+    }
+
+    /**
+     * Tarea que evalúa un tramo de la lista de intentos y devuelve el mejor. Solo vive durante la búsqueda y
+     * nunca se serializa.
+     */
+    @SuppressWarnings("serial")
+    private final class Evaluacion extends RecursiveTask<Mejor> {
+        private final int[] evaluar;
+        private final int ini;
+        private final int fin;
+        private final int coherentes;
+        private final int[] muestra;
+        private final long limiteNanos;
+
+        Evaluacion(int[] evaluar, int ini, int fin, int coherentes, int[] muestra, long limiteNanos) {
+            this.evaluar = evaluar;
+            this.ini = ini;
+            this.fin = fin;
+            this.coherentes = coherentes;
+            this.muestra = muestra;
+            this.limiteNanos = limiteNanos;
+        }
+
+        @Override
+        protected Mejor compute() {
+            if (fin - ini > UMBRAL_TAREA) {
+                int medio = (ini + fin) >>> 1;
+                Evaluacion izquierda = new Evaluacion(evaluar, ini, medio, coherentes, muestra, limiteNanos);
+                izquierda.fork();
+                Mejor derecha = new Evaluacion(evaluar, medio, fin, coherentes, muestra, limiteNanos).compute();
+                Mejor mejor = izquierda.join();
+                return derecha != null && derecha.mejorQue(mejor) ? derecha : mejor;
+            }
+
+            Mejor mejor = null;
+            int[] partes = new int[TOTAL_PUNTUACIONES];
+            for (int i = ini; i < fin && System.nanoTime() - limiteNanos < 0; i++) {
+                Arrays.fill(partes, 0);
+                int intento = evaluar[i];
+                for (int secreto : muestra) {
+                    partes[espacio.puntuar(secreto, intento)]++;
+                }
+                Mejor actual = new Mejor(intento, valorar(partes, muestra.length), i < coherentes);
+                if (actual.mejorQue(mejor)) {
+                    mejor = actual;
+                }
+            }
+            return mejor;
+        }
+
+        /**
+         * Valor de un intento según el reparto de los secretos por puntuación: cuanto mayor, mejor.
+         */
+        private double valorar(int[] partes, int total) {
+            if (criterio == Criterio.MINIMAX) {
+                int peor = 0;
+                for (int p : partes) {
+                    peor = Math.max(peor, p);
+                }
+                return -peor;
+            }
+            double entropia = 0;
+            for (int p : partes) {
+                if (p > 0) {
+                    entropia -= p * Math.log((double) p / total);
+                }
+            }
+            return entropia / total;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package datos.mastermind;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+/**
+ * Tabla precalculada con la puntuación de cada pareja (secreto, intento) de un espacio de códigos.
+ * Cada puntuación ocupa un byte (ver {@link CodigoMasterMind#puntuar}) y la tabla es un único bloque de
+ * memoria fuera del heap: un fichero proyectado con {@link FileChannel#map}. La primera vez se calcula en
+ * paralelo directamente sobre el fichero; las siguientes ejecuciones solo lo proyectan.
+ * <p>
+ * Estructura del fichero (enteros big-endian):
+ * <pre>
+ *   int  MAGIA
+ *   int  VERSION
+ *   int  número de cifras
+ *   int  número de símbolos
+ *   byte puntuaciones[total * total]   (fila: secreto, columna: intento)
+ * </pre>
+ *
+ * @author Sergio García Rodríguez
+ */
+public final class TablaPuntuaciones {
+
+    /** "QMMT" en ASCII. Identifica una tabla de puntuaciones. */
+    public static final int MAGIA = 0x514D4D54;
+    public static final int VERSION = 1;
+    private static final int TAM_CABECERA = 4 * Integer.BYTES;
+
+    private final int total;
+    private final ByteBuffer puntuaciones;
+
+    private TablaPuntuaciones(int total, ByteBuffer puntuaciones) {
+        this.total = total;
+        this.puntuaciones = puntuaciones;
+    }
+
+    /**
+     * Bytes que ocupa la tabla de un espacio de códigos.
+     * @param totalCodigos Número de códigos del espacio.
+     * @return Tamaño de las puntuaciones en bytes.
+     */
+    public static long calcularBytes(long totalCodigos) {
+        return totalCodigos * totalCodigos;
+    }
+
+    /**
+     * Proyecta la tabla de un espacio desde su fichero o, si no existe o no es válido, la calcula y la
+     * guarda en él.
+     * @param espacio Espacio de códigos.
+     * @param ruta Fichero de la tabla.
+     * @return Tabla de puntuaciones.
+     * @throws IOException Si el fichero no se puede leer ni escribir.
+     */
+    public static TablaPuntuaciones cargarOCalcular(EspacioCodigos espacio, String ruta) throws IOException {
+        TablaPuntuaciones tabla = cargar(espacio, Path.of(ruta));
+        return tabla != null ? tabla : calcular(espacio, Path.of(ruta));
+    }
+
+    /**
+     * Proyecta una tabla ya calculada.
+     * @return La tabla, o null si el fichero no existe o no corresponde al espacio.
+     */
+    private static TablaPuntuaciones cargar(EspacioCodigos espacio, Path ruta) throws IOException {
+        if (!Files.exists(ruta)) {
+            return null;
+        }
+        long bytes = calcularBytes(espacio.getTotal());
+        MappedByteBuffer buffer;
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            if (canal.size() != TAM_CABECERA + bytes) {
+                return null;
+            }
+            buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+        if (buffer.getInt(0) != MAGIA || buffer.getInt(4) != VERSION
+                || buffer.getInt(8) != espacio.getTotalCifras() || buffer.getInt(12) != espacio.getTotalSimbolos()) {
+            return null;
+        }
+        return new TablaPuntuaciones(espacio.getTotal(), buffer.slice(TAM_CABECERA, (int) bytes));
+    }
+
+    /**
+     * Calcula la tabla en paralelo (una fila por tarea) sobre un fichero temporal proyectado en memoria.
+     * La cabecera se escribe al final y el fichero se renombra, de forma que nunca queda una tabla a medias
+     * con una cabecera válida.
+     */
+    private static TablaPuntuaciones calcular(EspacioCodigos espacio, Path ruta) throws IOException {
+        int total = espacio.getTotal();
+        long bytes = calcularBytes(total);
+        Path temporal = ruta.resolveSibling(ruta.getFileName() + ".tmp");
+        MappedByteBuffer buffer;
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, TAM_CABECERA + bytes);
+        }
+        ByteBuffer datos = buffer.slice(TAM_CABECERA, (int) bytes);
+        // Cada fila se escribe con posiciones absolutas en un tramo distinto del buffer
+        IntStream.range(0, total).parallel().forEach(secreto -> {
+            int fila = secreto * total;
+            for (int intento = 0; intento < total; intento++) {
+                datos.put(fila + intento, (byte) espacio.calcularPuntuacion(secreto, intento));
+            }
+        });
+        buffer.putInt(0, MAGIA);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, espacio.getTotalCifras());
+        buffer.putInt(12, espacio.getTotalSimbolos());
+        buffer.force();
+        Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new TablaPuntuaciones(total, datos);
+    }
+
+    /**
+     * Puntuación de un intento contra un secreto.
+     * @param secreto Posición del código secreto en el espacio.
+     * @param intento Posición del código del intento en el espacio.
+     * @return Puntuación empaquetada (ver {@link CodigoMasterMind#puntuar}).
+     */
+    public int puntuar(int secreto, int intento) {
+        return puntuaciones.get(secreto * total + intento) & 0xFF;
+    }
+
+    /**
+     * Memoria que ocupa la tabla.
+     * @return Bytes de puntuaciones.
+     */
+    public long getBytes() {
+        return puntuaciones.capacity();
+    }
+}
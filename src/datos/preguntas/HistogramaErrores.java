@@ -0,0 +1,94 @@
+package datos.preguntas;
+
+/**
+ * Histograma de los errores de tiempo de un jugador en las preguntas de cronómetro.
+ * Los errores se agrupan por su valor absoluto en tramos de amplitud creciente (ver {@link #LIMITES_MS}) y
+ * además se acumulan el número de pruebas adelantadas y retrasadas, la media y los extremos.
+ * Es seguro usarlo desde varios hilos.
+ *
+ * @author Sergio García Rodríguez
+ */
+public final class HistogramaErrores {
+
+    /** Límite superior (excluido) de cada tramo, en milisegundos; el último tramo no tiene límite. */
+    public static final int[] LIMITES_MS = {1, 10, 50, 100, 250, 500, 1000, 2000};
+
+    private final long[] tramos = new long[LIMITES_MS.length + 1];
+    private long total = 0;
+    private long adelantadas = 0;
+    private long sumaNanos = 0;
+    private long sumaAbsNanos = 0;
+    private long minNanos = Long.MAX_VALUE;
+    private long maxNanos = Long.MIN_VALUE;
+
+    /**
+     * Añade un error al histograma.
+     * @param errorNanos Diferencia con el tiempo de la prueba; negativa si se paró antes.
+     */
+    public synchronized void registrar(long errorNanos) {
+        long abs = Math.abs(errorNanos);
+        int t = 0;
+        while (t < LIMITES_MS.length && abs >= LIMITES_MS[t] * 1_000_000L) {
+            t++;
+        }
+        tramos[t]++;
+        total++;
+        if (errorNanos < 0) {
+            adelantadas++;
+        }
+        sumaNanos += errorNanos;
+        sumaAbsNanos += abs;
+        minNanos = Math.min(minNanos, errorNanos);
+        maxNanos = Math.max(maxNanos, errorNanos);
+    }
+
+    /**
+     * Número de errores registrados.
+     * @return Total de pruebas.
+     */
+    public synchronized long getTotal() {
+        return total;
+    }
+
+    /**
+     * Número de errores de un tramo.
+     * @param tramo Posición del tramo (0 a LIMITES_MS.length).
+     * @return Pruebas cuyo error absoluto cae en el tramo.
+     */
+    public synchronized long getTramo(int tramo) {
+        return tramos[tramo];
+    }
+
+    /**
+     * Error medio absoluto.
+     * @return Nanosegundos (0 si no hay errores).
+     */
+    public synchronized long getMediaAbsNanos() {
+        return total == 0 ? 0 : sumaAbsNanos / total;
+    }
+
+    /**
+     * Resumen del histograma en varias líneas.
+     * @return Texto con los tramos no vacíos y las estadísticas.
+     */
+    public synchronized String toString() {
+        if (total == 0) {
+            return "Sin pruebas de cronómetro";
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append(total).append(" pruebas (").append(adelantadas).append(" adelantadas, ")
+                .append(total - adelantadas).append(" retrasadas). Media: ")
+                .append(PreguntaCronometro.formatearError(sumaNanos / total)).append(", media absoluta: ")
+                .append(String.format("%.3f ms", sumaAbsNanos / total / 1e6)).append(", mín: ")
+                .append(PreguntaCronometro.formatearError(minNanos)).append(", máx: ")
+                .append(PreguntaCronometro.formatearError(maxNanos));
+        for (int t = 0; t < tramos.length; t++) {
+            if (tramos[t] > 0) {
+                String tramo = t < LIMITES_MS.length ? "< " + LIMITES_MS[t] + " ms" : ">= " + LIMITES_MS[t - 1] + " ms";
+                sb.append("\n  ").append(String.format("%-10s", tramo)).append(' ')
+                        .append("#".repeat((int) Math.max(1, 40 * tramos[t] / total))).append(' ').append(tramos[t]);
+            }
+        }
+        return sb.toString();
+    }
+}
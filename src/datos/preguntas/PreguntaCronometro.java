@@ -1,62 +1,118 @@
-package datos.preguntas;
-
-import java.time.Duration;
-import java.time.Instant;
-
-/**
- * Clase que representa una pregunta de tipo cronómetro.
- * Calcula el tiempo entre dos eventos y comprueba que es igual +-0.5 segs que el tiempo de la prueba.
- *
- * @author Sergio García Rodríguez
- */
-public class PreguntaCronometro implements Pregunta{
-
-    private final int totalSegs;
-    Instant inicio, fin;
-
-    /**
-     * Constructor. Genera una nueva pregunta matemática y su respuesta automáticamente.
-     */
-    public PreguntaCronometro(int totalSegs){
-        this.totalSegs = totalSegs;
-    }
-
-    /**
-     * Se usa para tomar el tiempo de arranque del test.
-     * @param mostrarSolucion No se usa, pero es necesario porque es una función de la interface Pregunta.
-     * @return Una cadena con la pregunta.
-     */
-    public String getTextoPregunta(boolean mostrarSolucion) {
-        inicio = Instant.now();
-        return "Tic... Tac...";
-    }
-
-    /**
-     * NO se usa pero se implementa para cumplir con la interface Pregunta.
-     * @return Una cadena vacía.
-     */
-    public String getSolucion(){
-        return "";
-    }
-
-    /**
-     * Se usa para tomar el tiempo de finalización del test.
-     * @param respuesta No se usa, pero es necesario porque es una función de la interface Pregunta.
-     * @return Un objeto Resultado con el texto final de la prueba y si se utilizó el tiempo indicado
-     * en la misma (+-0.5 segs).
-     */
-    public Resultado comprobarRespuesta(Object respuesta) {
-        fin = Instant.now();
-        // Calcula la duración entre los dos instantes
-        Duration duracion = Duration.between(inicio, fin);
-        long segundos = duracion.getSeconds() - totalSegs;
-
-        // Hay que calcular el valor absoluto porque se puede haber tardado más o menos tiempo del marcado en la prueba
-        boolean acierto = Math.abs(segundos) <= 0.5;
-        if (acierto) {
-            return new Resultado("Has acertado!!!!!", acierto);
-        }else {
-            return new Resultado("Has fallado. La diferencia con el tiempo de la prueba es: " + segundos + " segundos.", acierto);
-        }
-    }
-}
+package datos.preguntas;
+
+import config.Constantes;
+import gestion.Reloj;
+import gestion.RelojReal;
+
+/**
+ * Clase que representa una pregunta de tipo cronómetro.
+ * Calcula el tiempo entre dos eventos y comprueba que es igual +-0.5 segs que el tiempo de la prueba.
+ * El tiempo se mide con un {@link Reloj} de resolución de nanosegundos (por defecto el del sistema, monótono)
+ * y la diferencia con el tiempo de la prueba se informa en milisegundos con decimales.
+ *
+ * @author Sergio García Rodríguez
+ */
+public class PreguntaCronometro implements Pregunta{
+
+    private final int totalSegs;
+    private final Reloj reloj;
+    private long inicioNanos;
+    private long errorNanos;
+
+    /**
+     * Constructor. Genera una nueva pregunta de cronómetro.
+     * @param totalSegs Segundos que hay que esperar.
+     */
+    public PreguntaCronometro(int totalSegs){
+        this(totalSegs, RelojReal.getInstancia());
+    }
+
+    /**
+     * Constructor. Genera una nueva pregunta de cronómetro medida con el reloj indicado.
+     * @param totalSegs Segundos que hay que esperar.
+     * @param reloj Reloj con el que se mide el tiempo.
+     */
+    public PreguntaCronometro(int totalSegs, Reloj reloj){
+        this.totalSegs = totalSegs;
+        this.reloj = reloj;
+    }
+
+    /**
+     * Crea la misma pregunta (mismos segundos) medida con otro reloj.
+     * @param reloj Reloj con el que se mide el tiempo.
+     * @return Pregunta nueva, sin empezar.
+     */
+    public PreguntaCronometro conReloj(Reloj reloj) {
+        return new PreguntaCronometro(totalSegs, reloj);
+    }
+
+    /**
+     * Se usa para tomar el tiempo de arranque del test.
+     * @param mostrarSolucion No se usa, pero es necesario porque es una función de la interface Pregunta.
+     * @return Una cadena con la pregunta.
+     */
+    public String getTextoPregunta(boolean mostrarSolucion) {
+        inicioNanos = reloj.nanoTime();
+        return "Tic... Tac...";
+    }
+
+    /**
+     * NO se usa pero se implementa para cumplir con la interface Pregunta.
+     * @return Una cadena vacía.
+     */
+    public String getSolucion(){
+        return "";
+    }
+
+    /**
+     * Segundos que hay que esperar en la prueba.
+     * @return Segundos de la prueba.
+     */
+    public int getTotalSegs() {
+        return totalSegs;
+    }
+
+    /**
+     * Reloj con el que se mide la pregunta.
+     * @return Reloj de la pregunta.
+     */
+    public Reloj getReloj() {
+        return reloj;
+    }
+
+    /**
+     * Diferencia entre el tiempo medido en la última respuesta y el de la prueba.
+     * @return Nanosegundos; negativo si se ha parado antes de tiempo.
+     */
+    public long getErrorNanos() {
+        return errorNanos;
+    }
+
+    /**
+     * Se usa para tomar el tiempo de finalización del test.
+     * @param respuesta No se usa, pero es necesario porque es una función de la interface Pregunta.
+     * @return Un objeto Resultado con el texto final de la prueba y si se utilizó el tiempo indicado
+     * en la misma (+-0.5 segs).
+     */
+    public Resultado comprobarRespuesta(Object respuesta) {
+        errorNanos = reloj.nanoTime() - inicioNanos - totalSegs * 1_000_000_000L;
+
+        // Hay que calcular el valor absoluto porque se puede haber tardado más o menos tiempo del marcado en la prueba
+        boolean acierto = Math.abs(errorNanos) <= Constantes.TOLERANCIA_MS_CRONOMETRO * 1_000_000L;
+        if (acierto) {
+            return new Resultado("Has acertado!!!!! Diferencia: " + formatearError(errorNanos), acierto);
+        }else {
+            return new Resultado("Has fallado. La diferencia con el tiempo de la prueba es: "
+                    + formatearError(errorNanos), acierto);
+        }
+    }
+
+    /**
+     * Escribe una diferencia de tiempo en milisegundos con precisión de microsegundos.
+     * @param nanos Diferencia en nanosegundos.
+     * @return Texto con signo, por ejemplo "+12.345 ms".
+     */
+    public static String formatearError(long nanos) {
+        return String.format("%+.3f ms", nanos / 1e6);
+    }
+}
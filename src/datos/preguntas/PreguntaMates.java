@@ -1,97 +1,262 @@
-package datos.preguntas;
-
-import net.objecthunter.exp4j.Expression;
-import net.objecthunter.exp4j.ExpressionBuilder;
-
-import config.LectorProperties;
-import presentacion.Utilidades;
-
-/**
- * Clase que representa una pregunta de tipo matemático.
- * Genera una expresión aleatoria con operaciones básicas (+, -, *) y calcula su resultado.
- *
- * @author Sergio García Rodríguez
- */
-public class PreguntaMates implements Pregunta {
-
-    private final String pregunta;
-    private final int solucion;
-
-    /**
-     * Constructor. Genera una nueva pregunta matemática y su respuesta automáticamente.
-     */
-    public PreguntaMates() {
-        pregunta = generarPregunta();
-        solucion = generarSolucion();
-    }
-
-    /**
-     * Genera una operación matemática aleatoria con sumas, restas y multiplicaciones.
-     * @return Una cadena con la operación matemática.
-     */
-    private String generarPregunta() {
-        int nums = Utilidades.getRandom(LectorProperties.getMinNumEnterosPregMates(),
-                LectorProperties.getMaxNumEnterosPregMates());
-
-        StringBuilder operacion = new StringBuilder();
-        for (int i = 0; i < nums; i++) {
-            int cifra = Utilidades.getRandom(LectorProperties.getMinCifraPregMates(),
-                    LectorProperties.getMaxCifraPregMates());
-            operacion.append(cifra);
-
-            if (i < nums - 1) { // Agregar operador solo entre números, no al final
-                switch (Utilidades.getRandom(1, 4)) {
-                    case 1 -> operacion.append(" + ");
-                    case 2 -> operacion.append(" - ");
-                    case 3 -> operacion.append(" * ");
-                }
-            }
-        }
-        return operacion.toString();
-    }
-
-    /**
-     * Evalúa la expresión matemática y devuelve el resultado como String.
-     * @return Resultado de la operación como cadena.
-     */
-    private int generarSolucion() {
-        Expression exp = new ExpressionBuilder(pregunta).build();
-        return (int) exp.evaluate(); // Truncamos a entero
-    }
-
-    /**
-     * Devuelve la pregunta matemática generada.
-     * @param mostrarSolucion Envío de solución con pregunta.
-     * @return Pregunta en formato String.
-     */
-    public String getTextoPregunta(boolean mostrarSolucion) {
-        String txt = "Realiza la siguiente operación: \n" + pregunta;
-        if (mostrarSolucion){
-          return txt + " ==> ("+  solucion + ")";
-        }else {
-            return txt;
-        }
-    }
-
-    /**
-     * Devuelve la respuesta correcta a la pregunta.
-     * @return Respuesta en formato int.
-     */
-    public Object getSolucion() {
-        return solucion;
-    }
-
-    /**
-     * Comprueba si la respuesta es correcta según la pregunta.
-     * @param respuesta Respuesta del usuario a comparar
-     * @return Resultado ¿Mensaje a mostrar al usuario y si es correcta la respuesta?
-     */
-    public Resultado comprobarRespuesta(Object respuesta){
-        boolean acierto = (int)respuesta == solucion;
-        if (acierto) {
-            return new Resultado("Has acertado!!!!!", acierto);
-        }else {
-            return new Resultado("Has fallado. El resultado es: " + solucion, acierto);
-        }
-    }
-}
\ No newline at end of file
+package datos.preguntas;
+
+import java.util.random.RandomGenerator;
+
+import config.Constantes;
+import config.LectorProperties;
+import presentacion.Utilidades;
+
+/**
+ * Clase que representa una pregunta de tipo matemático.
+ * Genera una expresión aleatoria con operaciones básicas (+, -, *) y calcula su resultado exacto en
+ * {@code long}. Si una operación se saliese del rango de {@code long}, la expresión termina en el último
+ * número con el que el resultado todavía era exacto.
+ * A cada expresión se le asigna una puntuación de dificultad y, si está configurada una dificultad
+ * objetivo, se genera un número limitado de candidatas y se elige la más próxima al objetivo.
+ *
+ * @author Sergio García Rodríguez
+ */
+public class PreguntaMates implements Pregunta {
+
+    private final String pregunta;
+    private final long solucion;
+    private final int dificultad;
+
+    /**
+     * Constructor. Genera una nueva pregunta matemática y su respuesta automáticamente, con la
+     * dificultad objetivo configurada.
+     */
+    public PreguntaMates() {
+        this(LectorProperties.getDificultadPregMates());
+    }
+
+    /**
+     * Constructor. Genera una nueva pregunta matemática con una dificultad objetivo.
+     * @param dificultadObjetivo Puntuación de dificultad buscada; 0 o menos para no buscar ninguna.
+     */
+    public PreguntaMates(int dificultadObjetivo) {
+        StringBuilder texto = new StringBuilder();
+        Evaluador evaluador = generarPregunta(texto);
+        if (dificultadObjetivo > 0) {
+            // Número de intentos acotado: el coste no depende de lo alta que sea la dificultad pedida
+            StringBuilder candidata = new StringBuilder();
+            for (int i = 1; i < Constantes.INTENTOS_PREG_MATES
+                    && Math.abs(evaluador.getDificultad() - dificultadObjetivo) > 1; i++) {
+                candidata.setLength(0);
+                Evaluador otro = generarPregunta(candidata);
+                if (Math.abs(otro.getDificultad() - dificultadObjetivo)
+                        < Math.abs(evaluador.getDificultad() - dificultadObjetivo)) {
+                    evaluador = otro;
+                    StringBuilder aux = texto;
+                    texto = candidata;
+                    candidata = aux;
+                }
+            }
+        }
+        pregunta = texto.toString();
+        solucion = evaluador.resultado();
+        dificultad = evaluador.getDificultad();
+    }
+
+    /**
+     * Genera una operación matemática aleatoria con sumas, restas y multiplicaciones.
+     * El resultado se va calculando a la vez que se eligen los números y los operadores.
+     * @param operacion Donde se escribe el texto de la operación.
+     * @return El evaluador con el resultado y la dificultad de la operación generada.
+     */
+    private Evaluador generarPregunta(StringBuilder operacion) {
+        RandomGenerator rnd = Utilidades.getGeneradorRandom();
+        int nums = rnd.nextInt(LectorProperties.getMinNumEnterosPregMates(),
+                LectorProperties.getMaxNumEnterosPregMates() + 1);
+
+        Evaluador evaluador = new Evaluador();
+        Evaluador anterior = new Evaluador();
+        for (int i = 0; i < nums; i++) {
+            int longitud = operacion.length();
+            anterior.copiar(evaluador);
+            try {
+                if (i > 0) { // Agregar operador solo entre números, no al final
+                    switch (rnd.nextInt(1, 5)) {
+                        case 1 -> {
+                            operacion.append(" + ");
+                            evaluador.operador('+');
+                        }
+                        case 2 -> {
+                            operacion.append(" - ");
+                            evaluador.operador('-');
+                        }
+                        case 3 -> {
+                            operacion.append(" * ");
+                            evaluador.operador('*');
+                        }
+                        // Sin operador: el siguiente número se escribe pegado y forman un único número
+                    }
+                }
+                int cifra = rnd.nextInt(LectorProperties.getMinCifraPregMates(),
+                        LectorProperties.getMaxCifraPregMates() + 1);
+                operacion.append(cifra);
+                evaluador.numero(cifra);
+                evaluador.resultado(); // Comprueba que la operación hasta aquí no desborda
+            } catch (ArithmeticException ex) {
+                // Desbordamiento: la operación termina en el número anterior
+                operacion.setLength(longitud);
+                evaluador.copiar(anterior);
+                break;
+            }
+        }
+        return evaluador;
+    }
+
+    /**
+     * Devuelve la operación generada, sin el enunciado.
+     * @return Operación en formato texto.
+     */
+    public String getOperacion() {
+        return pregunta;
+    }
+
+    /**
+     * Devuelve la puntuación de dificultad de la operación.
+     * @return Dificultad (ver {@link Evaluador#getDificultad()}).
+     */
+    public int getDificultad() {
+        return dificultad;
+    }
+
+    /**
+     * Devuelve la pregunta matemática generada.
+     * @param mostrarSolucion Envío de solución con pregunta.
+     * @return Pregunta en formato String.
+     */
+    public String getTextoPregunta(boolean mostrarSolucion) {
+        String txt = "Realiza la siguiente operación: \n" + pregunta;
+        if (mostrarSolucion){
+          return txt + " ==> ("+  solucion + ")";
+        }else {
+            return txt;
+        }
+    }
+
+    /**
+     * Devuelve la respuesta correcta a la pregunta.
+     * @return Respuesta en formato long.
+     */
+    public Object getSolucion() {
+        return solucion;
+    }
+
+    /**
+     * Comprueba si la respuesta es correcta según la pregunta.
+     * @param respuesta Respuesta del usuario a comparar (cualquier número entero)
+     * @return Resultado ¿Mensaje a mostrar al usuario y si es correcta la respuesta?
+     */
+    public Resultado comprobarRespuesta(Object respuesta){
+        boolean acierto = ((Number)respuesta).longValue() == solucion;
+        if (acierto) {
+            return new Resultado("Has acertado!!!!!", acierto);
+        }else {
+            return new Resultado("Has fallado. El resultado es: " + solucion, acierto);
+        }
+    }
+
+    /**
+     * Evalúa en una sola pasada una operación con +, - y * a medida que se genera, respetando la
+     * precedencia de la multiplicación. Solo guarda la suma de los términos cerrados, el producto del
+     * término en curso y el número que se está escribiendo. Todas las operaciones son exactas: si el
+     * resultado no cabe en un long se lanza ArithmeticException.
+     */
+    private static final class Evaluador {
+        private long suma = 0;
+        private long termino = 1;
+        private int signo = 1;
+        private long numero = 0;
+        private boolean pegado = false; // El siguiente número se escribe junto al anterior
+        private int factores = 0;       // Factores ya cerrados en el término en curso
+        private int dificultad = 0;     // Dificultad de los números y productos ya cerrados
+
+        /**
+         * Recibe el siguiente número de la operación.
+         * @param cifra Número generado (no negativo).
+         */
+        void numero(int cifra) {
+            if (pegado) {
+                long base = 10;
+                while (base <= cifra) {
+                    base *= 10;
+                }
+                numero = Math.addExact(Math.multiplyExact(numero, base), cifra);
+            } else {
+                numero = cifra;
+            }
+            pegado = true;
+        }
+
+        /**
+         * Recibe el operador que sigue al último número.
+         * @param op '+', '-' o '*'.
+         */
+        void operador(char op) {
+            dificultad += dificultadFactor();
+            termino = Math.multiplyExact(termino, numero);
+            factores++;
+            if (op != '*') {
+                suma = Math.addExact(suma, Math.multiplyExact(signo, termino));
+                termino = 1;
+                factores = 0;
+                signo = (op == '-') ? -1 : 1;
+            }
+            pegado = false;
+        }
+
+        /**
+         * Resultado de la operación recibida hasta ahora.
+         * @return Resultado exacto de la operación.
+         */
+        long resultado() {
+            return Math.addExact(suma, Math.multiplyExact(signo, Math.multiplyExact(termino, numero)));
+        }
+
+        /**
+         * Puntuación de dificultad de la operación recibida hasta ahora: cada número suma sus cifras y
+         * cada multiplicación suma además las cifras del producto parcial que hay que calcular, de forma que
+         * las cadenas largas de productos y los números grandes pesan más que las sumas.
+         * @return Dificultad.
+         */
+        int getDificultad() {
+            return dificultad + dificultadFactor();
+        }
+
+        /**
+         * Dificultad que añade el número en curso al cerrarse como factor del término.
+         */
+        private int dificultadFactor() {
+            int d = cifras(numero);
+            if (factores > 0) {
+                d += cifras(termino * numero); // Ya comprobado sin desbordamiento en resultado()
+            }
+            return d;
+        }
+
+        private static int cifras(long valor) {
+            int total = 1;
+            for (long v = Math.abs(valor / 10); v > 0; v /= 10) {
+                total++;
+            }
+            return total;
+        }
+
+        /**
+         * Copia el estado de otro evaluador.
+         * @param otro Evaluador de origen.
+         */
+        void copiar(Evaluador otro) {
+            suma = otro.suma;
+            termino = otro.termino;
+            signo = otro.signo;
+            numero = otro.numero;
+            pegado = otro.pegado;
+            factores = otro.factores;
+            dificultad = otro.dificultad;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package datos.preguntas;
+
+import config.Constantes;
+import presentacion.Utilidades;
+
+/**
+ * Proveedor de preguntas de cronómetro. La pregunta se crea con el reloj real; la partida la pasa al reloj
+ * que corresponda al jugador con {@link PreguntaCronometro#conReloj}.
+ *
+ * @author Sergio García Rodríguez
+ */
+public class ProveedorCronometro implements ProveedorPreguntas {
+
+    @Override
+    public int getTipo() {
+        return 4;
+    }
+
+    @Override
+    public String getNombre() {
+        return "Cronómetro";
+    }
+
+    @Override
+    public Pregunta crearPregunta() {
+        return new PreguntaCronometro(
+                Utilidades.getRandom(Constantes.MIN_SEGUNDOS_CRONOMETRO, Constantes.MAX_SEGUNDOS_CRONOMETRO));
+    }
+
+    /**
+     * Crear la pregunta es sacar un número aleatorio: no se preparan por adelantado.
+     * @return 0.
+     */
+    @Override
+    public int getTamReserva() {
+        return 0;
+    }
+}
@@ -0,0 +1,25 @@
+package datos.preguntas;
+
+/**
+ * Proveedor de preguntas de geografía sobre el catálogo de ciudades compartido. Si el catálogo se recarga,
+ * las preguntas que quedaran en la reserva siguen siendo válidas: solo usan el catálogo anterior.
+ *
+ * @author Sergio García Rodríguez
+ */
+public class ProveedorGeografia implements ProveedorPreguntas {
+
+    @Override
+    public int getTipo() {
+        return 3;
+    }
+
+    @Override
+    public String getNombre() {
+        return "Geografía";
+    }
+
+    @Override
+    public Pregunta crearPregunta() {
+        return new PreguntaGeografia();
+    }
+}
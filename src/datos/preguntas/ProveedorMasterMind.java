@@ -0,0 +1,24 @@
+package datos.preguntas;
+
+/**
+ * Proveedor de preguntas de MasterMind.
+ *
+ * @author Sergio García Rodríguez
+ */
+public class ProveedorMasterMind implements ProveedorPreguntas {
+
+    @Override
+    public int getTipo() {
+        return 2;
+    }
+
+    @Override
+    public String getNombre() {
+        return "Mastermind";
+    }
+
+    @Override
+    public Pregunta crearPregunta() {
+        return new PreguntaMasterMind();
+    }
+}
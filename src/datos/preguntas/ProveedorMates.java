@@ -0,0 +1,24 @@
+package datos.preguntas;
+
+/**
+ * Proveedor de preguntas de matemáticas, con la dificultad configurada.
+ *
+ * @author Sergio García Rodríguez
+ */
+public class ProveedorMates implements ProveedorPreguntas {
+
+    @Override
+    public int getTipo() {
+        return 1;
+    }
+
+    @Override
+    public String getNombre() {
+        return "Matemáticas";
+    }
+
+    @Override
+    public Pregunta crearPregunta() {
+        return new PreguntaMates();
+    }
+}
@@ -0,0 +1,45 @@
+package datos.preguntas;
+
+import config.Constantes;
+
+/**
+ * Proveedor de un tipo de pregunta. Los proveedores se descubren con {@link java.util.ServiceLoader}: para
+ * añadir un tipo de pregunta basta con implementar esta interfaz y declarar la clase en
+ * META-INF/services/datos.preguntas.ProveedorPreguntas. Las partidas eligen el tipo al azar entre todos
+ * los proveedores cargados.
+ * Las preguntas se crean por adelantado en un hilo aparte y se guardan en una reserva (ver
+ * gestion.GestorPreguntas), así que {@link #crearPregunta()} debe poder llamarse desde cualquier hilo y
+ * cada pregunta creada debe ser independiente de las demás.
+ *
+ * @author Sergio García Rodríguez
+ */
+public interface ProveedorPreguntas {
+
+    /**
+     * Tipo de pregunta, único entre todos los proveedores. Los tipos 1 a 4 son los del juego; los
+     * proveedores nuevos deben usar números a partir de 5.
+     * @return Número de tipo, el que llevan los eventos de la partida.
+     */
+    int getTipo();
+
+    /**
+     * Nombre del tipo de pregunta, para el log y las estadísticas.
+     * @return Nombre.
+     */
+    String getNombre();
+
+    /**
+     * Crea una pregunta nueva. Los números aleatorios se sacan de {@link presentacion.Utilidades#getRandom},
+     * para que una partida con su propio generador sea reproducible.
+     * @return Pregunta.
+     */
+    Pregunta crearPregunta();
+
+    /**
+     * Preguntas que se preparan por adelantado.
+     * @return Tamaño de la reserva; 0 si las preguntas son tan baratas de crear que no merece la pena.
+     */
+    default int getTamReserva() {
+        return Constantes.TAM_RESERVA_PREGUNTAS;
+    }
+}
@@ -0,0 +1,63 @@
+package gestion;
+
+import presentacion.Utilidades;
+
+/**
+ * Canal de la partida interactiva: muestra los mensajes por consola y pregunta a los jugadores humanos por
+ * teclado. Los eventos se publican en {@link GestorEventos}, que los registra en el log, el ranking y el
+ * histórico sin detener la partida. Los errores de las pruebas de cronómetro se guardan además en los
+ * histogramas de la sesión ({@link HistogramasSesion}).
+ *
+ *  @author Sergio García Rodríguez
+ */
+public class CanalConsola implements CanalPartida {
+
+    private final HistogramasSesion histogramas;
+
+    /**
+     * Constructor.
+     * @param histogramas Histogramas de errores de cronómetro de la sesión.
+     */
+    public CanalConsola(HistogramasSesion histogramas) {
+        this.histogramas = histogramas;
+    }
+
+    @Override
+    public boolean isConTexto() {
+        return true;
+    }
+
+    @Override
+    public void mensaje(String mensaje) {
+        Utilidades.escribirMensaje(mensaje);
+    }
+
+    @Override
+    public void evento(EventoPartida evento) {
+        if (evento.getTipo() == EventoPartida.Tipo.RESPUESTA
+                && evento.getTipoPregunta() == EventoPartida.PREGUNTA_CRONOMETRO) {
+            histogramas.registrarError(evento.getJugador(), evento.getValor());
+        }
+        GestorEventos.publicar(evento);
+    }
+
+    @Override
+    public long preguntarLong(String msg) {
+        return Utilidades.preguntarLong(msg);
+    }
+
+    @Override
+    public String preguntarCodigo(String msg, int tamMin, int tamMax) {
+        return Utilidades.preguntarNombre(msg, tamMin, tamMax);
+    }
+
+    @Override
+    public char preguntarOpcion(String msg) {
+        return Utilidades.preguntarChar(msg);
+    }
+
+    @Override
+    public void esperarIntro() {
+        Utilidades.recogerIntro();
+    }
+}
@@ -0,0 +1,64 @@
+package gestion;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Canal sin consola para partidas simuladas: no muestra ni registra texto y guarda los eventos en memoria.
+ * Solo admite jugadores CPU.
+ *
+ *  @author Sergio García Rodríguez
+ */
+public class CanalEventos implements CanalPartida {
+
+    private final List<EventoPartida> eventos = new ArrayList<>();
+
+    /**
+     * Eventos recibidos desde la creación del canal o desde la última llamada a {@link #vaciar()}.
+     * @return Lista de eventos en orden.
+     */
+    public List<EventoPartida> getEventos() {
+        return eventos;
+    }
+
+    /**
+     * Descarta los eventos recibidos, para reutilizar el canal en otra partida.
+     */
+    public void vaciar() {
+        eventos.clear();
+    }
+
+    @Override
+    public boolean isConTexto() {
+        return false;
+    }
+
+    @Override
+    public void mensaje(String mensaje) {
+    }
+
+    @Override
+    public void evento(EventoPartida evento) {
+        eventos.add(evento);
+    }
+
+    @Override
+    public long preguntarLong(String msg) {
+        throw new UnsupportedOperationException("Las partidas simuladas no admiten jugadores humanos");
+    }
+
+    @Override
+    public String preguntarCodigo(String msg, int tamMin, int tamMax) {
+        throw new UnsupportedOperationException("Las partidas simuladas no admiten jugadores humanos");
+    }
+
+    @Override
+    public char preguntarOpcion(String msg) {
+        throw new UnsupportedOperationException("Las partidas simuladas no admiten jugadores humanos");
+    }
+
+    @Override
+    public void esperarIntro() {
+        throw new UnsupportedOperationException("Las partidas simuladas no admiten jugadores humanos");
+    }
+}
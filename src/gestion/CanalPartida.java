@@ -0,0 +1,56 @@
+package gestion;
+
+/**
+ * Canal de entrada y salida de una partida. La consola muestra los mensajes y pregunta a los jugadores
+ * humanos; en una simulación los mensajes se descartan y solo se recogen los eventos.
+ *
+ *  @author Sergio García Rodríguez
+ */
+public interface CanalPartida {
+
+    /**
+     * Indica si el canal muestra texto. Si no lo hace, la partida no construye los mensajes.
+     * @return true si los mensajes se muestran o registran.
+     */
+    boolean isConTexto();
+
+    /**
+     * Muestra un mensaje a los jugadores.
+     * @param mensaje Texto a mostrar.
+     */
+    void mensaje(String mensaje);
+
+    /**
+     * Entrega un evento de la partida.
+     * @param evento Evento producido.
+     */
+    void evento(EventoPartida evento);
+
+    /**
+     * Pide un número a un jugador humano.
+     * @param msg Mensaje a mostrar.
+     * @return Número introducido.
+     */
+    long preguntarLong(String msg);
+
+    /**
+     * Pide un código de longitud fija a un jugador humano.
+     * @param msg Mensaje a mostrar.
+     * @param tamMin Longitud mínima.
+     * @param tamMax Longitud máxima.
+     * @return Texto introducido.
+     */
+    String preguntarCodigo(String msg, int tamMin, int tamMax);
+
+    /**
+     * Pide una opción (A, B, C o D) a un jugador humano.
+     * @param msg Mensaje a mostrar.
+     * @return Letra elegida.
+     */
+    char preguntarOpcion(String msg);
+
+    /**
+     * Espera a que un jugador humano pulse enter.
+     */
+    void esperarIntro();
+}
@@ -0,0 +1,65 @@
+package gestion;
+
+import presentacion.ConexionTexto;
+
+/**
+ * Canal de una partida jugada por red: los mensajes y preguntas van a la conexión del jugador y los eventos
+ * se publican en {@link GestorEventos}, como en la consola. Los errores de las pruebas de cronómetro se
+ * guardan en los histogramas de la conexión ({@link HistogramasSesion}).
+ *
+ *  @author Sergio García Rodríguez
+ */
+public class CanalRemoto implements CanalPartida {
+
+    private final ConexionTexto conexion;
+    private final HistogramasSesion histogramas;
+
+    /**
+     * Constructor.
+     * @param conexion Conexión con el jugador.
+     * @param histogramas Histogramas de errores de cronómetro de la conexión.
+     */
+    public CanalRemoto(ConexionTexto conexion, HistogramasSesion histogramas) {
+        this.conexion = conexion;
+        this.histogramas = histogramas;
+    }
+
+    @Override
+    public boolean isConTexto() {
+        return true;
+    }
+
+    @Override
+    public void mensaje(String mensaje) {
+        conexion.escribirMensaje(mensaje);
+    }
+
+    @Override
+    public void evento(EventoPartida evento) {
+        if (evento.getTipo() == EventoPartida.Tipo.RESPUESTA
+                && evento.getTipoPregunta() == EventoPartida.PREGUNTA_CRONOMETRO) {
+            histogramas.registrarError(evento.getJugador(), evento.getValor());
+        }
+        GestorEventos.publicar(evento);
+    }
+
+    @Override
+    public long preguntarLong(String msg) {
+        return conexion.preguntarLong(msg);
+    }
+
+    @Override
+    public String preguntarCodigo(String msg, int tamMin, int tamMax) {
+        return conexion.preguntarNombre(msg, tamMin, tamMax);
+    }
+
+    @Override
+    public char preguntarOpcion(String msg) {
+        return conexion.preguntarChar(msg);
+    }
+
+    @Override
+    public void esperarIntro() {
+        conexion.recogerIntro();
+    }
+}
@@ -0,0 +1,25 @@
+package gestion;
+
+import java.util.List;
+
+/**
+ * Consumidor de los eventos de las partidas en una {@link TuberiaEventos}. Cada consumidor recibe todos los
+ * eventos, en el orden en que se publicaron, agrupados en lotes para que pueda hacer una sola escritura por
+ * lote. Se llama siempre desde el mismo hilo, propio de cada consumidor.
+ *
+ *  @author Sergio García Rodríguez
+ */
+public interface ConsumidorEventos {
+
+    /**
+     * Nombre del consumidor, para el log y el nombre de su hilo.
+     * @return Nombre.
+     */
+    String getNombre();
+
+    /**
+     * Procesa un lote de eventos.
+     * @param lote Eventos en orden de publicación (al menos uno). La lista se reutiliza después de la llamada.
+     */
+    void procesar(List<EventoPartida> lote);
+}
@@ -0,0 +1,208 @@
+package gestion;
+
+import datos.preguntas.PreguntaCronometro;
+
+/**
+ * Evento producido durante una partida. La partida no escribe log, ranking ni histórico: entrega sus eventos
+ * al {@link CanalPartida} y de ellos se obtiene todo lo demás (ver {@link GestorEventos}). Las partidas sin
+ * consola (simulaciones) se quedan solo con la secuencia de eventos.
+ * Los eventos se crean con los métodos de cada tipo y no se modifican, así que se pueden pasar entre hilos.
+ *
+ *  @author Sergio García Rodríguez
+ */
+public final class EventoPartida {
+
+    /** Tipos de evento. */
+    public enum Tipo {
+        /** Empieza la partida. valor: número de rondas. */
+        PARTIDA_INICIADA,
+        /** Empieza una ronda. */
+        RONDA_INICIADA,
+        /** Se plantea una pregunta a un jugador. texto: la pregunta, con su solución. */
+        PREGUNTA_LANZADA,
+        /** Un jugador ha respondido. tipoPregunta, acertado y valor (error en ns para el cronómetro). */
+        RESPUESTA,
+        /**
+         * Termina la partida. jugador: ganador o ganadores; acertado: true si hay empate; valor: puntos;
+         * texto: lista de jugadores con sus puntos acumulados; puntosPartida: puntos ganados en la partida.
+         */
+        PARTIDA_FINALIZADA,
+        /** Registro de la partida terminada. valor: semilla; texto: registro (ver {@link RegistroPartida#aTexto()}). */
+        PARTIDA_REGISTRADA
+    }
+
+    /** Tipos de pregunta del juego (ver {@link datos.preguntas.ProveedorPreguntas#getTipo()}). */
+    public static final int PREGUNTA_MATES = 1;
+    public static final int PREGUNTA_MASTERMIND = 2;
+    public static final int PREGUNTA_GEOGRAFIA = 3;
+    public static final int PREGUNTA_CRONOMETRO = 4;
+
+    private final long idPartida;
+    private final Tipo tipo;
+    private final int ronda;
+    private final String jugador;
+    private final int tipoPregunta;
+    private final boolean acertado;
+    private final long valor;
+    private final String texto;
+    private final String puntosPartida;
+
+    private EventoPartida(long idPartida, Tipo tipo, int ronda, String jugador, int tipoPregunta, boolean acertado,
+                          long valor, String texto) {
+        this(idPartida, tipo, ronda, jugador, tipoPregunta, acertado, valor, texto, null);
+    }
+
+    private EventoPartida(long idPartida, Tipo tipo, int ronda, String jugador, int tipoPregunta, boolean acertado,
+                          long valor, String texto, String puntosPartida) {
+        this.idPartida = idPartida;
+        this.tipo = tipo;
+        this.ronda = ronda;
+        this.jugador = jugador;
+        this.tipoPregunta = tipoPregunta;
+        this.acertado = acertado;
+        this.valor = valor;
+        this.texto = texto;
+        this.puntosPartida = puntosPartida;
+    }
+
+    /**
+     * Evento de inicio de partida.
+     * @param idPartida Identificador de la partida.
+     * @param rondas Número de rondas.
+     * @param texto Descripción de los jugadores (null en partidas sin texto).
+     * @return Evento.
+     */
+    public static EventoPartida partidaIniciada(long idPartida, int rondas, String texto) {
+        return new EventoPartida(idPartida, Tipo.PARTIDA_INICIADA, 0, null, 0, false, rondas, texto);
+    }
+
+    /**
+     * Evento de inicio de ronda.
+     * @param idPartida Identificador de la partida.
+     * @param ronda Número de ronda.
+     * @return Evento.
+     */
+    public static EventoPartida rondaIniciada(long idPartida, int ronda) {
+        return new EventoPartida(idPartida, Tipo.RONDA_INICIADA, ronda, null, 0, false, 0, null);
+    }
+
+    /**
+     * Evento de pregunta planteada a un jugador.
+     * @param idPartida Identificador de la partida.
+     * @param ronda Número de ronda.
+     * @param jugador Nombre del jugador.
+     * @param tipoPregunta Tipo de pregunta.
+     * @param texto Pregunta con su solución (null en partidas sin texto).
+     * @return Evento.
+     */
+    public static EventoPartida preguntaLanzada(long idPartida, int ronda, String jugador, int tipoPregunta,
+                                                String texto) {
+        return new EventoPartida(idPartida, Tipo.PREGUNTA_LANZADA, ronda, jugador, tipoPregunta, false, 0, texto);
+    }
+
+    /**
+     * Evento de respuesta de un jugador.
+     * @param idPartida Identificador de la partida.
+     * @param ronda Número de ronda.
+     * @param jugador Nombre del jugador.
+     * @param tipoPregunta Tipo de pregunta.
+     * @param acertado Si ha acertado.
+     * @param valor Error en nanosegundos en las preguntas de cronómetro; 0 en las demás.
+     * @return Evento.
+     */
+    public static EventoPartida respuesta(long idPartida, int ronda, String jugador, int tipoPregunta,
+                                          boolean acertado, long valor) {
+        return new EventoPartida(idPartida, Tipo.RESPUESTA, ronda, jugador, tipoPregunta, acertado, valor, null);
+    }
+
+    /**
+     * Evento de fin de partida.
+     * @param idPartida Identificador de la partida.
+     * @param rondas Número de rondas jugadas.
+     * @param ganador Nombre del ganador, o de los ganadores separados por " - " si hay empate.
+     * @param empate Si ha habido empate.
+     * @param puntos Puntos del ganador en la partida.
+     * @param jugadores Lista de jugadores con sus puntos acumulados (null en partidas sin texto).
+     * @param puntosPartida Jugadores que han ganado puntos en la partida, una línea "nombre puntos" por jugador
+     *                      (null en partidas sin texto).
+     * @return Evento.
+     */
+    public static EventoPartida partidaFinalizada(long idPartida, int rondas, String ganador, boolean empate,
+                                                  long puntos, String jugadores, String puntosPartida) {
+        return new EventoPartida(idPartida, Tipo.PARTIDA_FINALIZADA, rondas, ganador, 0, empate, puntos, jugadores,
+                puntosPartida);
+    }
+
+    /**
+     * Evento con el registro de una partida terminada, para poder repetirla.
+     * @param idPartida Identificador de la partida.
+     * @param semilla Semilla de la partida.
+     * @param registro Registro de la partida en una línea.
+     * @return Evento.
+     */
+    public static EventoPartida partidaRegistrada(long idPartida, long semilla, String registro) {
+        return new EventoPartida(idPartida, Tipo.PARTIDA_REGISTRADA, 0, null, 0, false, semilla, registro);
+    }
+
+    public long getIdPartida() {
+        return idPartida;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public int getRonda() {
+        return ronda;
+    }
+
+    public String getJugador() {
+        return jugador;
+    }
+
+    public int getTipoPregunta() {
+        return tipoPregunta;
+    }
+
+    public boolean isAcertado() {
+        return acertado;
+    }
+
+    public long getValor() {
+        return valor;
+    }
+
+    public String getTexto() {
+        return texto;
+    }
+
+    public String getPuntosPartida() {
+        return puntosPartida;
+    }
+
+    /**
+     * Describe el evento tal y como se escribe en el log.
+     * @return Texto de una línea (salvo la lista de jugadores del fin de partida).
+     */
+    public String getDescripcion() {
+        return switch (tipo) {
+            case PARTIDA_INICIADA -> "Inicio partida " + idPartida + " a " + valor + " rondas"
+                    + (texto != null ? " con " + texto : "");
+            case RONDA_INICIADA -> "Partida " + idPartida + ": ronda " + ronda;
+            case PREGUNTA_LANZADA -> "Partida " + idPartida + ": le toca a " + jugador + ". Pregunta de "
+                    + GestorPreguntas.getNombre(tipoPregunta) + (texto != null ? ": " + texto : "");
+            case RESPUESTA -> "Partida " + idPartida + ": " + jugador + (acertado ? " acierta" : " falla")
+                    + " la pregunta de " + GestorPreguntas.getNombre(tipoPregunta)
+                    + (tipoPregunta == PREGUNTA_CRONOMETRO ? ", diferencia " + PreguntaCronometro.formatearError(valor) : "");
+            case PARTIDA_FINALIZADA -> "Fin de partida " + idPartida
+                    + (acertado ? ". Ha habido empate: " : ". Ganador ha sido ") + jugador;
+            case PARTIDA_REGISTRADA -> "Partida " + idPartida + " registrada con semilla " + valor;
+        };
+    }
+
+    @Override
+    public String toString() {
+        return tipo + " ronda=" + ronda + " jugador=" + jugador + " pregunta=" + tipoPregunta
+                + " acertado=" + acertado + " valor=" + valor;
+    }
+}
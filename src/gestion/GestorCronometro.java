@@ -0,0 +1,63 @@
+package gestion;
+
+import java.util.concurrent.CompletableFuture;
+
+import config.Constantes;
+import config.LectorProperties;
+import datos.preguntas.PreguntaCronometro;
+import datos.preguntas.Resultado;
+import presentacion.Utilidades;
+
+/**
+ * Clase que gestiona las preguntas de cronómetro de los jugadores CPU. Los errores de tiempo de los jugadores
+ * se guardan en los {@link HistogramasSesion} de cada sesión.
+ * La espera de la CPU no bloquea ningún hilo: su respuesta se programa en el {@link Reloj} y se entrega en
+ * un {@link CompletableFuture}, de forma que se pueden lanzar muchas esperas a la vez. Con un
+ * {@link RelojVirtual} las esperas no consumen tiempo real.
+ *
+ *  @author Sergio García Rodríguez
+ */
+public class GestorCronometro {
+
+    private static volatile Reloj reloj = RelojReal.getInstancia();
+
+    /**
+     * Arranca la pregunta y programa la respuesta de un jugador CPU. Por defecto la CPU siempre falla: pulsa al
+     * menos un segundo antes del tiempo de la prueba y nunca espera más de
+     * {@link Constantes#MS_ESPERA_CPU_CRONOMETRO}. Si {@link LectorProperties#isCpuIntentaCronometro()}, intenta
+     * esperar el tiempo de la prueba, con un error de reacción aleatorio de hasta
+     * {@link Constantes#ERROR_MS_CPU_CRONOMETRO}. La espera se programa en el reloj de la pregunta.
+     * @param preg Pregunta de cronómetro.
+     * @return Resultado que estará disponible cuando la CPU "pulse enter".
+     */
+    public static CompletableFuture<Resultado> programarRespuestaCPU(PreguntaCronometro preg) {
+        long retrasoNanos;
+        if (LectorProperties.isCpuIntentaCronometro()) {
+            retrasoNanos = preg.getTotalSegs() * 1_000_000_000L + Utilidades.getRandom(
+                    -Constantes.ERROR_MS_CPU_CRONOMETRO, Constantes.ERROR_MS_CPU_CRONOMETRO) * 1_000_000L;
+        } else {
+            retrasoNanos = Math.min(Constantes.MS_ESPERA_CPU_CRONOMETRO, preg.getTotalSegs() * 1000L - 1000)
+                    * 1_000_000L;
+        }
+        CompletableFuture<Resultado> resultado = new CompletableFuture<>();
+        preg.getTextoPregunta(false);
+        preg.getReloj().programar(() -> resultado.complete(preg.comprobarRespuesta("")), retrasoNanos);
+        return resultado;
+    }
+
+    /**
+     * Reloj con el que se crean las preguntas de cronómetro de la partida.
+     * @return Reloj actual (por defecto, el real).
+     */
+    public static Reloj getReloj() {
+        return reloj;
+    }
+
+    /**
+     * Cambia el reloj de las preguntas de cronómetro, por ejemplo a un {@link RelojVirtual} en simulaciones.
+     * @param nuevo Reloj a usar.
+     */
+    public static void setReloj(Reloj nuevo) {
+        reloj = nuevo;
+    }
+}
@@ -0,0 +1,199 @@
+package gestion;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import config.Constantes;
+
+/**
+ * Clase que gestiona la tubería de eventos de la aplicación. Las partidas con texto (consola y servidor)
+ * publican aquí sus eventos y cuatro consumidores independientes los registran: el log, el ranking, el
+ * histórico y el registro de partidas. Cada uno escribe su fichero una vez por lote de eventos, en su propio hilo, así que los ficheros
+ * se actualizan poco después de terminar la partida. Antes de leer el ranking o el histórico hay que llamar
+ * a {@link #esperar()}.
+ *
+ *  @author Sergio García Rodríguez
+ */
+public class GestorEventos {
+
+    private static volatile TuberiaEventos tuberia;
+
+    /**
+     * Publica un evento de partida. La tubería se crea con la primera publicación.
+     * @param evento Evento producido.
+     */
+    public static void publicar(EventoPartida evento) {
+        getTuberia().publicar(evento);
+    }
+
+    /**
+     * Espera a que el log, el ranking y el histórico recojan los eventos publicados hasta ahora.
+     */
+    public static void esperar() {
+        TuberiaEventos t = tuberia;
+        if (t != null) {
+            t.esperar();
+        }
+    }
+
+    /**
+     * Procesa los eventos pendientes y para los consumidores. Si después se publica otro evento, se crea una
+     * tubería nueva.
+     */
+    public static synchronized void cerrar() {
+        if (tuberia != null) {
+            tuberia.close();
+            tuberia = null;
+        }
+    }
+
+    /**
+     * Crea una tubería con los consumidores de la aplicación (log, ranking, histórico y registro de partidas).
+     * @return Tubería nueva.
+     */
+    public static TuberiaEventos crearTuberia() {
+        return new TuberiaEventos(Constantes.TAM_COLA_EVENTOS, new ConsumidorLog(), new ConsumidorRanking(),
+                new ConsumidorHistorico(), new ConsumidorRegistro());
+    }
+
+    private static TuberiaEventos getTuberia() {
+        TuberiaEventos t = tuberia;
+        if (t == null) {
+            synchronized (GestorEventos.class) {
+                if (tuberia == null) {
+                    tuberia = crearTuberia();
+                }
+                t = tuberia;
+            }
+        }
+        return t;
+    }
+
+    /**
+     * Escribe en el log la descripción de cada evento.
+     */
+    public static class ConsumidorLog implements ConsumidorEventos {
+
+        private final List<String> lineas = new ArrayList<>(Constantes.TAM_LOTE_EVENTOS);
+
+        @Override
+        public String getNombre() {
+            return "log";
+        }
+
+        @Override
+        public void procesar(List<EventoPartida> lote) {
+            try {
+                for (EventoPartida evento : lote) {
+                    lineas.add(evento.getDescripcion());
+                }
+                GestorLog.escribirMensajes(lineas);
+            } finally {
+                lineas.clear();
+            }
+        }
+    }
+
+    /**
+     * Actualiza el ranking con los puntos de los jugadores de las partidas terminadas, y suma a los rankings por
+     * periodos los puntos ganados en cada una, que llegan en el mismo evento de fin de partida.
+     */
+    public static class ConsumidorRanking implements ConsumidorEventos {
+
+        private final List<String> listas = new ArrayList<>();
+        private final Map<String, Integer> ganados = new HashMap<>();
+
+        @Override
+        public String getNombre() {
+            return "ranking";
+        }
+
+        @Override
+        public void procesar(List<EventoPartida> lote) {
+            // Las listas se vacían aunque falle el lote: si no, todos los lotes siguientes volverían a fallar
+            try {
+                recogerListas(lote, listas);
+                for (EventoPartida evento : lote) {
+                    if (evento.getTipo() == EventoPartida.Tipo.PARTIDA_FINALIZADA
+                            && evento.getPuntosPartida() != null) {
+                        GestorRanking.recorrerLista(evento.getPuntosPartida(),
+                                (nombre, puntos) -> ganados.merge(nombre, puntos, Integer::sum));
+                    }
+                }
+                if (!listas.isEmpty()) {
+                    GestorRanking.actualizarRanking(listas, ganados);
+                }
+            } finally {
+                listas.clear();
+                ganados.clear();
+            }
+        }
+    }
+
+    /**
+     * Registra en el histórico la lista de jugadores de cada partida terminada.
+     */
+    public static class ConsumidorHistorico implements ConsumidorEventos {
+
+        private final List<String> listas = new ArrayList<>();
+
+        @Override
+        public String getNombre() {
+            return "historico";
+        }
+
+        @Override
+        public void procesar(List<EventoPartida> lote) {
+            try {
+                recogerListas(lote, listas);
+                if (!listas.isEmpty()) {
+                    GestorHistorico.escribir(listas);
+                }
+            } finally {
+                listas.clear();
+            }
+        }
+    }
+
+    /**
+     * Guarda el registro de cada partida terminada para poder repetirla.
+     */
+    public static class ConsumidorRegistro implements ConsumidorEventos {
+
+        private final List<String> registros = new ArrayList<>();
+
+        @Override
+        public String getNombre() {
+            return "registro";
+        }
+
+        @Override
+        public void procesar(List<EventoPartida> lote) {
+            try {
+                for (EventoPartida evento : lote) {
+                    if (evento.getTipo() == EventoPartida.Tipo.PARTIDA_REGISTRADA) {
+                        registros.add(evento.getTexto());
+                    }
+                }
+                if (!registros.isEmpty()) {
+                    GestorRegistroPartidas.escribir(registros);
+                }
+            } finally {
+                registros.clear();
+            }
+        }
+    }
+
+    /**
+     * Añade las listas de jugadores de los eventos de fin de partida de un lote.
+     */
+    private static void recogerListas(List<EventoPartida> lote, List<String> listas) {
+        for (EventoPartida evento : lote) {
+            if (evento.getTipo() == EventoPartida.Tipo.PARTIDA_FINALIZADA && evento.getTexto() != null) {
+                listas.add(evento.getTexto());
+            }
+        }
+    }
+}
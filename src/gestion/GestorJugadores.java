@@ -1,245 +1,476 @@
-package gestion;
-
-import datos.jugadores.Jugador;
-import datos.jugadores.JugadorCPU;
-import datos.jugadores.JugadorHumano;
-import presentacion.Utilidades;
-
-/**
- * Clase que gestiona la creación y asignación de los jugadores del juego.
- * Permite añadir jugadores humanos y jugadores controlados por la CPU, en posiciones aleatorias dentro
- * del array de jugadores.
- *
- *  @author Sergio García Rodríguez
- */
-public class GestorJugadores {
-    private Jugador[] jugadores;
-    private int totalJugadoresHumanos = 0;
-    private int totalJugadoresCPU = 0;
-
-    /**
-     * Constructor de la clase GestorJugadores.
-     * @param tamJugadores Número total de jugadores que participarán en la partida.
-     */
-    public GestorJugadores(int tamJugadores) {
-        jugadores = new Jugador[tamJugadores];
-    }
-
-    /**
-     * Crea un nuevo jugador y lo añade al array si hay posición disponible.
-     * @param nombre Nombre del jugador (solo se usa si es humano).
-     * @param tipoJ Tipo de jugador: 1 = humano, 2 = CPU.
-     * @return El objeto jugador creado.
-     * @throws JuegoException Si hay errores de validación (nombre repetido).
-     */
-    public Jugador crearJugador(String nombre, int puntos, int tipoJ) throws JuegoException {
-        if (existeJugador(nombre))
-            throw new JuegoException("El nombre " + nombre + " ya está registrado");
-        if (tipoJ == 1) {
-            return addJugadorHumano(nombre, puntos);
-        } else {
-            return addJugadorCPU(nombre, puntos);
-        }
-    }
-
-    /**
-     * Crea un nuevo jugador. Esta función se utiliza cuando se carga la lista de jugadores desde el registro en fichero
-     * @param nombre Nombre del jugador.
-     * @return El objeto jugador creado.
-     * @throws JuegoException Si hay errores de validación (nombre repetido).
-     */
-    public Jugador crearJugador(String nombre, int puntos) throws JuegoException {
-        if (nombre.contains("CPU")){
-            return crearJugador(nombre, puntos, 2);
-        }else{
-            return crearJugador(nombre, puntos, 1);
-        }
-    }
-
-    /**
-     * Añade un jugador humano en una posición aleatoria libre.
-     * @param nombreJ Nombre del jugador humano.
-     * @param puntos Puntos iniciales del jugador.
-     * @return Objeto JugadorHumano creado.
-     * @throws JuegoException Si el nombre empieza por "CPU".
-     */
-    private JugadorHumano addJugadorHumano(String nombreJ, int puntos) throws JuegoException {
-        if (nombreJ.toUpperCase().startsWith("CPU")) {
-            throw new JuegoException("El nombre no puede comenzar con 'CPU'");
-        }
-
-        int pos = buscarPosicionLibre();
-        JugadorHumano jugador = new JugadorHumano(nombreJ, puntos, pos + 1);
-        getJugadores()[pos] = jugador;
-        totalJugadoresHumanos = getTotalJugadoresHumanos() + 1;
-        GestorLog.escribirMensaje("Jugador humano creado: " + getJugadores()[pos]);
-        return jugador;
-    }
-
-    /**
-     * Añade un jugador CPU en una posición aleatoria libre.
-     * @param nombreCPU Nombre del jugador CPU.
-     * @param puntos Puntos iniciales del jugador.
-     * @return Objeto JugadorCPU creado.
-     */
-    private JugadorCPU addJugadorCPU(String nombreCPU, int puntos) {
-        int pos = buscarPosicionLibre();
-        JugadorCPU jugador;
-        if (nombreCPU.isEmpty()){
-            // Al crear un jugador CPU se le da nombre automático, pero podría existir en el registro de
-            // jugadores en fichero. Se reasigna un nombre nuevo y se vuelve a comprobar.
-            int i = pos;
-            while (existeJugador("CPU" + i)){
-                i++;
-            }
-            nombreCPU = "CPU" + i;
-        }
-        jugador = new JugadorCPU(nombreCPU, puntos);
-        getJugadores()[pos] = jugador;
-        totalJugadoresCPU = getTotalJugadoresCPU() + 1;
-        GestorLog.escribirMensaje("Jugador CPU creado: " + getJugadores()[pos]);
-        return jugador;
-    }
-
-    /**
-     * Añade una casilla adicional al vector de Jugadores.
-     */
-    public void ampliarListaJugadores(){
-        Jugador[] jAux = new Jugador[getJugadores().length + 1];
-        for (int i = 0, j = 0; i < getJugadores().length; i++) {
-                jAux[j++] = getJugadores()[i];
-        }
-        jugadores = jAux;
-    }
-    /**
-     * Elimina un jugador del array si existe, y ajusta los contadores.
-     * @param nombre Nombre del jugador a eliminar.
-     * @return true si el jugador fue eliminado, false si no se encontró.
-     */
-    public boolean eliminarJugador(String nombre) {
-        try {
-            if (getJugadores().length == 0) {
-                return false;
-            }
-
-            Jugador[] jAux = new Jugador[getJugadores().length - 1];
-            for (int i = 0, j = 0; i < getJugadores().length; i++) {
-                if (!getJugadores()[i].getNombre().equalsIgnoreCase(nombre)) {
-                    // Si no es el jugador a eliminar, se añade a un vector auxiliar (más corto que el original).
-                    jAux[j++] = getJugadores()[i];
-                } else {
-                    if (getJugadores()[i].isHumano()) {
-                        totalJugadoresHumanos--;
-                    } else {
-                        totalJugadoresCPU--;
-                    }
-                }
-            }
-
-            // El vector auxiliar pasa a ser el vector de Jugadores general.
-            jugadores = jAux;
-            GestorRanking.eliminarJugadorRanking(nombre);
-            GestorLog.escribirMensaje("Jugador " + nombre + " eliminado");
-        } catch (ArrayIndexOutOfBoundsException e) {
-            // Puede ocurrir si no se encuentra el jugador al eliminar, porque se intentaría añadir un jugador más
-            // de los que caben en el vector Auxiliar, que es una celda más corto que el original).
-            GestorLog.escribirMensaje("Jugador " + nombre + " NO eliminado (por no ser encontrado)");
-            return false;
-        }
-        return true;
-    }
-
-    /**
-     * Devuelve la lista de jugadores actuales en formato de texto.
-     * @return Texto con los jugadores o mensaje si está vacía.
-     */
-    public String getListaJugadores() {
-        StringBuilder lista = new StringBuilder();
-        for (Jugador j : getJugadores()) {
-            if (j != null) {
-                lista.append(j).append("\n");
-            }
-        }
-        return (lista.isEmpty()) ? "  --> Lista vacía!!" : lista.toString();
-    }
-
-    /**
-     * Busca aleatoriamente una posición libre en el array de jugadores.
-     * Así los jugadores se organizan de forma aleatoria
-     * @return Índice de una posición vacía.
-     */
-    private int buscarPosicionLibre() {
-        int pos;
-        do {
-            pos = Utilidades.getRandom(getTotalJugadores() - 1);
-            if (getJugadores()[pos] == null) {
-                return pos;
-            }
-        } while (true);
-    }
-
-    /**
-     * Comprueba si ya existe un jugador con el nombre dado (ignorando mayúsculas/minúsculas).
-     * @param nombre Nombre a comprobar.
-     * @return true si ya existe, false en caso contrario.
-     */
-    private boolean existeJugador(String nombre) {
-        for (Jugador jugador : getJugadores()) {
-            if (jugador != null && jugador.getNombre().equalsIgnoreCase(nombre)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    /**
-     * Devuelve el número total de jugadores (capacidad máxima).
-     * @return Tamaño del array de jugadores.
-     */
-    public int getTotalJugadores() {
-        return getJugadores().length;
-    }
-
-    /**
-     * Devuelve el número total de jugadores humanos.
-     * @return Total de Jugadores humanos.
-     */
-    public int getTotalJugadoresHumanos() {
-        return totalJugadoresHumanos;
-    }
-
-    /**
-     * Devuelve el número total de jugadores CPU.
-     * @return Total de Jugadores CPU.
-     */
-    public int getTotalJugadoresCPU() {
-        return totalJugadoresCPU;
-    }
-
-    /**
-     * Obtiene el nombre del jugador ganador según la mayor cantidad de puntos.
-     * En caso de empate, concatena los nombres de los jugadores que han empatado.
-     * @return Nombre del ganador o nombres de jugadores que han empatado.
-     */
-    public String getGanador() {
-        int max = -1;
-        StringBuilder ganadorPartida = new StringBuilder();
-
-        for (Jugador jugador : getJugadores()) {
-            if (jugador.getPuntosPartida() > max) {
-                max = jugador.getPuntosPartida();
-                ganadorPartida = new StringBuilder(jugador.getNombre());
-            } else if (jugador.getPuntosPartida() == max) {
-                ganadorPartida.append(" - ").append(jugador.getNombre());
-            }
-        }
-        return ganadorPartida.toString();
-    }
-
-    /**
-     * Array que contiene los jugadores de la partida
-     */
-    public Jugador[] getJugadores() {
-        return jugadores;
-    }
-}
+package gestion;
+
+import java.util.Arrays;
+
+import datos.jugadores.AlmacenJugadores;
+import datos.jugadores.Jugador;
+import datos.jugadores.TablaNombres;
+import presentacion.Utilidades;
+
+/**
+ * Clase que gestiona la creación y asignación de los jugadores del juego.
+ * Permite añadir jugadores humanos y jugadores controlados por la CPU, en posiciones aleatorias dentro
+ * del array de jugadores.
+ * Los nombres se buscan en un índice hash (sin distinguir mayúsculas y minúsculas), los asientos libres se
+ * guardan en una lista para sortearlos, y el array crece duplicando su capacidad, de forma que añadir,
+ * buscar y eliminar un jugador cuesta O(1) y se pueden cargar millones de jugadores del fichero.
+ * Los datos de los jugadores están en un {@link AlmacenJugadores}, en el que cada asiento es una posición:
+ * los objetos Jugador son vistas que se crean al pedirlas.
+ *
+ *  @author Sergio García Rodríguez
+ */
+public class GestorJugadores {
+    // Un asiento por posición del almacén, ocupado o libre
+    private final AlmacenJugadores almacen;
+    private int totalJugadoresHumanos = 0;
+    private int totalJugadoresCPU = 0;
+
+    // Asientos libres (para sortearlos) y posición de cada asiento en esa lista (-1 si está ocupado)
+    private int[] libres;
+    private int[] posLibre;
+    private int totalLibres;
+
+    // Índice de nombres con direccionamiento abierto: asiento + 1 de cada jugador, 0 si la casilla está vacía
+    private int[] indice;
+    private int mascaraIndice;
+
+    // Copia del array con el tamaño justo que devuelve getJugadores(), mientras no cambien los jugadores
+    private Jugador[] vista;
+
+    /**
+     * Constructor de la clase GestorJugadores.
+     * @param tamJugadores Número total de jugadores que participarán en la partida.
+     */
+    public GestorJugadores(int tamJugadores) {
+        almacen = new AlmacenJugadores(tamJugadores);
+        libres = new int[tamJugadores];
+        posLibre = new int[tamJugadores];
+        crearIndice(tamJugadores);
+        for (int i = 0; i < tamJugadores; i++) {
+            addAsientoLibre();
+        }
+    }
+
+    /**
+     * Crea un nuevo jugador y lo añade al array si hay posición disponible.
+     * @param nombre Nombre del jugador (solo se usa si es humano).
+     * @param tipoJ Tipo de jugador: 1 = humano, 2 = CPU.
+     * @return El objeto jugador creado.
+     * @throws JuegoException Si hay errores de validación (nombre repetido).
+     */
+    public Jugador crearJugador(String nombre, int puntos, int tipoJ) throws JuegoException {
+        return almacen.getJugador(crearJugador(nombre, puntos, tipoJ, true));
+    }
+
+    /**
+     * Crea un nuevo jugador en un asiento concreto. Se usa para repetir una partida registrada con los
+     * jugadores en los mismos asientos (ver {@link RegistroPartida}).
+     * @param nombre Nombre del jugador.
+     * @param puntos Puntos iniciales del jugador.
+     * @param tipoJ Tipo de jugador: 1 = humano, 2 = CPU.
+     * @param pos Asiento (posición en el array de jugadores).
+     * @return El objeto jugador creado.
+     * @throws JuegoException Si hay errores de validación (nombre repetido o asiento ocupado).
+     */
+    public Jugador crearJugadorEnPosicion(String nombre, int puntos, int tipoJ, int pos) throws JuegoException {
+        if (existeJugador(nombre))
+            throw new JuegoException("El nombre " + nombre + " ya está registrado");
+        if (pos < 0 || pos >= almacen.getTotal() || almacen.isOcupada(pos))
+            throw new JuegoException("El asiento " + pos + " no está libre");
+        if (tipoJ == 1) {
+            addJugadorHumano(nombre, puntos, pos, true);
+        } else {
+            addJugadorCPU(nombre, puntos, pos, true);
+        }
+        return almacen.getJugador(pos);
+    }
+
+    /**
+     * Crea un nuevo jugador. Esta función se utiliza cuando se carga la lista de jugadores desde el registro en fichero,
+     * así que no escribe cada jugador en el log.
+     * @param nombre Nombre del jugador.
+     * @return El objeto jugador creado.
+     * @throws JuegoException Si hay errores de validación (nombre repetido).
+     */
+    public Jugador crearJugador(String nombre, int puntos) throws JuegoException {
+        return almacen.getJugador(cargarJugador(nombre, puntos));
+    }
+
+    /**
+     * Crea un jugador leído del fichero, como {@link #crearJugador(String, int)}, sin crear su vista.
+     * @return Asiento del jugador.
+     */
+    int cargarJugador(String nombre, int puntos) throws JuegoException {
+        return crearJugador(nombre, puntos, nombre.contains("CPU") ? 2 : 1, false);
+    }
+
+    /**
+     * Crea un jugador en un asiento libre sorteado.
+     * @return Asiento del jugador.
+     */
+    private int crearJugador(String nombre, int puntos, int tipoJ, boolean registrar) throws JuegoException {
+        if (existeJugador(nombre))
+            throw new JuegoException("El nombre " + nombre + " ya está registrado");
+        if (totalLibres == 0)
+            throw new JuegoException("No quedan asientos libres");
+        if (tipoJ == 1) {
+            // Se valida el nombre antes de sortear el asiento
+            validarNombreHumano(nombre);
+            return addJugadorHumano(nombre, puntos, sortearPosicionLibre(), registrar);
+        } else {
+            return addJugadorCPU(nombre, puntos, sortearPosicionLibre(), registrar);
+        }
+    }
+
+    private static void validarNombreHumano(String nombreJ) throws JuegoException {
+        if (nombreJ.toUpperCase().startsWith("CPU")) {
+            throw new JuegoException("El nombre no puede comenzar con 'CPU'");
+        }
+    }
+
+    /**
+     * Añade un jugador humano en una posición libre.
+     * @param nombreJ Nombre del jugador humano.
+     * @param puntos Puntos iniciales del jugador.
+     * @param pos Posición libre.
+     * @param registrar Si se escribe el jugador en el log.
+     * @return Asiento del jugador.
+     * @throws JuegoException Si el nombre empieza por "CPU".
+     */
+    private int addJugadorHumano(String nombreJ, int puntos, int pos, boolean registrar) throws JuegoException {
+        validarNombreHumano(nombreJ);
+        if (nombreJ.isEmpty()) {
+            // Nombre automático, que tampoco puede estar repetido
+            int i = pos + 1;
+            while (existeJugador("Jugador" + i)) {
+                i++;
+            }
+            nombreJ = "Jugador" + i;
+        }
+
+        ocupar(pos, nombreJ, puntos, true);
+        totalJugadoresHumanos = getTotalJugadoresHumanos() + 1;
+        if (registrar) {
+            GestorLog.escribirMensaje("Jugador humano creado: " + almacen.getJugador(pos));
+        }
+        return pos;
+    }
+
+    /**
+     * Añade un jugador CPU en una posición libre.
+     * @param nombreCPU Nombre del jugador CPU.
+     * @param puntos Puntos iniciales del jugador.
+     * @param pos Posición libre.
+     * @param registrar Si se escribe el jugador en el log.
+     * @return Asiento del jugador.
+     */
+    private int addJugadorCPU(String nombreCPU, int puntos, int pos, boolean registrar) {
+        if (nombreCPU.isEmpty()){
+            // Al crear un jugador CPU se le da nombre automático, pero podría existir en el registro de
+            // jugadores en fichero. Se reasigna un nombre nuevo y se vuelve a comprobar.
+            int i = pos;
+            while (existeJugador("CPU" + i)){
+                i++;
+            }
+            nombreCPU = "CPU" + i;
+        }
+        ocupar(pos, nombreCPU, puntos, false);
+        totalJugadoresCPU = getTotalJugadoresCPU() + 1;
+        if (registrar) {
+            GestorLog.escribirMensaje("Jugador CPU creado: " + almacen.getJugador(pos));
+        }
+        return pos;
+    }
+
+    /**
+     * Añade una casilla adicional al vector de Jugadores. El array crece duplicando su capacidad, así que
+     * añadir casillas de una en una cuesta O(1) de media.
+     */
+    public void ampliarListaJugadores(){
+        addAsientoLibre();
+        vista = null;
+    }
+
+    /**
+     * Elimina un jugador del array si existe, y ajusta los contadores.
+     * El último asiento pasa al hueco que deja el jugador: si los asientos estaban sorteados, siguen estando
+     * en orden aleatorio.
+     * @param nombre Nombre del jugador a eliminar.
+     * @return true si el jugador fue eliminado, false si no se encontró.
+     */
+    public boolean eliminarJugador(String nombre) {
+        int casilla = buscarCasilla(nombre);
+        if (indice[casilla] == 0) {
+            GestorLog.escribirMensaje("Jugador " + nombre + " NO eliminado (por no ser encontrado)");
+            return false;
+        }
+        int pos = indice[casilla] - 1;
+        if (almacen.isHumano(pos)) {
+            totalJugadoresHumanos--;
+        } else {
+            totalJugadoresCPU--;
+        }
+        borrarCasilla(casilla);
+
+        int ultimo = almacen.getTotal() - 1;
+        boolean ultimoOcupado = almacen.isOcupada(ultimo);
+        almacen.quitar(pos);
+        if (pos != ultimo) {
+            if (ultimoOcupado) {
+                indice[buscarCasillaAsiento(pos, ultimo)] = pos + 1;
+            } else {
+                // El último asiento estaba libre: en la lista de libres pasa a ser el asiento pos
+                libres[posLibre[ultimo]] = pos;
+                posLibre[pos] = posLibre[ultimo];
+            }
+        }
+        posLibre[ultimo] = -1;
+        vista = null;
+
+        GestorRanking.eliminarJugadorRanking(nombre);
+        GestorLog.escribirMensaje("Jugador " + nombre + " eliminado");
+        return true;
+    }
+
+    /**
+     * Busca un jugador por su nombre (ignorando mayúsculas/minúsculas).
+     * @param nombre Nombre del jugador.
+     * @return El jugador, o null si no existe.
+     */
+    public Jugador buscarJugador(String nombre) {
+        int casilla = buscarCasilla(nombre);
+        return indice[casilla] == 0 ? null : almacen.getJugador(indice[casilla] - 1);
+    }
+
+    /**
+     * Devuelve la lista de jugadores actuales en formato de texto.
+     * @return Texto con los jugadores o mensaje si está vacía.
+     */
+    public String getListaJugadores() {
+        StringBuilder lista = new StringBuilder();
+        almacen.escribirLista(lista);
+        return (lista.isEmpty()) ? "  --> Lista vacía!!" : lista.toString();
+    }
+
+    /**
+     * Sortea una posición libre del array de jugadores.
+     * Así los jugadores se organizan de forma aleatoria
+     * @return Índice de una posición vacía.
+     */
+    private int sortearPosicionLibre() {
+        int pos = libres[Utilidades.getRandom(totalLibres - 1)];
+        quitarLibre(pos);
+        return pos;
+    }
+
+    /**
+     * Comprueba si ya existe un jugador con el nombre dado (ignorando mayúsculas/minúsculas).
+     * @param nombre Nombre a comprobar.
+     * @return true si ya existe, false en caso contrario.
+     */
+    private boolean existeJugador(String nombre) {
+        return indice[buscarCasilla(nombre)] != 0;
+    }
+
+    /**
+     * Devuelve el número total de jugadores (capacidad máxima).
+     * @return Tamaño del array de jugadores.
+     */
+    public int getTotalJugadores() {
+        return almacen.getTotal();
+    }
+
+    /**
+     * Devuelve el número total de jugadores humanos.
+     * @return Total de Jugadores humanos.
+     */
+    public int getTotalJugadoresHumanos() {
+        return totalJugadoresHumanos;
+    }
+
+    /**
+     * Devuelve el número total de jugadores CPU.
+     * @return Total de Jugadores CPU.
+     */
+    public int getTotalJugadoresCPU() {
+        return totalJugadoresCPU;
+    }
+
+    /**
+     * Obtiene el nombre del jugador ganador según la mayor cantidad de puntos.
+     * En caso de empate, concatena los nombres de los jugadores que han empatado.
+     * @return Nombre del ganador o nombres de jugadores que han empatado.
+     */
+    public String getGanador() {
+        return almacen.getGanador();
+    }
+
+    /**
+     * Mayor número de puntos de partida entre los jugadores.
+     * @return Puntos del ganador.
+     */
+    public int getMaxPuntosPartida() {
+        return almacen.getMaxPuntosPartida();
+    }
+
+    /**
+     * Pone a cero los puntos de la ronda de todos los jugadores.
+     */
+    public void resetPuntosRonda() {
+        almacen.resetPuntosRonda();
+    }
+
+    /**
+     * Pone a cero los puntos de la partida de todos los jugadores.
+     */
+    public void resetPuntosPartida() {
+        almacen.resetPuntosPartida();
+    }
+
+    /**
+     * Jugador de un asiento.
+     * @param pos Asiento, entre 0 y {@link #getTotalJugadores()} - 1.
+     * @return El jugador, o null si el asiento está libre.
+     */
+    public Jugador getJugador(int pos) {
+        return almacen.getJugador(pos);
+    }
+
+    /**
+     * Almacén con los datos de los jugadores, con una posición por asiento.
+     * @return Almacén de jugadores.
+     */
+    public AlmacenJugadores getAlmacen() {
+        return almacen;
+    }
+
+    /**
+     * Array que contiene los jugadores de la partida, con una casilla por asiento. Para recorrer muchos
+     * jugadores es mejor usar {@link #getJugador(int)}, que no crea el array, o {@link #getAlmacen()}.
+     */
+    public Jugador[] getJugadores() {
+        if (vista == null) {
+            Jugador[] jugadores = new Jugador[almacen.getTotal()];
+            for (int pos = 0; pos < jugadores.length; pos++) {
+                jugadores[pos] = almacen.getJugador(pos);
+            }
+            vista = jugadores;
+        }
+        return vista;
+    }
+
+    /**
+     * Añade un asiento libre al final, duplicando la capacidad si hace falta.
+     */
+    private void addAsientoLibre() {
+        int pos = almacen.addPosicion();
+        if (pos == libres.length) {
+            int capacidad = Math.max(4, libres.length * 2);
+            libres = Arrays.copyOf(libres, capacidad);
+            posLibre = Arrays.copyOf(posLibre, capacidad);
+        }
+        libres[totalLibres] = pos;
+        posLibre[pos] = totalLibres++;
+    }
+
+    /**
+     * Saca un asiento de la lista de libres, poniendo en su lugar el último de la lista.
+     */
+    private void quitarLibre(int pos) {
+        int i = posLibre[pos];
+        int ultimo = libres[--totalLibres];
+        libres[i] = ultimo;
+        posLibre[ultimo] = i;
+        posLibre[pos] = -1;
+    }
+
+    /**
+     * Sienta a un jugador en un asiento libre y lo añade al índice de nombres.
+     */
+    private void ocupar(int pos, String nombre, int puntos, boolean humano) {
+        if (posLibre[pos] >= 0) {
+            quitarLibre(pos);
+        }
+        almacen.ocupar(pos, nombre, puntos, humano);
+        vista = null;
+        indice[buscarCasilla(nombre)] = pos + 1;
+        if ((totalJugadoresHumanos + totalJugadoresCPU + 1) * 2L > indice.length) {
+            crearIndice(indice.length);
+        }
+    }
+
+    /*
+     * Índice de nombres: tabla hash con direccionamiento abierto (sondeo lineal) de tamaño potencia de 2,
+     * ocupada como mucho a la mitad. Cada casilla guarda el asiento + 1 del jugador; el nombre se compara con el
+     * del jugador sentado en ese asiento, así que la tabla no guarda cadenas.
+     */
+
+    /**
+     * Crea el índice con sitio para el doble de jugadores de los indicados y mete los jugadores actuales.
+     */
+    private void crearIndice(int jugadoresPrevistos) {
+        int tam = Integer.highestOneBit(Math.max(8, jugadoresPrevistos * 2 - 1)) << 1;
+        indice = new int[tam];
+        mascaraIndice = tam - 1;
+        for (int pos = 0; pos < almacen.getTotal(); pos++) {
+            if (almacen.isOcupada(pos)) {
+                indice[buscarCasillaLibre(almacen.hashNombre(pos))] = pos + 1;
+            }
+        }
+    }
+
+    /**
+     * Busca un nombre en el índice.
+     * @return Casilla del jugador con ese nombre o, si no está, la casilla vacía donde iría.
+     */
+    private int buscarCasilla(String nombre) {
+        int casilla = TablaNombres.hash(nombre) & mascaraIndice;
+        while (indice[casilla] != 0 && !almacen.tieneNombre(indice[casilla] - 1, nombre)) {
+            casilla = (casilla + 1) & mascaraIndice;
+        }
+        return casilla;
+    }
+
+    /**
+     * Busca la primera casilla vacía a partir de la que corresponde a un hash.
+     */
+    private int buscarCasillaLibre(int hash) {
+        int casilla = hash & mascaraIndice;
+        while (indice[casilla] != 0) {
+            casilla = (casilla + 1) & mascaraIndice;
+        }
+        return casilla;
+    }
+
+    /**
+     * Busca la casilla que apunta a un asiento, sin comparar nombres.
+     * @param posNombre Posición del almacén donde está ahora el nombre del jugador.
+     * @param asiento Asiento al que apunta la casilla.
+     */
+    private int buscarCasillaAsiento(int posNombre, int asiento) {
+        int casilla = almacen.hashNombre(posNombre) & mascaraIndice;
+        while (indice[casilla] != asiento + 1) {
+            casilla = (casilla + 1) & mascaraIndice;
+        }
+        return casilla;
+    }
+
+    /**
+     * Vacía una casilla del índice y recoloca las que vienen detrás, para que ninguna búsqueda se corte en el
+     * hueco (borrado sin marcas en sondeo lineal).
+     */
+    private void borrarCasilla(int hueco) {
+        indice[hueco] = 0;
+        int casilla = (hueco + 1) & mascaraIndice;
+        while (indice[casilla] != 0) {
+            int ideal = almacen.hashNombre(indice[casilla] - 1) & mascaraIndice;
+            // La entrada puede ocupar el hueco si su casilla ideal no está entre el hueco y ella
+            if (((casilla - ideal) & mascaraIndice) >= ((casilla - hueco) & mascaraIndice)) {
+                indice[hueco] = indice[casilla];
+                indice[casilla] = 0;
+                hueco = casilla;
+            }
+            casilla = (casilla + 1) & mascaraIndice;
+        }
+    }
+}
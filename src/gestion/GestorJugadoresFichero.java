@@ -1,66 +1,86 @@
-package gestion;
-
-import java.io.*;
-
-import config.Constantes;
-
-public class GestorJugadoresFichero {
-    /**
-     * Lee el contenido del archivo de Jugadores.
-     * @return El contenido del fichero en forma de cadena de texto.
-     */
-    private static String leerFichero() {
-        String txt = "";
-        try {
-            BufferedReader lector = new BufferedReader(new FileReader(Constantes.JUGADORES_PATH));
-            try {
-                String linea;
-                while ((linea = lector.readLine()) != null) {
-                    txt = txt.concat(linea).concat("\n");
-                }
-                lector.close();
-            } catch (IOException e) {
-                GestorLog.escribirMensaje(e.getMessage());
-            }
-        } catch (FileNotFoundException e) {
-            // Si el fichero no existe, se crea uno nuevo
-            GestorLog.escribirMensaje("No se encuentra el fichero " + config.Constantes.JUGADORES_PATH);
-            File f = new File(config.Constantes.JUGADORES_PATH);
-            try {
-                f.createNewFile();
-            } catch (IOException ex) {
-                GestorLog.escribirMensaje(ex.getMessage());
-            }
-        }
-        return txt;
-    }
-
-    /**
-     * Escribe la lista de jugadores en el archivo de jugadores.
-     * @param listaJugadores Texto a guardar en el fichero.
-     */
-    public static void escribirFicheroJugadores(String listaJugadores) {
-        try {
-            BufferedWriter escritor = new BufferedWriter(new FileWriter(Constantes.JUGADORES_PATH));
-            escritor.write(listaJugadores);
-            escritor.close();
-        } catch (IOException e) {
-            GestorLog.escribirError(e.getMessage());
-        }
-    }
-
-    /**
-     * Inicializa la lista de jugadores en GestorPartidas.GestorJugadores, leyéndolos desde el fichero de jugadores.
-     * @throws JuegoException Error al crear un jugador
-     */
-    public static void cargarListaJugadores() throws JuegoException {
-        String jugs = leerFichero();
-        String[] trozos = jugs.split("\\s+");
-        if (trozos.length > 1) {
-            GestorJugadores gJ = GestorPartidas.crearGestorJugadores(trozos.length / 2);
-            for (int i = 0; i < trozos.length; i+=2) {
-                gJ.crearJugador(trozos[i], Integer.parseInt(trozos[i + 1]));
-            }
-        }
-    }
-}
+package gestion;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import config.Constantes;
+
+public class GestorJugadoresFichero {
+    /**
+     * Escribe la lista de jugadores en el archivo de jugadores.
+     * @param listaJugadores Texto a guardar en el fichero.
+     */
+    public static void escribirFicheroJugadores(String listaJugadores) {
+        try {
+            BufferedWriter escritor = new BufferedWriter(new FileWriter(Constantes.JUGADORES_PATH));
+            escritor.write(listaJugadores);
+            escritor.close();
+        } catch (IOException e) {
+            GestorLog.escribirError(e.getMessage());
+        }
+    }
+
+    /**
+     * Inicializa la lista de jugadores en GestorPartidas.GestorJugadores, leyéndolos desde el fichero de jugadores.
+     * @throws JuegoException Error al crear un jugador
+     */
+    public static void cargarListaJugadores() throws JuegoException {
+        try (BufferedReader lector = new BufferedReader(new FileReader(Constantes.JUGADORES_PATH))) {
+            GestorJugadores gJ = leerJugadores(lector);
+            if (gJ.getTotalJugadores() > 0) {
+                GestorPartidas.setGestorJugadores(gJ);
+                GestorLog.escribirMensaje(gJ.getTotalJugadores() + " jugadores cargados de "
+                        + Constantes.JUGADORES_PATH);
+            }
+        } catch (FileNotFoundException e) {
+            // Si el fichero no existe, se crea uno nuevo
+            GestorLog.escribirMensaje("No se encuentra el fichero " + Constantes.JUGADORES_PATH);
+            File f = new File(Constantes.JUGADORES_PATH);
+            try {
+                f.createNewFile();
+            } catch (IOException ex) {
+                GestorLog.escribirMensaje(ex.getMessage());
+            }
+        } catch (IOException e) {
+            GestorLog.escribirMensaje(e.getMessage());
+        }
+    }
+
+    /**
+     * Lee una lista de jugadores: pares de nombre y puntos separados por espacios o saltos de línea, como los
+     * escribe {@link #escribirFicheroJugadores(String)}. El texto se lee línea a línea y los jugadores se crean
+     * al final, en un gestor del tamaño justo.
+     * @param lector Texto de la lista.
+     * @return Gestor con los jugadores leídos (vacío si no hay ninguno).
+     * @throws IOException Error de lectura.
+     * @throws JuegoException Error al crear un jugador (nombre repetido).
+     */
+    public static GestorJugadores leerJugadores(BufferedReader lector) throws IOException, JuegoException {
+        List<String> nombres = new ArrayList<>();
+        IntStream.Builder puntos = IntStream.builder();
+        String nombre = null;
+        String linea;
+        while ((linea = lector.readLine()) != null) {
+            for (String trozo : linea.trim().split("\\s+")) {
+                if (trozo.isEmpty()) {
+                    continue;
+                }
+                if (nombre == null) {
+                    nombre = trozo;
+                } else {
+                    nombres.add(nombre);
+                    puntos.add(Integer.parseInt(trozo));
+                    nombre = null;
+                }
+            }
+        }
+        int[] listaPuntos = puntos.build().toArray();
+        GestorJugadores gJ = new GestorJugadores(nombres.size());
+        for (int i = 0; i < listaPuntos.length; i++) {
+            gJ.cargarJugador(nombres.get(i), listaPuntos[i]);
+        }
+        return gJ;
+    }
+}
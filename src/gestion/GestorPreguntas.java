@@ -0,0 +1,122 @@
+package gestion;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+import datos.preguntas.*;
+import presentacion.Utilidades;
+
+/**
+ * Clase que gestiona los tipos de pregunta del juego. Los proveedores de preguntas
+ * ({@link ProveedorPreguntas}) se cargan con {@link ServiceLoader} al usar la clase por primera vez y se
+ * ordenan por tipo; cada uno tiene su {@link ReservaPreguntas}. Si no se encuentra ninguno (por ejemplo,
+ * porque no se ha copiado META-INF al compilar), se usan los cuatro tipos del juego.
+ *
+ *  @author Sergio García Rodríguez
+ */
+public class GestorPreguntas {
+
+    private static final ReservaPreguntas[] reservas = cargar();
+    private static final ReservaPreguntas[] porTipo = indexar(reservas);
+
+    /**
+     * Elige al azar el tipo de la siguiente pregunta, con el generador de la partida.
+     * @return Reserva del tipo elegido.
+     */
+    public static ReservaPreguntas sortear() {
+        return reservas[Utilidades.getRandom(0, reservas.length - 1)];
+    }
+
+    /**
+     * Reserva de un tipo de pregunta.
+     * @param tipo Tipo de pregunta.
+     * @return Reserva, o null si no hay proveedor de ese tipo.
+     */
+    public static ReservaPreguntas getReserva(int tipo) {
+        return tipo >= 0 && tipo < porTipo.length ? porTipo[tipo] : null;
+    }
+
+    /**
+     * Reservas de todos los tipos de pregunta, ordenadas por tipo.
+     * @return Copia de la lista de reservas.
+     */
+    public static ReservaPreguntas[] getReservas() {
+        return reservas.clone();
+    }
+
+    /**
+     * Número de tipos de pregunta cargados.
+     * @return Total de proveedores.
+     */
+    public static int getTotalTipos() {
+        return reservas.length;
+    }
+
+    /**
+     * Nombre de un tipo de pregunta.
+     * @param tipo Tipo de pregunta.
+     * @return Nombre del proveedor, o "tipo N" si no hay ninguno de ese tipo.
+     */
+    public static String getNombre(int tipo) {
+        ReservaPreguntas reserva = getReserva(tipo);
+        return reserva != null ? reserva.getProveedor().getNombre() : "tipo " + tipo;
+    }
+
+    /**
+     * Mayor tipo de pregunta cargado, para dimensionar tablas indexadas por tipo.
+     * @return Tipo máximo.
+     */
+    public static int getMaxTipo() {
+        return porTipo.length - 1;
+    }
+
+    /**
+     * Estadísticas de las reservas: preguntas creadas, tiempo de creación y veces que se agotaron.
+     * @return Una línea por tipo de pregunta.
+     */
+    public static String getEstadisticas() {
+        StringBuilder txt = new StringBuilder();
+        for (ReservaPreguntas reserva : reservas) {
+            txt.append(reserva).append('\n');
+        }
+        return txt.toString();
+    }
+
+    private static ReservaPreguntas[] cargar() {
+        List<ProveedorPreguntas> proveedores = new ArrayList<>();
+        try {
+            for (ProveedorPreguntas proveedor : ServiceLoader.load(ProveedorPreguntas.class)) {
+                if (proveedor.getTipo() <= 0 || proveedores.stream().anyMatch(p -> p.getTipo() == proveedor.getTipo())) {
+                    GestorLog.escribirError("Proveedor de preguntas " + proveedor.getClass().getName()
+                            + " descartado: tipo " + proveedor.getTipo() + " no válido o repetido");
+                } else {
+                    proveedores.add(proveedor);
+                }
+            }
+        } catch (ServiceConfigurationError e) {
+            GestorLog.escribirError("Al cargar los proveedores de preguntas --> " + e.getMessage());
+        }
+        if (proveedores.isEmpty()) {
+            GestorLog.escribirError("No se encuentran proveedores de preguntas: se usan los del juego");
+            proveedores = new ArrayList<>(List.of(new ProveedorMates(), new ProveedorMasterMind(),
+                    new ProveedorGeografia(), new ProveedorCronometro()));
+        }
+        proveedores.sort(Comparator.comparingInt(ProveedorPreguntas::getTipo));
+        ReservaPreguntas[] reservas = new ReservaPreguntas[proveedores.size()];
+        for (int i = 0; i < reservas.length; i++) {
+            reservas[i] = new ReservaPreguntas(proveedores.get(i), i);
+        }
+        return reservas;
+    }
+
+    private static ReservaPreguntas[] indexar(ReservaPreguntas[] reservas) {
+        ReservaPreguntas[] porTipo = new ReservaPreguntas[reservas[reservas.length - 1].getProveedor().getTipo() + 1];
+        for (ReservaPreguntas reserva : reservas) {
+            porTipo[reserva.getProveedor().getTipo()] = reserva;
+        }
+        return porTipo;
+    }
+}
@@ -1,97 +1,485 @@
-package gestion;
-
-import java.io.File;
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.io.FileNotFoundException;
-
-import config.LectorProperties;
-import datos.RankingDiccionario;
-
-/**
- * Clase que gestiona la lectura y escritura del archivo de ranking de jugadores.
- * Permite leer el ranking, actualizarlo y mostrarlo por consola.
- *
- *  @author Sergio García Rodríguez
- */
-public class GestorRanking {
-
-    /**
-     * Lee el contenido del archivo de ranking.
-     * @return El contenido del ranking en forma de cadena de texto.
-     */
-    private static String leer() {
-        String txt = "";
-        try {
-            BufferedReader lector = new BufferedReader(new FileReader(config.Constantes.RANKING_PATH));
-            try {
-                String linea;
-                while ((linea = lector.readLine()) != null) {
-                    txt = txt.concat(linea).concat("\n");
-                }
-                lector.close();
-            } catch (IOException e) {
-                GestorLog.escribirMensaje(e.getMessage());
-            }
-        } catch (FileNotFoundException e) {
-            // Si el fichero no existe, se crea uno nuevo
-            GestorLog.escribirMensaje("No se encuentra el fichero " + config.Constantes.RANKING_PATH);
-            File f = new File(config.Constantes.RANKING_PATH);
-            try {
-                f.createNewFile();
-            } catch (IOException ex) {
-                GestorLog.escribirMensaje(ex.getMessage());
-            }
-        }
-        return txt;
-    }
-
-    /**
-     * Devuelve el contenido actual del ranking.
-     * @return El contenido del ranking en forma de cadena de texto.
-     */
-    public static String leerFicheroRanking() {
-        String rank = "El ranking de los " + LectorProperties.getTamRanking() + " jugadores con más puntos es:\n";
-        return rank + leer();
-    }
-
-    /**
-     * Escribe un nuevo ranking en el archivo de ranking.
-     * @param rkOrdenado Texto a procesar y guardar en el ranking.
-     */
-    private static void escribirFicheroRanking(String rkOrdenado) {
-        try {
-            BufferedWriter escritor = new BufferedWriter(new FileWriter(config.Constantes.RANKING_PATH));
-            escritor.write(rkOrdenado);
-            escritor.close();
-        } catch (IOException e) {
-            GestorLog.escribirError(e.getMessage());
-        }
-    }
-
-    /**
-     * Se recalcula el ranking teniendo en cuenta el resultado de la partida actual y el ranking anterior a la partida).
-     */
-    public static void calcularRanking(){
-        // Se crea un RankingDiccionario con el listado de jugadores actaules (y sus puntuaciones), y el contenido del
-        // fichero de ranking.
-        RankingDiccionario rd = new RankingDiccionario(GestorPartidas.getGestorJugadores().getListaJugadores(),
-                GestorRanking.leer());
-        escribirFicheroRanking(rd.getRankingOrdenado());
-    }
-
-    /**
-     * Elimina un jugador del ranking (porque ese jugador se ha eliminado de la partida).
-     * @param nombre Nombre del jugador a ser eliminado del ranking.
-     */
-    public static void eliminarJugadorRanking(String nombre){
-        // Se crea un RankingDiccionario con el contenido actual del fichero de ranking.
-        RankingDiccionario rd = new RankingDiccionario(GestorRanking.leer());
-        rd.eliminarJugador(nombre);
-        // Se actualiza el fichero de ranking.
-        escribirFicheroRanking(rd.getRankingOrdenado());
-    }
-}
\ No newline at end of file
+package gestion;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+import config.Constantes;
+import config.LectorProperties;
+import datos.RankingDiccionario;
+import datos.RankingVentanas;
+
+/**
+ * Clase que gestiona la lectura y escritura del archivo de ranking de jugadores.
+ * Permite leer el ranking, actualizarlo y mostrarlo por consola.
+ * El ranking se actualiza desde el consumidor de eventos de {@link GestorEventos} al terminar las partidas;
+ * las actualizaciones están sincronizadas para que no se pisen con la eliminación de jugadores.
+ * El ranking está en memoria ({@link RankingDiccionario}) y leerlo no accede a ningún fichero. Se guarda en dos
+ * ficheros:
+ * <ul>
+ *     <li>ranking.txt: foto de todos los jugadores con sus puntos, de mayor a menor.</li>
+ *     <li>Diario del ranking: cada cambio posterior a la foto se añade al final en una línea ("P nombre puntos"
+ *     si cambian los puntos de un jugador, "E nombre" si se elimina), así que guardar una partida cuesta lo
+ *     que ocupan sus jugadores, no todo el ranking.</li>
+ * </ul>
+ * Además del ranking total hay rankings del último día y de la última semana ({@link RankingVentanas}), con
+ * los puntos ganados en cada hora. Los puntos de una hora se anotan en el diario con lo que suman después del
+ * cambio ("V nombre hora puntos"), así que también se pueden aplicar más de una vez, y en cada compactación se
+ * guardan todas las horas de la última semana en el fichero de ventanas con ese mismo formato.
+ * Al arrancar se lee la foto y se aplican los cambios del diario. Cuando el diario tiene muchas líneas, se
+ * compacta en un hilo aparte: se empieza un diario nuevo, se escribe una foto nueva en un fichero temporal y
+ * se cambia por la anterior de una vez, y se borra el diario viejo. Si la aplicación se para a medias, la foto
+ * anterior y los diarios siguen siendo válidos; los cambios del diario se pueden aplicar más de una vez sin
+ * alterar el resultado, y una última línea cortada se descarta.
+ *
+ *  @author Sergio García Rodríguez
+ */
+public class GestorRanking {
+
+    private static RankingDiccionario ranking;
+    private static RankingVentanas ventanas;
+    private static Clock reloj = Clock.systemUTC();
+    private static BufferedWriter diario;
+    private static int lineasDiario;
+    private static Thread compactacion;
+
+    /**
+     * Devuelve el ranking en memoria. La primera vez se lee la foto y se aplican los diarios.
+     * @return Ranking.
+     */
+    private static RankingDiccionario getRanking() {
+        if (ranking == null) {
+            RankingDiccionario rd = new RankingDiccionario("");
+            RankingVentanas rv = new RankingVentanas();
+            leerFoto(rd);
+            aplicarDiario(rd, rv, Constantes.RANKING_VENTANAS_PATH);
+            // Diario de una compactación que no terminó, y después el diario actual
+            lineasDiario = aplicarDiario(rd, rv, Constantes.RANKING_DIARIO_COMPACTANDO_PATH)
+                    + aplicarDiario(rd, rv, Constantes.RANKING_DIARIO_PATH);
+            ranking = rd;
+            ventanas = rv;
+        }
+        return ranking;
+    }
+
+    /**
+     * Devuelve los rankings por periodos en memoria, leyéndolos junto con el ranking total la primera vez.
+     * @return Rankings por periodos.
+     */
+    private static RankingVentanas getVentanas() {
+        getRanking();
+        return ventanas;
+    }
+
+    /**
+     * Hora actual, contada desde el 1 de enero de 1970 (UTC).
+     */
+    private static long getHoraActual() {
+        return Math.floorDiv(reloj.millis(), 3_600_000L);
+    }
+
+    /**
+     * Cambia el reloj con el que se decide la hora de los puntos ganados y de los rankings por periodos.
+     * @param r Reloj (por defecto, el del sistema en UTC).
+     */
+    public static synchronized void setReloj(Clock r) {
+        reloj = r;
+    }
+
+    /**
+     * Lee la foto del ranking (ranking.txt) línea a línea.
+     */
+    private static void leerFoto(RankingDiccionario rd) {
+        try (BufferedReader lector = new BufferedReader(new FileReader(Constantes.RANKING_PATH))) {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                rd.actualizar(linea);
+            }
+        } catch (FileNotFoundException e) {
+            // Si el fichero no existe, se crea uno nuevo
+            GestorLog.escribirMensaje("No se encuentra el fichero " + Constantes.RANKING_PATH);
+            File f = new File(Constantes.RANKING_PATH);
+            try {
+                f.createNewFile();
+            } catch (IOException ex) {
+                GestorLog.escribirMensaje(ex.getMessage());
+            }
+        } catch (IOException e) {
+            GestorLog.escribirMensaje(e.getMessage());
+        }
+    }
+
+    /**
+     * Aplica al ranking los cambios de un diario (o del fichero de ventanas, que tiene el mismo formato).
+     * @return Líneas del diario.
+     */
+    private static int aplicarDiario(RankingDiccionario rd, RankingVentanas rv, String ruta) {
+        int lineas = 0;
+        if (!new File(ruta).exists()) {
+            return 0;
+        }
+        try (BufferedReader lector = new BufferedReader(new FileReader(ruta))) {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                lineas++;
+                String[] trozos = linea.split(" ");
+                if (trozos.length == 3 && trozos[0].equals("P")) {
+                    rd.actualizar(trozos[1], Integer.parseInt(trozos[2]));
+                } else if (trozos.length == 4 && trozos[0].equals("V")) {
+                    rv.poner(trozos[1], Long.parseLong(trozos[2]), Integer.parseInt(trozos[3]));
+                } else if (trozos.length == 2 && trozos[0].equals("E")) {
+                    rd.eliminarJugador(trozos[1]);
+                    rv.eliminarJugador(trozos[1]);
+                } else {
+                    // Línea a medio escribir al pararse la aplicación
+                    GestorLog.escribirError("Línea del diario del ranking descartada: " + linea);
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            GestorLog.escribirError("Error al leer el diario del ranking " + ruta + ": " + e.getMessage());
+        }
+        return lineas;
+    }
+
+    /**
+     * Devuelve el contenido actual del ranking.
+     * @return El contenido del ranking en forma de cadena de texto.
+     */
+    public static synchronized String leerFicheroRanking() {
+        String rank = "El ranking de los " + LectorProperties.getTamRanking() + " jugadores con más puntos es:\n";
+        return rank + getRanking().getRankingOrdenado();
+    }
+
+    /**
+     * Devuelve el ranking de los puntos ganados en un periodo.
+     * @param periodo Periodo del ranking; null para el ranking total.
+     * @return El ranking en forma de cadena de texto.
+     */
+    public static synchronized String leerRanking(RankingVentanas.Periodo periodo) {
+        if (periodo == null) {
+            return leerFicheroRanking();
+        }
+        int tamRanking = LectorProperties.getTamRanking();
+        StringBuilder txt = new StringBuilder("El ranking de los ").append(tamRanking)
+                .append(" jugadores con más puntos ").append(periodo.getDescripcion()).append(" es:\n");
+        for (RankingDiccionario.Puesto puesto : getPrimeros(periodo, tamRanking)) {
+            txt.append(puesto);
+        }
+        return txt.toString();
+    }
+
+    /**
+     * Jugadores que más puntos han ganado en un periodo, hasta la hora actual.
+     * @param periodo Periodo.
+     * @param total Número máximo de jugadores.
+     * @return Puestos en orden, con los puntos ganados en el periodo.
+     */
+    public static synchronized List<RankingDiccionario.Puesto> getPrimeros(RankingVentanas.Periodo periodo,
+                                                                          int total) {
+        return getVentanas().getPrimeros(periodo, total, getHoraActual());
+    }
+
+    /**
+     * Posición de un jugador en el ranking completo (no solo entre los que se muestran).
+     * @param nombre Nombre del jugador (sin distinguir mayúsculas y minúsculas).
+     * @return Posición empezando en 1, o 0 si el jugador no está en el ranking.
+     */
+    public static synchronized int getPosicionJugador(String nombre) {
+        return getRanking().getPosicion(nombre);
+    }
+
+    /**
+     * Jugadores de un rango de posiciones del ranking.
+     * @param desde Primera posición, empezando en 1.
+     * @param hasta Última posición (incluida).
+     * @return Puestos del rango, en orden.
+     */
+    public static synchronized List<RankingDiccionario.Puesto> getPuestos(int desde, int hasta) {
+        return getRanking().getPuestos(desde, hasta);
+    }
+
+    /**
+     * Jugadores que un jugador tiene justo por delante y por detrás en el ranking, con él incluido.
+     * @param nombre Nombre del jugador (sin distinguir mayúsculas y minúsculas).
+     * @param distancia Número de jugadores por delante y por detrás.
+     * @return Puestos en orden, o lista vacía si el jugador no está en el ranking.
+     */
+    public static synchronized List<RankingDiccionario.Puesto> getPuestosAlrededor(String nombre, int distancia) {
+        return getRanking().getPuestosAlrededor(nombre, distancia);
+    }
+
+    /**
+     * Texto con la posición de un jugador en el ranking y los jugadores que tiene alrededor.
+     * @param nombre Nombre del jugador (sin distinguir mayúsculas y minúsculas).
+     * @return Texto para mostrar.
+     */
+    public static synchronized String leerPosicionJugador(String nombre) {
+        RankingDiccionario rd = getRanking();
+        List<RankingDiccionario.Puesto> puestos = rd.getPuestosAlrededor(nombre,
+                Constantes.PUESTOS_ALREDEDOR_RANKING);
+        if (puestos.isEmpty()) {
+            return "El jugador " + nombre + " no está en el ranking";
+        }
+        int puntos = rd.getPuntos(nombre);
+        int porDelante = rd.contarPorDelante(puntos);
+        StringBuilder txt = new StringBuilder();
+        txt.append("El jugador ").append(nombre).append(" está en la posición ").append(rd.getPosicion(nombre))
+                .append(" de ").append(rd.getTotalJugadores()).append(" con ").append(puntos).append(" puntos");
+        if (rd.getPosicion(nombre) != porDelante + 1) {
+            txt.append(" (empatado en la posición ").append(porDelante + 1).append(")");
+        }
+        txt.append(":\n");
+        for (RankingDiccionario.Puesto puesto : puestos) {
+            txt.append(puesto);
+        }
+        return txt.toString();
+    }
+
+    /**
+     * Se recalcula el ranking teniendo en cuenta el resultado de varias partidas y el ranking anterior a ellas.
+     * Los jugadores cuyos puntos cambian se añaden al diario, que se vuelca una sola vez para todas las partidas.
+     * @param listasJugadores Listado de jugadores (y sus puntuaciones) de cada partida, en el orden en que
+     *                        terminaron. Si un jugador aparece en varias, vale su última puntuación.
+     */
+    public static void actualizarRanking(List<String> listasJugadores){
+        actualizarRanking(listasJugadores, Map.of());
+    }
+
+    /**
+     * Se recalcula el ranking con el resultado de varias partidas y se suman a la hora actual los puntos
+     * ganados en ellas, para los rankings por periodos.
+     * @param listasJugadores Listado de jugadores (y sus puntuaciones) de cada partida, en el orden en que
+     *                        terminaron. Si un jugador aparece en varias, vale su última puntuación.
+     * @param puntosGanados Puntos que ha ganado cada jugador en esas partidas.
+     */
+    public static synchronized void actualizarRanking(List<String> listasJugadores,
+                                                      Map<String, Integer> puntosGanados){
+        RankingDiccionario rd = getRanking();
+        StringBuilder cambios = new StringBuilder();
+        for (String lista : listasJugadores) {
+            recorrerLista(lista, (nombre, puntos) -> {
+                if (rd.actualizar(nombre, puntos)) {
+                    cambios.append("P ").append(nombre).append(' ').append(puntos).append('\n');
+                }
+            });
+        }
+        long hora = getHoraActual();
+        for (Map.Entry<String, Integer> ganados : puntosGanados.entrySet()) {
+            if (ganados.getValue() > 0) {
+                int puntosHora = ventanas.sumar(ganados.getKey(), ganados.getValue(), hora);
+                // Con un reloj que vuelve atrás más de una semana, los puntos ya no cuentan en ningún periodo
+                if (puntosHora >= 0) {
+                    cambios.append("V ").append(ganados.getKey()).append(' ').append(hora).append(' ')
+                            .append(puntosHora).append('\n');
+                }
+            }
+        }
+        anotar(cambios);
+    }
+
+    /**
+     * Recorre una lista de jugadores y puntos, con una línea "nombre puntos" por jugador. Las líneas mal formadas
+     * (un nombre con espacios o unos puntos que no son un número) se anotan en el log y se saltan, para que una
+     * sola no impida guardar las demás.
+     * @param lista Lista de jugadores, como la de {@link GestorJugadores#getListaJugadores()}.
+     * @param accion Acción que recibe el nombre y los puntos de cada línea válida.
+     */
+    static void recorrerLista(String lista, ObjIntConsumer<String> accion) {
+        for (String linea : lista.split("\n")) {
+            String[] trozos = linea.trim().split("\\s+");
+            if (trozos.length == 1 && trozos[0].isEmpty()) {
+                continue;
+            }
+            int puntos;
+            try {
+                puntos = trozos.length == 2 ? Integer.parseInt(trozos[1]) : Integer.MIN_VALUE;
+            } catch (NumberFormatException e) {
+                puntos = Integer.MIN_VALUE;
+            }
+            if (puntos == Integer.MIN_VALUE) {
+                GestorLog.escribirError("Línea de ranking mal formada, se ignora: \"" + linea + "\"");
+            } else {
+                accion.accept(trozos[0], puntos);
+            }
+        }
+    }
+
+    /**
+     * Elimina un jugador del ranking (porque ese jugador se ha eliminado de la partida).
+     * @param nombre Nombre del jugador a ser eliminado del ranking.
+     */
+    public static void eliminarJugadorRanking(String nombre){
+        // Las partidas ya terminadas podrían volver a añadir al jugador
+        GestorEventos.esperar();
+        synchronized (GestorRanking.class) {
+            // Se evalúan los dos para quitarlo de ambos
+            if (getRanking().eliminarJugador(nombre) | ventanas.eliminarJugador(nombre)) {
+                anotar(new StringBuilder("E ").append(nombre).append('\n'));
+            }
+        }
+    }
+
+    /**
+     * Añade cambios al final del diario y lo vuelca al fichero. Si el diario ha crecido mucho, se compacta.
+     * @param cambios Líneas de cambios, cada una terminada en salto de línea.
+     */
+    private static void anotar(CharSequence cambios) {
+        if (cambios.isEmpty()) {
+            return;
+        }
+        try {
+            if (diario == null) {
+                diario = new BufferedWriter(new FileWriter(Constantes.RANKING_DIARIO_PATH, true));
+            }
+            diario.append(cambios);
+            diario.flush();
+        } catch (IOException e) {
+            GestorLog.escribirError("Error al escribir el diario del ranking: " + e.getMessage());
+            return;
+        }
+        for (int i = 0; i < cambios.length(); i++) {
+            lineasDiario += cambios.charAt(i) == '\n' ? 1 : 0;
+        }
+        if (lineasDiario >= Constantes.MAX_LINEAS_DIARIO_RANKING && (compactacion == null || !compactacion.isAlive())) {
+            compactar(false);
+        }
+    }
+
+    /**
+     * Compacta el diario: guarda una foto del ranking con todos sus jugadores y empieza un diario vacío.
+     * @param esperar true para esperar a que se escriba la foto; false para escribirla en un hilo aparte.
+     */
+    public static void compactar(boolean esperar) {
+        Thread hilo;
+        synchronized (GestorRanking.class) {
+            esperarCompactacion();
+            List<RankingDiccionario.Puesto> foto;
+            try {
+                foto = rotarDiario();
+            } catch (IOException e) {
+                GestorLog.escribirError("Error al compactar el diario del ranking: " + e.getMessage());
+                return;
+            }
+            StringBuilder horas = new StringBuilder();
+            ventanas.escribir(horas);
+            hilo = Thread.ofPlatform().daemon().name("ranking-compactacion")
+                    .unstarted(() -> escribirFoto(foto, horas));
+            compactacion = hilo;
+            hilo.start();
+        }
+        if (esperar) {
+            esperarCompactacion();
+        }
+    }
+
+    /**
+     * Cierra el diario actual y lo aparta para la compactación; los cambios siguientes van a un diario nuevo.
+     * @return Todos los jugadores del ranking en este momento, para la foto.
+     */
+    private static List<RankingDiccionario.Puesto> rotarDiario() throws IOException {
+        RankingDiccionario rd = getRanking();
+        if (diario != null) {
+            diario.close();
+            diario = null;
+        }
+        Path actual = Path.of(Constantes.RANKING_DIARIO_PATH);
+        Path compactando = Path.of(Constantes.RANKING_DIARIO_COMPACTANDO_PATH);
+        if (Files.exists(actual)) {
+            if (Files.exists(compactando)) {
+                // Una compactación anterior no terminó: sus cambios se juntan con los actuales
+                Files.write(compactando, Files.readAllBytes(actual), StandardOpenOption.APPEND);
+                Files.delete(actual);
+            } else {
+                Files.move(actual, compactando, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+        lineasDiario = 0;
+        return rd.getPuestos(1, rd.getTotalJugadores());
+    }
+
+    /**
+     * Escribe la foto y las horas de los rankings por periodos en ficheros temporales, los cambia por los
+     * anteriores y borra el diario apartado.
+     */
+    private static void escribirFoto(List<RankingDiccionario.Puesto> foto, CharSequence horas) {
+        Path temporal = Path.of(Constantes.RANKING_PATH + ".tmp");
+        Path temporalVentanas = Path.of(Constantes.RANKING_VENTANAS_PATH + ".tmp");
+        try {
+            Files.writeString(temporalVentanas, horas);
+            Files.move(temporalVentanas, Path.of(Constantes.RANKING_VENTANAS_PATH),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            try (BufferedWriter escritor = Files.newBufferedWriter(temporal)) {
+                for (RankingDiccionario.Puesto puesto : foto) {
+                    escritor.append(puesto.getNombre()).append('\t').append(String.valueOf(puesto.getPuntos()))
+                            .append('\n');
+                }
+            }
+            Files.move(temporal, Path.of(Constantes.RANKING_PATH), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            Files.deleteIfExists(Path.of(Constantes.RANKING_DIARIO_COMPACTANDO_PATH));
+            GestorLog.escribirMensaje("Ranking compactado: " + foto.size() + " jugadores");
+        } catch (IOException e) {
+            // El diario apartado se conserva y se aplicará al volver a leer el ranking
+            GestorLog.escribirError("Error al escribir la foto del ranking: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Espera a que termine la compactación en curso, si la hay.
+     */
+    public static void esperarCompactacion() {
+        Thread hilo;
+        synchronized (GestorRanking.class) {
+            hilo = compactacion;
+        }
+        if (hilo != null) {
+            try {
+                hilo.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            synchronized (GestorRanking.class) {
+                if (compactacion == hilo) {
+                    compactacion = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Espera a la compactación en curso y cierra el diario. Si se vuelve a usar el ranking, se abre de nuevo.
+     */
+    public static synchronized void cerrar() {
+        esperarCompactacion();
+        if (diario != null) {
+            try {
+                diario.close();
+            } catch (IOException e) {
+                GestorLog.escribirError(e.getMessage());
+            }
+            diario = null;
+        }
+    }
+
+    /**
+     * Descarta el ranking en memoria, que se volverá a leer de la foto y los diarios al pedirlo.
+     */
+    public static synchronized void recargar() {
+        cerrar();
+        ranking = null;
+        ventanas = null;
+    }
+}
@@ -0,0 +1,64 @@
+package gestion;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import config.Constantes;
+
+/**
+ * Clase que gestiona el fichero de registros de partidas: una línea por partida jugada por consola o en el
+ * servidor, con la que se puede repetir la partida (ver {@link Partida#repetir}) para revisar una
+ * reclamación o para medir siempre la misma carga.
+ *
+ *  @author Sergio García Rodríguez
+ */
+public class GestorRegistroPartidas {
+
+    /**
+     * Añade registros de partidas al fichero abriéndolo una sola vez.
+     * @param registros Registros, cada uno en una línea (ver {@link RegistroPartida#aTexto()}).
+     */
+    public static synchronized void escribir(List<String> registros) {
+        try (BufferedWriter escritor = new BufferedWriter(new FileWriter(Constantes.PARTIDAS_PATH, true))) {
+            for (String registro : registros) {
+                escritor.write(registro);
+                escritor.newLine();
+            }
+        } catch (IOException e) {
+            GestorLog.escribirError("Al escribir en el fichero de partidas --> " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lee los registros de todas las partidas guardadas. Las líneas que no son un registro válido se
+     * descartan y se anotan en el log.
+     * @return Registros en el orden en que se jugaron las partidas.
+     */
+    public static synchronized List<RegistroPartida> leer() {
+        List<RegistroPartida> registros = new ArrayList<>();
+        try (BufferedReader lector = new BufferedReader(new FileReader(Constantes.PARTIDAS_PATH))) {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                if (linea.isBlank()) {
+                    continue;
+                }
+                try {
+                    registros.add(RegistroPartida.desdeTexto(linea));
+                } catch (IllegalArgumentException e) {
+                    GestorLog.escribirError(e.getMessage());
+                }
+            }
+        } catch (FileNotFoundException e) {
+            // Todavía no se ha jugado ninguna partida
+        } catch (IOException e) {
+            GestorLog.escribirError("Al leer el fichero de partidas --> " + e.getMessage());
+        }
+        return registros;
+    }
+}
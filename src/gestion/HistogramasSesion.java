@@ -0,0 +1,44 @@
+package gestion;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import datos.preguntas.HistogramaErrores;
+
+/**
+ * Histogramas de errores de las pruebas de cronómetro de una sesión de juego (la consola o una conexión del
+ * {@link presentacion.ServidorTexto}), por nombre de jugador. Cada sesión tiene los suyos, de forma que dos
+ * sesiones con jugadores del mismo nombre (por ejemplo CPU0) no mezclan sus errores.
+ *
+ *  @author Sergio García Rodríguez
+ */
+public class HistogramasSesion {
+
+    private final Map<String, HistogramaErrores> histogramas = new ConcurrentHashMap<>();
+
+    /**
+     * Añade el error de una prueba al histograma de un jugador.
+     * @param jugador Nombre del jugador.
+     * @param errorNanos Diferencia con el tiempo de la prueba en nanosegundos.
+     */
+    public void registrarError(String jugador, long errorNanos) {
+        histogramas.computeIfAbsent(jugador, j -> new HistogramaErrores()).registrar(errorNanos);
+    }
+
+    /**
+     * Histograma de errores de un jugador.
+     * @param jugador Nombre del jugador.
+     * @return Histograma, o null si el jugador no ha hecho ninguna prueba en la sesión.
+     */
+    public HistogramaErrores getHistograma(String jugador) {
+        return histogramas.get(jugador);
+    }
+
+    /**
+     * Histogramas de todos los jugadores que han hecho alguna prueba en la sesión.
+     * @return Mapa (no modificable) de nombre de jugador a histograma.
+     */
+    public Map<String, HistogramaErrores> getHistogramas() {
+        return Map.copyOf(histogramas);
+    }
+}
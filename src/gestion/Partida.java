@@ -0,0 +1,647 @@
+package gestion;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
+import config.Constantes;
+import config.LectorProperties;
+import datos.jugadores.Jugador;
+import datos.mastermind.CodigoMasterMind;
+import datos.mastermind.SolverMasterMind;
+import datos.preguntas.*;
+import presentacion.Utilidades;
+
+/**
+ * Reglas de una partida: rondas, preguntas, puntuación y ganador.
+ * Toda la entrada y salida pasa por un {@link CanalPartida} y los tiempos por un {@link Reloj}, de forma que
+ * las mismas reglas sirven para la partida interactiva por consola y para simulaciones sin consola.
+ * Cada partida tiene una semilla de la que salen todos sus números aleatorios, que se usan en el hilo que la
+ * juega (ver {@link Utilidades#setRandomSesion}), así que se pueden jugar muchas partidas a la vez, por
+ * ejemplo una en cada hilo virtual, sin compartir estado modificable. De la semilla sale un
+ * {@link SplittableRandom} para cada jugador (sorteo del tipo de pregunta) y, de él, uno para cada tipo de
+ * pregunta; cada pregunta se juega con un generador separado del de su tipo. Así lo que consuma una
+ * pregunta no cambia las demás, y cambiar un tipo de pregunta no cambia las preguntas de los otros tipos.
+ * Todo lo que no sale de la semilla (preguntas de las reservas, respuestas de los humanos, lecturas del
+ * reloj e intentos de la CPU en MasterMind, que dependen del tiempo) se anota en un {@link RegistroPartida},
+ * con el que la partida se repite exactamente con {@link #repetir}.
+ * Los tipos de pregunta los dan los proveedores de {@link GestorPreguntas}.
+ * La partida no escribe en el log ni en los ficheros: todo lo que ocurre se entrega al canal como
+ * {@link EventoPartida}, y son los consumidores de eventos ({@link GestorEventos}) los que lo registran.
+ *
+ *  @author Sergio García Rodríguez
+ */
+public class Partida {
+
+    private static final AtomicLong contadorPartidas = new AtomicLong();
+
+    private final GestorJugadores gJ;
+    private final CanalPartida canal;
+    private final Reloj relojCPU;
+    private final Reloj relojHumano;
+    private final boolean sembrada;
+    private long semilla;
+    private long id;
+
+    // Generadores de la partida en juego: uno por jugador y, de cada uno, uno por tipo de pregunta
+    private SplittableRandom[] flujosJugador;
+    private SplittableRandom[][] flujosPregunta;
+    private RegistroPartida registro;
+    // Registro que se está repitiendo (null si la partida se juega de verdad)
+    private RegistroPartida repeticion;
+    // Siguiente jugador de la ronda y su turno, si se ha preparado mientras la CPU esperaba en el cronómetro
+    private int siguienteJugador;
+    private Turno siguienteTurno;
+
+    /**
+     * Turno de un jugador preparado antes de jugarlo: tipo de pregunta sorteado, generador de la pregunta y
+     * pregunta.
+     */
+    private static final class Turno {
+        private final ReservaPreguntas reserva;
+        private final SplittableRandom rndPregunta;
+        private final Pregunta pregunta;
+
+        Turno(ReservaPreguntas reserva, SplittableRandom rndPregunta, Pregunta pregunta) {
+            this.reserva = reserva;
+            this.rndPregunta = rndPregunta;
+            this.pregunta = pregunta;
+        }
+    }
+
+    /**
+     * Constructor. La partida sortea su semilla y toma las preguntas de las reservas de
+     * {@link GestorPreguntas}; se puede repetir con su registro ({@link #getRegistro()}).
+     * @param gJ Jugadores de la partida.
+     * @param canal Canal de entrada y salida.
+     * @param reloj Reloj para las esperas de la CPU en las preguntas de cronómetro.
+     */
+    public Partida(GestorJugadores gJ, CanalPartida canal, Reloj reloj) {
+        this(gJ, canal, reloj, new SplittableRandom().nextLong(), false);
+    }
+
+    /**
+     * Constructor de una partida sembrada: crea sus preguntas en el momento y la CPU piensa sus intentos de
+     * MasterMind sin límite de tiempo, así que dos partidas con la misma semilla y los mismos jugadores CPU
+     * se juegan igual, sin necesidad del registro. Si se juegan varias partidas con el mismo objeto, cada una
+     * saca su semilla de la anterior.
+     * @param gJ Jugadores de la partida.
+     * @param canal Canal de entrada y salida.
+     * @param reloj Reloj para las esperas de la CPU en las preguntas de cronómetro.
+     * @param semilla Semilla de la partida.
+     */
+    public Partida(GestorJugadores gJ, CanalPartida canal, Reloj reloj, long semilla) {
+        this(gJ, canal, reloj, semilla, true);
+    }
+
+    private Partida(GestorJugadores gJ, CanalPartida canal, Reloj reloj, long semilla, boolean sembrada) {
+        this.gJ = gJ;
+        this.canal = canal;
+        this.relojCPU = new RelojRegistrado(reloj);
+        this.relojHumano = new RelojRegistrado(RelojReal.getInstancia());
+        this.semilla = semilla;
+        this.sembrada = sembrada;
+    }
+
+    /**
+     * Crea una partida sembrada entre jugadores CPU. Los asientos de los jugadores también se sortean a
+     * partir de la semilla.
+     * @param totalJugadores Número de jugadores CPU.
+     * @param canal Canal de entrada y salida.
+     * @param reloj Reloj para las esperas de la CPU en las preguntas de cronómetro.
+     * @param semilla Semilla de la partida.
+     * @return Partida lista para jugar.
+     */
+    public static Partida crearPartidaCPU(int totalJugadores, CanalPartida canal, Reloj reloj, long semilla) {
+        GestorJugadores gJ = new GestorJugadores(totalJugadores);
+        // Generador de los asientos distinto de los de la partida
+        RandomGenerator anterior = Utilidades.setRandomSesion(new SplittableRandom(~semilla));
+        try {
+            for (int i = 0; i < totalJugadores; i++) {
+                gJ.crearJugador("", 0, 2);
+            }
+        } catch (JuegoException e) {
+            // Los nombres de CPU se generan sin repetir
+            throw new RuntimeException(e);
+        } finally {
+            Utilidades.setRandomSesion(anterior);
+        }
+        return new Partida(gJ, canal, reloj, semilla);
+    }
+
+    /**
+     * Repite una partida a partir de su registro: mismos jugadores, mismas preguntas, mismas respuestas y
+     * mismos tiempos. Las respuestas de los humanos se leen del registro en lugar de preguntarlas y las
+     * esperas del cronómetro no esperan. La partida repetida tiene su propio registro, igual al original.
+     * @param registro Registro de la partida, por ejemplo leído con {@link GestorRegistroPartidas#leer()}.
+     * @param canal Canal por el que se muestra la partida.
+     * @param reloj Reloj para las esperas de la CPU en las preguntas de cronómetro.
+     * @return Partida repetida, con los puntos de los jugadores al terminar.
+     * @throws IllegalStateException Si la repetición pide datos que el registro no tiene.
+     */
+    public static Partida repetir(RegistroPartida registro, CanalPartida canal, Reloj reloj) {
+        Partida partida = new Partida(registro.crearJugadores(), canal, reloj, registro.getSemilla(), true);
+        registro.rebobinar();
+        partida.repeticion = registro;
+        try {
+            partida.jugar(registro.getRondas());
+        } finally {
+            partida.repeticion = null;
+        }
+        return partida;
+    }
+
+    /**
+     * Juega una partida completa con un número determinado de rondas.
+     * @param rondas Número de rondas a jugar.
+     */
+    public void jugar(int rondas) {
+        RandomGenerator anterior = Utilidades.setRandomSesion(null);
+        try {
+            jugarPartida(rondas);
+        } finally {
+            Utilidades.setRandomSesion(anterior);
+        }
+    }
+
+    /**
+     * Ejecuta una ronda para cada uno de los jugadores. A cada uno se le plantea una pregunta aleatoria.
+     * @param ronda Número de ronda.
+     */
+    public void jugarRonda(int ronda) {
+        RandomGenerator anterior = Utilidades.setRandomSesion(null);
+        try {
+            if (flujosJugador == null) {
+                empezar(0);
+            }
+            jugarRondaPartida(ronda);
+        } finally {
+            Utilidades.setRandomSesion(anterior);
+        }
+    }
+
+    /**
+     * Semilla de la siguiente partida que se juegue con este objeto.
+     * @return Semilla.
+     */
+    public long getSemilla() {
+        return semilla;
+    }
+
+    /**
+     * Cambia la semilla de la siguiente partida, por ejemplo para reutilizar el objeto en una simulación.
+     * @param semilla Semilla nueva.
+     */
+    public void setSemilla(long semilla) {
+        this.semilla = semilla;
+    }
+
+    /**
+     * Registro de la última partida jugada o en juego, con el que se puede repetir.
+     * @return Registro, o null si todavía no se ha jugado.
+     */
+    public RegistroPartida getRegistro() {
+        return registro;
+    }
+
+    /**
+     * Prepara los generadores y el registro de una partida nueva. La semilla del objeto pasa a ser la de la
+     * siguiente partida.
+     */
+    private void empezar(int rondas) {
+        SplittableRandom raiz = new SplittableRandom(semilla);
+        registro = new RegistroPartida(semilla, rondas, gJ);
+        semilla = raiz.nextLong();
+        int totalTipos = GestorPreguntas.getTotalTipos();
+        flujosJugador = new SplittableRandom[gJ.getTotalJugadores()];
+        flujosPregunta = new SplittableRandom[gJ.getTotalJugadores()][totalTipos];
+        for (int j = 0; j < flujosJugador.length; j++) {
+            flujosJugador[j] = raiz.split();
+            for (int t = 0; t < totalTipos; t++) {
+                flujosPregunta[j][t] = flujosJugador[j].split();
+            }
+        }
+    }
+
+    /**
+     * Identificador de la partida, distinto en cada llamada a {@link #jugar(int)}. Los eventos de la
+     * partida lo llevan para poder separar las partidas que se juegan a la vez.
+     * @return Identificador de la última partida jugada o en juego.
+     */
+    public long getId() {
+        return id;
+    }
+
+    private void jugarPartida(int rondas) {
+        empezar(rondas);
+        id = contadorPartidas.incrementAndGet();
+        canal.evento(EventoPartida.partidaIniciada(id, rondas, !canal.isConTexto() ? null
+                : gJ.getTotalJugadoresHumanos() + " jugadores humanos, " + gJ.getTotalJugadoresCPU()
+                + " jugadores de CPU"));
+
+        // Inicializo los puntos de partida de los jugadores
+        gJ.resetPuntosPartida();
+
+        for (int i = 1; i <= rondas; i++) {
+            if (canal.isConTexto()) {
+                canal.mensaje("\n** Ronda número " + i + " **");
+            }
+            jugarRondaPartida(i);
+            if (canal.isConTexto()) {
+                // Muestro las puntuaciones de la tanda
+                canal.mensaje("\n** Resultado de la Ronda número " + i + " **");
+                for (int j = 0; j < gJ.getTotalJugadores(); j++) {
+                    Jugador jugador = gJ.getJugador(j);
+                    canal.mensaje(jugador.getNombre() + ": " + jugador.getPuntosRonda() + " puntos!!");
+                }
+            }
+        }
+
+        String ganador = getNombreGanador();
+        if (canal.isConTexto()) {
+            // Muestro las puntuaciones de la partida
+            canal.mensaje("\n** Resultado de la Partida **");
+            for (int i = 0; i < gJ.getTotalJugadores(); i++) {
+                Jugador jugador = gJ.getJugador(i);
+                canal.mensaje(jugador.getNombre() + ": " + jugador.getPuntosPartida() + " puntos!!");
+            }
+        }
+        int max = Math.max(0, gJ.getMaxPuntosPartida());
+        canal.evento(EventoPartida.partidaFinalizada(id, rondas, ganador, ganador.contains(" - "), max,
+                canal.isConTexto() ? gJ.getListaJugadores() : null, canal.isConTexto() ? getPuntosGanados() : null));
+        if (canal.isConTexto() && repeticion == null) {
+            canal.evento(EventoPartida.partidaRegistrada(id, registro.getSemilla(), registro.aTexto()));
+        }
+    }
+
+    /**
+     * Jugadores que han ganado puntos en la partida, una línea "nombre puntos" por jugador.
+     */
+    private String getPuntosGanados() {
+        StringBuilder ganados = new StringBuilder();
+        for (int i = 0; i < gJ.getTotalJugadores(); i++) {
+            Jugador jugador = gJ.getJugador(i);
+            if (jugador.getPuntosPartida() > 0) {
+                ganados.append(jugador.getNombre()).append(' ').append(jugador.getPuntosPartida()).append('\n');
+            }
+        }
+        return ganados.toString();
+    }
+
+    private void jugarRondaPartida(int ronda) {
+        canal.evento(EventoPartida.rondaIniciada(id, ronda));
+        // Inicializo los puntos de ronda de los jugadores
+        gJ.resetPuntosRonda();
+        siguienteTurno = null;
+        for (int i = 0; i < gJ.getTotalJugadores(); i++) {
+            Turno turno = siguienteTurno != null ? siguienteTurno : prepararTurno(i);
+            siguienteTurno = null;
+            siguienteJugador = i + 1;
+            Utilidades.setRandomSesion(turno.rndPregunta);
+            if (canal.isConTexto()) {
+                canal.mensaje("\n***** > Le toca a " + gJ.getJugador(i).getNombre());
+            }
+            preguntar(ronda, turno, gJ.getJugador(i));
+        }
+    }
+
+    /**
+     * Sortea el tipo de pregunta de un jugador y obtiene su pregunta.
+     * Las partidas sembradas crean la pregunta en el momento con la semilla de la pregunta; las demás la
+     * toman de la reserva. En la repetición se vuelve a crear con la semilla anotada.
+     * Deja como generador del hilo el de la pregunta.
+     * @param i Posición del jugador.
+     * @return Turno del jugador.
+     */
+    private Turno prepararTurno(int i) {
+        // Selección aleatoria del tipo de pregunta entre los proveedores cargados, con el generador del jugador
+        Utilidades.setRandomSesion(flujosJugador[i]);
+        ReservaPreguntas reserva = GestorPreguntas.sortear();
+        // La pregunta se juega con un generador propio, separado del de su tipo
+        SplittableRandom rndPregunta = flujosPregunta[i][reserva.getIndice()].split();
+        Utilidades.setRandomSesion(rndPregunta);
+        long semillaPregunta = rndPregunta.nextLong();
+        Pregunta pregunta;
+        if (repeticion != null || sembrada) {
+            if (repeticion != null) {
+                semillaPregunta = repeticion.siguienteSemillaPregunta();
+            }
+            pregunta = reserva.crear(semillaPregunta);
+        } else {
+            ReservaPreguntas.Generada generada = reserva.tomar(semillaPregunta);
+            semillaPregunta = generada.getSemilla();
+            pregunta = generada.getPregunta();
+        }
+        registro.anotarSemillaPregunta(semillaPregunta);
+        return new Turno(reserva, rndPregunta, pregunta);
+    }
+
+    /**
+     * Prepara el turno del siguiente jugador de la ronda, si lo hay, sin cambiar el generador del hilo. Solo
+     * depende de los generadores de ese jugador, así que da el mismo turno que prepararlo al llegar a él.
+     */
+    private void adelantarSiguienteTurno() {
+        if (siguienteTurno == null && siguienteJugador < gJ.getTotalJugadores()) {
+            RandomGenerator actual = Utilidades.getGeneradorRandom();
+            siguienteTurno = prepararTurno(siguienteJugador);
+            Utilidades.setRandomSesion(actual);
+        }
+    }
+
+    /**
+     * Plantea al jugador actual la pregunta de su turno y muestra el resultado.
+     * @param ronda Número de ronda.
+     * @param turno Turno preparado con {@link #prepararTurno(int)}.
+     * @param jug Instancia de Jugador al que se le va a preguntar.
+     */
+    private void preguntar(int ronda, Turno turno, Jugador jug) {
+        int tipo = turno.reserva.getProveedor().getTipo();
+        Pregunta pregunta = turno.pregunta;
+        Resultado res;
+        long valor = 0;
+        switch (pregunta) {
+            case PreguntaMates preg -> {
+                res = lanzarMates(ronda, preg, jug);
+                canal.mensaje(res.getMensaje());
+            }
+            case PreguntaMasterMind preg -> {
+                res = lanzarMastermind(ronda, preg, jug);
+            }
+            case PreguntaGeografia preg -> {
+                res = lanzarGeografia(ronda, preg, jug);
+                canal.mensaje(res.getMensaje());
+            }
+            case PreguntaCronometro preg -> {
+                PreguntaCronometro medida = preg.conReloj(jug.isHumano() ? relojHumano : relojCPU);
+                res = lanzarCronometro(ronda, medida, jug);
+                valor = medida.getErrorNanos();
+                canal.mensaje(res.getMensaje());
+            }
+            default -> {
+                res = lanzarPregunta(ronda, tipo, pregunta, jug);
+                canal.mensaje(res.getMensaje());
+            }
+        }
+
+        if (res.isAcertado()) {
+            jug.addPuntos(Constantes.PUNTOS_x_RESPUESTA);
+            jug.addPuntosRonda(Constantes.PUNTOS_x_RESPUESTA);
+        }
+        canal.evento(EventoPartida.respuesta(id, ronda, jug.getNombre(), tipo, res.isAcertado(), valor));
+    }
+
+    /**
+     * Lanza una pregunta de tipo Matemáticas y obtiene la respuesta del jugador.
+     * @param ronda Número de ronda.
+     * @param preg Pregunta de matemáticas.
+     * @param jug Jugador al que se le pregunta.
+     * @return Resultado que contiene el mensaje final y si acertó o no.
+     */
+    private Resultado lanzarMates(int ronda, PreguntaMates preg, Jugador jug) {
+        canal.evento(EventoPartida.preguntaLanzada(id, ronda, jug.getNombre(), EventoPartida.PREGUNTA_MATES,
+                canal.isConTexto() ? preg.getTextoPregunta(true) : null));
+
+        if (jug.isHumano()) {
+            return preg.comprobarRespuesta(preguntarLong(preg.getTextoPregunta(LectorProperties.isDebug())));
+        } else {
+            // La CPU siempre acierta!!!
+            if (canal.isConTexto()) {
+                canal.mensaje(preg.getTextoPregunta(false).concat("\n" + preg.getSolucion()));
+            }
+            return preg.comprobarRespuesta(preg.getSolucion());
+        }
+    }
+
+    /**
+     * Lanza una pregunta de tipo MasterMind y obtiene la respuesta del jugador.
+     * El jugador tiene un número limitado de intentos para adivinar el número secreto.
+     * Se evalúan sus respuestas dando retroalimentación según el sistema MasterMind.
+     * @param ronda Número de ronda.
+     * @param preg Pregunta de MasterMind.
+     * @param jug Jugador al que se le pregunta.
+     * @return Resultado que contiene el mensaje final y si acertó o no.
+     */
+    private Resultado lanzarMastermind(int ronda, PreguntaMasterMind preg, Jugador jug) {
+        boolean isHumano = jug.isHumano();
+        canal.evento(EventoPartida.preguntaLanzada(id, ronda, jug.getNombre(), EventoPartida.PREGUNTA_MASTERMIND,
+                null));
+
+        Resultado res = null;
+        SolverMasterMind solver = isHumano || repeticion != null ? null : new SolverMasterMind(LectorProperties.getTotalCifrasPregMasterMind(),
+                LectorProperties.getMaxCifraPregMastermind() + 1, SolverMasterMind.Criterio.ENTROPIA);
+        for (int i = 0; i < Constantes.TOTAL_ITERACIONES_MASTERMIND; i++) {
+            if (isHumano) {
+                res = preg.comprobarRespuesta(
+                        preguntarCodigo(preg.getTextoPregunta(LectorProperties.isDebug()),
+                                LectorProperties.getTotalCifrasPregMasterMind(),
+                                LectorProperties.getTotalCifrasPregMasterMind())
+                );
+            } else {
+                // La CPU deduce su intento a partir de las pistas anteriores. Con límite de tiempo el intento
+                // depende de la velocidad de la máquina, así que se anota para poder repetir la partida.
+                long intento;
+                if (repeticion != null) {
+                    intento = repeticion.siguienteIntentoCPU();
+                } else {
+                    intento = solver.siguienteIntento(System.nanoTime() + (sembrada ? Long.MAX_VALUE / 2
+                            : LectorProperties.getMsMaxIntentoMasterMind() * 1_000_000L));
+                }
+                registro.anotarIntentoCPU(intento);
+                String resCPU = CodigoMasterMind.aTexto(intento, LectorProperties.getTotalCifrasPregMasterMind());
+                if (canal.isConTexto()) {
+                    canal.mensaje(preg.getTextoPregunta(false).concat("\n" + resCPU));
+                }
+                res = preg.comprobarRespuesta(resCPU);
+                if (solver != null) {
+                    solver.registrar(intento, preg.puntuar(intento));
+                }
+            }
+
+            canal.mensaje(res.getMensaje());
+            if (res.isAcertado()) {
+                return res;
+            }
+        }
+        if (canal.isConTexto()) {
+            canal.mensaje("Solución: " + preg.getSolucion());
+        }
+        return res;
+    }
+
+    /**
+     * Lanza una pregunta de tipo Geografía y obtiene la respuesta del jugador.
+     * @param ronda Número de ronda.
+     * @param preg Pregunta de geografía.
+     * @param jug Jugador al que se le pregunta.
+     * @return Resultado que contiene el mensaje final y si acertó o no.
+     */
+    private Resultado lanzarGeografia(int ronda, PreguntaGeografia preg, Jugador jug) {
+        canal.evento(EventoPartida.preguntaLanzada(id, ronda, jug.getNombre(), EventoPartida.PREGUNTA_GEOGRAFIA,
+                canal.isConTexto() ? preg.getTextoPregunta(true) : null));
+
+        if (jug.isHumano()) {
+            return preg.comprobarRespuesta(preguntarOpcion(preg.getTextoPregunta(LectorProperties.isDebug())));
+        } else {
+            char resCPU = preg.getRespuestaCPU();
+            //La CPU genera un número aleatorio!!!
+            if (canal.isConTexto()) {
+                canal.mensaje(preg.getTextoPregunta(false).concat("\n" + resCPU));
+            }
+            return preg.comprobarRespuesta(resCPU);
+        }
+    }
+
+    /**
+     * Lanza una pregunta de tipo Cronómetro (TicTac).
+     * La espera de un jugador CPU se programa en el reloj de la pregunta en lugar de dormir el hilo de la
+     * partida, que mientras tanto prepara el turno del siguiente jugador.
+     * @param ronda Número de ronda.
+     * @param preg Pregunta de cronómetro.
+     * @param jug Jugador al que se le pregunta.
+     * @return Resultado que contiene el mensaje final y si acertó o no.
+     */
+    private Resultado lanzarCronometro(int ronda, PreguntaCronometro preg, Jugador jug) {
+        Resultado res;
+        canal.evento(EventoPartida.preguntaLanzada(id, ronda, jug.getNombre(), EventoPartida.PREGUNTA_CRONOMETRO,
+                canal.isConTexto() ? preg.getTotalSegs() + " segundos" : null));
+        if (canal.isConTexto()) {
+            canal.mensaje("Pregunta de Cronómetro. Una vez pulses enter, tienes que esperar "
+                    + preg.getTotalSegs() + " segundos y pulsar enter de nuevo. Yo contaré el tiempo...");
+        }
+        if (jug.isHumano()) {
+            esperarIntro();
+            canal.mensaje(preg.getTextoPregunta(false));
+            esperarIntro();
+            res = preg.comprobarRespuesta("");
+        } else {
+            // La CPU "pulsa enter" cuando vence su temporizador
+            CompletableFuture<Resultado> respuesta = GestorCronometro.programarRespuestaCPU(preg);
+            adelantarSiguienteTurno();
+            res = respuesta.join();
+        }
+        return res;
+    }
+
+    /**
+     * Lanza una pregunta de un tipo añadido con un {@link ProveedorPreguntas}. El jugador humano contesta con
+     * una palabra; la CPU contesta la solución.
+     * @param ronda Número de ronda.
+     * @param tipo Tipo de pregunta.
+     * @param preg Pregunta.
+     * @param jug Jugador al que se le pregunta.
+     * @return Resultado que contiene el mensaje final y si acertó o no.
+     */
+    private Resultado lanzarPregunta(int ronda, int tipo, Pregunta preg, Jugador jug) {
+        canal.evento(EventoPartida.preguntaLanzada(id, ronda, jug.getNombre(), tipo,
+                canal.isConTexto() ? preg.getTextoPregunta(true) : null));
+        if (jug.isHumano()) {
+            return preg.comprobarRespuesta(preguntarCodigo(preg.getTextoPregunta(LectorProperties.isDebug()),
+                    1, Constantes.TAM_MAX_LINEA_CONEXION));
+        }
+        if (canal.isConTexto()) {
+            canal.mensaje(preg.getTextoPregunta(false).concat("\n" + preg.getSolucion()));
+        }
+        return preg.comprobarRespuesta(preg.getSolucion());
+    }
+
+    /*
+     * Respuestas de los jugadores humanos: se anotan en el registro o, al repetir la partida, se leen de él.
+     */
+
+    private long preguntarLong(String msg) {
+        if (repeticion != null) {
+            return Long.parseLong(respuestaRepetida(msg));
+        }
+        long respuesta = canal.preguntarLong(msg);
+        registro.anotarRespuesta(Long.toString(respuesta));
+        return respuesta;
+    }
+
+    private String preguntarCodigo(String msg, int minLongitud, int maxLongitud) {
+        if (repeticion != null) {
+            return respuestaRepetida(msg);
+        }
+        String respuesta = canal.preguntarCodigo(msg, minLongitud, maxLongitud);
+        registro.anotarRespuesta(respuesta);
+        return respuesta;
+    }
+
+    private char preguntarOpcion(String msg) {
+        if (repeticion != null) {
+            return respuestaRepetida(msg).charAt(0);
+        }
+        char respuesta = canal.preguntarOpcion(msg);
+        registro.anotarRespuesta(String.valueOf(respuesta));
+        return respuesta;
+    }
+
+    private void esperarIntro() {
+        if (repeticion == null) {
+            canal.esperarIntro();
+        }
+    }
+
+    private String respuestaRepetida(String msg) {
+        String respuesta = repeticion.siguienteRespuesta();
+        registro.anotarRespuesta(respuesta);
+        if (canal.isConTexto()) {
+            canal.mensaje(msg + "\n" + respuesta);
+        }
+        return respuesta;
+    }
+
+    /**
+     * Reloj de la partida que anota cada lectura en el registro. Al repetir la partida devuelve las lecturas
+     * anotadas y ejecuta las esperas en el momento.
+     */
+    private final class RelojRegistrado implements Reloj {
+        private final Reloj origen;
+
+        RelojRegistrado(Reloj origen) {
+            this.origen = origen;
+        }
+
+        @Override
+        public long nanoTime() {
+            long nanos = repeticion != null ? repeticion.siguienteInstante() : origen.nanoTime();
+            registro.anotarInstante(nanos);
+            return nanos;
+        }
+
+        @Override
+        public void programar(Runnable tarea, long retrasoNanos) {
+            if (repeticion != null) {
+                tarea.run();
+            } else {
+                origen.programar(tarea, retrasoNanos);
+            }
+        }
+    }
+
+    /**
+     * Obtiene el nombre del ganador de la partida.
+     * Si hay empate, se devuelven múltiples nombres concatenados con " - ".
+     * @return Nombre o nombres del ganador(es).
+     */
+    public String getNombreGanador() {
+        return gJ.getGanador();
+    }
+
+    /**
+     * Determina si ha habido un empate en la partida.
+     * @return true si hay empate, false si hay un único ganador.
+     */
+    public boolean isEmpate() {
+        // Si ha habido empate se mostrarán dos o más nombres de jugador separados por " - "
+        return gJ.getGanador().contains(" - ");
+    }
+
+    /**
+     * Jugadores de la partida.
+     * @return Gestor de jugadores.
+     */
+    public GestorJugadores getGestorJugadores() {
+        return gJ;
+    }
+}
@@ -0,0 +1,217 @@
+package gestion;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import datos.jugadores.Jugador;
+
+/**
+ * Registro de una partida para poder repetirla exactamente (ver {@link Partida#repetir}).
+ * Guarda la semilla de la partida, los jugadores en su asiento con sus puntos al empezar, y lo que no se
+ * deduce de la semilla: la semilla de cada pregunta (las de las reservas se crean fuera de la partida), las
+ * respuestas de los jugadores humanos, las lecturas de los relojes y los intentos de la CPU en MasterMind,
+ * que se calculan con límite de tiempo.
+ * Al repetir la partida, cada dato se consume en el mismo orden en el que se anotó. El registro se escribe
+ * en una sola línea de texto.
+ *
+ *  @author Sergio García Rodríguez
+ */
+public class RegistroPartida {
+
+    private final long semilla;
+    private final int rondas;
+    private final String[] nombres;
+    private final boolean[] humanos;
+    private final int[] puntos;
+
+    private final List<Long> semillasPreguntas = new ArrayList<>();
+    private final List<String> respuestas = new ArrayList<>();
+    private final List<Long> instantes = new ArrayList<>();
+    private final List<Long> intentosCPU = new ArrayList<>();
+    // Posición de lectura de cada lista al repetir la partida
+    private int sigPregunta, sigRespuesta, sigInstante, sigIntento;
+
+    private RegistroPartida(long semilla, int rondas, String[] nombres, boolean[] humanos, int[] puntos) {
+        this.semilla = semilla;
+        this.rondas = rondas;
+        this.nombres = nombres;
+        this.humanos = humanos;
+        this.puntos = puntos;
+    }
+
+    /**
+     * Empieza el registro de una partida.
+     * @param semilla Semilla de la partida.
+     * @param rondas Número de rondas.
+     * @param gJ Jugadores, en el orden de sus asientos, con los puntos que tienen al empezar.
+     */
+    public RegistroPartida(long semilla, int rondas, GestorJugadores gJ) {
+        this(semilla, rondas, new String[gJ.getTotalJugadores()], new boolean[gJ.getTotalJugadores()],
+                new int[gJ.getTotalJugadores()]);
+        for (int i = 0; i < nombres.length; i++) {
+            Jugador jugador = gJ.getJugador(i);
+            nombres[i] = jugador.getNombre();
+            humanos[i] = jugador.isHumano();
+            puntos[i] = jugador.getPuntos();
+        }
+    }
+
+    public long getSemilla() {
+        return semilla;
+    }
+
+    public int getRondas() {
+        return rondas;
+    }
+
+    /**
+     * Crea los jugadores de la partida en sus asientos y con sus puntos iniciales.
+     * @return Gestor de jugadores nuevo.
+     */
+    public GestorJugadores crearJugadores() {
+        GestorJugadores gJ = new GestorJugadores(nombres.length);
+        try {
+            for (int i = 0; i < nombres.length; i++) {
+                gJ.crearJugadorEnPosicion(nombres[i], puntos[i], humanos[i] ? 1 : 2, i);
+            }
+        } catch (JuegoException e) {
+            throw new IllegalArgumentException("Jugadores del registro no válidos: " + e.getMessage(), e);
+        }
+        return gJ;
+    }
+
+    synchronized void anotarSemillaPregunta(long semillaPregunta) {
+        semillasPreguntas.add(semillaPregunta);
+    }
+
+    synchronized void anotarRespuesta(String respuesta) {
+        respuestas.add(respuesta);
+    }
+
+    synchronized void anotarInstante(long nanos) {
+        instantes.add(nanos);
+    }
+
+    synchronized void anotarIntentoCPU(long intento) {
+        intentosCPU.add(intento);
+    }
+
+    synchronized long siguienteSemillaPregunta() {
+        return siguiente(semillasPreguntas, sigPregunta++, "semillas de pregunta");
+    }
+
+    synchronized String siguienteRespuesta() {
+        return siguiente(respuestas, sigRespuesta++, "respuestas");
+    }
+
+    synchronized long siguienteInstante() {
+        return siguiente(instantes, sigInstante++, "lecturas del reloj");
+    }
+
+    synchronized long siguienteIntentoCPU() {
+        return siguiente(intentosCPU, sigIntento++, "intentos de la CPU");
+    }
+
+    /**
+     * Vuelve al principio del registro para repetir la partida otra vez.
+     */
+    synchronized void rebobinar() {
+        sigPregunta = sigRespuesta = sigInstante = sigIntento = 0;
+    }
+
+    private static <T> T siguiente(List<T> lista, int pos, String que) {
+        if (pos >= lista.size()) {
+            throw new IllegalStateException("El registro de la partida no tiene más " + que
+                    + ": la repetición se ha separado de la partida original");
+        }
+        return lista.get(pos);
+    }
+
+    /**
+     * Escribe el registro en una línea: semilla, rondas, jugadores (nombre, H o C, puntos) y las cuatro listas
+     * de datos, separados por ';'. Los nombres y las respuestas van codificados como en una URL, y las respuestas
+     * van precedidas de cuántas son ("2:A,B"), para distinguir una sola respuesta vacía de ninguna.
+     * @return Línea de texto.
+     */
+    public synchronized String aTexto() {
+        StringBuilder txt = new StringBuilder();
+        txt.append(semilla).append(';').append(rondas).append(';');
+        for (int i = 0; i < nombres.length; i++) {
+            txt.append(i == 0 ? "" : ",").append(URLEncoder.encode(nombres[i], StandardCharsets.UTF_8))
+                    .append(':').append(humanos[i] ? 'H' : 'C').append(':').append(puntos[i]);
+        }
+        txt.append(';').append(unir(semillasPreguntas)).append(';').append(respuestas.size()).append(':');
+        for (int i = 0; i < respuestas.size(); i++) {
+            txt.append(i == 0 ? "" : ",").append(URLEncoder.encode(respuestas.get(i), StandardCharsets.UTF_8));
+        }
+        txt.append(';').append(unir(instantes)).append(';').append(unir(intentosCPU));
+        return txt.toString();
+    }
+
+    /**
+     * Lee un registro escrito con {@link #aTexto()}.
+     * @param txt Línea de texto.
+     * @return Registro listo para repetir la partida.
+     * @throws IllegalArgumentException Si la línea no es un registro válido.
+     */
+    public static RegistroPartida desdeTexto(String txt) {
+        String[] campos = txt.trim().split(";", -1);
+        if (campos.length != 7) {
+            throw new IllegalArgumentException("Registro de partida no válido: " + txt);
+        }
+        try {
+            String[] jugadores = campos[2].split(",");
+            RegistroPartida registro = new RegistroPartida(Long.parseLong(campos[0]), Integer.parseInt(campos[1]),
+                    new String[jugadores.length], new boolean[jugadores.length], new int[jugadores.length]);
+            for (int i = 0; i < jugadores.length; i++) {
+                String[] partes = jugadores[i].split(":");
+                registro.nombres[i] = URLDecoder.decode(partes[0], StandardCharsets.UTF_8);
+                registro.humanos[i] = partes[1].equals("H");
+                registro.puntos[i] = Integer.parseInt(partes[2]);
+            }
+            separar(campos[3], registro.semillasPreguntas);
+            // Los registros anteriores no llevan el total: una lista vacía es que no hay respuestas
+            int separador = campos[4].indexOf(':');
+            int totalRespuestas = separador >= 0 ? Integer.parseInt(campos[4].substring(0, separador))
+                    : campos[4].isEmpty() ? 0 : campos[4].split(",", -1).length;
+            if (totalRespuestas > 0) {
+                String[] respuestas = campos[4].substring(separador + 1).split(",", -1);
+                if (respuestas.length != totalRespuestas) {
+                    throw new IllegalArgumentException("Se esperaban " + totalRespuestas + " respuestas");
+                }
+                for (String respuesta : respuestas) {
+                    registro.respuestas.add(URLDecoder.decode(respuesta, StandardCharsets.UTF_8));
+                }
+            }
+            separar(campos[5], registro.instantes);
+            separar(campos[6], registro.intentosCPU);
+            return registro;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Registro de partida no válido: " + txt, e);
+        }
+    }
+
+    private static String unir(List<Long> valores) {
+        StringBuilder txt = new StringBuilder();
+        for (int i = 0; i < valores.size(); i++) {
+            txt.append(i == 0 ? "" : ",").append(valores.get(i));
+        }
+        return txt.toString();
+    }
+
+    private static void separar(String txt, List<Long> valores) {
+        if (!txt.isEmpty()) {
+            for (String valor : txt.split(",")) {
+                valores.add(Long.parseLong(valor));
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return aTexto();
+    }
+}
@@ -0,0 +1,24 @@
+package gestion;
+
+/**
+ * Reloj usado para medir y esperar tiempos en la partida (preguntas de cronómetro y tiempo de reacción de la
+ * CPU). El juego interactivo usa {@link RelojReal}; las simulaciones y pruebas usan {@link RelojVirtual},
+ * donde las esperas no consumen tiempo real.
+ *
+ *  @author Sergio García Rodríguez
+ */
+public interface Reloj {
+
+    /**
+     * Instante actual con resolución de nanosegundos. Solo tiene sentido la diferencia entre dos instantes.
+     * @return Nanosegundos desde un origen arbitrario.
+     */
+    long nanoTime();
+
+    /**
+     * Ejecuta una tarea cuando hayan pasado los nanosegundos indicados, sin bloquear el hilo que la programa.
+     * @param tarea Tarea a ejecutar.
+     * @param retrasoNanos Espera en nanosegundos.
+     */
+    void programar(Runnable tarea, long retrasoNanos);
+}
@@ -0,0 +1,43 @@
+package gestion;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reloj del sistema: mide con {@link System#nanoTime()} y programa las tareas en un temporizador compartido.
+ *
+ *  @author Sergio García Rodríguez
+ */
+public final class RelojReal implements Reloj {
+
+    private static final RelojReal instancia = new RelojReal();
+
+    // Un único hilo (demonio) basta: solo despierta para ejecutar tareas cortas al vencer su espera
+    private final ScheduledExecutorService temporizador = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread hilo = new Thread(r, "temporizador-reloj");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private RelojReal() {
+    }
+
+    /**
+     * Devuelve el reloj del sistema.
+     * @return Instancia compartida.
+     */
+    public static RelojReal getInstancia() {
+        return instancia;
+    }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void programar(Runnable tarea, long retrasoNanos) {
+        temporizador.schedule(tarea, retrasoNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,47 @@
+package gestion;
+
+/**
+ * Reloj simulado para partidas automáticas y pruebas. El tiempo solo avanza cuando se programa una tarea:
+ * salta al instante en que vence la espera y la tarea se ejecuta en ese momento, en el mismo hilo.
+ * Así miles de esperas se resuelven en milisegundos y los tiempos medidos son exactamente los programados.
+ *
+ *  @author Sergio García Rodríguez
+ */
+public final class RelojVirtual implements Reloj {
+
+    private long ahora;
+
+    /**
+     * Constructor. El reloj empieza en el instante 0.
+     */
+    public RelojVirtual() {
+        this(0);
+    }
+
+    /**
+     * Constructor.
+     * @param inicioNanos Instante inicial.
+     */
+    public RelojVirtual(long inicioNanos) {
+        this.ahora = inicioNanos;
+    }
+
+    @Override
+    public synchronized long nanoTime() {
+        return ahora;
+    }
+
+    @Override
+    public void programar(Runnable tarea, long retrasoNanos) {
+        avanzar(retrasoNanos);
+        tarea.run();
+    }
+
+    /**
+     * Adelanta el reloj.
+     * @param nanos Nanosegundos a avanzar (los valores negativos se ignoran).
+     */
+    public synchronized void avanzar(long nanos) {
+        ahora += Math.max(0, nanos);
+    }
+}
@@ -0,0 +1,221 @@
+package gestion;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+import datos.preguntas.Pregunta;
+import datos.preguntas.ProveedorPreguntas;
+import presentacion.Utilidades;
+
+/**
+ * Reserva acotada de preguntas de un proveedor. Un hilo productor la mantiene llena, así que dar una pregunta
+ * a un jugador es sacarla de la cola. Si la reserva está vacía (el productor no da abasto), la pregunta se
+ * crea en el momento y se cuenta como reserva agotada.
+ * Cada pregunta se crea con su propia semilla, que la partida anota en su {@link RegistroPartida}: con ella
+ * se vuelve a crear la misma pregunta al repetir la partida.
+ * El productor se arranca con la primera pregunta que se pide: las simulaciones y las partidas con semilla,
+ * que crean sus preguntas con su propio generador, no lo ponen en marcha.
+ *
+ *  @author Sergio García Rodríguez
+ */
+public class ReservaPreguntas {
+
+    private final ProveedorPreguntas proveedor;
+    private final int indice;
+    private final BlockingQueue<Generada> cola;
+    // Semillas de las preguntas: solo las usa el hilo productor
+    private final SplittableRandom semillas = new SplittableRandom();
+    private Thread productor;
+    private volatile boolean parada = false;
+
+    private final LongAdder generadas = new LongAdder();
+    private final LongAdder nanosGeneracion = new LongAdder();
+    private final AtomicLong maxNanosGeneracion = new AtomicLong();
+    private final LongAdder servidas = new LongAdder();
+    private final LongAdder agotada = new LongAdder();
+
+    /**
+     * Pregunta creada junto con la semilla con la que se creó.
+     */
+    public static final class Generada {
+        private final long semilla;
+        private final Pregunta pregunta;
+
+        Generada(long semilla, Pregunta pregunta) {
+            this.semilla = semilla;
+            this.pregunta = pregunta;
+        }
+
+        public long getSemilla() {
+            return semilla;
+        }
+
+        public Pregunta getPregunta() {
+            return pregunta;
+        }
+    }
+
+    /**
+     * Constructor.
+     * @param proveedor Proveedor de las preguntas.
+     * @param indice Posición del proveedor entre todos los cargados.
+     */
+    public ReservaPreguntas(ProveedorPreguntas proveedor, int indice) {
+        this.proveedor = proveedor;
+        this.indice = indice;
+        this.cola = proveedor.getTamReserva() > 0 ? new ArrayBlockingQueue<>(proveedor.getTamReserva()) : null;
+    }
+
+    /**
+     * Proveedor de la reserva.
+     * @return Proveedor.
+     */
+    public ProveedorPreguntas getProveedor() {
+        return proveedor;
+    }
+
+    /**
+     * Posición del proveedor entre todos los cargados (ver {@link GestorPreguntas}).
+     * @return Índice empezando en 0.
+     */
+    public int getIndice() {
+        return indice;
+    }
+
+    /**
+     * Da una pregunta de la reserva o, si está vacía, la crea.
+     * @param semillaPropia Semilla con la que crear la pregunta si no hay reserva o está vacía.
+     * @return Pregunta nueva y su semilla.
+     */
+    public Generada tomar(long semillaPropia) {
+        if (cola == null) {
+            return new Generada(semillaPropia, crear(semillaPropia));
+        }
+        arrancar();
+        Generada generada = cola.poll();
+        if (generada != null) {
+            servidas.increment();
+            return generada;
+        }
+        agotada.increment();
+        return new Generada(semillaPropia, crear(semillaPropia));
+    }
+
+    /**
+     * Crea una pregunta en el momento, sin usar la reserva. La misma semilla da siempre la misma pregunta.
+     * @param semilla Semilla de la pregunta.
+     * @return Pregunta nueva.
+     */
+    public Pregunta crear(long semilla) {
+        RandomGenerator anterior = Utilidades.setRandomSesion(new SplittableRandom(semilla));
+        try {
+            long inicio = System.nanoTime();
+            Pregunta pregunta = proveedor.crearPregunta();
+            long nanos = System.nanoTime() - inicio;
+            generadas.increment();
+            nanosGeneracion.add(nanos);
+            maxNanosGeneracion.accumulateAndGet(nanos, Math::max);
+            return pregunta;
+        } finally {
+            Utilidades.setRandomSesion(anterior);
+        }
+    }
+
+    private synchronized void arrancar() {
+        if (productor == null && !parada) {
+            productor = Thread.ofPlatform().daemon().name("preguntas-" + proveedor.getNombre()).start(this::producir);
+        }
+    }
+
+    /**
+     * Bucle del productor: crea preguntas mientras haya sitio en la reserva.
+     */
+    private void producir() {
+        try {
+            while (!parada) {
+                long semilla = semillas.nextLong();
+                cola.put(new Generada(semilla, crear(semilla)));
+            }
+        } catch (InterruptedException e) {
+            // Reserva parada
+        } catch (RuntimeException e) {
+            // Las preguntas se seguirán creando al pedirlas, donde el error llega a la partida
+            parada = true;
+            GestorLog.escribirError("Reserva de preguntas de " + proveedor.getNombre() + " parada: " + e);
+        }
+    }
+
+    /**
+     * Para el productor y descarta las preguntas preparadas. La reserva sigue sirviendo preguntas, creándolas
+     * en el momento.
+     */
+    public synchronized void parar() {
+        parada = true;
+        if (productor != null) {
+            productor.interrupt();
+        }
+        if (cola != null) {
+            cola.clear();
+        }
+    }
+
+    /**
+     * Preguntas creadas por el proveedor, en el productor o al pedirlas.
+     * @return Número de preguntas.
+     */
+    public long getGeneradas() {
+        return generadas.sum();
+    }
+
+    /**
+     * Tiempo medio que tarda el proveedor en crear una pregunta.
+     * @return Nanosegundos (0 si no se ha creado ninguna).
+     */
+    public long getNanosMediosGeneracion() {
+        long total = generadas.sum();
+        return total == 0 ? 0 : nanosGeneracion.sum() / total;
+    }
+
+    /**
+     * Tiempo máximo que ha tardado el proveedor en crear una pregunta.
+     * @return Nanosegundos.
+     */
+    public long getNanosMaxGeneracion() {
+        return maxNanosGeneracion.get();
+    }
+
+    /**
+     * Preguntas dadas directamente de la reserva.
+     * @return Número de preguntas.
+     */
+    public long getServidas() {
+        return servidas.sum();
+    }
+
+    /**
+     * Veces que se ha pedido una pregunta con la reserva vacía.
+     * @return Número de veces.
+     */
+    public long getAgotada() {
+        return agotada.sum();
+    }
+
+    /**
+     * Preguntas preparadas en este momento.
+     * @return Número de preguntas en la reserva.
+     */
+    public int getDisponibles() {
+        return cola == null ? 0 : cola.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d generadas (media %.1f µs, máx %.1f µs), %d de la reserva, %d con la reserva "
+                        + "agotada", proveedor.getNombre(), getGeneradas(), getNanosMediosGeneracion() / 1e3,
+                getNanosMaxGeneracion() / 1e3, getServidas(), getAgotada());
+    }
+}
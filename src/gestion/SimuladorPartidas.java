@@ -0,0 +1,181 @@
+package gestion;
+
+import java.util.SplittableRandom;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import datos.geografia.CatalogoCiudades;
+
+/**
+ * Simulación sin consola de partidas entre jugadores CPU, con las mismas reglas que la partida interactiva
+ * ({@link Partida}). Las partidas se reparten entre los núcleos; cada hilo reutiliza sus jugadores, su canal
+ * de eventos y un {@link RelojVirtual}, así que no hay esperas reales ni texto. Del flujo de eventos de cada
+ * partida se obtienen las estadísticas de la simulación.
+ * Cada partida se siembra con una semilla sacada de la de la simulación y de su número, así que con la misma
+ * semilla la simulación da las mismas estadísticas aunque las partidas se repartan de otra forma entre hilos.
+ * Se usa para ajustar las constantes de puntuación con un gran número de partidas.
+ *
+ *  @author Sergio García Rodríguez
+ */
+public class SimuladorPartidas {
+
+    /**
+     * Estado de cada hilo de la simulación.
+     */
+    private static final class Trabajador {
+        final Partida partida;
+        final CanalEventos canal = new CanalEventos();
+        final Estadisticas estadisticas;
+
+        Trabajador(int jugadores, long semilla) {
+            // Todos los hilos tienen los mismos jugadores en los mismos asientos
+            partida = Partida.crearPartidaCPU(jugadores, canal, new RelojVirtual(), semilla);
+            estadisticas = new Estadisticas();
+        }
+    }
+
+    /**
+     * Juega un número de partidas entre jugadores CPU y devuelve sus estadísticas.
+     * @param partidas Número de partidas.
+     * @param jugadores Jugadores CPU por partida.
+     * @param rondas Rondas por partida.
+     * @return Estadísticas de la simulación.
+     */
+    public static Estadisticas simular(int partidas, int jugadores, int rondas) {
+        return simular(partidas, jugadores, rondas, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Juega un número de partidas entre jugadores CPU a partir de una semilla. La misma semilla da siempre
+     * las mismas partidas, por ejemplo para comparar el rendimiento con una carga fija.
+     * @param partidas Número de partidas.
+     * @param jugadores Jugadores CPU por partida.
+     * @param rondas Rondas por partida.
+     * @param semilla Semilla de la simulación.
+     * @return Estadísticas de la simulación.
+     */
+    public static Estadisticas simular(int partidas, int jugadores, int rondas, long semilla) {
+        CatalogoCiudades.recargarSiModificado();
+        ThreadLocal<Trabajador> trabajadores = ThreadLocal.withInitial(() -> new Trabajador(jugadores, semilla));
+        Set<Trabajador> todos = ConcurrentHashMap.newKeySet();
+
+        long inicio = System.nanoTime();
+        IntStream.range(0, partidas).parallel().forEach(i -> {
+            Trabajador t = trabajadores.get();
+            todos.add(t);
+            t.partida.setSemilla(new SplittableRandom(semilla + i).nextLong());
+            t.partida.jugar(rondas);
+            t.estadisticas.acumular(t.canal.getEventos());
+            t.canal.vaciar();
+        });
+        long nanos = System.nanoTime() - inicio;
+
+        Estadisticas total = new Estadisticas();
+        for (Trabajador t : todos) {
+            total.sumar(t.estadisticas);
+        }
+        total.nanos = nanos;
+        return total;
+    }
+
+    /**
+     * Resultado agregado de una simulación.
+     */
+    public static final class Estadisticas {
+        private long partidas = 0;
+        private long empates = 0;
+        private long puntosGanador = 0;
+        private final long[] preguntas = new long[GestorPreguntas.getMaxTipo() + 1];
+        private final long[] aciertos = new long[GestorPreguntas.getMaxTipo() + 1];
+        private long nanos = 0;
+
+        /**
+         * Acumula los eventos de una partida.
+         */
+        void acumular(Iterable<EventoPartida> eventos) {
+            for (EventoPartida e : eventos) {
+                switch (e.getTipo()) {
+                    case RESPUESTA -> {
+                        preguntas[e.getTipoPregunta()]++;
+                        if (e.isAcertado()) {
+                            aciertos[e.getTipoPregunta()]++;
+                        }
+                    }
+                    case PARTIDA_FINALIZADA -> {
+                        partidas++;
+                        puntosGanador += e.getValor();
+                        if (e.isAcertado()) {
+                            empates++;
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        void sumar(Estadisticas otra) {
+            partidas += otra.partidas;
+            empates += otra.empates;
+            puntosGanador += otra.puntosGanador;
+            for (int i = 0; i < preguntas.length; i++) {
+                preguntas[i] += otra.preguntas[i];
+                aciertos[i] += otra.aciertos[i];
+            }
+        }
+
+        public long getPartidas() {
+            return partidas;
+        }
+
+        /**
+         * Preguntas contestadas de un tipo.
+         * @param tipoPregunta Tipo de pregunta (ver {@link EventoPartida}).
+         * @return Número de respuestas.
+         */
+        public long getPreguntas(int tipoPregunta) {
+            return preguntas[tipoPregunta];
+        }
+
+        public long getEmpates() {
+            return empates;
+        }
+
+        /**
+         * Proporción de aciertos de un tipo de pregunta.
+         * @param tipoPregunta Tipo de pregunta (ver {@link EventoPartida}).
+         * @return Aciertos entre preguntas (0 si no hubo preguntas de ese tipo).
+         */
+        public double getRatioAciertos(int tipoPregunta) {
+            return preguntas[tipoPregunta] == 0 ? 0 : (double) aciertos[tipoPregunta] / preguntas[tipoPregunta];
+        }
+
+        /**
+         * Puntos medios del ganador de cada partida.
+         * @return Media de puntos.
+         */
+        public double getMediaPuntosGanador() {
+            return partidas == 0 ? 0 : (double) puntosGanador / partidas;
+        }
+
+        /**
+         * Partidas jugadas por segundo de tiempo real.
+         * @return Rendimiento de la simulación.
+         */
+        public double getPartidasPorSegundo() {
+            return nanos == 0 ? 0 : partidas * 1e9 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return partidas + " partidas en " + String.format("%.2f", nanos / 1e9) + " s ("
+                    + String.format("%.0f", getPartidasPorSegundo()) + " partidas/s). Empates: " + empates
+                    + ". Puntos medios del ganador: " + String.format("%.2f", getMediaPuntosGanador())
+                    + ". Aciertos: mates " + String.format("%.2f", getRatioAciertos(EventoPartida.PREGUNTA_MATES))
+                    + ", mastermind " + String.format("%.2f", getRatioAciertos(EventoPartida.PREGUNTA_MASTERMIND))
+                    + ", geografía " + String.format("%.2f", getRatioAciertos(EventoPartida.PREGUNTA_GEOGRAFIA))
+                    + ", cronómetro " + String.format("%.2f", getRatioAciertos(EventoPartida.PREGUNTA_CRONOMETRO));
+        }
+    }
+}
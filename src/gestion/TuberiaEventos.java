@@ -0,0 +1,197 @@
+package gestion;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import config.Constantes;
+
+/**
+ * Reparte los eventos de las partidas entre varios consumidores independientes (log, ranking, histórico...).
+ * Cada consumidor tiene su propia cola acotada y su propio hilo, que saca los eventos en lotes de hasta
+ * {@link Constantes#TAM_LOTE_EVENTOS}: el hilo de la partida solo encola, así que no espera a los ficheros, y
+ * un consumidor lento no retrasa a los demás. Si una cola se llena, quien publica espera a que haya sitio, de
+ * forma que la memoria usada por los eventos pendientes está acotada.
+ * Cada etapa numera los eventos que recibe y los que ha procesado: {@link #esperar()} anota los números de los
+ * publicados al empezar y espera solo hasta que se procesen esos, aunque se sigan publicando otros.
+ *
+ *  @author Sergio García Rodríguez
+ */
+public class TuberiaEventos implements Closeable {
+
+    private final List<Etapa> etapas = new ArrayList<>();
+    private final ReentrantLock cerrojo = new ReentrantLock();
+    private final Condition procesado = cerrojo.newCondition();
+
+    /**
+     * Cola e hilo de un consumidor.
+     */
+    private final class Etapa implements Runnable {
+        final ConsumidorEventos consumidor;
+        final BlockingQueue<EventoPartida> cola;
+        final Thread hilo;
+        // Eventos entregados a la cola (o a punto de entregarse) y eventos ya procesados o descartados
+        final AtomicLong publicados = new AtomicLong();
+        final AtomicLong procesados = new AtomicLong();
+        volatile long lotes = 0;
+        volatile long eventos = 0;
+
+        Etapa(ConsumidorEventos consumidor, int capacidad) {
+            this.consumidor = consumidor;
+            this.cola = new ArrayBlockingQueue<>(capacidad);
+            this.hilo = Thread.ofPlatform().daemon().name("eventos-" + consumidor.getNombre()).unstarted(this);
+        }
+
+        @Override
+        public void run() {
+            List<EventoPartida> lote = new ArrayList<>(Constantes.TAM_LOTE_EVENTOS);
+            try {
+                while (true) {
+                    lote.add(cola.take());
+                    cola.drainTo(lote, Constantes.TAM_LOTE_EVENTOS - 1);
+                    try {
+                        consumidor.procesar(lote);
+                        lotes++;
+                        eventos += lote.size();
+                    } catch (RuntimeException | Error e) {
+                        // El lote se pierde (los consumidores vacían sus listas aunque fallen), pero la etapa
+                        // sigue: si el hilo terminara, nadie vaciaría la cola
+                        GestorLog.escribirError("Consumidor de eventos " + consumidor.getNombre() + ": " + e);
+                    } finally {
+                        procesados(this, lote.size());
+                        lote.clear();
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Tubería cerrada
+            }
+        }
+    }
+
+    /**
+     * Crea la tubería y arranca un hilo para cada consumidor.
+     * @param capacidad Eventos que caben en la cola de cada consumidor.
+     * @param consumidores Consumidores de los eventos.
+     */
+    public TuberiaEventos(int capacidad, ConsumidorEventos... consumidores) {
+        for (ConsumidorEventos consumidor : consumidores) {
+            etapas.add(new Etapa(consumidor, capacidad));
+        }
+        for (Etapa etapa : etapas) {
+            etapa.hilo.start();
+        }
+    }
+
+    /**
+     * Entrega un evento a todos los consumidores. Si alguna cola está llena, espera a que haya sitio.
+     * @param evento Evento de una partida.
+     */
+    public void publicar(EventoPartida evento) {
+        for (Etapa etapa : etapas) {
+            // Se numera antes de encolar para que quien espere después de esta llamada cuente con el evento
+            etapa.publicados.incrementAndGet();
+            try {
+                etapa.cola.put(evento);
+            } catch (InterruptedException e) {
+                procesados(etapa, 1);
+                Thread.currentThread().interrupt();
+                GestorLog.escribirError("Evento descartado por interrupción: " + evento);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Espera a que todos los consumidores hayan procesado los eventos publicados hasta ahora. Los que se
+     * publiquen mientras tanto no alargan la espera.
+     */
+    public void esperar() {
+        long[] objetivo = new long[etapas.size()];
+        for (int i = 0; i < objetivo.length; i++) {
+            objetivo[i] = etapas.get(i).publicados.get();
+        }
+        cerrojo.lock();
+        try {
+            for (int i = 0; i < objetivo.length; i++) {
+                while (etapas.get(i).procesados.get() < objetivo[i]) {
+                    procesado.awaitUninterruptibly();
+                }
+            }
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Eventos publicados que algún consumidor no ha procesado todavía.
+     * @return Número de eventos pendientes, sumando las colas de todos los consumidores.
+     */
+    public long getPendientes() {
+        long total = 0;
+        for (Etapa etapa : etapas) {
+            total += etapa.publicados.get() - etapa.procesados.get();
+        }
+        return total;
+    }
+
+    /**
+     * Lotes procesados por todos los consumidores.
+     * @return Número de lotes.
+     */
+    public long getLotes() {
+        long total = 0;
+        for (Etapa etapa : etapas) {
+            total += etapa.lotes;
+        }
+        return total;
+    }
+
+    /**
+     * Eventos procesados por todos los consumidores (cada evento cuenta una vez por consumidor).
+     * @return Número de eventos.
+     */
+    public long getEventosProcesados() {
+        long total = 0;
+        for (Etapa etapa : etapas) {
+            total += etapa.eventos;
+        }
+        return total;
+    }
+
+    /**
+     * Espera a que se procesen los eventos pendientes y para los hilos de los consumidores.
+     */
+    @Override
+    public void close() {
+        esperar();
+        for (Etapa etapa : etapas) {
+            etapa.hilo.interrupt();
+        }
+        for (Etapa etapa : etapas) {
+            try {
+                etapa.hilo.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Cuenta eventos procesados por una etapa y avisa a quien espera.
+     */
+    private void procesados(Etapa etapa, int total) {
+        etapa.procesados.addAndGet(total);
+        cerrojo.lock();
+        try {
+            procesado.signalAll();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+}
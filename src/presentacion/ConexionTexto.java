@@ -0,0 +1,207 @@
+package presentacion;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import config.Constantes;
+
+/**
+ * Entrada y salida de texto de un jugador conectado por red (telnet, netcat...).
+ * Ofrece las mismas preguntas que {@link Utilidades} con la misma validación, pero sobre un socket. Cada vez
+ * que se espera una respuesta se envía el indicador "> ". La memoria de cada conexión está acotada: los
+ * buffers tienen tamaño fijo y de cada línea solo se guardan los primeros
+ * {@link Constantes#TAM_MAX_LINEA_CONEXION} bytes.
+ * Si el cliente se desconecta o no contesta en {@link Constantes#MS_INACTIVIDAD_CONEXION} ms, las lecturas
+ * lanzan una {@link UncheckedIOException}.
+ *
+ * @author Sergio García Rodríguez
+ */
+public class ConexionTexto implements Closeable {
+
+    private static final byte[] INDICADOR = "> ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] FIN_LINEA = "\r\n".getBytes(StandardCharsets.UTF_8);
+
+    private final Socket socket;
+    private final InputStream entrada;
+    private final OutputStream salida;
+    private final byte[] linea = new byte[Constantes.TAM_MAX_LINEA_CONEXION];
+
+    /**
+     * Constructor.
+     * @param socket Socket conectado con el cliente.
+     * @throws IOException Si no se pueden abrir los flujos del socket.
+     */
+    public ConexionTexto(Socket socket) throws IOException {
+        this.socket = socket;
+        socket.setSoTimeout(Constantes.MS_INACTIVIDAD_CONEXION);
+        socket.setTcpNoDelay(true);
+        entrada = new BufferedInputStream(socket.getInputStream(), Constantes.TAM_BUFFER_CONEXION);
+        salida = new BufferedOutputStream(socket.getOutputStream(), Constantes.TAM_BUFFER_CONEXION);
+    }
+
+    /**
+     * Envía un mensaje al cliente.
+     * @param msg Mensaje a mostrar.
+     */
+    public void escribirMensaje(String msg) {
+        try {
+            salida.write(msg.replace("\n", "\r\n").getBytes(StandardCharsets.UTF_8));
+            salida.write(FIN_LINEA);
+            salida.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Envía la descripción de un objeto al cliente.
+     * @param obj Objeto a mostrar.
+     */
+    public void escribirMensaje(Object obj) {
+        escribirMensaje(obj.toString());
+    }
+
+    /**
+     * Envía el indicador y lee una línea. Los caracteres que no caben en la línea se descartan.
+     * @return Línea sin el fin de línea.
+     */
+    public String leerLinea() {
+        try {
+            salida.write(INDICADOR);
+            salida.flush();
+            int tam = 0, b;
+            while ((b = entrada.read()) != '\n') {
+                if (b < 0) {
+                    throw new EOFException("El cliente ha cerrado la conexión");
+                }
+                if (tam < linea.length) {
+                    linea[tam++] = (byte) b;
+                }
+            }
+            if (tam > 0 && linea[tam - 1] == '\r') {
+                tam--;
+            }
+            return new String(linea, 0, tam, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Pregunta un número entero dentro de un rango válido.
+     * @param msg      Mensaje a mostrar al usuario.
+     * @param valorInf Límite inferior permitido.
+     * @param valorSup Límite superior permitido.
+     * @return Número entero introducido dentro del rango.
+     */
+    public int preguntarInt(String msg, int valorInf, int valorSup) {
+        do {
+            long respuesta = preguntarLong(msg);
+            if (respuesta >= valorInf && respuesta <= valorSup) {
+                return (int) respuesta;
+            }
+            escribirMensaje("Número fuera de rango.");
+        } while (true);
+    }
+
+    /**
+     * Pregunta un número entero largo. Como en la consola, se lee la primera palabra de la línea.
+     * @param msg Mensaje a mostrar al usuario.
+     * @return Número introducido.
+     */
+    public long preguntarLong(String msg) {
+        do {
+            if (!msg.isEmpty()) {
+                escribirMensaje(msg);
+            }
+            String[] palabras = leerLinea().trim().split("\\s+", 2);
+            try {
+                return Long.parseLong(palabras[0]);
+            } catch (NumberFormatException e) {
+                // Manejo de error por entrada no numérica
+                escribirMensaje("ERROR: Debes introducir un número válido.");
+            }
+        } while (true);
+    }
+
+    /**
+     * Pregunta al usuario una letra válida entre A, B, C o D.
+     * @param msg Mensaje a mostrar al usuario.
+     * @return Letra introducida en mayúscula (A, B, C o D).
+     */
+    public char preguntarChar(String msg) {
+        do {
+            escribirMensaje(msg);
+            String entrada = leerLinea().trim().toUpperCase();
+            if (entrada.length() == 1 && "ABCD".indexOf(entrada.charAt(0)) >= 0) {
+                return entrada.charAt(0);
+            }
+            escribirMensaje("ERROR: Debes introducir una letra A, B, C ó D.");
+        } while (true);
+    }
+
+    /**
+     * Pregunta un nombre respetando límites de tamaño y sin espacios ni caracteres de control.
+     * @param msg    Mensaje a mostrar.
+     * @param tamMin Tamaño mínimo del nombre.
+     * @param tamMax Tamaño máximo del nombre (si se supera, se recorta).
+     * @return Nombre válido introducido por el usuario.
+     */
+    public String preguntarNombre(String msg, int tamMin, int tamMax) {
+        do {
+            escribirMensaje(msg);
+            String respuesta = leerLinea();
+            if (!isNombreValido(respuesta)) {
+                escribirMensaje("No se admiten espacios ni caracteres de control en los nombres de jugadores");
+            } else if (respuesta.length() > tamMax) {
+                return respuesta.substring(0, tamMax);
+            } else if (respuesta.length() >= tamMin) {
+                return respuesta;
+            } else {
+                escribirMensaje("El tamaño mínimo debe ser " + tamMin + " caracteres.");
+            }
+        } while (true);
+    }
+
+    /**
+     * Indica si un nombre no tiene espacios (de ningún tipo, como tabuladores) ni caracteres de control. Los
+     * nombres se guardan separados por espacios en las listas de las partidas, el ranking y jugadores.txt.
+     */
+    private static boolean isNombreValido(String nombre) {
+        for (int i = 0; i < nombre.length(); i++) {
+            char c = nombre.charAt(i);
+            if (Character.isWhitespace(c) || Character.isSpaceChar(c) || Character.isISOControl(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Espera a que el cliente envíe una línea. Es para recoger la pulsación de intro.
+     */
+    public void recogerIntro() {
+        leerLinea();
+    }
+
+    /**
+     * Dirección del cliente.
+     * @return Dirección y puerto remotos.
+     */
+    public String getDireccion() {
+        return String.valueOf(socket.getRemoteSocketAddress());
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,203 @@
+package presentacion;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.random.RandomGenerator;
+
+import config.Constantes;
+import gestion.*;
+
+/**
+ * Servidor TCP de texto para jugar por red con telnet o netcat.
+ * Cada conexión se atiende en su propio hilo virtual con el menú del juego y juega sus partidas contra
+ * jugadores CPU, con sus propios jugadores, generador y canal ({@link CanalRemoto}), sin compartir estado
+ * con las demás. Como los hilos virtuales apenas ocupan memoria mientras esperan la respuesta del jugador,
+ * el servidor admite miles de conexiones; a partir de {@link Constantes#MAX_CONEXIONES_SERVIDOR} las nuevas
+ * se rechazan.
+ *
+ * @author Sergio García Rodríguez
+ */
+public final class ServidorTexto implements Closeable {
+
+    private final ServerSocket servidor;
+    private final ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore plazas = new Semaphore(Constantes.MAX_CONEXIONES_SERVIDOR);
+    private final AtomicInteger totalConexiones = new AtomicInteger();
+
+    /**
+     * Arranca el servidor. El bucle que acepta las conexiones empieza ya aquí, por eso la clase es final.
+     * @param puerto Puerto en el que escuchar (0 para uno libre cualquiera).
+     * @throws IOException Si no se puede abrir el puerto.
+     */
+    public ServidorTexto(int puerto) throws IOException {
+        servidor = new ServerSocket(puerto, Constantes.MAX_CONEXIONES_SERVIDOR);
+        hilos.submit(this::aceptar);
+        GestorLog.escribirMensaje("Servidor de texto escuchando en el puerto " + getPuerto());
+    }
+
+    /**
+     * Puerto en el que escucha el servidor.
+     * @return Número de puerto.
+     */
+    public int getPuerto() {
+        return servidor.getLocalPort();
+    }
+
+    /**
+     * Conexiones que se están atendiendo.
+     * @return Número de clientes conectados.
+     */
+    public int getConectados() {
+        return Constantes.MAX_CONEXIONES_SERVIDOR - plazas.availablePermits();
+    }
+
+    /**
+     * Conexiones aceptadas desde que arrancó el servidor.
+     * @return Total de conexiones.
+     */
+    public int getTotalConexiones() {
+        return totalConexiones.get();
+    }
+
+    /**
+     * Para el servidor y cierra todas las conexiones.
+     */
+    @Override
+    public void close() throws IOException {
+        servidor.close();
+        hilos.shutdownNow();
+        GestorLog.escribirMensaje("Servidor de texto parado tras " + totalConexiones.get() + " conexiones");
+    }
+
+    /**
+     * Acepta conexiones hasta que se cierra el servidor.
+     */
+    private void aceptar() {
+        while (!servidor.isClosed()) {
+            Socket socket;
+            try {
+                socket = servidor.accept();
+            } catch (IOException e) {
+                if (!servidor.isClosed()) {
+                    GestorLog.escribirError("Error al aceptar una conexión: " + e.getMessage());
+                }
+                continue;
+            }
+            if (!plazas.tryAcquire()) {
+                rechazar(socket);
+                continue;
+            }
+            int id = totalConexiones.incrementAndGet();
+            hilos.submit(() -> atender(socket, id));
+        }
+    }
+
+    /**
+     * Avisa al cliente de que no hay sitio y cierra la conexión.
+     */
+    private static void rechazar(Socket socket) {
+        try (socket; OutputStream salida = socket.getOutputStream()) {
+            salida.write("Servidor lleno, inténtalo más tarde\r\n".getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            // El cliente ya no está: no hay nada que avisar
+        }
+    }
+
+    /**
+     * Atiende a un cliente hasta que sale del menú o se desconecta.
+     */
+    private void atender(Socket socket, int id) {
+        try (ConexionTexto conexion = new ConexionTexto(socket)) {
+            GestorLog.escribirMensaje("[Conexión " + id + "] Conectado desde " + conexion.getDireccion());
+            iniciarMenu(conexion, id);
+            GestorLog.escribirMensaje("[Conexión " + id + "] Desconectado");
+        } catch (IOException | UncheckedIOException e) {
+            GestorLog.escribirMensaje("[Conexión " + id + "] Conexión perdida: " + e.getMessage());
+        } finally {
+            plazas.release();
+        }
+    }
+
+    /**
+     * Menú principal de un cliente.
+     */
+    private static void iniciarMenu(ConexionTexto conexion, int id) {
+        HistogramasSesion histogramas = new HistogramasSesion();
+        int opcion;
+        conexion.escribirMensaje("Bienvenido a Quiz Manía (conexión " + id + ")");
+        do {
+            pintarMenu(conexion);
+            opcion = conexion.preguntarInt("", 1, 4);
+            switch (opcion) {
+                case 1 -> opcionJugar(conexion, id, histogramas);
+                case 2 -> {
+                    GestorEventos.esperar();
+                    conexion.escribirMensaje(GestorRanking.leerFicheroRanking());
+                }
+                case 3 -> {
+                    GestorEventos.esperar();
+                    conexion.escribirMensaje(GestorHistorico.leer());
+                }
+                case 4 -> conexion.escribirMensaje("Has salido del sistema (>‿◠)✌");
+            }
+        } while (opcion != 4);
+    }
+
+    /**
+     * Muestra el menú de un cliente.
+     */
+    private static void pintarMenu(ConexionTexto conexion) {
+        conexion.escribirMensaje("\n========= MENÚ DEL JUEGO =========\n"
+                + "1. Jugar                         |\n"
+                + "2. Ranking                       |\n"
+                + "3. Histórico                     |\n"
+                + "4. Salir                         |\n"
+                + "==================================");
+    }
+
+    /**
+     * Juega una partida del cliente contra jugadores CPU.
+     */
+    private static void opcionJugar(ConexionTexto conexion, int id, HistogramasSesion histogramas) {
+        String nombre = conexion.preguntarNombre("¿Cuál es tu nombre?", Constantes.TAM_MIN_NOMBRE_JUGADOR,
+                Constantes.TAM_MAX_NOMBRE_JUGADOR);
+        int totalCPU = conexion.preguntarInt("¿Contra cuántos jugadores CPU quieres jugar?",
+                Constantes.NUM_MIN_JUGADORES - 1, Constantes.NUM_MAX_JUGADORES - 1);
+        int rondas = conexion.preguntarInt("¿Cuántas rondas quieres jugar?",
+                Constantes.NUM_MIN_RONDAS, Constantes.NUM_MAX_RONDAS);
+
+        RandomGenerator anterior = Utilidades.setRandomSesion(new SplittableRandom());
+        GestorJugadores gJ = new GestorJugadores(totalCPU + 1);
+        try {
+            gJ.crearJugador(nombre, 0, 1);
+            for (int i = 0; i < totalCPU; i++) {
+                gJ.crearJugador("", 0, 2);
+            }
+        } catch (JuegoException e) {
+            // Los nombres de CPU se generan sin repetir el del jugador
+            throw new RuntimeException(e);
+        } finally {
+            Utilidades.setRandomSesion(anterior);
+        }
+
+        conexion.escribirMensaje("\n========> Comienza la partida");
+        Partida partida = new Partida(gJ, new CanalRemoto(conexion, histogramas), RelojReal.getInstancia());
+        partida.jugar(rondas);
+        GestorLog.escribirMensaje("[Conexión " + id + "] Jugada la partida " + partida.getId());
+        if (partida.isEmpate()) {
+            conexion.escribirMensaje("========> Fin de partida. Ha habido empate: " + partida.getNombreGanador());
+        } else {
+            conexion.escribirMensaje("========> Fin de partida. Ganador ha sido " + partida.getNombreGanador());
+        }
+    }
+}
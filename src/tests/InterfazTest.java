@@ -1,85 +1,319 @@
-package tests;
-
-import config.LectorProperties;
-import gestion.JuegoException;
-import presentacion.Utilidades;
-
-/**
- * Clase de selección de los testeos de la aplicación.
- *
- * @author Sergio García Rodríguez
- */
-
-public class InterfazTest {
-    /**
-     * Muestra el menú test.
-     */
-    public static void iniciarMenuTest() {
-        int opcion;
-        LectorProperties.cargarProperties();
-        do {
-            pintarMenu();
-            opcion = Utilidades.preguntarInt("", 1, 5);
-            switch (opcion) {
-                case 1 -> opcionTestRondas();
-                case 2 -> opcionTestMastermind();
-                case 3 -> opcionTestGeografia();
-                case 4 -> opcionTestCronometro();
-                case 5 -> opcionSalir();
-            }
-        } while (opcion != 5);
-    }
-
-    /**
-     * Muestra el menú test.
-     */
-    private static void pintarMenu() {
-        Utilidades.escribirMensaje("========== MENÚ DE TEST ==========");
-        Utilidades.escribirMensaje("1. Test Rondas                   |");
-        Utilidades.escribirMensaje("2. Test Mastermind               |");
-        Utilidades.escribirMensaje("3. Test Geografía                |");
-        Utilidades.escribirMensaje("4. Test Cronómetro               |");
-        Utilidades.escribirMensaje("5. Salir                         |");
-        Utilidades.escribirMensaje("==================================");
-    }
-
-    /**
-     * Lógica de la opción de Test Rondas.
-     */
-    public static void opcionTestRondas() {
-        try {
-            Tester.testRondaJuego();
-        } catch (JuegoException e) {
-            // Si ocurre una excepción de lógica de juego, la relanzo a la consola.
-            throw new RuntimeException(e);
-        }
-    }
-
-    /**
-     * Lógica de la opción de Test Mastermind.
-     */
-    public static void opcionTestMastermind() {
-        Tester.testPreguntaMasterMind();
-    }
-
-    /**
-     * Lógica de la opción de Test Cronómetro
-     */
-    public static void opcionTestGeografia() {
-        Tester.testGeografia();
-    }
-
-    /**
-     * Lógica de la opción de Test Cronómetro.
-     */
-    public static void opcionTestCronometro() {
-        Tester.testCronometro();
-    }
-
-    /**
-     * Lógica de la opción salir del sistema.
-     */
-    public static void opcionSalir() {
-        Utilidades.escribirMensaje("Has salido del testeo (>‿◠)✌\n");
-    }
-}
+package tests;
+
+import config.LectorProperties;
+import gestion.JuegoException;
+import presentacion.Utilidades;
+
+/**
+ * Clase de selección de los testeos de la aplicación.
+ *
+ * @author Sergio García Rodríguez
+ */
+
+public class InterfazTest {
+    /**
+     * Muestra el menú test.
+     */
+    public static void iniciarMenuTest() {
+        int opcion;
+        LectorProperties.cargarProperties();
+        do {
+            pintarMenu();
+            opcion = Utilidades.preguntarInt("", 1, 31);
+            switch (opcion) {
+                case 1 -> opcionTestRondas();
+                case 2 -> opcionTestMastermind();
+                case 3 -> opcionTestGeografia();
+                case 4 -> opcionTestCronometro();
+                case 5 -> opcionTestCatalogoCiudades();
+                case 6 -> opcionBenchmarkIndiceEspacial();
+                case 7 -> opcionBenchmarkPreguntasGeografia();
+                case 8 -> opcionTestPaqueteCiudades();
+                case 9 -> opcionBenchmarkPaqueteCiudades();
+                case 10 -> opcionBenchmarkKernelHaversine();
+                case 11 -> opcionTestMatesContraExp4j();
+                case 12 -> opcionBenchmarkPuntuacionMasterMind();
+                case 13 -> opcionBenchmarkSolverMasterMind();
+                case 14 -> opcionBenchmarkTablaMasterMind();
+                case 15 -> opcionTestCronometroCPU();
+                case 16 -> opcionTestRelojVirtual();
+                case 17 -> opcionSimulacion();
+                case 18 -> opcionSesiones();
+                case 19 -> opcionServidor();
+                case 20 -> opcionCargaServidor();
+                case 21 -> opcionTuberiaEventos();
+                case 22 -> opcionReservasPreguntas();
+                case 23 -> opcionTestRepeticionPartidas();
+                case 24 -> opcionBenchmarkGeneradorAleatorio();
+                case 25 -> opcionBenchmarkRegistroJugadores();
+                case 26 -> opcionBenchmarkAlmacenJugadores();
+                case 27 -> opcionBenchmarkRanking();
+                case 28 -> opcionBenchmarkPosicionesRanking();
+                case 29 -> opcionBenchmarkDiarioRanking();
+                case 30 -> opcionBenchmarkVentanasRanking();
+                case 31 -> opcionSalir();
+            }
+        } while (opcion != 31);
+    }
+
+    /**
+     * Muestra el menú test.
+     */
+    private static void pintarMenu() {
+        Utilidades.escribirMensaje("========== MENÚ DE TEST ==========");
+        Utilidades.escribirMensaje("1. Test Rondas                   |");
+        Utilidades.escribirMensaje("2. Test Mastermind               |");
+        Utilidades.escribirMensaje("3. Test Geografía                |");
+        Utilidades.escribirMensaje("4. Test Cronómetro               |");
+        Utilidades.escribirMensaje("5. Test Catálogo de ciudades     |");
+        Utilidades.escribirMensaje("6. Rendimiento índice espacial   |");
+        Utilidades.escribirMensaje("7. Rendimiento preguntas geograf.|");
+        Utilidades.escribirMensaje("8. Test Paquete de ciudades      |");
+        Utilidades.escribirMensaje("9. Rendimiento paquete ciudades  |");
+        Utilidades.escribirMensaje("10. Rendimiento kernel Haversine |");
+        Utilidades.escribirMensaje("11. Test Mates contra exp4j      |");
+        Utilidades.escribirMensaje("12. Rendimiento puntuación MM    |");
+        Utilidades.escribirMensaje("13. Rendimiento solver Mastermind|");
+        Utilidades.escribirMensaje("14. Rendimiento tabla Mastermind |");
+        Utilidades.escribirMensaje("15. Test Cronómetro CPU          |");
+        Utilidades.escribirMensaje("16. Test Reloj virtual           |");
+        Utilidades.escribirMensaje("17. Rendimiento simulación       |");
+        Utilidades.escribirMensaje("18. Test partidas concurrentes   |");
+        Utilidades.escribirMensaje("19. Servidor de texto            |");
+        Utilidades.escribirMensaje("20. Carga servidor de texto      |");
+        Utilidades.escribirMensaje("21. Tubería de eventos           |");
+        Utilidades.escribirMensaje("22. Reservas de preguntas        |");
+        Utilidades.escribirMensaje("23. Test repetir partidas        |");
+        Utilidades.escribirMensaje("24. Benchmark números aleatorios |");
+        Utilidades.escribirMensaje("25. Benchmark jugadores          |");
+        Utilidades.escribirMensaje("26. Benchmark almacén jugadores  |");
+        Utilidades.escribirMensaje("27. Benchmark ranking            |");
+        Utilidades.escribirMensaje("28. Benchmark posiciones ranking |");
+        Utilidades.escribirMensaje("29. Benchmark diario ranking     |");
+        Utilidades.escribirMensaje("30. Benchmark rankings periodos  |");
+        Utilidades.escribirMensaje("31. Salir                        |");
+        Utilidades.escribirMensaje("==================================");
+    }
+
+    /**
+     * Lógica de la opción de Test Rondas.
+     */
+    public static void opcionTestRondas() {
+        try {
+            Tester.testRondaJuego();
+        } catch (JuegoException e) {
+            // Si ocurre una excepción de lógica de juego, la relanzo a la consola.
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Lógica de la opción de Test Mastermind.
+     */
+    public static void opcionTestMastermind() {
+        Tester.testPreguntaMasterMind();
+    }
+
+    /**
+     * Lógica de la opción de Test Cronómetro
+     */
+    public static void opcionTestGeografia() {
+        Tester.testGeografia();
+    }
+
+    /**
+     * Lógica de la opción de Test Cronómetro.
+     */
+    public static void opcionTestCronometro() {
+        Tester.testCronometro();
+    }
+
+    /**
+     * Lógica de la opción de Test Catálogo de ciudades.
+     */
+    public static void opcionTestCatalogoCiudades() {
+        Tester.testCatalogoCiudades();
+    }
+
+    /**
+     * Lógica de la opción de Rendimiento del índice espacial.
+     */
+    public static void opcionBenchmarkIndiceEspacial() {
+        Rendimiento.benchmarkIndiceEspacial();
+    }
+
+    /**
+     * Lógica de la opción de Rendimiento de preguntas de geografía.
+     */
+    public static void opcionBenchmarkPreguntasGeografia() {
+        Rendimiento.benchmarkPreguntasGeografia();
+    }
+
+    /**
+     * Lógica de la opción de Test Paquete de ciudades.
+     */
+    public static void opcionTestPaqueteCiudades() {
+        Tester.testPaqueteCiudades();
+    }
+
+    /**
+     * Lógica de la opción de Rendimiento del paquete de ciudades.
+     */
+    public static void opcionBenchmarkPaqueteCiudades() {
+        Rendimiento.benchmarkPaqueteCiudades();
+    }
+
+    /**
+     * Lógica de la opción de Rendimiento del kernel de Haversine.
+     */
+    public static void opcionBenchmarkKernelHaversine() {
+        Rendimiento.benchmarkKernelHaversine();
+    }
+
+    /**
+     * Lógica de la opción de Test Mates contra exp4j.
+     */
+    public static void opcionTestMatesContraExp4j() {
+        Tester.testMatesContraExp4j();
+    }
+
+    /**
+     * Lógica de la opción de Rendimiento de la puntuación de Mastermind.
+     */
+    public static void opcionBenchmarkPuntuacionMasterMind() {
+        Rendimiento.benchmarkPuntuacionMasterMind();
+    }
+
+    /**
+     * Lógica de la opción de Rendimiento del jugador automático de Mastermind.
+     */
+    public static void opcionBenchmarkSolverMasterMind() {
+        Rendimiento.benchmarkSolverMasterMind();
+    }
+
+    /**
+     * Lógica de la opción de Rendimiento de la tabla de puntuaciones de Mastermind.
+     */
+    public static void opcionBenchmarkTablaMasterMind() {
+        Rendimiento.benchmarkTablaMasterMind();
+    }
+
+    /**
+     * Lógica de la opción de Test Cronómetro CPU.
+     */
+    public static void opcionTestCronometroCPU() {
+        Tester.testCronometroCPU();
+    }
+
+    /**
+     * Lógica de la opción de Test Reloj virtual.
+     */
+    public static void opcionTestRelojVirtual() {
+        Tester.testRelojVirtual();
+    }
+
+    /**
+     * Lógica de la opción de Rendimiento de la simulación.
+     */
+    public static void opcionSimulacion() {
+        Rendimiento.benchmarkSimulacionPartidas();
+    }
+
+    /**
+     * Lógica de la opción de Test partidas concurrentes.
+     */
+    public static void opcionSesiones() {
+        Tester.testSesionesConcurrentes();
+    }
+
+    /**
+     * Lógica de la opción de Servidor de texto.
+     */
+    public static void opcionServidor() {
+        Tester.testServidorTexto();
+    }
+
+    /**
+     * Lógica de la opción de Carga del servidor de texto.
+     */
+    public static void opcionCargaServidor() {
+        Rendimiento.benchmarkServidorTexto();
+    }
+
+    /**
+     * Lógica de la opción de Rendimiento de la tubería de eventos.
+     */
+    public static void opcionTuberiaEventos() {
+        Rendimiento.benchmarkTuberiaEventos();
+    }
+
+    /**
+     * Lógica de la opción de Rendimiento de las reservas de preguntas.
+     */
+    public static void opcionReservasPreguntas() {
+        Rendimiento.benchmarkReservasPreguntas();
+    }
+
+    /**
+     * Lógica de la opción de test de repetición de partidas desde su registro.
+     */
+    public static void opcionTestRepeticionPartidas() {
+        Tester.testRepeticionPartidas();
+    }
+
+    /**
+     * Lógica de la opción de benchmark de los generadores de números aleatorios.
+     */
+    public static void opcionBenchmarkGeneradorAleatorio() {
+        Rendimiento.benchmarkGeneradorAleatorio();
+    }
+
+    /**
+     * Lógica de la opción de medir la carga y búsqueda de jugadores.
+     */
+    public static void opcionBenchmarkRegistroJugadores() {
+        Rendimiento.benchmarkRegistroJugadores();
+    }
+
+    /**
+     * Lógica de la opción de comparar el almacén de jugadores por columnas con objetos.
+     */
+    public static void opcionBenchmarkAlmacenJugadores() {
+        Rendimiento.benchmarkAlmacenJugadores();
+    }
+
+    /**
+     * Lógica de la opción de medir la actualización del ranking en memoria.
+     */
+    public static void opcionBenchmarkRanking() {
+        Rendimiento.benchmarkRanking();
+    }
+
+    /**
+     * Lógica de la opción de medir las consultas de posición en el ranking.
+     */
+    public static void opcionBenchmarkPosicionesRanking() {
+        Rendimiento.benchmarkPosicionesRanking();
+    }
+
+    /**
+     * Lógica de la opción de medir el diario del ranking.
+     */
+    public static void opcionBenchmarkDiarioRanking() {
+        Rendimiento.benchmarkDiarioRanking();
+    }
+
+    /**
+     * Lógica de la opción de medir los rankings del último día y de la última semana.
+     */
+    public static void opcionBenchmarkVentanasRanking() {
+        Rendimiento.benchmarkVentanasRanking();
+    }
+
+    /**
+     * Lógica de la opción salir del sistema.
+     */
+    public static void opcionSalir() {
+        Utilidades.escribirMensaje("Has salido del testeo (>‿◠)✌\n");
+    }
+}
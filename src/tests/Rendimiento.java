@@ -0,0 +1,1826 @@
+package tests;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.random.RandomGenerator;
+
+import config.Constantes;
+import config.LectorProperties;
+import datos.RankingDiccionario;
+import datos.RankingVentanas;
+import datos.geografia.CatalogoCiudades;
+import datos.geografia.IndiceEspacial;
+import datos.geografia.KernelHaversine;
+import datos.geografia.MotorDistractores;
+import datos.geografia.PaqueteCiudades;
+import datos.jugadores.AlmacenJugadores;
+import datos.jugadores.Jugador;
+import datos.jugadores.JugadorHumano;
+import datos.mastermind.CodigoMasterMind;
+import datos.mastermind.EspacioCodigos;
+import datos.mastermind.SolverMasterMind;
+import datos.mastermind.TablaPuntuaciones;
+import datos.preguntas.PreguntaGeografia;
+import gestion.CanalPartida;
+import gestion.ConsumidorEventos;
+import gestion.EventoPartida;
+import gestion.GestorEventos;
+import gestion.GestorHistorico;
+import gestion.GestorJugadores;
+import gestion.GestorJugadoresFichero;
+import gestion.GestorPreguntas;
+import gestion.GestorRanking;
+import gestion.JuegoException;
+import gestion.Partida;
+import gestion.RelojVirtual;
+import gestion.ReservaPreguntas;
+import gestion.SimuladorPartidas;
+import gestion.TuberiaEventos;
+import presentacion.ServidorTexto;
+import presentacion.Utilidades;
+
+/**
+ * Pruebas de rendimiento de la aplicación. Cada prueba compara una implementación optimizada con la
+ * implementación directa y comprueba que ambas dan el mismo resultado.
+ *
+ * @author Sergio García Rodríguez
+ */
+public class Rendimiento {
+
+    /**
+     * Genera un catálogo de ciudades ficticias repartidas de forma uniforme por la esfera.
+     * @param total Número de ciudades.
+     * @return Catálogo generado.
+     */
+    static CatalogoCiudades generarCatalogo(int total) {
+        String[] nombres = new String[total];
+        double[] lat = new double[total];
+        double[] lon = new double[total];
+        for (int i = 0; i < total; i++) {
+            nombres[i] = "Ciudad" + i;
+            lat[i] = Math.toDegrees(Math.asin(2 * Math.random() - 1));
+            lon[i] = 360 * Math.random() - 180;
+        }
+        return new CatalogoCiudades(nombres, lat, lon);
+    }
+
+    /**
+     * Compara la búsqueda de vecinos más cercanos con el índice espacial frente al recorrido completo
+     * del catálogo calculando la distancia de Haversine a cada ciudad.
+     */
+    public static void benchmarkIndiceEspacial() {
+        final int TOTAL_CIUDADES = 200_000;
+        final int TOTAL_CONSULTAS = 2_000;
+        final int K = 5;
+        CatalogoCiudades cat = generarCatalogo(TOTAL_CIUDADES);
+
+        long inicio = System.nanoTime();
+        IndiceEspacial indice = cat.getIndice();
+        long nanosConstruccion = System.nanoTime() - inicio;
+
+        int[] consultas = new int[TOTAL_CONSULTAS];
+        Utilidades.llenarRandom(consultas, 0, TOTAL_CIUDADES - 1);
+
+        int[][] resIndice = new int[TOTAL_CONSULTAS][];
+        inicio = System.nanoTime();
+        for (int i = 0; i < TOTAL_CONSULTAS; i++) {
+            resIndice[i] = indice.kVecinos(consultas[i], K);
+        }
+        long nanosIndice = System.nanoTime() - inicio;
+
+        int[][] resFuerzaBruta = new int[TOTAL_CONSULTAS][];
+        inicio = System.nanoTime();
+        for (int i = 0; i < TOTAL_CONSULTAS; i++) {
+            resFuerzaBruta[i] = kVecinosFuerzaBruta(cat, consultas[i], K);
+        }
+        long nanosFuerzaBruta = System.nanoTime() - inicio;
+
+        int diferencias = 0;
+        for (int i = 0; i < TOTAL_CONSULTAS; i++) {
+            if (!Arrays.equals(resIndice[i], resFuerzaBruta[i])) {
+                diferencias++;
+            }
+        }
+
+        Utilidades.escribirMensaje("Ciudades: " + TOTAL_CIUDADES + ", consultas de " + K + " vecinos: " + TOTAL_CONSULTAS);
+        Utilidades.escribirMensaje("Construcción del índice: " + nanosConstruccion / 1_000_000 + " ms");
+        Utilidades.escribirMensaje("Índice espacial:  " + nanosIndice / TOTAL_CONSULTAS + " ns/consulta");
+        Utilidades.escribirMensaje("Fuerza bruta:     " + nanosFuerzaBruta / TOTAL_CONSULTAS + " ns/consulta");
+        Utilidades.escribirMensaje(diferencias == 0 ? "OK: mismos vecinos con ambos métodos"
+                : "ERROR: " + diferencias + " consultas con vecinos distintos");
+    }
+
+    /**
+     * Vecinos más cercanos recorriendo todas las ciudades con la fórmula de Haversine.
+     */
+    private static int[] kVecinosFuerzaBruta(CatalogoCiudades cat, int ciudad, int k) {
+        int[] ids = new int[k];
+        double[] dist = new double[k];
+        Arrays.fill(dist, Double.MAX_VALUE);
+        for (int i = 0; i < cat.getTotal(); i++) {
+            if (i == ciudad) continue;
+            double d = PreguntaGeografia.haversine(cat.getLatitud(ciudad), cat.getLongitud(ciudad),
+                    cat.getLatitud(i), cat.getLongitud(i));
+            if (d < dist[k - 1]) {
+                // Inserción ordenada en la lista de los k mejores
+                int j = k - 1;
+                while (j > 0 && dist[j - 1] > d) {
+                    dist[j] = dist[j - 1];
+                    ids[j] = ids[j - 1];
+                    j--;
+                }
+                dist[j] = d;
+                ids[j] = i;
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Mide el tiempo de generar preguntas de geografía con catálogos de distinto tamaño. Con el motor de
+     * opciones el tiempo por pregunta debe mantenerse casi constante al crecer el catálogo.
+     * Antes de medir se calculan los anillos de vecinas de todas las ciudades.
+     */
+    public static void benchmarkPreguntasGeografia() {
+        final int TOTAL_PREGUNTAS = 20_000;
+        for (int totalCiudades : new int[] {1_000, 10_000, 100_000}) {
+            CatalogoCiudades cat = generarCatalogo(totalCiudades);
+            for (int i = 0; i < totalCiudades; i++) {
+                cat.getMotorDistractores().seleccionar(i, MotorDistractores.DIFICULTAD_MEDIA,
+                        LectorProperties.getRatioMinDistractorGeografia(), LectorProperties.getRatioMaxDistractorGeografia());
+            }
+            for (int dificultad = MotorDistractores.DIFICULTAD_FACIL; dificultad <= MotorDistractores.DIFICULTAD_DIFICIL; dificultad++) {
+                int errores = 0;
+                long inicio = System.nanoTime();
+                for (int i = 0; i < TOTAL_PREGUNTAS; i++) {
+                    PreguntaGeografia preg = new PreguntaGeografia(cat, dificultad);
+                    if (!preg.comprobarRespuesta(preg.getSolucion()).isAcertado()) {
+                        errores++;
+                    }
+                }
+                long nanos = System.nanoTime() - inicio;
+                Utilidades.escribirMensaje("Ciudades: " + totalCiudades + ", dificultad " + dificultad + ": "
+                        + nanos / TOTAL_PREGUNTAS + " ns/pregunta" + (errores > 0 ? " ERRORES: " + errores : ""));
+            }
+        }
+    }
+
+    /**
+     * Compara el tiempo de carga de un catálogo grande en formato CSV y en paquete binario, y el de
+     * recorrer todas sus coordenadas una vez cargado.
+     */
+    public static void benchmarkPaqueteCiudades() {
+        final int TOTAL_CIUDADES = 500_000;
+        try {
+            File csv = File.createTempFile("ciudades", ".csv");
+            File paquete = File.createTempFile("ciudades", ".pack");
+            csv.deleteOnExit();
+            paquete.deleteOnExit();
+            CatalogoCiudades cat = generarCatalogo(TOTAL_CIUDADES);
+            try (BufferedWriter escritor = new BufferedWriter(new FileWriter(csv))) {
+                escritor.write("Nombre,Latitud,Longitud");
+                escritor.newLine();
+                for (int i = 0; i < cat.getTotal(); i++) {
+                    escritor.write(cat.getNombre(i) + "," + cat.getLatitud(i) + "," + cat.getLongitud(i));
+                    escritor.newLine();
+                }
+            }
+            PaqueteCiudades.escribir(cat, paquete.getPath());
+
+            long inicio = System.nanoTime();
+            CatalogoCiudades desdeCsv = CatalogoCiudades.leer(csv.getPath());
+            long nanosCsv = System.nanoTime() - inicio;
+            inicio = System.nanoTime();
+            CatalogoCiudades desdePaquete = CatalogoCiudades.leer(paquete.getPath());
+            long nanosPaquete = System.nanoTime() - inicio;
+
+            double sumaCsv = 0, sumaPaquete = 0;
+            inicio = System.nanoTime();
+            for (int i = 0; i < desdePaquete.getTotal(); i++) {
+                sumaPaquete += desdePaquete.getLatitud(i) + desdePaquete.getLongitud(i);
+            }
+            long nanosRecorrido = System.nanoTime() - inicio;
+            for (int i = 0; i < desdeCsv.getTotal(); i++) {
+                sumaCsv += desdeCsv.getLatitud(i) + desdeCsv.getLongitud(i);
+            }
+
+            Utilidades.escribirMensaje("Ciudades: " + TOTAL_CIUDADES + " (CSV " + csv.length() / 1024 + " KB, paquete "
+                    + paquete.length() / 1024 + " KB)");
+            Utilidades.escribirMensaje("Carga CSV:     " + nanosCsv / 1_000_000 + " ms");
+            Utilidades.escribirMensaje("Carga paquete: " + nanosPaquete / 1_000_000 + " ms");
+            Utilidades.escribirMensaje("Recorrido de coordenadas del paquete: " + nanosRecorrido / 1_000_000 + " ms");
+            Utilidades.escribirMensaje(sumaCsv == sumaPaquete && desdeCsv.getTotal() == desdePaquete.getTotal()
+                    ? "OK: mismas coordenadas en ambos formatos" : "ERROR: los formatos no coinciden");
+        } catch (IOException e) {
+            Utilidades.escribirMensaje("ERROR en la prueba de paquete de ciudades: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Compara el cálculo de distancias por lotes del kernel con la función escalar
+     * {@link PreguntaGeografia#haversine}, llamada una vez por ciudad como se hacía en las preguntas.
+     * Se repite varias veces para que el compilador JIT optimice ambos caminos antes de medir.
+     */
+    public static void benchmarkKernelHaversine() {
+        final int TOTAL_CIUDADES = 1_000_000;
+        final int TOTAL_ORIGENES = 20;
+        final int REPETICIONES = 3;
+        CatalogoCiudades cat = generarCatalogo(TOTAL_CIUDADES);
+        KernelHaversine kernel = cat.getKernel();
+        double[] salidaKernel = new double[TOTAL_CIUDADES];
+        double[] salidaEscalar = new double[TOTAL_CIUDADES];
+
+        long nanosKernel = 0, nanosEscalar = 0;
+        double errorMax = 0;
+        for (int r = 0; r < REPETICIONES; r++) {
+            nanosKernel = 0;
+            nanosEscalar = 0;
+            for (int o = 0; o < TOTAL_ORIGENES; o++) {
+                int origen = Utilidades.getRandom(TOTAL_CIUDADES - 1);
+
+                long inicio = System.nanoTime();
+                kernel.distancias(origen, salidaKernel);
+                nanosKernel += System.nanoTime() - inicio;
+
+                inicio = System.nanoTime();
+                double lat = cat.getLatitud(origen), lon = cat.getLongitud(origen);
+                for (int i = 0; i < TOTAL_CIUDADES; i++) {
+                    salidaEscalar[i] = PreguntaGeografia.haversine(lat, lon, cat.getLatitud(i), cat.getLongitud(i));
+                }
+                nanosEscalar += System.nanoTime() - inicio;
+
+                for (int i = 0; i < TOTAL_CIUDADES; i++) {
+                    errorMax = Math.max(errorMax, Math.abs(salidaKernel[i] - salidaEscalar[i]));
+                }
+            }
+        }
+        long distancias = (long) TOTAL_CIUDADES * TOTAL_ORIGENES;
+        Utilidades.escribirMensaje("Distancias calculadas por pasada: " + distancias);
+        Utilidades.escribirMensaje("Haversine escalar: " + String.format("%.2f", (double) nanosEscalar / distancias) + " ns/distancia");
+        Utilidades.escribirMensaje("Kernel por lotes:  " + String.format("%.2f", (double) nanosKernel / distancias) + " ns/distancia");
+        Utilidades.escribirMensaje("Diferencia máxima entre ambos: " + errorMax + " km");
+        Utilidades.escribirMensaje(errorMax < 1e-6 ? "OK: ambos métodos dan la misma distancia" : "ERROR: las distancias no coinciden");
+    }
+
+    /**
+     * Compara la puntuación empaquetada de MasterMind con el algoritmo anterior basado en cadenas
+     * (copiado en {@link #pistasConCadenas}) sobre pares aleatorios de secreto e intento.
+     */
+    public static void benchmarkPuntuacionMasterMind() {
+        final int TOTAL_CIFRAS = 4;
+        final int TOTAL_SIMBOLOS = 10;
+        final int TOTAL_PARES = 1 << 16;
+        final int REPETICIONES = 20;
+        long[] secretos = new long[TOTAL_PARES];
+        long[] intentos = new long[TOTAL_PARES];
+        int[][] vSecretos = new int[TOTAL_PARES][];
+        String[] tIntentos = new String[TOTAL_PARES];
+        for (int p = 0; p < TOTAL_PARES; p++) {
+            int[] secreto = new int[TOTAL_CIFRAS];
+            long usadas = 0;
+            for (int i = 0; i < TOTAL_CIFRAS; i++) {
+                do {
+                    secreto[i] = Utilidades.getRandom(TOTAL_SIMBOLOS - 1);
+                } while ((usadas & (1L << secreto[i])) != 0);
+                usadas |= 1L << secreto[i];
+                secretos[p] = CodigoMasterMind.conCifra(secretos[p], i, secreto[i]);
+            }
+            vSecretos[p] = secreto;
+            StringBuilder intento = new StringBuilder();
+            for (int i = 0; i < TOTAL_CIFRAS; i++) {
+                intento.append(Utilidades.getRandom(TOTAL_SIMBOLOS - 1));
+            }
+            tIntentos[p] = intento.toString();
+            intentos[p] = CodigoMasterMind.leer(tIntentos[p], TOTAL_CIFRAS, TOTAL_SIMBOLOS);
+        }
+
+        int diferencias = 0;
+        for (int p = 0; p < TOTAL_PARES; p++) {
+            String esperado = pistasConCadenas(vSecretos[p], tIntentos[p]);
+            int puntos = CodigoMasterMind.puntuar(secretos[p], intentos[p], TOTAL_CIFRAS);
+            boolean igual = esperado.equals(CodigoMasterMind.pistas(secretos[p], intentos[p], TOTAL_CIFRAS))
+                    && CodigoMasterMind.getExactas(puntos) == esperado.chars().filter(c -> c == '1').count()
+                    && CodigoMasterMind.getDescolocadas(puntos) == esperado.chars().filter(c -> c == '2').count();
+            if (!igual) {
+                diferencias++;
+            }
+        }
+
+        long nanosCadenas = 0, nanosEmpaquetado = 0;
+        long control = 0; // Evita que el compilador JIT elimine los bucles
+        for (int r = 0; r < REPETICIONES; r++) {
+            long inicio = System.nanoTime();
+            for (int p = 0; p < TOTAL_PARES; p++) {
+                control += pistasConCadenas(vSecretos[p], tIntentos[p]).hashCode();
+            }
+            nanosCadenas = System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            for (int p = 0; p < TOTAL_PARES; p++) {
+                control += CodigoMasterMind.puntuar(secretos[p], intentos[p], TOTAL_CIFRAS);
+            }
+            nanosEmpaquetado = System.nanoTime() - inicio;
+        }
+        Utilidades.escribirMensaje("Pares secreto/intento: " + TOTAL_PARES + " (" + TOTAL_CIFRAS + " cifras) [" + (control & 1) + "]");
+        Utilidades.escribirMensaje("Con cadenas:     " + String.format("%.2f", (double) nanosCadenas / TOTAL_PARES) + " ns/intento");
+        Utilidades.escribirMensaje("Empaquetado:     " + String.format("%.2f", (double) nanosEmpaquetado / TOTAL_PARES) + " ns/intento");
+        Utilidades.escribirMensaje(diferencias == 0 ? "OK: ambos métodos dan las mismas pistas"
+                : "ERROR: " + diferencias + " puntuaciones distintas");
+    }
+
+    /**
+     * Algoritmo original de PreguntaMasterMind: copia el secreto, lee cada cifra con Integer.parseInt y
+     * marca las cifras usadas en dos pasadas.
+     */
+    private static String pistasConCadenas(int[] numSecreto, String respUsuario) {
+        int[] aux = Arrays.copyOf(numSecreto, numSecreto.length);
+        int[] vRespuesta = new int[numSecreto.length];
+        for (int i = 0; i < numSecreto.length; i++) {
+            vRespuesta[i] = 3;
+            int x;
+            try {
+                x = Integer.parseInt("" + respUsuario.charAt(i));
+            } catch (NumberFormatException ex) {
+                x = -1;
+            }
+            if (x == numSecreto[i]) {
+                vRespuesta[i] = 1;
+                aux[i] = -1;
+            }
+        }
+        for (int i = 0; i < numSecreto.length; i++) {
+            if (vRespuesta[i] != 1) {
+                for (int j = 0; j < numSecreto.length; j++) {
+                    int x;
+                    try {
+                        x = Integer.parseInt("" + respUsuario.charAt(i));
+                    } catch (NumberFormatException ex) {
+                        x = -1;
+                    }
+                    if (vRespuesta[i] == 3 && x == aux[j]) {
+                        vRespuesta[i] = 2;
+                        aux[j] = -1;
+                        break;
+                    }
+                }
+            }
+        }
+        StringBuilder res = new StringBuilder();
+        for (int v : vRespuesta) {
+            res.append(v);
+        }
+        return res.toString();
+    }
+
+    /**
+     * Juega partidas completas de MasterMind con el jugador automático en varias configuraciones y mide
+     * cuántos intentos necesita, cuántas veces acierta dentro de los intentos de una partida real y si cada
+     * intento se elige dentro del tiempo máximo configurado.
+     */
+    public static void benchmarkSolverMasterMind() {
+        // {cifras, símbolos, partidas}; la última configuración es demasiado grande para enumerarla
+        final int[][] CONFIGURACIONES = {{3, 10, 300}, {4, 10, 100}, {5, 16, 20}, {6, 20, 5}};
+        final int MAX_INTENTOS = 30;
+        final long MARGEN_NANOS = 20_000_000; // Tolerancia para el reparto de hilos y el recolector
+        long limiteMs = LectorProperties.getMsMaxIntentoMasterMind();
+        boolean enTiempo = true;
+        Utilidades.escribirMensaje("Tiempo máximo por intento: " + limiteMs + " ms");
+        for (int[] conf : CONFIGURACIONES) {
+            for (SolverMasterMind.Criterio criterio : SolverMasterMind.Criterio.values()) {
+                int cifras = conf[0], simbolos = conf[1], partidas = conf[2];
+                long totalIntentos = 0, maxNanos = 0;
+                int resueltas = 0, enPlazoPartida = 0;
+                for (int p = 0; p < partidas; p++) {
+                    long secreto = 0, usadas = 0;
+                    for (int i = 0; i < cifras; i++) {
+                        int c;
+                        do {
+                            c = Utilidades.getRandom(simbolos - 1);
+                        } while ((usadas & (1L << c)) != 0);
+                        usadas |= 1L << c;
+                        secreto = CodigoMasterMind.conCifra(secreto, i, c);
+                    }
+                    SolverMasterMind solver = new SolverMasterMind(cifras, simbolos, criterio);
+                    for (int n = 1; n <= MAX_INTENTOS; n++) {
+                        long inicio = System.nanoTime();
+                        long intento = solver.siguienteIntento(inicio + limiteMs * 1_000_000);
+                        maxNanos = Math.max(maxNanos, System.nanoTime() - inicio);
+                        int puntos = CodigoMasterMind.puntuar(secreto, intento, cifras);
+                        if (CodigoMasterMind.getExactas(puntos) == cifras) {
+                            resueltas++;
+                            totalIntentos += n;
+                            if (n <= Constantes.TOTAL_ITERACIONES_MASTERMIND) {
+                                enPlazoPartida++;
+                            }
+                            break;
+                        }
+                        solver.registrar(intento, puntos);
+                    }
+                }
+                enTiempo &= maxNanos <= limiteMs * 1_000_000 + MARGEN_NANOS;
+                Utilidades.escribirMensaje(cifras + " cifras de " + simbolos + " símbolos, " + criterio + ": "
+                        + resueltas + "/" + partidas + " resueltas, "
+                        + String.format("%.2f", resueltas == 0 ? 0 : (double) totalIntentos / resueltas) + " intentos de media, "
+                        + enPlazoPartida + " en " + Constantes.TOTAL_ITERACIONES_MASTERMIND + " intentos o menos, "
+                        + String.format("%.1f", maxNanos / 1e6) + " ms por intento como máximo");
+            }
+        }
+        Utilidades.escribirMensaje(enTiempo ? "OK: todos los intentos dentro del tiempo máximo"
+                : "ERROR: algún intento superó el tiempo máximo");
+    }
+
+    /**
+     * Mide la tabla precalculada de puntuaciones de MasterMind: tiempo de cálculo y de proyección desde
+     * disco, memoria ocupada y velocidad de consulta frente a puntuar al vuelo, comprobando que coinciden.
+     */
+    public static void benchmarkTablaMasterMind() {
+        final int[][] CONFIGURACIONES = {{3, 10}, {4, 10}};
+        final int TOTAL_CONSULTAS = 1 << 22;
+        boolean iguales = true;
+        for (int[] conf : CONFIGURACIONES) {
+            int cifras = conf[0], simbolos = conf[1];
+            EspacioCodigos espacio = EspacioCodigos.de(cifras, simbolos);
+            String ruta = String.format(Constantes.MASTERMIND_TABLA_PATH, cifras, simbolos);
+            TablaPuntuaciones tabla;
+            long nanosCalculo, nanosProyeccion;
+            try {
+                Files.deleteIfExists(Path.of(ruta));
+                long inicio = System.nanoTime();
+                TablaPuntuaciones.cargarOCalcular(espacio, ruta);
+                nanosCalculo = System.nanoTime() - inicio;
+                inicio = System.nanoTime();
+                tabla = TablaPuntuaciones.cargarOCalcular(espacio, ruta);
+                nanosProyeccion = System.nanoTime() - inicio;
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+
+            int total = espacio.getTotal();
+            int[] secretos = new int[TOTAL_CONSULTAS];
+            int[] intentos = new int[TOTAL_CONSULTAS];
+            Utilidades.llenarRandom(secretos, 0, total - 1);
+            Utilidades.llenarRandom(intentos, 0, total - 1);
+            long nanosTabla = 0, nanosVuelo = 0, control = 0;
+            for (int r = 0; r < 5; r++) {
+                long inicio = System.nanoTime();
+                for (int i = 0; i < TOTAL_CONSULTAS; i++) {
+                    control += tabla.puntuar(secretos[i], intentos[i]);
+                }
+                nanosTabla = System.nanoTime() - inicio;
+                inicio = System.nanoTime();
+                for (int i = 0; i < TOTAL_CONSULTAS; i++) {
+                    control -= CodigoMasterMind.puntuar(espacio.getCodigo(secretos[i]), espacio.getCodigo(intentos[i]), cifras);
+                }
+                nanosVuelo = System.nanoTime() - inicio;
+            }
+            iguales &= control == 0;
+
+            Utilidades.escribirMensaje(cifras + " cifras de " + simbolos + " símbolos: " + total + " códigos, tabla de "
+                    + String.format("%.1f", tabla.getBytes() / 1048576.0) + " MB");
+            Utilidades.escribirMensaje("  Cálculo en paralelo: " + nanosCalculo / 1_000_000 + " ms / proyección desde disco: "
+                    + String.format("%.2f", nanosProyeccion / 1e6) + " ms");
+            Utilidades.escribirMensaje("  Consulta en tabla: " + String.format("%.2f", (double) nanosTabla / TOTAL_CONSULTAS)
+                    + " ns / al vuelo: " + String.format("%.2f", (double) nanosVuelo / TOTAL_CONSULTAS) + " ns");
+        }
+        Utilidades.escribirMensaje(iguales ? "OK: la tabla da las mismas puntuaciones que el cálculo al vuelo"
+                : "ERROR: la tabla no coincide con el cálculo al vuelo");
+    }
+
+    /**
+     * Mide la simulación de partidas entre jugadores CPU sin consola: partidas por segundo, y comprueba que el
+     * flujo de eventos tiene una pregunta por jugador y ronda y un final por partida. Las simulaciones usan
+     * una semilla fija, así que cada ejecución mide exactamente las mismas partidas.
+     */
+    public static void benchmarkSimulacionPartidas() {
+        final int JUGADORES = 4, RONDAS = 5;
+        final long SEMILLA = 2024;
+        final int[] TOTAL_PARTIDAS = {1_000, 10_000, 50_000};
+        boolean cuadra = true;
+        // Calentamiento: JIT, catálogo de ciudades y tablas de MasterMind
+        SimuladorPartidas.simular(1_000, JUGADORES, RONDAS, SEMILLA + 1);
+        for (int partidas : TOTAL_PARTIDAS) {
+            SimuladorPartidas.Estadisticas est = SimuladorPartidas.simular(partidas, JUGADORES, RONDAS, SEMILLA);
+            long preguntas = 0;
+            for (ReservaPreguntas reserva : GestorPreguntas.getReservas()) {
+                preguntas += est.getPreguntas(reserva.getProveedor().getTipo());
+            }
+            cuadra &= est.getPartidas() == partidas && preguntas == (long) partidas * JUGADORES * RONDAS;
+            Utilidades.escribirMensaje(est.toString());
+        }
+        Utilidades.escribirMensaje(cuadra ? "OK: una respuesta por jugador y ronda y un final por partida"
+                : "ERROR: el número de eventos no cuadra con las partidas jugadas");
+    }
+
+    /**
+     * Compara lo que tarda una partida en obtener una pregunta creándola en el momento y sacándola de la
+     * reserva de su proveedor. Entre pregunta y pregunta de la reserva se deja una pausa, como el turno de los
+     * demás jugadores, para que el productor la rellene; al final se piden preguntas seguidas, sin pausa,
+     * para ver cuándo se agota.
+     */
+    public static void benchmarkReservasPreguntas() {
+        final int PREGUNTAS = 1_000, RAFAGA = 200;
+        CatalogoCiudades.recargarSiModificado();
+        for (ReservaPreguntas reserva : GestorPreguntas.getReservas()) {
+            // Calentamiento del proveedor
+            for (int i = 0; i < PREGUNTAS; i++) {
+                reserva.crear(i);
+            }
+            long[] enElMomento = new long[PREGUNTAS];
+            for (int i = 0; i < PREGUNTAS; i++) {
+                long inicio = System.nanoTime();
+                reserva.crear(i);
+                enElMomento[i] = System.nanoTime() - inicio;
+            }
+            long[] deReserva = new long[PREGUNTAS];
+            long agotadaAntes = reserva.getAgotada();
+            reserva.tomar(-1);
+            esperarMs(20);
+            for (int i = 0; i < PREGUNTAS; i++) {
+                long inicio = System.nanoTime();
+                reserva.tomar(i);
+                deReserva[i] = System.nanoTime() - inicio;
+                esperarMs(1);
+            }
+            long agotadaConPausa = reserva.getAgotada() - agotadaAntes;
+            for (int i = 0; i < RAFAGA; i++) {
+                reserva.tomar(i);
+            }
+            long agotadaRafaga = reserva.getAgotada() - agotadaAntes - agotadaConPausa;
+
+            Utilidades.escribirMensaje(reserva.getProveedor().getNombre() + " (reserva de "
+                    + reserva.getProveedor().getTamReserva() + ")");
+            Utilidades.escribirMensaje("  Creada en el momento: " + resumirLatencias(enElMomento));
+            Utilidades.escribirMensaje("  De la reserva:        " + resumirLatencias(deReserva) + ". Agotada "
+                    + agotadaConPausa + " de " + PREGUNTAS + " veces con pausa, " + agotadaRafaga + " de " + RAFAGA
+                    + " sin pausa");
+        }
+        Utilidades.escribirMensaje(GestorPreguntas.getEstadisticas());
+    }
+
+    private static void esperarMs(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Mide cuánto tarda el hilo de una partida cuando sus eventos se registran al momento (cada consumidor
+     * escribe su fichero con cada evento, como se hacía antes) y cuando se publican en una
+     * {@link TuberiaEventos} con los consumidores de la aplicación. Las dos tandas juegan las mismas partidas
+     * (misma semilla) y se comprueba que el histórico recibe una entrada por partida en ambos casos. Comprueba
+     * también que esperar a la tubería no se bloquea mientras se sigue publicando ni cuando falla un consumidor,
+     * y que un fin de partida con una línea mal formada no detiene el ranking.
+     */
+    public static void benchmarkTuberiaEventos() {
+        final int JUGADORES = 4, RONDAS = 5, PARTIDAS = 500;
+        CatalogoCiudades.recargarSiModificado();
+        GestorEventos.cerrar();
+        // Calentamiento: JIT y tablas de MasterMind, sin ficheros
+        for (int i = 0; i < 200; i++) {
+            Partida.crearPartidaCPU(JUGADORES, new CanalMedido(evento -> {}), new RelojVirtual(), i)
+                    .jugar(RONDAS);
+        }
+
+        ConsumidorEventos[] consumidores = {new GestorEventos.ConsumidorLog(), new GestorEventos.ConsumidorRanking(),
+                new GestorEventos.ConsumidorHistorico()};
+        int historicoInicial = contarEntradasHistorico();
+        CanalMedido directo = new CanalMedido(evento -> {
+            for (ConsumidorEventos consumidor : consumidores) {
+                consumidor.procesar(List.of(evento));
+            }
+        });
+        long nanosDirecto = jugarPartidasMedidas(directo, PARTIDAS, JUGADORES, RONDAS);
+        int historicoDirecto = contarEntradasHistorico() - historicoInicial;
+
+        long nanosTuberia, nanosVaciado, lotes, procesados;
+        try (TuberiaEventos tuberia = GestorEventos.crearTuberia()) {
+            CanalMedido publicado = new CanalMedido(tuberia::publicar);
+            nanosTuberia = jugarPartidasMedidas(publicado, PARTIDAS, JUGADORES, RONDAS);
+            long inicio = System.nanoTime();
+            tuberia.esperar();
+            nanosVaciado = System.nanoTime() - inicio;
+            lotes = tuberia.getLotes();
+            procesados = tuberia.getEventosProcesados();
+            Utilidades.escribirMensaje("Escritura directa: " + directo.resumir(PARTIDAS, nanosDirecto));
+            Utilidades.escribirMensaje("Tubería de eventos: " + publicado.resumir(PARTIDAS, nanosTuberia));
+            Utilidades.escribirMensaje(String.format("  Vaciado de la tubería al terminar: %.1f ms. %d eventos "
+                    + "procesados en %d lotes (%.1f eventos por lote)", nanosVaciado / 1e6, procesados, lotes,
+                    (double) procesados / lotes));
+        }
+        int historicoTuberia = contarEntradasHistorico() - historicoInicial - historicoDirecto;
+        Utilidades.escribirMensaje(String.format("Tiempo del hilo de la partida: x%.1f menos con la tubería",
+                (double) nanosDirecto / nanosTuberia));
+        Utilidades.escribirMensaje(historicoDirecto == PARTIDAS && historicoTuberia == PARTIDAS
+                ? "OK: el histórico tiene una entrada por partida en los dos casos"
+                : "ERROR: entradas en el histórico " + historicoDirecto + " y " + historicoTuberia
+                + " para " + PARTIDAS + " partidas");
+        Utilidades.escribirMensaje(esperaSinBloqueos()
+                ? "OK: esperar() termina aunque se siga publicando y un consumidor lance un Error"
+                : "ERROR: esperar() o close() no terminan mientras se publica o tras un Error de un consumidor");
+        Utilidades.escribirMensaje(rankingConLineaMalFormada()
+                ? "OK: una línea mal formada no impide actualizar el ranking con el resto de lotes"
+                : "ERROR: el ranking no se actualiza tras un lote con una línea mal formada");
+    }
+
+    /**
+     * Pasa al consumidor del ranking un fin de partida con una línea mal formada (un nombre con un tabulador)
+     * y otro correcto en el lote siguiente: los jugadores correctos de los dos lotes deben entrar en el ranking.
+     */
+    private static boolean rankingConLineaMalFormada() {
+        GestorEventos.ConsumidorRanking consumidor = new GestorEventos.ConsumidorRanking();
+        consumidor.procesar(List.of(EventoPartida.partidaFinalizada(1, 1, "PruebaLote1", false, 7,
+                "a\tb 5\nPruebaLote1 7\n", "a\tb 5\nPruebaLote1 7\n")));
+        consumidor.procesar(List.of(EventoPartida.partidaFinalizada(2, 1, "PruebaLote2", false, 9,
+                "PruebaLote2 9\n", "PruebaLote2 9\n")));
+        boolean correcto = GestorRanking.getPosicionJugador("PruebaLote1") > 0
+                && GestorRanking.getPosicionJugador("PruebaLote2") > 0
+                && GestorRanking.getPosicionJugador("a") == 0;
+        GestorRanking.eliminarJugadorRanking("PruebaLote1");
+        GestorRanking.eliminarJugadorRanking("PruebaLote2");
+        return correcto;
+    }
+
+    /**
+     * Con un hilo publicando sin parar y un consumidor que lanza un Error en su primer lote, comprueba que
+     * esperar() y close() terminan en menos de 5 segundos.
+     */
+    private static boolean esperaSinBloqueos() {
+        ConsumidorEventos lento = new ConsumidorEventos() {
+            @Override
+            public String getNombre() {
+                return "lento";
+            }
+
+            @Override
+            public void procesar(List<EventoPartida> lote) {
+                esperarMs(1);
+            }
+        };
+        ConsumidorEventos roto = new ConsumidorEventos() {
+            private boolean primero = true;
+
+            @Override
+            public String getNombre() {
+                return "roto";
+            }
+
+            @Override
+            public void procesar(List<EventoPartida> lote) {
+                if (primero) {
+                    primero = false;
+                    throw new AssertionError("fallo provocado");
+                }
+            }
+        };
+        TuberiaEventos tuberia = new TuberiaEventos(64, lento, roto);
+        AtomicLong publicados = new AtomicLong();
+        Thread publicador = Thread.ofPlatform().daemon().start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                tuberia.publicar(EventoPartida.rondaIniciada(1, 1));
+                publicados.incrementAndGet();
+            }
+        });
+        while (publicados.get() < 1000) {
+            esperarMs(1);
+        }
+        Thread espera = Thread.ofPlatform().daemon().start(tuberia::esperar);
+        boolean correcto;
+        try {
+            espera.join(5000);
+            correcto = !espera.isAlive() && publicador.isAlive();
+            publicador.interrupt();
+            publicador.join(5000);
+            Thread cierre = Thread.ofPlatform().daemon().start(tuberia::close);
+            cierre.join(5000);
+            correcto &= !cierre.isAlive();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return correcto;
+    }
+
+    /**
+     * Juega partidas entre jugadores CPU con semillas 0, 1, 2... por un canal.
+     * @return Tiempo total en nanosegundos.
+     */
+    private static long jugarPartidasMedidas(CanalMedido canal, int partidas, int jugadores, int rondas) {
+        long inicio = System.nanoTime();
+        for (int i = 0; i < partidas; i++) {
+            Partida.crearPartidaCPU(jugadores, canal, new RelojVirtual(), i).jugar(rondas);
+        }
+        return System.nanoTime() - inicio;
+    }
+
+    private static int contarEntradasHistorico() {
+        int total = 0;
+        for (String linea : GestorHistorico.leer().split("\n")) {
+            if (linea.startsWith("Registro de la partida")) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Canal con texto que descarta los mensajes, entrega los eventos a una función y mide lo que tarda cada
+     * entrega.
+     */
+    private static final class CanalMedido implements CanalPartida {
+        private final Consumer<EventoPartida> destino;
+        private final List<Long> entregas = new ArrayList<>();
+
+        CanalMedido(Consumer<EventoPartida> destino) {
+            this.destino = destino;
+        }
+
+        String resumir(int partidas, long nanos) {
+            long[] latencias = entregas.stream().mapToLong(Long::longValue).toArray();
+            return String.format("%.3f ms por partida. Entrega de cada evento: ", nanos / 1e6 / partidas)
+                    + resumirLatencias(latencias);
+        }
+
+        @Override
+        public boolean isConTexto() {
+            return true;
+        }
+
+        @Override
+        public void mensaje(String mensaje) {
+        }
+
+        @Override
+        public void evento(EventoPartida evento) {
+            long inicio = System.nanoTime();
+            destino.accept(evento);
+            entregas.add(System.nanoTime() - inicio);
+        }
+
+        @Override
+        public long preguntarLong(String msg) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String preguntarCodigo(String msg, int tamMin, int tamMax) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public char preguntarOpcion(String msg) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void esperarIntro() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Prueba de carga del servidor de texto: abre miles de clientes simulados por la interfaz de red local.
+     * Cada cliente se conecta, juega una partida de una ronda contra un jugador CPU contestando lo primero
+     * que sea válido y sale. Mide la latencia de conexión (hasta recibir el primer byte del menú) y la de cada
+     * respuesta (desde que se envía la línea hasta el primer byte de la contestación). Al final comprueba que
+     * el servidor no admite un nombre con un tabulador.
+     */
+    public static void benchmarkServidorTexto() {
+        final int[] TOTAL_CLIENTES = {200, 2_000};
+        CatalogoCiudades.recargarSiModificado();
+        // Respuesta para los códigos de MasterMind y los números: tantas cifras distintas como tiene el código
+        String codigo = "0123456789".substring(0, LectorProperties.getTotalCifrasPregMasterMind());
+
+        boolean sinErrores = true;
+        try (ServidorTexto servidor = new ServidorTexto(0)) {
+            // La primera tanda sirve también de calentamiento
+            for (int clientes : TOTAL_CLIENTES) {
+                sinErrores &= cargarServidor(servidor.getPuerto(), clientes, codigo);
+            }
+            sinErrores &= rechazaNombreConTabulador(servidor.getPuerto());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        Utilidades.escribirMensaje(sinErrores ? "OK: todos los clientes han jugado su partida"
+                : "ERROR: algún cliente no ha podido terminar");
+    }
+
+    /**
+     * Lanza a la vez un número de clientes contra el servidor y muestra sus latencias.
+     * @return true si todos los clientes han terminado su partida.
+     */
+    private static boolean cargarServidor(int puerto, int totalClientes, String codigo) {
+        long[] conexiones = new long[totalClientes];
+        List<long[]> respuestas = new ArrayList<>();
+        int errores = 0;
+        long inicio = System.nanoTime();
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<long[]>> futuros = new ArrayList<>();
+            for (int i = 0; i < totalClientes; i++) {
+                futuros.add(clientes.submit(() -> simularCliente(puerto, codigo)));
+            }
+            for (int i = 0; i < totalClientes; i++) {
+                try {
+                    long[] latencias = futuros.get(i).get();
+                    conexiones[i - errores] = latencias[0];
+                    respuestas.add(Arrays.copyOfRange(latencias, 1, latencias.length));
+                } catch (ExecutionException e) {
+                    if (++errores == 1) {
+                        Utilidades.escribirMensaje("Error en un cliente: " + e.getCause());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        long nanos = System.nanoTime() - inicio;
+
+        long[] todas = respuestas.stream().flatMapToLong(Arrays::stream).toArray();
+        long[] conectados = Arrays.copyOf(conexiones, totalClientes - errores);
+        Utilidades.escribirMensaje(totalClientes + " clientes en " + String.format("%.1f", nanos / 1e9) + " s: "
+                + conectados.length + " partidas completas, " + todas.length + " respuestas, " + errores + " errores");
+        Utilidades.escribirMensaje("  Latencia de conexión: " + resumirLatencias(conectados));
+        Utilidades.escribirMensaje("  Latencia de respuesta: " + resumirLatencias(todas));
+        return errores == 0;
+    }
+
+    /**
+     * Cliente de la prueba de carga: entra en el menú, juega una partida de una ronda contra un jugador CPU y
+     * sale. Ante una pregunta de la partida contesta "A" y, si no es válido, el código de MasterMind, que
+     * también sirve como número.
+     * @return Latencia de conexión seguida de las de cada respuesta, en nanosegundos.
+     */
+    private static long[] simularCliente(int puerto, String codigo) throws IOException {
+        final int MAX_RESPUESTAS = 200;
+        long[] latencias = new long[MAX_RESPUESTAS + 1];
+        int total = 0;
+        long[] primerByte = new long[1];
+        try (Socket socket = new Socket()) {
+            long inicio = System.nanoTime();
+            socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), puerto));
+            socket.setSoTimeout(60_000);
+            InputStream entrada = socket.getInputStream();
+            OutputStream salida = socket.getOutputStream();
+            String texto = leerHastaIndicador(entrada, primerByte);
+            latencias[total++] = primerByte[0] - inicio;
+
+            boolean jugado = false;
+            while (texto != null && total <= MAX_RESPUESTAS) {
+                String respuesta;
+                if (texto.contains("MENÚ DEL JUEGO")) {
+                    respuesta = jugado ? "4" : "1";
+                    jugado = true;
+                } else if (texto.contains("¿Cuál es tu nombre?")) {
+                    respuesta = "remoto";
+                } else if (texto.contains("¿Contra cuántos jugadores CPU")) {
+                    respuesta = "1";
+                } else if (texto.contains("¿Cuántas rondas")) {
+                    respuesta = "1";
+                } else {
+                    respuesta = texto.contains("ERROR") || texto.contains("tamaño mínimo") ? codigo : "A";
+                }
+                salida.write((respuesta + "\r\n").getBytes(StandardCharsets.UTF_8));
+                long envio = System.nanoTime();
+                texto = leerHastaIndicador(entrada, primerByte);
+                if (primerByte[0] != 0) {
+                    latencias[total++] = primerByte[0] - envio;
+                }
+            }
+            if (texto != null) {
+                throw new IOException("El cliente no ha terminado en " + MAX_RESPUESTAS + " respuestas");
+            }
+        }
+        return Arrays.copyOf(latencias, total);
+    }
+
+    /**
+     * Un cliente que intenta jugar con un nombre que lleva un tabulador debe recibir un aviso y volver a ser
+     * preguntado por el nombre.
+     * @return true si el servidor rechaza el nombre.
+     */
+    private static boolean rechazaNombreConTabulador(int puerto) throws IOException {
+        long[] primerByte = new long[1];
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), puerto));
+            socket.setSoTimeout(60_000);
+            InputStream entrada = socket.getInputStream();
+            OutputStream salida = socket.getOutputStream();
+            leerHastaIndicador(entrada, primerByte);
+            salida.write("1\r\n".getBytes(StandardCharsets.UTF_8));
+            leerHastaIndicador(entrada, primerByte);
+            salida.write("re\tmoto\r\n".getBytes(StandardCharsets.UTF_8));
+            String texto = leerHastaIndicador(entrada, primerByte);
+            boolean rechazado = texto != null && texto.contains("No se admiten espacios")
+                    && texto.contains("¿Cuál es tu nombre?");
+            if (!rechazado) {
+                Utilidades.escribirMensaje("El servidor ha aceptado un nombre con un tabulador");
+            }
+            return rechazado;
+        }
+    }
+
+    /**
+     * Lee lo que envía el servidor hasta que pide una respuesta.
+     * @param primerByte Se guarda el instante en el que llegó el primer byte (0 si no llegó ninguno).
+     * @return Texto recibido, o null si el servidor cerró la conexión.
+     */
+    private static String leerHastaIndicador(InputStream entrada, long[] primerByte) throws IOException {
+        ByteArrayOutputStream recibido = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        primerByte[0] = 0;
+        int leidos;
+        while ((leidos = entrada.read(buffer)) > 0) {
+            if (primerByte[0] == 0) {
+                primerByte[0] = System.nanoTime();
+            }
+            recibido.write(buffer, 0, leidos);
+            String texto = recibido.toString(StandardCharsets.UTF_8);
+            if (texto.endsWith("\n> ")) {
+                return texto;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Mide cuántos números aleatorios por segundo se obtienen con 1, 2, 4... hilos a la vez pidiéndolos a un
+     * java.util.Random compartido (como hacía antes Utilidades.getRandom fuera de una partida), a
+     * Utilidades.getRandom, que usa el generador propio del hilo, al generador de una partida
+     * (SplittableRandom de sesión) y rellenando vectores con Utilidades.llenarRandom. Con el Random
+     * compartido el total no crece con los hilos, porque todos compiten por la misma semilla; con los
+     * generadores por hilo crece con los núcleos disponibles. Comprueba además que llenarRandom da todos los
+     * valores del rango y ninguno fuera de él.
+     */
+    public static void benchmarkGeneradorAleatorio() {
+        final int NUMEROS = 4_000_000, MAX = 99;
+        int maxHilos = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        Random compartido = new Random();
+        Utilidades.escribirMensaje("Núcleos disponibles: " + Runtime.getRuntime().availableProcessors()
+                + ". Millones de números por segundo, sumando todos los hilos:");
+        Utilidades.escribirMensaje(String.format("%6s %16s %16s %16s %16s", "hilos", "Random común",
+                "getRandom", "de la partida", "llenarRandom"));
+        // La primera vuelta sirve de calentamiento
+        for (int vuelta = 0; vuelta < 2; vuelta++) {
+            for (int hilos = 1; hilos <= maxHilos; hilos *= 2) {
+                double comun = medirHilos(hilos, NUMEROS, () -> {
+                    long suma = 0;
+                    for (int i = 0; i < NUMEROS; i++) {
+                        suma += compartido.nextInt(0, MAX + 1);
+                    }
+                    return suma;
+                });
+                double propio = medirHilos(hilos, NUMEROS, () -> {
+                    long suma = 0;
+                    for (int i = 0; i < NUMEROS; i++) {
+                        suma += Utilidades.getRandom(0, MAX);
+                    }
+                    return suma;
+                });
+                double partida = medirHilos(hilos, NUMEROS, () -> {
+                    RandomGenerator anterior = Utilidades.setRandomSesion(new SplittableRandom());
+                    try {
+                        long suma = 0;
+                        for (int i = 0; i < NUMEROS; i++) {
+                            suma += Utilidades.getRandom(0, MAX);
+                        }
+                        return suma;
+                    } finally {
+                        Utilidades.setRandomSesion(anterior);
+                    }
+                });
+                double bloques = medirHilos(hilos, NUMEROS, () -> {
+                    int[] bloque = new int[1024];
+                    long suma = 0;
+                    for (int i = 0; i < NUMEROS; i += bloque.length) {
+                        Utilidades.llenarRandom(bloque, 0, MAX);
+                        suma += bloque[i & 1023];
+                    }
+                    return suma;
+                });
+                if (vuelta == 1) {
+                    Utilidades.escribirMensaje(String.format("%6d %16.1f %16.1f %16.1f %16.1f", hilos, comun, propio,
+                            partida, bloques));
+                }
+            }
+        }
+
+        int[] valores = new int[100_000];
+        Utilidades.llenarRandom(valores, -3, 3);
+        int[] apariciones = new int[7];
+        boolean enRango = true;
+        for (int valor : valores) {
+            enRango &= valor >= -3 && valor <= 3;
+            if (enRango) {
+                apariciones[valor + 3]++;
+            }
+        }
+        boolean todos = Arrays.stream(apariciones).allMatch(n -> n > 0);
+        Utilidades.escribirMensaje(enRango && todos ? "OK: llenarRandom da todos los valores del rango y ninguno fuera"
+                : "ERROR: llenarRandom se sale del rango o no da todos sus valores");
+    }
+
+    /**
+     * Mide la carga de listas de jugadores de 10.000, 100.000 y 1.000.000 de jugadores con
+     * GestorJugadoresFichero.leerJugadores y la búsqueda de cada jugador por su nombre. Con 10.000 jugadores
+     * compara la carga con la forma anterior de GestorJugadores: comprobar el nombre recorriendo todos los
+     * jugadores y sortear asientos hasta dar con uno libre, lo que hace que la carga crezca con el cuadrado del
+     * número de jugadores. Comprueba además que se encuentran todos los jugadores sin distinguir mayúsculas,
+     * que no se admiten nombres repetidos y que al eliminar jugadores no queda ningún asiento vacío.
+     */
+    public static void benchmarkRegistroJugadores() {
+        boolean correcto = true;
+        Utilidades.escribirMensaje(String.format("%10s %14s %14s %16s", "jugadores", "carga (ms)",
+                "antes (ms)", "búsqueda (ns)"));
+        for (int total : new int[]{10_000, 100_000, 1_000_000}) {
+            StringBuilder lista = new StringBuilder();
+            for (int i = 0; i < total; i++) {
+                lista.append(i % 10 == 0 ? "CPU" : "Jugador").append(i).append("    \t").append(i % 50).append('\n');
+            }
+            GestorJugadores gJ;
+            long inicio = System.nanoTime();
+            try {
+                gJ = GestorJugadoresFichero.leerJugadores(new BufferedReader(new StringReader(lista.toString())));
+            } catch (IOException | JuegoException e) {
+                throw new RuntimeException(e);
+            }
+            long nanosCarga = System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            for (int i = 0; i < total; i++) {
+                String nombre = (i % 10 == 0 ? "cpu" : "JUGADOR") + i;
+                Jugador jugador = gJ.buscarJugador(nombre);
+                correcto &= jugador != null && jugador.getNombre().equalsIgnoreCase(nombre);
+            }
+            long nanosBusqueda = (System.nanoTime() - inicio) / total;
+            correcto &= gJ.getTotalJugadores() == total && gJ.getTotalJugadoresCPU() == total / 10
+                    && gJ.buscarJugador("Jugador" + total) == null;
+
+            String antes = "-";
+            if (total <= 10_000) {
+                inicio = System.nanoTime();
+                sumidero = cargarComoAntes(lista.toString());
+                antes = String.format("%.1f", (System.nanoTime() - inicio) / 1e6);
+            }
+            Utilidades.escribirMensaje(String.format("%10d %14.1f %14s %16d", total, nanosCarga / 1e6, antes,
+                    nanosBusqueda));
+        }
+
+        // Nombres repetidos, asientos sorteados y eliminación
+        GestorJugadores gJ = new GestorJugadores(6);
+        try {
+            gJ.crearJugador("Ana", 0, 1);
+            gJ.crearJugador("", 0, 2);
+            gJ.crearJugador("", 0, 1);
+            try {
+                gJ.crearJugador("ANA", 0, 1);
+                correcto = false;
+            } catch (JuegoException e) {
+                // Nombre repetido: correcto
+            }
+            gJ.crearJugador("Luis", 3, 1);
+        } catch (JuegoException e) {
+            correcto = false;
+        }
+        correcto &= gJ.eliminarJugador("ana") && !gJ.eliminarJugador("Ana") && gJ.getTotalJugadores() == 5
+                && gJ.getTotalJugadoresHumanos() == 2 && gJ.getTotalJugadoresCPU() == 1
+                && gJ.buscarJugador("LUIS") != null && gJ.getJugadores().length == 5;
+        int libres = 0;
+        for (int i = 0; i < gJ.getTotalJugadores(); i++) {
+            libres += gJ.getJugador(i) == null ? 1 : 0;
+        }
+        correcto &= libres == 2;
+        try {
+            gJ.crearJugador("Ana", 0, 1);
+            gJ.crearJugador("Eva", 0, 1);
+            gJ.ampliarListaJugadores();
+            gJ.crearJugador("", 0, 2);
+        } catch (JuegoException e) {
+            correcto = false;
+        }
+        for (int i = 0; i < gJ.getTotalJugadores(); i++) {
+            correcto &= gJ.getJugador(i) != null && gJ.buscarJugador(gJ.getJugador(i).getNombre()) == gJ.getJugador(i);
+        }
+        Utilidades.escribirMensaje(correcto ? "OK: todos los jugadores se encuentran y no se repiten nombres"
+                : "ERROR: el registro de jugadores no encuentra algún jugador o admite nombres repetidos");
+    }
+
+    /**
+     * Carga una lista de jugadores como lo hacía GestorJugadores antes de indexar los nombres.
+     * @return Número de jugadores cargados.
+     */
+    private static int cargarComoAntes(String lista) {
+        String[] trozos = lista.split("\\s+");
+        Jugador[] jugadores = new Jugador[trozos.length / 2];
+        SplittableRandom rnd = new SplittableRandom();
+        for (int i = 0; i < trozos.length; i += 2) {
+            for (Jugador jugador : jugadores) {
+                if (jugador != null && jugador.getNombre().equalsIgnoreCase(trozos[i])) {
+                    throw new IllegalStateException("Nombre repetido " + trozos[i]);
+                }
+            }
+            int pos;
+            do {
+                pos = rnd.nextInt(jugadores.length);
+            } while (jugadores[pos] != null);
+            jugadores[pos] = new JugadorHumano(trozos[i], Integer.parseInt(trozos[i + 1]), pos + 1);
+        }
+        return jugadores.length;
+    }
+
+    /**
+     * Compara el almacén de jugadores por columnas (AlmacenJugadores) con un vector de objetos con los mismos
+     * campos que tenía Jugador (nombre, puntos, puntos de ronda y de partida), con 1.000.000 de jugadores:
+     * memoria ocupada, poner a cero los puntos de la ronda, buscar el ganador, sumar los puntos y escribir la
+     * lista. Los objetos se crean barajados, como quedan en memoria tras cargar y eliminar jugadores.
+     * Comprueba que los dos dan el mismo ganador, la misma suma y la misma lista, y que las vistas Jugador
+     * escriben en el almacén.
+     */
+    public static void benchmarkAlmacenJugadores() {
+        final int TOTAL = 1_000_000;
+        SplittableRandom rnd = new SplittableRandom(7);
+        Runtime rt = Runtime.getRuntime();
+
+        System.gc();
+        long antes = rt.totalMemory() - rt.freeMemory();
+        AlmacenJugadores almacen = new AlmacenJugadores(TOTAL);
+        for (int i = 0; i < TOTAL; i++) {
+            int pos = almacen.addPosicion();
+            almacen.ocupar(pos, "Jugador" + i, rnd.nextInt(1000), i % 10 != 0);
+            almacen.addPuntosRonda(pos, rnd.nextInt(5));
+        }
+        System.gc();
+        long bytesAlmacen = rt.totalMemory() - rt.freeMemory() - antes;
+
+        JugadorObjeto[] objetos = new JugadorObjeto[TOTAL];
+        for (int i = 0; i < TOTAL; i++) {
+            objetos[i] = new JugadorObjeto(almacen.getNombre(i), almacen.getPuntos(i), almacen.isHumano(i));
+            objetos[i].puntosPartida = almacen.getPuntosPartida(i);
+        }
+        // Se barajan los objetos y se vuelven a crear en ese orden, para que estén repartidos por la memoria
+        for (int i = TOTAL - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            JugadorObjeto o = objetos[i];
+            objetos[i] = objetos[j];
+            objetos[j] = o;
+        }
+        int[] orden = new int[TOTAL];
+        for (int i = 0; i < TOTAL; i++) {
+            orden[i] = Integer.parseInt(objetos[i].nombre.substring(7));
+        }
+        objetos = null;
+        System.gc();
+        antes = rt.totalMemory() - rt.freeMemory();
+        JugadorObjeto[] barajados = new JugadorObjeto[TOTAL];
+        for (int i = 0; i < TOTAL; i++) {
+            int p = orden[i];
+            barajados[i] = new JugadorObjeto("Jugador" + p, almacen.getPuntos(p), almacen.isHumano(p));
+            barajados[i].puntosPartida = almacen.getPuntosPartida(p);
+        }
+        objetos = new JugadorObjeto[TOTAL];
+        for (int i = 0; i < TOTAL; i++) {
+            objetos[orden[i]] = barajados[i];
+        }
+        barajados = null;
+        System.gc();
+        long bytesObjetos = rt.totalMemory() - rt.freeMemory() - antes;
+        Utilidades.escribirMensaje(String.format("Memoria para %d jugadores: almacén %.1f MB (%.1f MB según sus "
+                        + "vectores), objetos %.1f MB", TOTAL, bytesAlmacen / 1e6, almacen.getBytes() / 1e6,
+                bytesObjetos / 1e6));
+
+        Utilidades.escribirMensaje(String.format("%-26s %12s %12s", "operación (ms)", "almacén", "objetos"));
+        double[] tiempos = new double[8];
+        String ganadorAlmacen = null, ganadorObjetos = null;
+        long sumaAlmacen = 0, sumaObjetos = 0;
+        String listaAlmacen = null, listaObjetos = null;
+        // La primera vuelta sirve de calentamiento
+        for (int vuelta = 0; vuelta < 3; vuelta++) {
+            long t0 = System.nanoTime();
+            almacen.resetPuntosRonda();
+            long t1 = System.nanoTime();
+            for (JugadorObjeto o : objetos) {
+                o.puntosRonda = 0;
+            }
+            long t2 = System.nanoTime();
+            ganadorAlmacen = almacen.getGanador();
+            long t3 = System.nanoTime();
+            ganadorObjetos = JugadorObjeto.getGanador(objetos);
+            long t4 = System.nanoTime();
+            sumaAlmacen = almacen.getTotalPuntos();
+            long t5 = System.nanoTime();
+            sumaObjetos = 0;
+            for (JugadorObjeto o : objetos) {
+                sumaObjetos += o.puntos;
+            }
+            long t6 = System.nanoTime();
+            StringBuilder lista = new StringBuilder();
+            almacen.escribirLista(lista);
+            listaAlmacen = lista.toString();
+            long t7 = System.nanoTime();
+            lista = new StringBuilder();
+            for (JugadorObjeto o : objetos) {
+                lista.append(Utilidades.rellenarConBlancos(o.nombre, Constantes.TAM_MAX_NOMBRE_JUGADOR)).append("\t")
+                        .append(o.puntos).append("\n");
+            }
+            listaObjetos = lista.toString();
+            long t8 = System.nanoTime();
+            if (vuelta > 0) {
+                long[] marcas = {t0, t1, t2, t3, t4, t5, t6, t7, t8};
+                for (int i = 0; i < tiempos.length; i++) {
+                    tiempos[i] += (marcas[i + 1] - marcas[i]) / 2e6;
+                }
+            }
+        }
+        String[] operaciones = {"puntos de ronda a cero", "ganador", "suma de puntos", "lista de jugadores"};
+        for (int i = 0; i < operaciones.length; i++) {
+            Utilidades.escribirMensaje(String.format("%-26s %12.2f %12.2f", operaciones[i], tiempos[2 * i],
+                    tiempos[2 * i + 1]));
+        }
+
+        boolean correcto = ganadorAlmacen.equals(ganadorObjetos) && sumaAlmacen == sumaObjetos
+                && listaAlmacen.equals(listaObjetos);
+        Jugador vista = almacen.getJugador(TOTAL / 2);
+        int puntos = vista.getPuntos();
+        vista.addPuntos(3);
+        vista.addPuntosRonda(2);
+        correcto &= almacen.getPuntos(TOTAL / 2) == puntos + 3 && almacen.getPuntosRonda(TOTAL / 2) == 2
+                && almacen.getJugador(TOTAL / 2) == vista && vista.getNombre().equals("Jugador" + (TOTAL / 2));
+        // Al quitar un jugador, el último ocupa su posición y su vista le sigue; la vista quitada conserva sus datos
+        Jugador ultimo = almacen.getJugador(TOTAL - 1);
+        almacen.quitar(TOTAL / 2);
+        correcto &= almacen.getJugador(TOTAL / 2) == ultimo && ultimo.getNombre().equals("Jugador" + (TOTAL - 1))
+                && vista.getPuntos() == puntos + 3 && almacen.getTotal() == TOTAL - 1;
+        Utilidades.escribirMensaje(correcto ? "OK: el almacén y los objetos dan los mismos resultados"
+                : "ERROR: el almacén de jugadores no coincide con los objetos");
+    }
+
+    /**
+     * Jugador con sus datos en el propio objeto, como era antes Jugador.
+     */
+    private static final class JugadorObjeto {
+        private final String nombre;
+        private final boolean humano;
+        private int puntos;
+        private int puntosRonda;
+        private int puntosPartida;
+
+        JugadorObjeto(String nombre, int puntos, boolean humano) {
+            this.nombre = nombre;
+            this.puntos = puntos;
+            this.humano = humano;
+        }
+
+        static String getGanador(JugadorObjeto[] jugadores) {
+            int max = -1;
+            StringBuilder ganador = new StringBuilder();
+            for (JugadorObjeto jugador : jugadores) {
+                if (jugador.puntosPartida > max) {
+                    max = jugador.puntosPartida;
+                    ganador = new StringBuilder(jugador.nombre);
+                } else if (jugador.puntosPartida == max) {
+                    ganador.append(" - ").append(jugador.nombre);
+                }
+            }
+            return ganador.toString();
+        }
+    }
+
+    /**
+     * Mide la actualización del ranking al terminar partidas de 4 jugadores, elegidos entre 100.000, y la lectura
+     * del ranking. Antes, en cada lote de partidas se leía ranking.txt, se creaba un mapa con todos sus jugadores,
+     * se ordenaba y se volvía a escribir el fichero; ahora el ranking está en memoria y cada jugador se recoloca
+     * en O(log n). Comprueba que el ranking en memoria coincide con ordenar todas las puntuaciones.
+     */
+    public static void benchmarkRanking() {
+        final int JUGADORES = 100_000, PARTIDAS = 20_000, TAM_PARTIDA = 4;
+        SplittableRandom rnd = new SplittableRandom(3);
+        int[] puntos = new int[JUGADORES];
+        String[] listas = new String[PARTIDAS];
+        for (int p = 0; p < PARTIDAS; p++) {
+            StringBuilder lista = new StringBuilder();
+            for (int j = 0; j < TAM_PARTIDA; j++) {
+                int jugador = rnd.nextInt(JUGADORES);
+                puntos[jugador] += rnd.nextInt(4);
+                lista.append("J").append(jugador).append("    \t").append(puntos[jugador]).append('\n');
+            }
+            listas[p] = lista.toString();
+        }
+
+        // Como antes: leer, ordenar y escribir el fichero en cada partida
+        File fichero;
+        try {
+            fichero = File.createTempFile("ranking", ".txt");
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        fichero.deleteOnExit();
+        final int PARTIDAS_ANTES = 2_000;
+        long inicio = System.nanoTime();
+        for (int p = 0; p < PARTIDAS_ANTES; p++) {
+            try {
+                String global = Files.readString(fichero.toPath());
+                Files.writeString(fichero.toPath(), rankingComoAntes(listas[p], global));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        double usAntes = (System.nanoTime() - inicio) / 1e3 / PARTIDAS_ANTES;
+
+        // Ahora: ranking en memoria a través de GestorRanking (los cambios se añaden al diario del ranking)
+        inicio = System.nanoTime();
+        for (int p = 0; p < PARTIDAS; p++) {
+            GestorRanking.actualizarRanking(List.of(listas[p]));
+        }
+        double usAhora = (System.nanoTime() - inicio) / 1e3 / PARTIDAS;
+
+        inicio = System.nanoTime();
+        final int LECTURAS = 100_000;
+        for (int i = 0; i < LECTURAS; i++) {
+            sumidero += GestorRanking.leerFicheroRanking().length();
+        }
+        double nsLectura = (double) (System.nanoTime() - inicio) / LECTURAS;
+        long bytesAntes = fichero.length();
+        Utilidades.escribirMensaje(String.format("Actualizar el ranking tras una partida: antes %.1f µs (fichero de "
+                + "%d bytes), ahora %.1f µs. Leer el ranking: %.0f ns", usAntes, bytesAntes, usAhora, nsLectura));
+
+        // Comprobación: todas las partidas en un ranking nuevo, frente a ordenar todas las puntuaciones
+        RankingDiccionario rd = new RankingDiccionario("");
+        for (String lista : listas) {
+            rd.actualizar(lista);
+        }
+        List<String> nombres = new ArrayList<>();
+        for (int j = 0; j < JUGADORES; j++) {
+            if (rd.contieneJugador("J" + j)) {
+                nombres.add("j" + j);
+            }
+        }
+        nombres.sort((a, b) -> puntos[Integer.parseInt(a.substring(1))] != puntos[Integer.parseInt(b.substring(1))]
+                ? Integer.compare(puntos[Integer.parseInt(b.substring(1))], puntos[Integer.parseInt(a.substring(1))])
+                : a.compareTo(b));
+        StringBuilder esperado = new StringBuilder();
+        for (int i = 0; i < Math.min(nombres.size(), LectorProperties.getTamRanking()); i++) {
+            int jugador = Integer.parseInt(nombres.get(i).substring(1));
+            esperado.append(Utilidades.rellenarConBlancos("J" + jugador, Constantes.TAM_MAX_NOMBRE_JUGADOR))
+                    .append('\t').append(puntos[jugador]).append('\n');
+        }
+        boolean correcto = rd.getRankingOrdenado().equals(esperado.toString())
+                && rd.getTotalJugadores() == nombres.size();
+        String primero = nombres.get(0);
+        correcto &= rd.eliminarJugador(primero.toUpperCase()) && !rd.contieneJugador(primero)
+                && !rd.getRankingOrdenado().contains("J" + primero.substring(1) + " ");
+        Utilidades.escribirMensaje(correcto ? "OK: el ranking en memoria coincide con ordenar todas las puntuaciones"
+                : "ERROR: el ranking en memoria no coincide con ordenar todas las puntuaciones");
+    }
+
+    /**
+     * Mide las consultas de posición sobre un ranking de 1.000.000 de jugadores: posición de un jugador,
+     * jugadores que tiene alrededor y un rango de posiciones, frente a ordenar todo el ranking para responder
+     * una consulta, que era la única forma de saber la posición de un jugador fuera de los primeros. Después
+     * de cambiar los puntos de 100.000 jugadores, comprueba las posiciones de 2.000 jugadores al azar contra el
+     * ranking ordenado.
+     */
+    public static void benchmarkPosicionesRanking() {
+        final int JUGADORES = 1_000_000, CONSULTAS = 200_000;
+        SplittableRandom rnd = new SplittableRandom(11);
+        int[] puntos = new int[JUGADORES];
+        RankingDiccionario rd = new RankingDiccionario("");
+        long inicio = System.nanoTime();
+        for (int j = 0; j < JUGADORES; j++) {
+            puntos[j] = rnd.nextInt(5000);
+            rd.actualizar("J" + j, puntos[j]);
+        }
+        double sCarga = (System.nanoTime() - inicio) / 1e9;
+        inicio = System.nanoTime();
+        for (int i = 0; i < 100_000; i++) {
+            int j = rnd.nextInt(JUGADORES);
+            puntos[j] += rnd.nextInt(-3, 10);
+            rd.actualizar("J" + j, puntos[j]);
+        }
+        double usCambio = (System.nanoTime() - inicio) / 1e3 / 100_000;
+
+        String[] nombres = new String[CONSULTAS];
+        for (int i = 0; i < CONSULTAS; i++) {
+            nombres[i] = "j" + rnd.nextInt(JUGADORES);
+        }
+        long suma = 0;
+        inicio = System.nanoTime();
+        for (String nombre : nombres) {
+            suma += rd.getPosicion(nombre);
+        }
+        double usPosicion = (System.nanoTime() - inicio) / 1e3 / CONSULTAS;
+        inicio = System.nanoTime();
+        for (int i = 0; i < CONSULTAS / 10; i++) {
+            suma += rd.getPuestosAlrededor(nombres[i], Constantes.PUESTOS_ALREDEDOR_RANKING).size();
+        }
+        double usAlrededor = (System.nanoTime() - inicio) / 1e3 / (CONSULTAS / 10);
+        inicio = System.nanoTime();
+        for (int i = 0; i < CONSULTAS / 10; i++) {
+            int desde = rnd.nextInt(1, JUGADORES);
+            suma += rd.getPuestos(desde, desde + 19).size();
+        }
+        double usRango = (System.nanoTime() - inicio) / 1e3 / (CONSULTAS / 10);
+
+        // Ordenar todo para una consulta, como habría que hacer sin el índice
+        Integer[] orden = new Integer[JUGADORES];
+        inicio = System.nanoTime();
+        for (int j = 0; j < JUGADORES; j++) {
+            orden[j] = j;
+        }
+        Arrays.sort(orden, (a, b) -> puntos[a] != puntos[b] ? Integer.compare(puntos[b], puntos[a])
+                : ("j" + a).compareTo("j" + b));
+        double msOrdenar = (System.nanoTime() - inicio) / 1e6;
+        sumidero = suma;
+        Utilidades.escribirMensaje(String.format("%d jugadores cargados en %.1f s; cambiar los puntos de un jugador: "
+                + "%.2f µs", JUGADORES, sCarga, usCambio));
+        Utilidades.escribirMensaje(String.format("Posición de un jugador: %.2f µs. Jugadores alrededor: %.2f µs. "
+                + "Rango de 20 posiciones: %.2f µs. Ordenar el ranking para una consulta: %.0f ms", usPosicion,
+                usAlrededor, usRango, msOrdenar));
+
+        int[] posicionDe = new int[JUGADORES];
+        for (int p = 0; p < JUGADORES; p++) {
+            posicionDe[orden[p]] = p + 1;
+        }
+        boolean correcto = rd.getTotalJugadores() == JUGADORES;
+        for (int i = 0; i < 2_000 && correcto; i++) {
+            int j = rnd.nextInt(JUGADORES);
+            int p = posicionDe[j];
+            correcto = rd.getPosicion("J" + j) == p;
+            List<RankingDiccionario.Puesto> alrededor = rd.getPuestosAlrededor("J" + j, 2);
+            for (RankingDiccionario.Puesto puesto : alrededor) {
+                int otro = Integer.parseInt(puesto.getNombre().substring(1));
+                correcto &= posicionDe[otro] == puesto.getPosicion() && puntos[otro] == puesto.getPuntos();
+            }
+            correcto &= alrededor.size() == Math.min(p + 2, JUGADORES) - Math.max(p - 2, 1) + 1;
+            // Los jugadores por delante con esos puntos son los de las posiciones anteriores con más puntos
+            int porDelante = rd.contarPorDelante(puntos[j]);
+            correcto &= porDelante <= p - 1 && (porDelante == 0 || puntos[orden[porDelante - 1]] > puntos[j])
+                    && puntos[orden[porDelante]] == puntos[j];
+        }
+        correcto &= rd.getPuestos(JUGADORES - 1, JUGADORES + 5).size() == 2 && rd.getPosicion("nadie") == 0
+                && rd.getPuestosAlrededor("nadie", 2).isEmpty();
+        Utilidades.escribirMensaje(correcto ? "OK: las posiciones coinciden con el ranking ordenado"
+                : "ERROR: alguna posición no coincide con el ranking ordenado");
+    }
+
+    /**
+     * Mide lo que cuesta guardar el ranking al terminar cada partida con el diario (se añaden al final las líneas
+     * de los jugadores de la partida) frente a reescribir el fichero con todos los jugadores, con un ranking que
+     * llega a 200.000 jugadores. Por el camino el diario se compacta en segundo plano cada
+     * Constantes.MAX_LINEAS_DIARIO_RANKING líneas. Comprueba que al volver a leer la foto y el diario se
+     * obtiene el mismo ranking, también después de compactar a mano y con una última línea del diario cortada.
+     */
+    public static void benchmarkDiarioRanking() {
+        final int JUGADORES = 200_000, PARTIDAS = 100_000, TAM_PARTIDA = 4;
+        SplittableRandom rnd = new SplittableRandom(5);
+        int[] puntos = new int[JUGADORES];
+        long bytesAntes = new File(Constantes.RANKING_PATH).length();
+        long inicio = System.nanoTime();
+        for (int p = 0; p < PARTIDAS; p++) {
+            StringBuilder lista = new StringBuilder();
+            for (int j = 0; j < TAM_PARTIDA; j++) {
+                int jugador = rnd.nextInt(JUGADORES);
+                puntos[jugador] += rnd.nextInt(1, 4);
+                lista.append("J").append(jugador).append('\t').append(puntos[jugador]).append('\n');
+            }
+            GestorRanking.actualizarRanking(List.of(lista.toString()));
+        }
+        double usDiario = (System.nanoTime() - inicio) / 1e3 / PARTIDAS;
+        GestorRanking.esperarCompactacion();
+        long bytesDiario = new File(Constantes.RANKING_DIARIO_PATH).length();
+
+        // Como antes: reescribir el fichero con todos los jugadores en cada partida
+        List<RankingDiccionario.Puesto> todos = GestorRanking.getPuestos(1, Integer.MAX_VALUE);
+        final int REESCRITURAS = 20;
+        File fichero;
+        try {
+            fichero = File.createTempFile("ranking", ".txt");
+            fichero.deleteOnExit();
+            inicio = System.nanoTime();
+            for (int i = 0; i < REESCRITURAS; i++) {
+                try (BufferedWriter escritor = new BufferedWriter(new FileWriter(fichero))) {
+                    for (RankingDiccionario.Puesto puesto : todos) {
+                        escritor.write(puesto.getNombre() + "\t" + puesto.getPuntos() + "\n");
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        double usReescribir = (System.nanoTime() - inicio) / 1e3 / REESCRITURAS;
+        Utilidades.escribirMensaje(String.format("Guardar el ranking tras una partida (%d jugadores en el ranking): "
+                        + "diario %.1f µs, reescribir el fichero %.0f µs (%d KB)", todos.size(), usDiario,
+                usReescribir, fichero.length() / 1024));
+        Utilidades.escribirMensaje(String.format("Foto inicial: %d bytes. Diario al terminar: %d KB",
+                bytesAntes, bytesDiario / 1024));
+
+        // Volver a leer la foto y el diario
+        boolean correcto = todos.size() > 0;
+        GestorRanking.recargar();
+        inicio = System.nanoTime();
+        correcto &= mismosPuestos(todos, GestorRanking.getPuestos(1, Integer.MAX_VALUE));
+        double msCarga = (System.nanoTime() - inicio) / 1e6;
+        GestorRanking.compactar(true);
+        correcto &= new File(Constantes.RANKING_DIARIO_PATH).length() == 0
+                && !new File(Constantes.RANKING_DIARIO_COMPACTANDO_PATH).exists();
+        GestorRanking.eliminarJugadorRanking(todos.get(0).getNombre());
+        GestorRanking.actualizarRanking(List.of("J0\t" + (puntos[0] + 1000)));
+        List<RankingDiccionario.Puesto> despues = GestorRanking.getPuestos(1, Integer.MAX_VALUE);
+        GestorRanking.cerrar();
+        try {
+            Files.writeString(Path.of(Constantes.RANKING_DIARIO_PATH), "P J1", StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        GestorRanking.recargar();
+        correcto &= mismosPuestos(despues, GestorRanking.getPuestos(1, Integer.MAX_VALUE))
+                && GestorRanking.getPosicionJugador("J0") == 1
+                && GestorRanking.getPosicionJugador(todos.get(0).getNombre()) == 0;
+        Utilidades.escribirMensaje(String.format("Leer la foto y el diario al arrancar: %.0f ms", msCarga));
+        Utilidades.escribirMensaje(correcto ? "OK: el ranking leído de la foto y el diario es el mismo"
+                : "ERROR: el ranking leído de la foto y el diario no coincide");
+    }
+
+    /**
+     * Mide los rankings del último día y de la última semana con ocho semanas de partidas jugadas hora a hora
+     * (200 partidas de 4 jugadores por hora, entre 50.000 jugadores): la primera lectura después de cada cambio
+     * en la primera semana y en la última, frente a calcularlos recorriendo todo lo jugado, como haría un
+     * histórico. Comprueba que los primeros jugadores coinciden con los del recorrido, que siguen igual al volver
+     * a leer la foto y el diario y después de compactar, que los puntos caducan al pasar el periodo y que los
+     * identificadores de los jugadores eliminados o sin puntos en la semana se liberan.
+     */
+    public static void benchmarkVentanasRanking() {
+        final int JUGADORES = 50_000, SEMANAS = 8, PARTIDAS_HORA = 200, TAM_PARTIDA = 4, PRIMEROS = 10;
+        final int HORAS = SEMANAS * RankingVentanas.TOTAL_HORAS;
+        // 1 de enero de 2025
+        final long HORA_INICIAL = 20089 * 24;
+        SplittableRandom rnd = new SplittableRandom(11);
+        int[] puntos = new int[JUGADORES];
+        // Lo jugado: hora, jugador y puntos ganados en cada partida
+        int totalHistorial = 0;
+        int[] horaHistorial = new int[HORAS * PARTIDAS_HORA * TAM_PARTIDA];
+        int[] jugadorHistorial = new int[horaHistorial.length];
+        int[] puntosHistorial = new int[horaHistorial.length];
+
+        long[] nsLectura = new long[2];
+        int[] lecturas = new int[2];
+        long nsComprobar = 0;
+        boolean correcto = true;
+        long inicio = System.nanoTime();
+        for (int h = 0; h < HORAS; h++) {
+            GestorRanking.setReloj(Clock.fixed(Instant.ofEpochSecond((HORA_INICIAL + h) * 3600), ZoneOffset.UTC));
+            List<String> listas = new ArrayList<>();
+            Map<String, Integer> ganados = new HashMap<>();
+            for (int p = 0; p < PARTIDAS_HORA; p++) {
+                StringBuilder lista = new StringBuilder();
+                for (int j = 0; j < TAM_PARTIDA; j++) {
+                    int jugador = rnd.nextInt(JUGADORES);
+                    int ganado = rnd.nextInt(4);
+                    puntos[jugador] += ganado;
+                    lista.append("J").append(jugador).append('\t').append(puntos[jugador]).append('\n');
+                    if (ganado > 0) {
+                        ganados.merge("J" + jugador, ganado, Integer::sum);
+                        horaHistorial[totalHistorial] = h;
+                        jugadorHistorial[totalHistorial] = jugador;
+                        puntosHistorial[totalHistorial++] = ganado;
+                    }
+                }
+                listas.add(lista.toString());
+            }
+            GestorRanking.actualizarRanking(listas, ganados);
+
+            // Último día de la primera semana y de la última: la primera lectura tras el cambio no está guardada
+            int semana = h / RankingVentanas.TOTAL_HORAS;
+            if ((semana == 0 || semana == SEMANAS - 1) && h % RankingVentanas.TOTAL_HORAS >= 6 * 24) {
+                int i = semana == 0 ? 0 : 1;
+                long t = System.nanoTime();
+                List<RankingDiccionario.Puesto> dia = GestorRanking.getPrimeros(RankingVentanas.Periodo.DIA, PRIMEROS);
+                List<RankingDiccionario.Puesto> semanal = GestorRanking.getPrimeros(RankingVentanas.Periodo.SEMANA,
+                        PRIMEROS);
+                nsLectura[i] += System.nanoTime() - t;
+                lecturas[i]++;
+                if (h % 24 == 23) {
+                    t = System.nanoTime();
+                    correcto &= textoPuestos(dia).equals(primerosRecorriendo(h, 24, PRIMEROS, totalHistorial,
+                            horaHistorial, jugadorHistorial, puntosHistorial));
+                    correcto &= textoPuestos(semanal).equals(primerosRecorriendo(h, RankingVentanas.TOTAL_HORAS,
+                            PRIMEROS, totalHistorial, horaHistorial, jugadorHistorial, puntosHistorial));
+                    nsComprobar += System.nanoTime() - t;
+                }
+            }
+        }
+        double sPartidas = (System.nanoTime() - inicio - nsComprobar) / 1e9;
+        GestorRanking.esperarCompactacion();
+
+        // Recorriendo todo lo jugado, al final de las ocho semanas
+        final int RECORRIDOS = 5;
+        inicio = System.nanoTime();
+        for (int i = 0; i < RECORRIDOS; i++) {
+            sumidero += primerosRecorriendo(HORAS - 1, RankingVentanas.TOTAL_HORAS, PRIMEROS, totalHistorial,
+                    horaHistorial, jugadorHistorial, puntosHistorial).length();
+        }
+        double msRecorrer = (System.nanoTime() - inicio) / 1e6 / RECORRIDOS;
+        inicio = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            sumidero += GestorRanking.getPrimeros(RankingVentanas.Periodo.SEMANA, PRIMEROS).size();
+        }
+        double usGuardado = (System.nanoTime() - inicio) / 1e3 / 1000;
+        Utilidades.escribirMensaje(String.format("%d horas de partidas (%d aciertos anotados) en %.1f s",
+                HORAS, totalHistorial, sPartidas));
+        Utilidades.escribirMensaje(String.format("Rankings del día y de la semana tras cada cambio: %.2f ms en la "
+                        + "semana 1, %.2f ms en la semana %d; ya calculados: %.2f µs",
+                nsLectura[0] / 1e6 / lecturas[0], nsLectura[1] / 1e6 / lecturas[1], SEMANAS, usGuardado));
+        Utilidades.escribirMensaje(String.format("Ranking de la semana recorriendo todo lo jugado: %.1f ms",
+                msRecorrer));
+
+        // Volver a leer la foto, las ventanas y el diario, y después de compactar
+        List<RankingDiccionario.Puesto> dia = GestorRanking.getPrimeros(RankingVentanas.Periodo.DIA, 100);
+        List<RankingDiccionario.Puesto> semanal = GestorRanking.getPrimeros(RankingVentanas.Periodo.SEMANA, 100);
+        GestorRanking.recargar();
+        correcto &= textoPuestos(dia).equals(textoPuestos(GestorRanking.getPrimeros(RankingVentanas.Periodo.DIA, 100)))
+                && textoPuestos(semanal).equals(textoPuestos(GestorRanking.getPrimeros(RankingVentanas.Periodo.SEMANA,
+                100)));
+        GestorRanking.compactar(true);
+        GestorRanking.recargar();
+        correcto &= textoPuestos(semanal).equals(textoPuestos(GestorRanking.getPrimeros(RankingVentanas.Periodo.SEMANA,
+                100))) && new File(Constantes.RANKING_VENTANAS_PATH).exists();
+
+        // Un jugador eliminado sale de los periodos; al pasar un día y una semana, los puntos caducan
+        String primero = semanal.get(0).getNombre();
+        GestorRanking.eliminarJugadorRanking(primero);
+        correcto &= GestorRanking.getPrimeros(RankingVentanas.Periodo.SEMANA, 100).stream()
+                .noneMatch(puesto -> puesto.getNombre().equals(primero));
+        GestorRanking.setReloj(Clock.fixed(Instant.ofEpochSecond((HORA_INICIAL + HORAS - 1 + 24) * 3600),
+                ZoneOffset.UTC));
+        correcto &= GestorRanking.getPrimeros(RankingVentanas.Periodo.DIA, 100).isEmpty()
+                && !GestorRanking.getPrimeros(RankingVentanas.Periodo.SEMANA, 100).isEmpty();
+        GestorRanking.setReloj(Clock.fixed(Instant.ofEpochSecond((HORA_INICIAL + HORAS - 1 + 7 * 24) * 3600),
+                ZoneOffset.UTC));
+        correcto &= GestorRanking.getPrimeros(RankingVentanas.Periodo.SEMANA, 100).isEmpty();
+        correcto &= identificadoresLiberados();
+        GestorRanking.setReloj(Clock.systemUTC());
+        Utilidades.escribirMensaje(correcto ? "OK: los rankings por periodos coinciden con los de recorrer lo jugado"
+                : "ERROR: algún ranking por periodos no coincide con el de recorrer lo jugado");
+    }
+
+    /**
+     * Los identificadores de los rankings por periodos se liberan al eliminar a un jugador y al caducar todas sus
+     * horas, y se reutilizan para los jugadores nuevos.
+     */
+    private static boolean identificadoresLiberados() {
+        RankingVentanas rv = new RankingVentanas();
+        rv.sumar("Uno", 5, 0);
+        rv.sumar("Dos", 3, 10);
+        boolean correcto = rv.getTotalJugadores() == 2;
+        // En la hora 168 caduca la hora 0, y con ella "Uno"
+        rv.sumar("Tres", 1, RankingVentanas.TOTAL_HORAS);
+        correcto &= rv.getTotalJugadores() == 2;
+        correcto &= rv.eliminarJugador("dos") && rv.getTotalJugadores() == 1;
+        rv.sumar("Cuatro", 2, RankingVentanas.TOTAL_HORAS);
+        rv.sumar("Cinco", 4, RankingVentanas.TOTAL_HORAS);
+        List<RankingDiccionario.Puesto> primeros = rv.getPrimeros(RankingVentanas.Periodo.DIA, 10,
+                RankingVentanas.TOTAL_HORAS);
+        return correcto && rv.getTotalJugadores() == 3
+                && textoPuestos(primeros).equals("Cinco 4 Cuatro 2 Tres 1 ");
+    }
+
+    /**
+     * Primeros jugadores de un periodo recorriendo todo lo jugado, como "nombre puntos" separados por espacios.
+     */
+    private static String primerosRecorriendo(int horaActual, int horas, int primeros, int total, int[] hora,
+                                              int[] jugador, int[] puntos) {
+        Map<Integer, Integer> suma = new HashMap<>();
+        for (int i = 0; i < total; i++) {
+            if (hora[i] > horaActual - horas && hora[i] <= horaActual) {
+                suma.merge(jugador[i], puntos[i], Integer::sum);
+            }
+        }
+        List<Map.Entry<Integer, Integer>> ordenada = new ArrayList<>(suma.entrySet());
+        ordenada.sort((a, b) -> !a.getValue().equals(b.getValue()) ? b.getValue().compareTo(a.getValue())
+                : ("j" + a.getKey()).compareTo("j" + b.getKey()));
+        StringBuilder txt = new StringBuilder();
+        for (int i = 0; i < ordenada.size() && i < primeros; i++) {
+            txt.append("J").append(ordenada.get(i).getKey()).append(' ').append(ordenada.get(i).getValue()).append(' ');
+        }
+        return txt.toString();
+    }
+
+    private static String textoPuestos(List<RankingDiccionario.Puesto> puestos) {
+        StringBuilder txt = new StringBuilder();
+        for (RankingDiccionario.Puesto puesto : puestos) {
+            txt.append(puesto.getNombre()).append(' ').append(puesto.getPuntos()).append(' ');
+        }
+        return txt.toString();
+    }
+
+    private static boolean mismosPuestos(List<RankingDiccionario.Puesto> a, List<RankingDiccionario.Puesto> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (!a.get(i).getNombre().equals(b.get(i).getNombre()) || a.get(i).getPuntos() != b.get(i).getPuntos()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Ranking calculado como lo hacía RankingDiccionario antes de estar en memoria: mapa con el ranking anterior
+     * y la partida, y ordenación de todas sus entradas.
+     */
+    private static String rankingComoAntes(String rankingPartida, String rankingGlobal) {
+        Map<String, Integer> mapa = new HashMap<>();
+        String[] trozos = rankingGlobal.concat(" ").concat(rankingPartida).trim().split("\\s+");
+        for (int i = 0; i + 1 < trozos.length; i += 2) {
+            mapa.put(trozos[i], Integer.valueOf(trozos[i + 1]));
+        }
+        List<Map.Entry<String, Integer>> ordenada = new ArrayList<>(mapa.entrySet());
+        ordenada.sort((a, b) -> b.getValue().compareTo(a.getValue()));
+        String ranking = "";
+        for (int i = 0; i < ordenada.size() && i < LectorProperties.getTamRanking(); i++) {
+            ranking = ranking.concat(Utilidades.rellenarConBlancos(ordenada.get(i).getKey(),
+                    Constantes.TAM_MAX_NOMBRE_JUGADOR) + "\t" + ordenada.get(i).getValue() + "\n");
+        }
+        return ranking;
+    }
+
+    // Resultado de las tareas medidas, para que el compilador no elimine el cálculo
+    private static volatile long sumidero;
+
+    /**
+     * Ejecuta la misma tarea en varios hilos a la vez.
+     * @return Millones de números por segundo entre todos los hilos.
+     */
+    private static double medirHilos(int hilos, int numerosPorHilo, LongSupplier tarea) {
+        CountDownLatch salida = new CountDownLatch(1);
+        AtomicLong control = new AtomicLong();
+        List<Thread> lanzados = new ArrayList<>();
+        for (int i = 0; i < hilos; i++) {
+            lanzados.add(Thread.ofPlatform().start(() -> {
+                try {
+                    salida.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                control.addAndGet(tarea.getAsLong());
+            }));
+        }
+        long inicio = System.nanoTime();
+        salida.countDown();
+        for (Thread hilo : lanzados) {
+            try {
+                hilo.join();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        long nanos = System.nanoTime() - inicio;
+        sumidero = control.get();
+        return (double) hilos * numerosPorHilo * 1e3 / nanos;
+    }
+
+    /**
+     * Mediana, percentil 99 y máximo de unas latencias.
+     */
+    private static String resumirLatencias(long[] nanos) {
+        if (nanos.length == 0) {
+            return "sin datos";
+        }
+        long[] ordenadas = nanos.clone();
+        Arrays.sort(ordenadas);
+        return String.format("mediana %.2f ms, p99 %.2f ms, máx %.2f ms", ordenadas[ordenadas.length / 2] / 1e6,
+                ordenadas[(int) (ordenadas.length * 0.99)] / 1e6, ordenadas[ordenadas.length - 1] / 1e6);
+    }
+}
@@ -1,101 +1,557 @@
-package tests;
-
-import config.Constantes;
-import config.LectorProperties;
-import datos.preguntas.PreguntaCronometro;
-import datos.preguntas.PreguntaGeografia;
-import datos.preguntas.PreguntaMasterMind;
-import datos.preguntas.Resultado;
-import gestion.*;
-import presentacion.Utilidades;
-
-/**
- * Clase principal de testeo de la aplicación.
- *
- * @author Sergio García Rodríguez
- */
-public class Tester {
-
-    /**
-     * Simula una partida rápida para pruebas automáticas.
-     * Carga lista de jugadores o crea dos jugadores, lanza una partida de 2 rondas y muestra los resultados.
-     * @throws JuegoException Si ocurre un error al crear jugadores.
-     */
-    public static void testRondaJuego() throws JuegoException {
-        LectorProperties.cargarProperties(); // Carga configuración del juego.
-        try {
-            GestorJugadoresFichero.cargarListaJugadores();
-        } catch (JuegoException e) {
-            // En caso de error con el fichero de jugadores o su contenido devolvemos la Exception a consola
-            throw new RuntimeException(e);
-        }
-
-        // Para probar con dos jugadores creados en este momento
-//        GestorJugadores gJ = GestorPartidas.crearGestorJugadores(2);
-//
-//        // Se crean dos jugadores (uno humano y uno CPU).
-//        Jugador j1 = gJ.crearJugador("", 1); // Humano
-//        Jugador j2 = gJ.crearJugador("", 2); // CPU
-
-        Utilidades.escribirMensaje(GestorPartidas.getGestorJugadores().getListaJugadores());
-
-        GestorPartidas.iniciarPartida(2); // Lanza una partida de 2 rondas
-
-        // Muestra resultados al final de la partida.
-        Utilidades.escribirMensaje("\n/*/*/*/*/*/*/*/*/*/*/*/");
-        Utilidades.escribirMensaje("GANADOR: " + GestorPartidas.getNombreGanador());
-        Utilidades.escribirMensaje(GestorPartidas.getGestorJugadores().getListaJugadores());
-        GestorJugadoresFichero.escribirFicheroJugadores(GestorPartidas.getGestorJugadores().getListaJugadores());
-    }
-
-    /**
-     * Lanza una prueba del algoritmo de juego Mastermind.
-     */
-    public static void testPreguntaMasterMind() {
-        PreguntaMasterMind pregM = new PreguntaMasterMind();
-        Utilidades.escribirMensaje("El número secreto es: " + pregM.getSolucion());
-
-        Resultado res;
-        for (int i = 0; i < Constantes.TOTAL_ITERACIONES_MASTERMIND; i++) {
-            res = pregM.comprobarRespuesta(
-                    Utilidades.preguntarNombre(pregM.getTextoPregunta(LectorProperties.isDebug()),
-                            LectorProperties.getTotalCifrasPregMasterMind(),
-                            LectorProperties.getTotalCifrasPregMasterMind())
-            );
-            Utilidades.escribirMensaje(res.getMensaje());
-            if (res.isAcertado()) {
-                // Fuerzo a que salga del bucle.
-                i = Constantes.TOTAL_ITERACIONES_MASTERMIND;
-            }
-        }
-        Utilidades.escribirMensaje("Solución: " + pregM.getSolucion());
-        Utilidades.escribirMensaje("Fin de la prueba Mastermind");
-    }
-
-    /**
-     * Lanza una prueba del juego Historia.
-     */
-    public static void testGeografia() {
-        PreguntaGeografia preg = new PreguntaGeografia();
-        GestorLog.escribirMensaje("Pregunta de Geografía: " + preg.getTextoPregunta(true));
-        Resultado res = preg.comprobarRespuesta(
-                    Utilidades.preguntarChar(preg.getTextoPregunta(LectorProperties.isDebug())));
-        Utilidades.escribirMensaje(res.getMensaje());
-    }
-
-    /**
-     * Lanza una prueba del juego Cronómetro.
-     */
-    public static void testCronometro() {
-        int totalSegs = Utilidades.getRandom(Constantes.MIN_SEGUNDOS_CRONOMETRO, Constantes.MAX_SEGUNDOS_CRONOMETRO);
-
-        PreguntaCronometro preg = new PreguntaCronometro(totalSegs);
-        Utilidades.escribirMensaje("Pregunta de Cronómetro. Una vez pulses enter, tienes que esperar "
-                + totalSegs + " segundos y pulsar enter de nuevo. Yo contaré el tiempo...");
-        Utilidades.recogerIntro();
-        Utilidades.escribirMensaje(preg.getTextoPregunta(false));
-        Utilidades.recogerIntro();
-        Resultado res = preg.comprobarRespuesta("");
-        Utilidades.escribirMensaje(res.getMensaje());
-    }
-}
+package tests;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import net.objecthunter.exp4j.ExpressionBuilder;
+
+import config.Constantes;
+import config.LectorProperties;
+import datos.geografia.CatalogoCiudades;
+import datos.geografia.PaqueteCiudades;
+import datos.jugadores.Jugador;
+import datos.preguntas.HistogramaErrores;
+import datos.preguntas.PreguntaCronometro;
+import datos.preguntas.PreguntaGeografia;
+import datos.preguntas.PreguntaMasterMind;
+import datos.preguntas.PreguntaMates;
+import datos.preguntas.Resultado;
+import gestion.*;
+import presentacion.ServidorTexto;
+import presentacion.Utilidades;
+
+/**
+ * Clase principal de testeo de la aplicación.
+ *
+ * @author Sergio García Rodríguez
+ */
+public class Tester {
+
+    /**
+     * Simula una partida rápida para pruebas automáticas.
+     * Carga lista de jugadores o crea dos jugadores, lanza una partida de 2 rondas y muestra los resultados.
+     * @throws JuegoException Si ocurre un error al crear jugadores.
+     */
+    public static void testRondaJuego() throws JuegoException {
+        LectorProperties.cargarProperties(); // Carga configuración del juego.
+        try {
+            GestorJugadoresFichero.cargarListaJugadores();
+        } catch (JuegoException e) {
+            // En caso de error con el fichero de jugadores o su contenido devolvemos la Exception a consola
+            throw new RuntimeException(e);
+        }
+
+        // Para probar con dos jugadores creados en este momento
+//        GestorJugadores gJ = GestorPartidas.crearGestorJugadores(2);
+//
+//        // Se crean dos jugadores (uno humano y uno CPU).
+//        Jugador j1 = gJ.crearJugador("", 1); // Humano
+//        Jugador j2 = gJ.crearJugador("", 2); // CPU
+
+        Utilidades.escribirMensaje(GestorPartidas.getGestorJugadores().getListaJugadores());
+
+        GestorPartidas.iniciarPartida(2); // Lanza una partida de 2 rondas
+
+        // Muestra resultados al final de la partida.
+        Utilidades.escribirMensaje("\n/*/*/*/*/*/*/*/*/*/*/*/");
+        Utilidades.escribirMensaje("GANADOR: " + GestorPartidas.getNombreGanador());
+        Utilidades.escribirMensaje(GestorPartidas.getGestorJugadores().getListaJugadores());
+        GestorJugadoresFichero.escribirFicheroJugadores(GestorPartidas.getGestorJugadores().getListaJugadores());
+    }
+
+    /**
+     * Lanza una prueba del algoritmo de juego Mastermind.
+     */
+    public static void testPreguntaMasterMind() {
+        PreguntaMasterMind pregM = new PreguntaMasterMind();
+        Utilidades.escribirMensaje("El número secreto es: " + pregM.getSolucion());
+
+        Resultado res;
+        for (int i = 0; i < Constantes.TOTAL_ITERACIONES_MASTERMIND; i++) {
+            res = pregM.comprobarRespuesta(
+                    Utilidades.preguntarNombre(pregM.getTextoPregunta(LectorProperties.isDebug()),
+                            LectorProperties.getTotalCifrasPregMasterMind(),
+                            LectorProperties.getTotalCifrasPregMasterMind())
+            );
+            Utilidades.escribirMensaje(res.getMensaje());
+            if (res.isAcertado()) {
+                // Fuerzo a que salga del bucle.
+                i = Constantes.TOTAL_ITERACIONES_MASTERMIND;
+            }
+        }
+        Utilidades.escribirMensaje("Solución: " + pregM.getSolucion());
+        Utilidades.escribirMensaje("Fin de la prueba Mastermind");
+    }
+
+    /**
+     * Lanza una prueba del juego Historia.
+     */
+    public static void testGeografia() {
+        PreguntaGeografia preg = new PreguntaGeografia();
+        GestorLog.escribirMensaje("Pregunta de Geografía: " + preg.getTextoPregunta(true));
+        Resultado res = preg.comprobarRespuesta(
+                    Utilidades.preguntarChar(preg.getTextoPregunta(LectorProperties.isDebug())));
+        Utilidades.escribirMensaje(res.getMensaje());
+    }
+
+    /**
+     * Lanza una prueba del juego Cronómetro.
+     */
+    public static void testCronometro() {
+        int totalSegs = Utilidades.getRandom(Constantes.MIN_SEGUNDOS_CRONOMETRO, Constantes.MAX_SEGUNDOS_CRONOMETRO);
+
+        PreguntaCronometro preg = new PreguntaCronometro(totalSegs);
+        Utilidades.escribirMensaje("Pregunta de Cronómetro. Una vez pulses enter, tienes que esperar "
+                + totalSegs + " segundos y pulsar enter de nuevo. Yo contaré el tiempo...");
+        Utilidades.recogerIntro();
+        Utilidades.escribirMensaje(preg.getTextoPregunta(false));
+        Utilidades.recogerIntro();
+        Resultado res = preg.comprobarRespuesta("");
+        Utilidades.escribirMensaje(res.getMensaje());
+    }
+
+    /**
+     * Comprueba que crear preguntas de geografía no vuelve a leer el fichero de ciudades:
+     * el catálogo se carga una vez y todas las preguntas comparten la misma instancia.
+     */
+    public static void testCatalogoCiudades() {
+        final int TOTAL_PREGUNTAS = 10000;
+        CatalogoCiudades catalogo = CatalogoCiudades.getInstancia();
+        int cargasAntes = CatalogoCiudades.getTotalCargas();
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < TOTAL_PREGUNTAS; i++) {
+            new PreguntaGeografia();
+        }
+        long nanos = System.nanoTime() - inicio;
+
+        int cargasDespues = CatalogoCiudades.getTotalCargas();
+        boolean mismaInstancia = catalogo == CatalogoCiudades.getInstancia();
+        boolean sinRecarga = !CatalogoCiudades.recargarSiModificado();
+        Utilidades.escribirMensaje("Ciudades en catálogo: " + catalogo.getTotal());
+        Utilidades.escribirMensaje(TOTAL_PREGUNTAS + " preguntas creadas en " + nanos / 1_000_000 + " ms");
+        Utilidades.escribirMensaje("Lecturas del fichero durante la prueba: " + (cargasDespues - cargasAntes));
+        if (cargasDespues == cargasAntes && mismaInstancia && sinRecarga) {
+            Utilidades.escribirMensaje("OK: las preguntas no acceden al fichero de ciudades");
+        } else {
+            Utilidades.escribirMensaje("ERROR: el catálogo de ciudades se ha vuelto a cargar");
+        }
+    }
+
+    /**
+     * Convierte el fichero de ciudades a paquete binario, lo vuelve a cargar proyectado en memoria y
+     * comprueba que las ciudades son las mismas que las del fichero original.
+     */
+    public static void testPaqueteCiudades() {
+        try {
+            int total = PaqueteCiudades.convertir(Constantes.CIUDADES_PATH, Constantes.CIUDADES_PACK_PATH);
+            Utilidades.escribirMensaje(total + " ciudades escritas en " + Constantes.CIUDADES_PACK_PATH);
+            CatalogoCiudades original = CatalogoCiudades.leer(Constantes.CIUDADES_PATH);
+            CatalogoCiudades paquete = CatalogoCiudades.leer(Constantes.CIUDADES_PACK_PATH);
+
+            int diferencias = Math.abs(original.getTotal() - paquete.getTotal());
+            for (int i = 0; i < Math.min(original.getTotal(), paquete.getTotal()); i++) {
+                if (!original.getNombre(i).equals(paquete.getNombre(i))
+                        || original.getLatitud(i) != paquete.getLatitud(i)
+                        || original.getLongitud(i) != paquete.getLongitud(i)) {
+                    diferencias++;
+                }
+            }
+            if (diferencias == 0) {
+                Utilidades.escribirMensaje("OK: el paquete contiene las mismas ciudades que " + Constantes.CIUDADES_PATH);
+            } else {
+                Utilidades.escribirMensaje("ERROR: " + diferencias + " ciudades distintas en el paquete");
+            }
+        } catch (IOException e) {
+            Utilidades.escribirMensaje("ERROR al convertir el fichero de ciudades: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lanza a la vez muchas preguntas de cronómetro de jugadores CPU. Como las esperas se programan en el
+     * temporizador, el tiempo total debe ser el de la prueba más larga y no la suma de todas.
+     * Al final muestra el histograma de errores de cada jugador.
+     */
+    public static void testCronometroCPU() {
+        final int TOTAL_PREGUNTAS = 300;
+        final String[] JUGADORES = {"TestCPU1", "TestCPU2", "TestCPU3"};
+        PreguntaCronometro[] preguntas = new PreguntaCronometro[TOTAL_PREGUNTAS];
+        List<CompletableFuture<Resultado>> resultados = new ArrayList<>(TOTAL_PREGUNTAS);
+        HistogramasSesion histogramas = new HistogramasSesion();
+        long esperaTotal = 0;
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < TOTAL_PREGUNTAS; i++) {
+            preguntas[i] = new PreguntaCronometro(Utilidades.getRandom(Constantes.MIN_SEGUNDOS_CRONOMETRO, 2));
+            esperaTotal += preguntas[i].getTotalSegs();
+            resultados.add(GestorCronometro.programarRespuestaCPU(preguntas[i]));
+        }
+        int aciertos = 0;
+        for (int i = 0; i < TOTAL_PREGUNTAS; i++) {
+            if (resultados.get(i).join().isAcertado()) {
+                aciertos++;
+            }
+            histogramas.registrarError(JUGADORES[i % JUGADORES.length], preguntas[i].getErrorNanos());
+        }
+        long nanos = System.nanoTime() - inicio;
+
+        Utilidades.escribirMensaje(TOTAL_PREGUNTAS + " preguntas (" + esperaTotal + " s de espera en total) resueltas en "
+                + String.format("%.3f", nanos / 1e9) + " s. Aciertos de la CPU: " + aciertos);
+        for (String jugador : JUGADORES) {
+            HistogramaErrores h = histogramas.getHistograma(jugador);
+            Utilidades.escribirMensaje(jugador + ": " + h);
+        }
+        boolean enParalelo = nanos < 2 * (2_000_000_000L + Constantes.ERROR_MS_CPU_CRONOMETRO * 1_000_000L);
+        Utilidades.escribirMensaje(enParalelo ? "OK: las esperas de la CPU no se bloquean entre sí"
+                : "ERROR: las esperas de la CPU se han hecho una detrás de otra");
+    }
+
+    /**
+     * Resuelve miles de preguntas de cronómetro de la CPU con un reloj virtual: deben tardar milisegundos en
+     * tiempo real y el error medido debe ser exactamente el error de reacción programado: dentro del margen si
+     * la CPU intenta acertar (LectorProperties.isCpuIntentaCronometro()) y al menos un segundo antes de tiempo
+     * si no.
+     */
+    public static void testRelojVirtual() {
+        final int TOTAL_PREGUNTAS = 10_000;
+        RelojVirtual reloj = new RelojVirtual();
+        Reloj anterior = GestorCronometro.getReloj();
+        GestorCronometro.setReloj(reloj);
+        int aciertos = 0, inexactos = 0;
+        long inicio = System.nanoTime();
+        try {
+            for (int i = 0; i < TOTAL_PREGUNTAS; i++) {
+                PreguntaCronometro preg = new PreguntaCronometro(
+                        Utilidades.getRandom(Constantes.MIN_SEGUNDOS_CRONOMETRO, Constantes.MAX_SEGUNDOS_CRONOMETRO),
+                        GestorCronometro.getReloj());
+                if (GestorCronometro.programarRespuestaCPU(preg).join().isAcertado()) {
+                    aciertos++;
+                }
+                // El reloj virtual mide exactamente el retraso programado: milisegundos enteros dentro del margen
+                long error = preg.getErrorNanos();
+                boolean enMargen = LectorProperties.isCpuIntentaCronometro()
+                        ? Math.abs(error) <= Constantes.ERROR_MS_CPU_CRONOMETRO * 1_000_000L
+                        : error <= -1_000_000_000L;
+                if (error % 1_000_000 != 0 || !enMargen) {
+                    inexactos++;
+                }
+            }
+        } finally {
+            GestorCronometro.setReloj(anterior);
+        }
+        long nanos = System.nanoTime() - inicio;
+        Utilidades.escribirMensaje(TOTAL_PREGUNTAS + " preguntas: " + String.format("%.1f", reloj.nanoTime() / 3.6e12)
+                + " horas de tiempo virtual en " + nanos / 1_000_000 + " ms reales. Aciertos de la CPU: " + aciertos);
+        Utilidades.escribirMensaje(inexactos == 0 ? "OK: el reloj virtual mide exactamente los retrasos programados"
+                : "ERROR: " + inexactos + " tiempos no coinciden con el retraso programado");
+    }
+
+    /**
+     * Juega 10.000 partidas entre jugadores CPU a la vez, cada una en un hilo virtual con sus propios jugadores,
+     * generador de números aleatorios, reloj y canal. Con el reloj real, las esperas de las preguntas de
+     * cronómetro mantienen vivas muchas partidas al mismo tiempo. Comprueba que cada partida solo ve a sus
+     * jugadores y que sus puntos cuadran con sus aciertos, y que unas partidas con semilla fija y reloj virtual
+     * dan los mismos eventos jugadas solas que jugadas a la vez que las demás.
+     */
+    public static void testSesionesConcurrentes() {
+        final int TOTAL_SESIONES = 10_000, JUGADORES = 2, RONDAS = 3, CON_SEMILLA = 200;
+        CatalogoCiudades.recargarSiModificado();
+
+        // Referencia: las partidas con semilla jugadas de una en una
+        String[] referencia = new String[CON_SEMILLA];
+        for (int i = 0; i < CON_SEMILLA; i++) {
+            referencia[i] = jugarConSemilla(i, JUGADORES, RONDAS);
+        }
+
+        String[] repetidas = new String[CON_SEMILLA];
+        AtomicInteger activas = new AtomicInteger(), maxActivas = new AtomicInteger();
+        AtomicInteger incoherentes = new AtomicInteger(), errores = new AtomicInteger();
+        long inicio = System.nanoTime();
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < TOTAL_SESIONES; i++) {
+                int sesion = i;
+                hilos.submit(() -> {
+                    try {
+                        if (sesion < CON_SEMILLA) {
+                            repetidas[sesion] = jugarConSemilla(sesion, JUGADORES, RONDAS);
+                            return;
+                        }
+                        CanalEventos canal = new CanalEventos();
+                        Partida partida = Partida.crearPartidaCPU(JUGADORES, canal, RelojReal.getInstancia(),
+                                ThreadLocalRandom.current().nextLong());
+                        maxActivas.accumulateAndGet(activas.incrementAndGet(), Math::max);
+                        try {
+                            partida.jugar(RONDAS);
+                        } finally {
+                            activas.decrementAndGet();
+                        }
+                        if (!esCoherente(partida, canal, JUGADORES * RONDAS)) {
+                            incoherentes.incrementAndGet();
+                        }
+                    } catch (RuntimeException e) {
+                        if (errores.incrementAndGet() == 1) {
+                            Utilidades.escribirMensaje("Error en la partida " + sesion + ": " + e);
+                        }
+                    }
+                });
+            }
+        }
+        long nanos = System.nanoTime() - inicio;
+
+        int distintas = 0;
+        for (int i = 0; i < CON_SEMILLA; i++) {
+            if (!referencia[i].equals(repetidas[i])) {
+                distintas++;
+            }
+        }
+        Utilidades.escribirMensaje(TOTAL_SESIONES + " partidas en hilos virtuales en " + String.format("%.1f", nanos / 1e9)
+                + " s. Máximo de partidas a la vez: " + maxActivas.get());
+        Utilidades.escribirMensaje("Partidas incoherentes: " + incoherentes.get() + ". Errores: " + errores.get()
+                + ". Partidas con semilla distintas de la referencia: " + distintas + " de " + CON_SEMILLA);
+        Utilidades.escribirMensaje(incoherentes.get() == 0 && errores.get() == 0 && distintas == 0
+                ? "OK: las partidas no comparten estado" : "ERROR: las partidas se han interferido");
+    }
+
+    /**
+     * Juega una partida entre jugadores CPU con semilla fija y reloj virtual.
+     * @return Texto de todos los eventos de la partida.
+     */
+    private static String jugarConSemilla(long semilla, int jugadores, int rondas) {
+        CanalEventos canal = new CanalEventos();
+        Partida.crearPartidaCPU(jugadores, canal, new RelojVirtual(), semilla).jugar(rondas);
+        return canal.getEventos().toString();
+    }
+
+    /**
+     * Comprueba que los eventos de una partida son de sus jugadores y que sus puntos cuadran con los aciertos.
+     */
+    private static boolean esCoherente(Partida partida, CanalEventos canal, int respuestasEsperadas) {
+        Set<String> nombres = new HashSet<>();
+        int puntos = 0;
+        for (Jugador jugador : partida.getGestorJugadores().getJugadores()) {
+            nombres.add(jugador.getNombre());
+            puntos += jugador.getPuntosPartida();
+        }
+        int respuestas = 0, aciertos = 0;
+        for (EventoPartida evento : canal.getEventos()) {
+            if (evento.getTipo() == EventoPartida.Tipo.RESPUESTA) {
+                respuestas++;
+                if (!nombres.contains(evento.getJugador())) {
+                    return false;
+                }
+                if (evento.isAcertado()) {
+                    aciertos++;
+                }
+            }
+        }
+        return respuestas == respuestasEsperadas && puntos == aciertos * Constantes.PUNTOS_x_RESPUESTA;
+    }
+
+    /**
+     * Arranca el servidor de texto en el puerto de la configuración hasta que se pulse intro. Para jugar, hay
+     * que conectarse con "nc localhost 5555" o "telnet localhost 5555".
+     */
+    public static void testServidorTexto() {
+        LectorProperties.cargarProperties();
+        CatalogoCiudades.recargarSiModificado();
+        try (ServidorTexto servidor = new ServidorTexto(LectorProperties.getPuertoServidor())) {
+            Utilidades.escribirMensaje("Servidor escuchando en el puerto " + servidor.getPuerto()
+                    + ". Pulsa intro para pararlo.");
+            Utilidades.recogerIntro();
+            Utilidades.escribirMensaje("Conexiones atendidas: " + servidor.getTotalConexiones());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Compara el resultado calculado por PreguntaMates con el que da la librería exp4j al evaluar el
+     * texto de la operación, sobre un gran número de preguntas aleatorias.
+     */
+    public static void testMatesContraExp4j() {
+        final int TOTAL_PREGUNTAS = 200_000;
+        final double MAX_EXACTO = 1L << 53; // A partir de aquí exp4j (double) pierde precisión
+        int diferencias = 0, comparadas = 0;
+        long sumaDificultad = 0;
+        int dificultadMax = 0;
+        for (int i = 0; i < TOTAL_PREGUNTAS; i++) {
+            PreguntaMates preg = new PreguntaMates(0);
+            sumaDificultad += preg.getDificultad();
+            dificultadMax = Math.max(dificultadMax, preg.getDificultad());
+            double esperado = new ExpressionBuilder(preg.getOperacion()).build().evaluate();
+            if (Math.abs(esperado) < MAX_EXACTO) {
+                comparadas++;
+                if ((long) esperado != (long) preg.getSolucion()) {
+                    diferencias++;
+                    if (diferencias <= 5) {
+                        Utilidades.escribirMensaje("Diferencia: " + preg.getOperacion() + " = " + (long) esperado
+                                + " (exp4j) / " + preg.getSolucion());
+                    }
+                }
+            }
+        }
+        Utilidades.escribirMensaje("Operaciones comparadas con exp4j: " + comparadas + " de " + TOTAL_PREGUNTAS);
+        Utilidades.escribirMensaje("Dificultad media: " + (sumaDificultad / TOTAL_PREGUNTAS)
+                + " / máxima: " + dificultadMax);
+
+        // Con una dificultad objetivo, las preguntas deben quedar más cerca de ella que al azar
+        int objetivo = (int) (sumaDificultad / TOTAL_PREGUNTAS) / 2;
+        long desvioAzar = 0, desvioObjetivo = 0;
+        for (int i = 0; i < 10_000; i++) {
+            desvioAzar += Math.abs(new PreguntaMates(0).getDificultad() - objetivo);
+            desvioObjetivo += Math.abs(new PreguntaMates(objetivo).getDificultad() - objetivo);
+        }
+        Utilidades.escribirMensaje("Desvío medio respecto a la dificultad " + objetivo + ": "
+                + (desvioAzar / 10_000.0) + " (al azar) / " + (desvioObjetivo / 10_000.0) + " (con objetivo)");
+
+        if (diferencias == 0) {
+            Utilidades.escribirMensaje("OK: mismos resultados que exp4j");
+        } else {
+            Utilidades.escribirMensaje("ERROR: " + diferencias + " resultados distintos");
+        }
+        if (desvioObjetivo < desvioAzar) {
+            Utilidades.escribirMensaje("OK: la dificultad objetivo acerca las preguntas a ella");
+        } else {
+            Utilidades.escribirMensaje("ERROR: con dificultad objetivo las preguntas no se acercan más a ella que al azar");
+        }
+    }
+
+    /**
+     * Comprueba que las partidas se repiten exactamente a partir de su registro: partidas entre jugadores CPU
+     * con preguntas de las reservas y MasterMind con límite de tiempo, y una partida con un jugador humano
+     * (respuestas de guion) medido con el reloj real. El registro pasa por su forma de texto y la repetición
+     * debe dar los mismos eventos, los mismos mensajes y el mismo registro. Por último, dos simulaciones con
+     * la misma semilla deben dar las mismas estadísticas, y un registro con una sola respuesta vacía debe leerse
+     * con esa respuesta.
+     */
+    public static void testRepeticionPartidas() {
+        final int PARTIDAS = 300, JUGADORES = 3, RONDAS = 4;
+        CatalogoCiudades.recargarSiModificado();
+        int distintas = 0;
+        for (int i = 0; i < PARTIDAS; i++) {
+            GestorJugadores gJ = new GestorJugadores(JUGADORES);
+            try {
+                if (i % 10 == 0) {
+                    gJ.crearJugador("Humano" + i, i, 1);
+                }
+                for (int j = gJ.getTotalJugadoresHumanos(); j < JUGADORES; j++) {
+                    gJ.crearJugador("", 0, 2);
+                }
+            } catch (JuegoException e) {
+                throw new RuntimeException(e);
+            }
+            CanalGuion original = new CanalGuion(i);
+            Partida partida = new Partida(gJ, original, new RelojVirtual());
+            partida.jugar(RONDAS);
+
+            RegistroPartida registro = RegistroPartida.desdeTexto(partida.getRegistro().aTexto());
+            CanalGuion repetido = new CanalGuion(-1);
+            Partida repeticion = Partida.repetir(registro, repetido, new RelojVirtual());
+            if (!repeticion.getRegistro().aTexto().equals(partida.getRegistro().aTexto())
+                    || !repetido.getEventos().equals(original.getEventos())
+                    || (i % 10 != 0 && !repetido.mensajes.equals(original.mensajes))
+                    || !repeticion.getGestorJugadores().getListaJugadores().equals(gJ.getListaJugadores())) {
+                if (++distintas <= 3) {
+                    Utilidades.escribirMensaje("Partida " + i + " distinta al repetirla. Registro: " + registro);
+                }
+            }
+        }
+        Utilidades.escribirMensaje("Partidas repetidas desde su registro: " + PARTIDAS + " (una de cada 10 con un "
+                + "jugador humano). Distintas de la original: " + distintas);
+
+        SimuladorPartidas.Estadisticas a = SimuladorPartidas.simular(2_000, 4, 5, 42);
+        SimuladorPartidas.Estadisticas b = SimuladorPartidas.simular(2_000, 4, 5, 42);
+        boolean mismas = a.getEmpates() == b.getEmpates() && a.getMediaPuntosGanador() == b.getMediaPuntosGanador();
+        for (int tipo = 1; tipo <= GestorPreguntas.getMaxTipo(); tipo++) {
+            mismas &= a.getPreguntas(tipo) == b.getPreguntas(tipo) && a.getRatioAciertos(tipo) == b.getRatioAciertos(tipo);
+        }
+        Utilidades.escribirMensaje("Simulación con semilla 42: " + a);
+
+        // Sin respuestas, con una sola respuesta vacía y con dos: el texto debe leerse tal cual
+        for (String respuestas : new String[] {"0:", "1:", "2:,"}) {
+            String txt = "7;1;Humano:H:0;;" + respuestas + ";;";
+            if (!RegistroPartida.desdeTexto(txt).aTexto().equals(txt)) {
+                distintas++;
+                Utilidades.escribirMensaje("Registro leído distinto del escrito: " + txt);
+            }
+        }
+        Utilidades.escribirMensaje(distintas == 0 && mismas ? "OK: las partidas se repiten exactamente"
+                : "ERROR: " + distintas + " partidas distintas" + (mismas ? "" : "; simulaciones con la misma semilla distintas"));
+    }
+
+    /**
+     * Canal con texto que guarda mensajes y eventos (sin registrarlos en los ficheros) y contesta por el
+     * jugador humano con respuestas al azar.
+     */
+    private static final class CanalGuion implements CanalPartida {
+        private final List<String> mensajes = new ArrayList<>();
+        private final List<String> eventos = new ArrayList<>();
+        private final SplittableRandom guion;
+
+        CanalGuion(long semilla) {
+            guion = new SplittableRandom(semilla);
+        }
+
+        /**
+         * Eventos recibidos, sin el del registro (la repetición no lo vuelve a emitir).
+         */
+        List<String> getEventos() {
+            return eventos;
+        }
+
+        @Override
+        public boolean isConTexto() {
+            return true;
+        }
+
+        @Override
+        public void mensaje(String mensaje) {
+            mensajes.add(mensaje);
+        }
+
+        @Override
+        public void evento(EventoPartida evento) {
+            if (evento.getTipo() != EventoPartida.Tipo.PARTIDA_REGISTRADA) {
+                eventos.add(evento + " " + evento.getTexto());
+            }
+        }
+
+        @Override
+        public long preguntarLong(String msg) {
+            mensajes.add(msg);
+            return guion.nextLong(-100, 100);
+        }
+
+        @Override
+        public String preguntarCodigo(String msg, int tamMin, int tamMax) {
+            mensajes.add(msg);
+            StringBuilder codigo = new StringBuilder();
+            for (int i = 0; i < tamMin; i++) {
+                codigo.append(guion.nextInt(LectorProperties.getMaxCifraPregMastermind() + 1));
+            }
+            return codigo.toString();
+        }
+
+        @Override
+        public char preguntarOpcion(String msg) {
+            mensajes.add(msg);
+            return "ABCD".charAt(guion.nextInt(4));
+        }
+
+        @Override
+        public void esperarIntro() {
+            // Pausa variable para que las lecturas del reloj real cambien de una partida a otra
+            LockSupport.parkNanos(guion.nextLong(1_000_000));
+        }
+    }
+}